@@ -0,0 +1,135 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.observable;
+
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the notification of observers of an observable field descriptor by several threads reading concurrently.
+ * <p>
+ * The benchmark {@link #synchronizedDispatch(ReaderState, Blackhole)} notifies the same observers from a
+ * synchronized list while holding its lock, as it has been done before the observers were held by an
+ * {@link ObserverRegistry}. It serves as baseline for {@link #readValue(ReaderState)} and
+ * {@link #readItemEntity(ReaderState)}.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ObserverDispatchBenchmark {
+
+    private static final int FIELD_SIZE = 8;
+    private static final String VALUE = "12345678";
+
+    private static final class CountingObserver implements ObservableFieldDescriptor.Observer {
+
+        // a counter per thread, so the reading threads don't contend for the cache line of a shared counter
+        private final ThreadLocal<long[]> count = ThreadLocal.withInitial(() -> new long[1]);
+
+        @Override
+        public void onFieldEntityCreated(ObservableField field) {
+            this.count.get()[0]++;
+        }
+
+        @Override
+        public void onFieldEntityRead(ObservableField field) {
+            this.count.get()[0]++;
+        }
+
+        @Override
+        public void onFieldValueRead(ObservableFieldDescriptor descriptor, String value) {
+            this.count.get()[0]++;
+        }
+    }
+
+    /**
+     * Holds the source of a reading thread.
+     */
+    @State(Scope.Thread)
+    public static class ReaderState {
+
+        private final StringReader source = new StringReader(VALUE);
+
+        StringReader rewind() {
+            try {
+                this.source.reset();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this.source;
+        }
+    }
+
+    @Param({"1", "4"})
+    private int observerCount;
+
+    private ObservableFieldDescriptor descriptor;
+    private List<ObservableFieldDescriptor.Observer> synchronizedObservers;
+
+    @Setup
+    public void setUp() {
+        List<ObservableFieldDescriptor.Observer> observers = new ArrayList<>();
+        for (int i = 0; i < this.observerCount; i++) {
+            observers.add(new CountingObserver());
+        }
+        this.descriptor = ObservableFieldDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(FIELD_SIZE).build())
+                .addObservers(observers).build();
+        this.synchronizedObservers = Collections.synchronizedList(new ArrayList<>(observers));
+    }
+
+    @Benchmark
+    public String readValue(ReaderState state) {
+        return this.descriptor.readValue(state.rewind());
+    }
+
+    @Benchmark
+    public ObservableField readItemEntity(ReaderState state) {
+        return this.descriptor.readItemEntityFrom(state.rewind());
+    }
+
+    @Benchmark
+    public void synchronizedDispatch(ReaderState state, Blackhole blackhole) {
+        String value = this.descriptor.getObservedFieldDescriptor().readValue(state.rewind());
+        synchronized (this.synchronizedObservers) {
+            this.synchronizedObservers.forEach(o -> o.onFieldValueRead(this.descriptor, value));
+        }
+        blackhole.consume(value);
+    }
+}
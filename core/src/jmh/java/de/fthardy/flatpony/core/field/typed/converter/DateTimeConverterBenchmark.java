@@ -0,0 +1,109 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the date/time converters with conversions by a {@link DateTimeFormatter}.
+ * <p>
+ * The field values resemble those of a daily file: only a few different dates but many different timestamps.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeConverterBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+    private static final String DATE_PATTERN = "yyyyMMdd";
+    private static final String TIMESTAMP_PATTERN = "yyyy-MM-dd-HH.mm.ss.SSSSSS";
+
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(DATE_PATTERN);
+    private final DateTimeFormatter timestampFormatter = DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN);
+    private final LocalDateFieldValueConverter dateConverter = new LocalDateFieldValueConverter(DATE_PATTERN, 64);
+    private final LocalDateTimeFieldValueConverter timestampConverter =
+            new LocalDateTimeFieldValueConverter(TIMESTAMP_PATTERN, 64);
+
+    private String[] dates;
+    private String[] timestamps;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        LocalDate businessDate = LocalDate.of(2019, 12, 24);
+        this.dates = new String[VALUE_COUNT];
+        this.timestamps = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            LocalDate date = businessDate.minusDays(random.nextInt(3));
+            this.dates[i] = this.dateFormatter.format(date);
+            this.timestamps[i] = this.timestampFormatter.format(date.atStartOfDay()
+                    .plusNanos(random.nextInt(86400) * 1000000000L + random.nextInt(1000000) * 1000L));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void parseDateWithFormatter(Blackhole blackhole) {
+        for (String date : this.dates) {
+            blackhole.consume(LocalDate.parse(date, this.dateFormatter));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void parseDateWithConverter(Blackhole blackhole) {
+        for (String date : this.dates) {
+            blackhole.consume(this.dateConverter.convertFromFieldValue(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void parseTimestampWithFormatter(Blackhole blackhole) {
+        for (String timestamp : this.timestamps) {
+            blackhole.consume(LocalDateTime.parse(timestamp, this.timestampFormatter));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void parseTimestampWithConverter(Blackhole blackhole) {
+        for (String timestamp : this.timestamps) {
+            blackhole.consume(this.timestampConverter.convertFromFieldValue(timestamp));
+        }
+    }
+}
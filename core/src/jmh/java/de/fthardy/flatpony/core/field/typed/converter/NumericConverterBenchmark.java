@@ -0,0 +1,221 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.field.fixedsize.DefaultFieldContentValueTransformer;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedField;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemEntity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the numeric converters with the naive conversion through the JDK on wide numeric records.
+ * <p>
+ * Each record consists of 8 long fields, 8 decimal fields and 8 double fields. The naive converters are implemented
+ * like they are typically found in user code (i.e. trim the field value and hand it to the JDK).
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumericConverterBenchmark {
+
+    private static final int FIELDS_PER_TYPE = 8;
+    private static final int FIELD_SIZE = 16;
+    private static final int RECORD_COUNT = 1000;
+
+    private CompositeItemDescriptor naiveRecordDescriptor;
+    private CompositeItemDescriptor convertersRecordDescriptor;
+    private String records;
+
+    private List<TypedField<?>> naiveFields;
+    private List<TypedField<?>> converterFields;
+
+    @Setup
+    public void setup() {
+        this.naiveRecordDescriptor = createRecordDescriptor(
+                new NaiveConverter<>(Long.class, Long::valueOf, Object::toString),
+                new NaiveConverter<>(BigDecimal.class, v -> new BigDecimal(v).setScale(2, RoundingMode.HALF_UP),
+                        v -> v.setScale(2, RoundingMode.HALF_UP).toPlainString()),
+                new NaiveConverter<>(Double.class, Double::valueOf,
+                        v -> BigDecimal.valueOf(v).setScale(3, RoundingMode.HALF_UP).toPlainString()));
+        this.convertersRecordDescriptor = createRecordDescriptor(
+                new LongFieldValueConverter(),
+                new BigDecimalFieldValueConverter(2, RoundingMode.HALF_UP),
+                new DoubleFieldValueConverter(3, RoundingMode.HALF_UP));
+
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            for (int j = 0; j < FIELDS_PER_TYPE; j++) {
+                appendPadded(builder, Long.toString(random.nextInt() * 1000L));
+            }
+            for (int j = 0; j < FIELDS_PER_TYPE; j++) {
+                appendPadded(builder, BigDecimal.valueOf(random.nextInt(), 2).toPlainString());
+            }
+            for (int j = 0; j < FIELDS_PER_TYPE; j++) {
+                appendPadded(builder, BigDecimal.valueOf(random.nextInt(100000000), 3).toPlainString());
+            }
+        }
+        this.records = builder.toString();
+
+        this.naiveFields = typedFieldsOf(this.naiveRecordDescriptor.readItemEntityFrom(new StringReader(
+                this.records)));
+        this.converterFields = typedFieldsOf(this.convertersRecordDescriptor.readItemEntityFrom(new StringReader(
+                this.records)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void readWithNaiveConversion(Blackhole blackhole) {
+        readRecords(this.naiveRecordDescriptor, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void readWithConverters(Blackhole blackhole) {
+        readRecords(this.convertersRecordDescriptor, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void formatWithNaiveConversion(Blackhole blackhole) {
+        formatRecords(this.naiveFields, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void formatWithConverters(Blackhole blackhole) {
+        formatRecords(this.converterFields, blackhole);
+    }
+
+    private void readRecords(CompositeItemDescriptor recordDescriptor, Blackhole blackhole) {
+        StringReader source = new StringReader(this.records);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            CompositeItemEntity record = recordDescriptor.readItemEntityFrom(source);
+            for (FlatDataItemEntity<?> field : record.getComponentItemEntities()) {
+                blackhole.consume(((TypedField<?>) field).getValueAsTargetType());
+            }
+        }
+    }
+
+    private static void formatRecords(List<TypedField<?>> fields, Blackhole blackhole) {
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            for (TypedField<?> field : fields) {
+                blackhole.consume(formatValue(field));
+            }
+        }
+    }
+
+    private static <T> String formatValue(TypedField<T> field) {
+        return field.getDescriptor().getFieldValueConverter().convertToFieldValue(field.getValueAsTargetType());
+    }
+
+    private static CompositeItemDescriptor createRecordDescriptor(
+            FieldValueConverter<Long> longConverter,
+            FieldValueConverter<BigDecimal> decimalConverter,
+            FieldValueConverter<Double> doubleConverter) {
+        List<FlatDataItemDescriptor<?>> fieldDescriptors = new ArrayList<>();
+        for (int i = 0; i < FIELDS_PER_TYPE; i++) {
+            fieldDescriptors.add(TypedFieldDescriptor.<Long>newInstance(numericField("long" + i))
+                    .withFieldValueConverter(longConverter).build());
+        }
+        for (int i = 0; i < FIELDS_PER_TYPE; i++) {
+            fieldDescriptors.add(TypedFieldDescriptor.<BigDecimal>newInstance(numericField("decimal" + i))
+                    .withFieldValueConverter(decimalConverter).build());
+        }
+        for (int i = 0; i < FIELDS_PER_TYPE; i++) {
+            fieldDescriptors.add(TypedFieldDescriptor.<Double>newInstance(numericField("double" + i))
+                    .withFieldValueConverter(doubleConverter).build());
+        }
+        return CompositeItemDescriptor.newInstance("Record").addComponentItemDescriptors(fieldDescriptors).build();
+    }
+
+    private static FixedSizeFieldDescriptor numericField(String name) {
+        return FixedSizeFieldDescriptor.newInstance(name).withFieldSize(FIELD_SIZE)
+                .useContentValueTransformer(new DefaultFieldContentValueTransformer(' ', false)).build();
+    }
+
+    private static void appendPadded(StringBuilder builder, String value) {
+        for (int i = value.length(); i < FIELD_SIZE; i++) {
+            builder.append(' ');
+        }
+        builder.append(value);
+    }
+
+    private static List<TypedField<?>> typedFieldsOf(CompositeItemEntity record) {
+        List<TypedField<?>> fields = new ArrayList<>();
+        for (FlatDataItemEntity<?> field : record.getComponentItemEntities()) {
+            fields.add((TypedField<?>) field);
+        }
+        return fields;
+    }
+
+    private static final class NaiveConverter<T> implements FieldValueConverter<T> {
+
+        private final Class<T> targetType;
+        private final Function<String, T> conversion;
+        private final Function<T, String> formatting;
+
+        NaiveConverter(Class<T> targetType, Function<String, T> conversion, Function<T, String> formatting) {
+            this.targetType = targetType;
+            this.conversion = conversion;
+            this.formatting = formatting;
+        }
+
+        @Override
+        public Class<T> getTargetType() {
+            return this.targetType;
+        }
+
+        @Override
+        public T convertFromFieldValue(String fieldValue) {
+            return this.conversion.apply(fieldValue.trim());
+        }
+
+        @Override
+        public String convertToFieldValue(T value) {
+            return this.formatting.apply(value);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of reading records of a deeply nested layout by a pull read iterator, a reused pull read cursor
+ * and a push read.
+ * <p>
+ * Each record consists of the same fields which are nested into a chain of composite items of the given depth. So the
+ * number of field events per record is the same for each depth and a growing time per record shows the overhead
+ * caused by the nesting.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NestedPullReadBenchmark {
+
+    private static final class ConsumingHandler implements StreamReadHandler {
+
+        private final Blackhole blackhole;
+
+        ConsumingHandler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, String value) {
+            this.blackhole.consume(value);
+        }
+
+        @Override
+        public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.blackhole.consume(itemDescriptor);
+        }
+
+        @Override
+        public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.blackhole.consume(itemDescriptor);
+        }
+    }
+
+    private static final int RECORD_COUNT = 256;
+    private static final int FIELD_COUNT = 8;
+    private static final int FIELD_SIZE = 4;
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private DelimitedItemDescriptor recordDescriptor;
+    private String content;
+
+    @Setup
+    public void setup() {
+        List<FlatDataItemDescriptor<?>> fieldDescriptors = new ArrayList<>();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fieldDescriptors.add(FixedSizeFieldDescriptor.newInstance("Field" + i).withFieldSize(FIELD_SIZE).build());
+        }
+        FlatDataItemDescriptor<?> descriptor =
+                CompositeItemDescriptor.newInstance("Level0").addComponentItemDescriptors(fieldDescriptors).build();
+        for (int level = 1; level < this.depth; level++) {
+            descriptor = CompositeItemDescriptor.newInstance("Level" + level)
+                    .addComponentItemDescriptor(descriptor).build();
+        }
+        this.recordDescriptor = DelimitedItemDescriptor.newInstance(descriptor).withDelimiter('\n').build();
+
+        StringBuilder builder = new StringBuilder();
+        for (int record = 0; record < RECORD_COUNT; record++) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                builder.append(String.format("%04d", (record * FIELD_COUNT + field) % 10000));
+            }
+            builder.append('\n');
+        }
+        this.content = builder.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void pullReadIterator(Blackhole blackhole) {
+        Reader source = new StringReader(this.content);
+        StreamReadHandler handler = new ConsumingHandler(blackhole);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            PullReadIterator iterator = this.recordDescriptor.pullReadFrom(source);
+            while (iterator.hasNextEvent()) {
+                iterator.nextEvent(handler);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void pullReadCursor(Blackhole blackhole) {
+        PullReadCursor cursor = new PullReadCursor(this.recordDescriptor, new StringReader(this.content));
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            while (cursor.hasNext()) {
+                if (cursor.next() == PullReadCursor.EventType.FIELD) {
+                    blackhole.consume(cursor.getText());
+                } else {
+                    blackhole.consume(cursor.getDescriptor());
+                }
+            }
+            cursor.reset();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void pushRead(Blackhole blackhole) {
+        Reader source = new StringReader(this.content);
+        StreamReadHandler handler = new ConsumingHandler(blackhole);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            this.recordDescriptor.pushReadFrom(source, handler);
+        }
+    }
+}
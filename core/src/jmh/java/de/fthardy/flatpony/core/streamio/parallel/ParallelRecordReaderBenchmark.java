@@ -0,0 +1,99 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of reading fixed length records by a parallel record reader with a growing number of
+ * workers compared to a sequential read on a single thread.
+ *
+ * @author Frank Timothy Hardy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelRecordReaderBenchmark {
+
+    private static final int RECORD_COUNT = 100_000;
+    private static final int FIELD_COUNT = 16;
+    private static final int FIELD_SIZE = 8;
+
+    @Param({"1", "2", "4", "8"})
+    public int workerCount;
+
+    private FlatDataItemDescriptor<?> recordDescriptor;
+    private ParallelRecordReader reader;
+    private String content;
+
+    @Setup
+    public void setup() {
+        List<FlatDataItemDescriptor<?>> fieldDescriptors = new ArrayList<>();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fieldDescriptors.add(FixedSizeFieldDescriptor.newInstance("Field" + i).withFieldSize(FIELD_SIZE).build());
+        }
+        this.recordDescriptor =
+                CompositeItemDescriptor.newInstance("Record").addComponentItemDescriptors(fieldDescriptors).build();
+        this.reader = ParallelRecordReader.newInstance(this.recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(FIELD_COUNT * FIELD_SIZE))
+                .withWorkerCount(this.workerCount)
+                .build();
+
+        StringBuilder builder = new StringBuilder();
+        for (int record = 0; record < RECORD_COUNT; record++) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                builder.append(String.format("%08d", record * FIELD_COUNT + field));
+            }
+        }
+        this.content = builder.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void sequentialRead(Blackhole blackhole) {
+        Reader source = new StringReader(this.content);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            blackhole.consume(this.recordDescriptor.readItemEntityFrom(source));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORD_COUNT)
+    public void parallelRead(Blackhole blackhole) {
+        this.reader.readFrom(new StringReader(this.content), blackhole::consume);
+    }
+}
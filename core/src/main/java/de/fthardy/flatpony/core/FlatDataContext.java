@@ -0,0 +1,157 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core;
+
+import de.fthardy.flatpony.core.field.observable.ObservableField;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.util.FieldReference;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The context of a read or write operation which holds the state of the referenced fields.
+ * <p>
+ * A {@link FieldReference} observes the referenced {@link ObservableFieldDescriptor} and records the field entities
+ * it creates or reads and the field values it reads in the current context. Then it looks the referenced field or value
+ * up in the current context. Hence the descriptors themselves don't hold any state of a particular read and a
+ * descriptor tree can be used by several threads at the same time.
+ * </p>
+ * <p>
+ * The current context is bound to the current thread. Each thread has its own default context which is used unless
+ * another context is bound explicitly by {@link #run(Runnable)} or {@link #call(Supplier)}, e.g. by the read methods of
+ * {@link FlatDataItemDescriptor} which take a context. An explicit context allows to interleave several reads on the
+ * same thread or to continue a read on another thread. A context instance itself is not thread safe.
+ * </p>
+ * <p>
+ * A context holds its descriptors and field entities only weakly. The field entities of a read are kept alive by the
+ * read item entity anyway and the default context of a pooled thread doesn't keep the last field entities alive.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class FlatDataContext {
+
+    private static final ThreadLocal<FlatDataContext> CURRENT = ThreadLocal.withInitial(FlatDataContext::new);
+
+    /**
+     * @return the context bound to the current thread.
+     */
+    public static FlatDataContext current() {
+        return CURRENT.get();
+    }
+
+    // the observable field descriptors don't override equals, so the weak maps compare them by identity
+    private final Map<ObservableFieldDescriptor, WeakReference<ObservableField>> fields = new WeakHashMap<>();
+    private final Map<ObservableFieldDescriptor, String> fieldValues = new WeakHashMap<>();
+
+    /**
+     * Run the given action with the receiving context bound to the current thread.
+     *
+     * @param action the action to run.
+     */
+    public void run(Runnable action) {
+        Objects.requireNonNull(action, "Undefined action!");
+        this.call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Call the given action with the receiving context bound to the current thread.
+     *
+     * @param action the action to call.
+     * @param <R> the type of the result.
+     *
+     * @return the result of the action.
+     */
+    public <R> R call(Supplier<R> action) {
+        Objects.requireNonNull(action, "Undefined action!");
+        FlatDataContext previous = CURRENT.get();
+        if (previous == this) {
+            return action.get();
+        }
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Get the last field entity which has been created or read for the given descriptor.
+     *
+     * @param descriptor the descriptor of the field.
+     *
+     * @return the field entity or {@code null} if there is none.
+     */
+    public ObservableField getField(ObservableFieldDescriptor descriptor) {
+        WeakReference<ObservableField> field = this.fields.get(descriptor);
+        return field == null ? null : field.get();
+    }
+
+    /**
+     * Set the last field entity which has been created or read for a descriptor.
+     *
+     * @param descriptor the descriptor of the field.
+     * @param field the field entity.
+     */
+    public void setField(ObservableFieldDescriptor descriptor, ObservableField field) {
+        this.fields.put(Objects.requireNonNull(descriptor, "Undefined descriptor!"), new WeakReference<>(field));
+    }
+
+    /**
+     * Get the last field value which has been read for the given descriptor by a stream read.
+     *
+     * @param descriptor the descriptor of the field.
+     *
+     * @return the field value or {@code null} if there is none.
+     */
+    public String getFieldValue(ObservableFieldDescriptor descriptor) {
+        return this.fieldValues.get(descriptor);
+    }
+
+    /**
+     * Set the last field value which has been read for a descriptor by a stream read.
+     *
+     * @param descriptor the descriptor of the field.
+     * @param value the field value.
+     */
+    public void setFieldValue(ObservableFieldDescriptor descriptor, String value) {
+        this.fieldValues.put(Objects.requireNonNull(descriptor, "Undefined descriptor!"), value);
+    }
+
+    /**
+     * Remove all field entities and values from the receiving context.
+     */
+    public void clear() {
+        this.fields.clear();
+        this.fieldValues.clear();
+    }
+}
@@ -70,6 +70,19 @@ public interface FlatDataItemDescriptor<T extends FlatDataItemEntity<?>> {
      */
     T createItemEntity();
 
+    /**
+     * Create a new item entity instance within the given context.
+     *
+     * @param context the context which holds the state of the referenced fields.
+     *
+     * @return the new item entity instance which represents the root of an item entity model (IEM).
+     *
+     * @see FlatDataContext
+     */
+    default T createItemEntity(FlatDataContext context) {
+        return context.call(this::createItemEntity);
+    }
+
     /**
      * Read the data from a given source stream and provide an item entity instance that encapsulates the read data.
      *
@@ -79,13 +92,31 @@ public interface FlatDataItemDescriptor<T extends FlatDataItemEntity<?>> {
      */
     T readItemEntityFrom(Reader source);
 
+    /**
+     * Read the data from a given source stream within the given context and provide an item entity instance that
+     * encapsulates the read data.
+     *
+     * @param source the reader providing the data from the source stream.
+     * @param context the context which holds the state of the referenced fields.
+     *
+     * @return a new item entity instance which represents the root of an item entity model (IEM).
+     *
+     * @see FlatDataContext
+     */
+    default T readItemEntityFrom(Reader source, FlatDataContext context) {
+        return context.call(() -> this.readItemEntityFrom(source));
+    }
+
     /**
      * Start to read the data of the receiving item from a given source stream in a push fashion.
      * <p>
      * When starting a push read the reading client has to provide an implementation of a {@link StreamReadHandler}
      * which gets constantly pushed read events by the read control algorithm. This means the reading client has no
      * control over the reading process itself. It is just processing read events which are being pushed by the read
-     * control algorithm until the read process is finished.
+     * control algorithm until the read process is finished. A client which wants to skip parts of the item or to stop
+     * the read early can push read with a {@link de.fthardy.flatpony.core.streamio.DirectedStreamReadHandler} via
+     * {@link de.fthardy.flatpony.core.streamio.PullReadCursor#pushTo(
+     * de.fthardy.flatpony.core.streamio.DirectedStreamReadHandler)} instead.
      * </p>
      * 
      * @param source the reader of the source stream.
@@ -93,6 +124,20 @@ public interface FlatDataItemDescriptor<T extends FlatDataItemEntity<?>> {
      */
     void pushReadFrom(Reader source, StreamReadHandler handler);
 
+    /**
+     * Start to read the data of the receiving item from a given source stream in a push fashion within the given
+     * context.
+     *
+     * @param source the reader of the source stream.
+     * @param handler the push event handler.
+     * @param context the context which holds the state of the referenced fields.
+     *
+     * @see FlatDataContext
+     */
+    default void pushReadFrom(Reader source, StreamReadHandler handler, FlatDataContext context) {
+        context.run(() -> this.pushReadFrom(source, handler));
+    }
+
     /**
      * Start to read the data of the receiving item from a given source stream in a pull fashion.
      * 
@@ -102,6 +147,36 @@ public interface FlatDataItemDescriptor<T extends FlatDataItemEntity<?>> {
      */
     PullReadIterator pullReadFrom(Reader reader);
 
+    /**
+     * Start to read the data of the receiving item from a given source stream in a pull fashion within the given
+     * context.
+     * <p>
+     * The context is bound to the thread which calls the methods of the returned iterator for the duration of each
+     * call, so the iterator may be advanced by different threads.
+     * </p>
+     *
+     * @param reader the reader of the source stream.
+     * @param context the context which holds the state of the referenced fields.
+     *
+     * @return the iterator to read the items.
+     *
+     * @see FlatDataContext
+     */
+    default PullReadIterator pullReadFrom(Reader reader, FlatDataContext context) {
+        PullReadIterator iterator = context.call(() -> this.pullReadFrom(reader));
+        return new PullReadIterator() {
+            @Override
+            public boolean hasNextEvent() {
+                return context.call(iterator::hasNextEvent);
+            }
+
+            @Override
+            public void nextEvent(StreamReadHandler handler) {
+                context.run(() -> iterator.nextEvent(handler));
+            }
+        };
+    }
+
     /**
      * Apply a handler to the receiving descriptor.
      *
@@ -0,0 +1,202 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field;
+
+import java.util.Arrays;
+
+/**
+ * A reusable character buffer which holds the value of a field while it is read from a source stream.
+ * <p>
+ * The buffer allows field descriptors to provide a read value without creating an intermediate string. The valid
+ * characters are a range of the backing array which is defined by an offset and a length. This way a field descriptor
+ * can read the whole content of a field into the backing array and afterwards narrow the range to the essential value
+ * (e.g. by removing the fill characters of a fixed size field).
+ * </p>
+ * <p>
+ * A buffer is not thread safe. The buffer returned by {@link #ofCurrentThread()} is shared by all read operations of
+ * the current thread, so its content is only valid until the next read operation.
+ * </p>
+ *
+ * @see FlatDataFieldDescriptor#readValue(java.io.Reader, FieldValueBuffer)
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class FieldValueBuffer implements CharSequence {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final ThreadLocal<FieldValueBuffer> THREAD_BUFFER = ThreadLocal.withInitial(FieldValueBuffer::new);
+
+    /**
+     * Get the buffer instance of the current thread.
+     *
+     * @return the buffer instance.
+     */
+    public static FieldValueBuffer ofCurrentThread() {
+        return THREAD_BUFFER.get();
+    }
+
+    private char[] chars;
+    private int offset;
+    private int length;
+
+    /**
+     * Create a new instance of this buffer with a default capacity.
+     */
+    public FieldValueBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new instance of this buffer.
+     *
+     * @param initialCapacity the initial capacity of the buffer. The buffer grows on demand.
+     */
+    public FieldValueBuffer(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("The initial capacity must be at least 1!");
+        }
+        this.chars = new char[initialCapacity];
+    }
+
+    /**
+     * Clear the buffer and make sure that the backing array can hold at least the given number of characters.
+     * <p>
+     * The returned backing array can be filled directly. The range of valid characters has to be defined afterwards
+     * by calling {@link #setRange(int, int)}.
+     * </p>
+     *
+     * @param capacity the minimum capacity needed.
+     *
+     * @return the backing array of the buffer.
+     */
+    public char[] allocate(int capacity) {
+        if (this.chars.length < capacity) {
+            this.chars = new char[Math.max(capacity, this.chars.length * 2)];
+        }
+        this.offset = 0;
+        this.length = 0;
+        return this.chars;
+    }
+
+    /**
+     * Define the range of the valid characters within the backing array.
+     *
+     * @param offset the offset of the first valid character.
+     * @param length the number of valid characters.
+     */
+    public void setRange(int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > this.chars.length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid range [offset=%d, length=%d]!", offset, length));
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Clear the buffer.
+     */
+    public void clear() {
+        this.offset = 0;
+        this.length = 0;
+    }
+
+    /**
+     * Append a character to the end of the valid characters.
+     *
+     * @param c the character to append.
+     */
+    public void append(char c) {
+        int end = this.offset + this.length;
+        if (end == this.chars.length) {
+            this.chars = Arrays.copyOf(this.chars, this.chars.length * 2);
+        }
+        this.chars[end] = c;
+        this.length++;
+    }
+
+    /**
+     * Replace the content of the buffer with the given characters.
+     *
+     * @param value the characters to set.
+     */
+    public void set(CharSequence value) {
+        int valueLength = value.length();
+        char[] target = this.allocate(valueLength);
+        if (value instanceof String) {
+            ((String) value).getChars(0, valueLength, target, 0);
+        } else {
+            for (int i = 0; i < valueLength; i++) {
+                target[i] = value.charAt(i);
+            }
+        }
+        this.length = valueLength;
+    }
+
+    /**
+     * Get the backing array of the buffer.
+     *
+     * @return the backing array. Only the range defined by {@link #getOffset()} and {@link #length()} is valid.
+     */
+    public char[] getChars() {
+        return this.chars;
+    }
+
+    /**
+     * Get the offset of the first valid character within the backing array.
+     *
+     * @return the offset.
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + this.length);
+        }
+        return this.chars[this.offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid sub sequence [start=%d, end=%d] for length %d!", start, end, this.length));
+        }
+        return new String(this.chars, this.offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.chars, this.offset, this.length);
+    }
+}
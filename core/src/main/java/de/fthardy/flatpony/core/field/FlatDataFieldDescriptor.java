@@ -56,4 +56,19 @@ public interface FlatDataFieldDescriptor<T extends FlatDataField<?>> extends Fla
      * @return the value of the field.
      */
     String readValue(Reader source);
+
+    /**
+     * Read the value of the field from a given source stream into a given buffer.
+     * <p>
+     * This method allows to read a field value without creating an intermediate string. The default implementation
+     * reads the value by calling {@link #readValue(Reader)} and copies it into the buffer. Field descriptors which can
+     * read their value directly into the buffer should override this method.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     * @param buffer the buffer which receives the value of the field. Any previous content is replaced.
+     */
+    default void readValue(Reader source, FieldValueBuffer buffer) {
+        buffer.set(this.readValue(source));
+    }
 }
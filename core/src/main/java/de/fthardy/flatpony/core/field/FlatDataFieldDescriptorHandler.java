@@ -23,6 +23,8 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.field;
 
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldDescriptorHandler;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.delimited.DelimitedFieldDescriptorHandler;
@@ -38,7 +40,8 @@ import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptorHandler;
  */
 public interface FlatDataFieldDescriptorHandler extends
         ConstantFieldDescriptorHandler, DelimitedFieldDescriptorHandler, FixedSizeFieldDescriptorHandler,
-        ConstrainedFieldDescriptorHandler, TypedFieldDescriptorHandler, ObservableFieldDescriptorHandler {
+        ConstrainedFieldDescriptorHandler, TypedFieldDescriptorHandler, ObservableFieldDescriptorHandler,
+        PackedDecimalFieldDescriptorHandler, BinaryIntegerFieldDescriptorHandler {
 
     // Nothing, this is just an aggregate interface definition for convenience.
 
@@ -24,6 +24,8 @@ SOFTWARE.
 package de.fthardy.flatpony.core.field;
 
 import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldHandler;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldHandler;
 import de.fthardy.flatpony.core.field.constant.ConstantFieldHandler;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldHandler;
 import de.fthardy.flatpony.core.field.delimited.DelimitedFieldHandler;
@@ -38,7 +40,8 @@ import de.fthardy.flatpony.core.field.typed.TypedFieldHandler;
  */
 public interface FlatDataFieldHandler 
         extends FlatDataItemEntityHandler, ConstantFieldHandler, ConstrainedFieldHandler, DelimitedFieldHandler,
-        FixedSizeFieldHandler, ObservableFieldHandler, TypedFieldHandler {
+        FixedSizeFieldHandler, ObservableFieldHandler, TypedFieldHandler, PackedDecimalFieldHandler,
+        BinaryIntegerFieldHandler {
     
     // Nothing, this is just an aggregate interface definition for convenience.
 }
@@ -0,0 +1,125 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.AbstractFlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.field.FlatDataMutableField;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The implementation of the binary integer field.
+ * <p>
+ * The value is stored as a {@code long} and not as a string.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public class BinaryIntegerField extends AbstractFlatDataItemEntity<BinaryIntegerFieldDescriptor>
+        implements FlatDataMutableField<BinaryIntegerFieldDescriptor> {
+
+    static String MSG_Write_failed(String fieldName) {
+        return String.format("Failed to write binary integer field '%s' to target stream!", fieldName);
+    }
+
+    private long value;
+
+    /**
+     * Create a new binary integer field instance.
+     *
+     * @param descriptor the descriptor which is creating this field instance.
+     */
+    BinaryIntegerField(BinaryIntegerFieldDescriptor descriptor) {
+        super(descriptor);
+        this.setValue(descriptor.getDefaultValue());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "@" + System.identityHashCode(this) +
+                "[value='" + this.getValue() + "', descriptor=" + this.getDescriptor().toString() + "]";
+    }
+
+    @Override
+    public int getLength() {
+        return this.getDescriptor().getMinLength();
+    }
+
+    @Override
+    public String getValue() {
+        return Long.toString(this.value);
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.setLongValue(this.getDescriptor().parseValue(value));
+    }
+
+    /**
+     * Get the value of the field.
+     *
+     * @return the value.
+     */
+    public long getLongValue() {
+        return this.value;
+    }
+
+    /**
+     * Set the value of the field.
+     *
+     * @param value the value.
+     *
+     * @throws IllegalArgumentException when the value is out of the range of the field.
+     */
+    public void setLongValue(long value) {
+        this.value = this.getDescriptor().checkValue(value);
+    }
+
+    @Override
+    public FlatDataMutableField<BinaryIntegerFieldDescriptor> asMutableField() {
+        return this;
+    }
+
+    @Override
+    public void writeTo(Writer target) {
+        try {
+            target.write(this.getDescriptor().encode(this.value));
+        } catch (IOException e) {
+            throw new FlatDataWriteException(MSG_Write_failed(this.getDescriptor().getName()), e);
+        }
+    }
+
+    @Override
+    public <H extends FlatDataItemEntityHandler> H applyHandler(H handler) {
+        if (handler instanceof BinaryIntegerFieldHandler) {
+            ((BinaryIntegerFieldHandler) handler).handleBinaryIntegerField(this);
+        } else {
+            handler.handleFlatDataItemEntity(this);
+        }
+        return handler;
+    }
+}
@@ -0,0 +1,425 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
+import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
+import de.fthardy.flatpony.core.streamio.PullReadIterator;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.io.Reader;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * The implementation of a descriptor for a binary integer field (e.g. COBOL {@code COMP} or {@code BINARY}).
+ * <p>
+ * A binary integer field stores a two's complement (signed) or an unsigned integer with a size of 1 to 8 bytes. By
+ * default a field is signed, has a size of 4 bytes and uses the big endian byte order. An unsigned field can have a
+ * size of up to 7 bytes only because the value of the field is a {@code long}.
+ * </p>
+ * <p>
+ * The bytes are restored from the characters of the source stream in the same way as for a
+ * {@link PackedDecimalFieldDescriptor} which means that the source stream has to be decoded with a single byte charset
+ * which maps each byte to a distinct character and the same charset has to be defined for the descriptor. By default
+ * this is ISO-8859-1.
+ * </p>
+ * <p>
+ * The value of a binary integer field is the decimal notation of its number. The descriptor and the field provide
+ * access to the number as a {@code long} which is decoded directly from the bytes without an intermediate string.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public class BinaryIntegerFieldDescriptor extends AbstractFlatDataFieldDescriptor<BinaryIntegerField>
+        implements FlatDataFieldDescriptor<BinaryIntegerField> {
+
+    /**
+     * Allows to define the field size.
+     * <p>
+     * By default the field size is 4 bytes.
+     * </p>
+     *
+     * @see BinaryIntegerFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineFieldSize extends DefineSignedness {
+
+        /**
+         * Define the field size.
+         *
+         * @param size the number of bytes. Must be between 1 and 8.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineSignedness withFieldSize(int size);
+    }
+
+    /**
+     * Allows to define the field as unsigned.
+     * <p>
+     * By default the field is signed.
+     * </p>
+     *
+     * @see BinaryIntegerFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineSignedness extends DefineByteOrder {
+
+        /**
+         * Define the field to be unsigned.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineByteOrder unsigned();
+    }
+
+    /**
+     * Allows to define the byte order.
+     * <p>
+     * By default the byte order is big endian.
+     * </p>
+     *
+     * @see BinaryIntegerFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineByteOrder extends DefineDefaultValue {
+
+        /**
+         * Define the byte order.
+         *
+         * @param byteOrder the byte order.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineDefaultValue withByteOrder(ByteOrder byteOrder);
+    }
+
+    /**
+     * Allows to define a default value.
+     * <p>
+     * By default the default value is zero.
+     * </p>
+     *
+     * @see BinaryIntegerFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineDefaultValue extends DefineCharset {
+
+        /**
+         * Define a default value.
+         *
+         * @param defaultValue the default value.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineCharset withDefaultValue(long defaultValue);
+    }
+
+    /**
+     * Allows to define the charset which is used to decode the source stream.
+     * <p>
+     * By default ISO-8859-1 is used.
+     * </p>
+     *
+     * @see BinaryIntegerFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineCharset extends ObjectBuilder<BinaryIntegerFieldDescriptor> {
+
+        /**
+         * Define the charset which is used to decode the source stream.
+         *
+         * @param charset the charset. Must be a single byte charset which maps each byte to a distinct character.
+         *
+         * @return the builder for instance creation.
+         */
+        ObjectBuilder<BinaryIntegerFieldDescriptor> useCharset(Charset charset);
+    }
+
+    private interface BuildParams {
+        String getDescriptorName();
+        int getFieldSize();
+        boolean isSigned();
+        ByteOrder getByteOrder();
+        long getDefaultValue();
+        ByteCharMapping getByteCharMapping();
+    }
+
+    private static final class BuilderImpl extends AbstractItemDescriptorBuilder<BinaryIntegerFieldDescriptor>
+            implements DefineFieldSize, BuildParams {
+
+        private int fieldSize = 4;
+        private boolean signed = true;
+        private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+        private long defaultValue;
+        private ByteCharMapping byteCharMapping = ByteCharMapping.forCharset(StandardCharsets.ISO_8859_1);
+
+        BuilderImpl(String descriptorName) {
+            super(descriptorName);
+        }
+
+        @Override
+        public DefineSignedness withFieldSize(int size) {
+            if (size < 1 || size > 8) {
+                throw new IllegalArgumentException("Field size must be between 1 and 8!");
+            }
+            this.fieldSize = size;
+            return this;
+        }
+
+        @Override
+        public DefineByteOrder unsigned() {
+            if (this.fieldSize == 8) {
+                throw new IllegalArgumentException("An unsigned field can have a size of up to 7 bytes only!");
+            }
+            this.signed = false;
+            return this;
+        }
+
+        @Override
+        public DefineDefaultValue withByteOrder(ByteOrder byteOrder) {
+            this.byteOrder = Objects.requireNonNull(byteOrder);
+            return this;
+        }
+
+        @Override
+        public DefineCharset withDefaultValue(long defaultValue) {
+            this.defaultValue = defaultValue;
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<BinaryIntegerFieldDescriptor> useCharset(Charset charset) {
+            this.byteCharMapping = ByteCharMapping.forCharset(Objects.requireNonNull(charset));
+            return this;
+        }
+
+        @Override
+        public int getFieldSize() {
+            return this.fieldSize;
+        }
+
+        @Override
+        public boolean isSigned() {
+            return this.signed;
+        }
+
+        @Override
+        public ByteOrder getByteOrder() {
+            return this.byteOrder;
+        }
+
+        @Override
+        public long getDefaultValue() {
+            return this.defaultValue;
+        }
+
+        @Override
+        public ByteCharMapping getByteCharMapping() {
+            return this.byteCharMapping;
+        }
+
+        @Override
+        protected BinaryIntegerFieldDescriptor createItemDescriptorInstance() {
+            return new BinaryIntegerFieldDescriptor(this);
+        }
+    }
+
+    /**
+     * Create a builder to configure and create a new instance of this field descriptor.
+     *
+     * @param name the name for the new field descriptor instance.
+     *
+     * @return the builder instance.
+     */
+    public static DefineFieldSize newInstance(String name) {
+        return new BuilderImpl(name);
+    }
+
+    static String MSG_Value_out_of_range(String fieldName, Object value, long minValue, long maxValue) {
+        return String.format("The value '%s' is out of the range [%d, %d] of binary integer field '%s'!",
+                value, minValue, maxValue, fieldName);
+    }
+
+    private final int fieldSize;
+    private final boolean signed;
+    private final boolean bigEndian;
+    private final long minValue;
+    private final long maxValue;
+    private final ByteCharMapping byteCharMapping;
+
+    private BinaryIntegerFieldDescriptor(BuildParams params) {
+        super(params.getDescriptorName(), Long.toString(params.getDefaultValue()));
+        this.fieldSize = params.getFieldSize();
+        this.signed = params.isSigned();
+        this.bigEndian = params.getByteOrder() == ByteOrder.BIG_ENDIAN;
+        int bits = this.fieldSize * 8;
+        this.minValue = this.signed ? Long.MIN_VALUE >> (64 - bits) : 0L;
+        this.maxValue = this.signed ? Long.MAX_VALUE >> (64 - bits) : (1L << bits) - 1;
+        this.byteCharMapping = params.getByteCharMapping();
+        this.checkValue(params.getDefaultValue());
+    }
+
+    @Override
+    public int getMinLength() {
+        return this.fieldSize;
+    }
+
+    /**
+     * Is the field signed?
+     *
+     * @return {@code true} if the field is signed. Otherwise {@code false}.
+     */
+    public boolean isSigned() {
+        return this.signed;
+    }
+
+    /**
+     * Get the byte order of the field.
+     *
+     * @return the byte order.
+     */
+    public ByteOrder getByteOrder() {
+        return this.bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Get the charset which is used to decode the source stream.
+     *
+     * @return the charset.
+     */
+    public Charset getCharset() {
+        return this.byteCharMapping.getCharset();
+    }
+
+    @Override
+    public BinaryIntegerField createItemEntity() {
+        return new BinaryIntegerField(this);
+    }
+
+    @Override
+    public BinaryIntegerField readItemEntityFrom(Reader source) {
+        BinaryIntegerField field = this.createItemEntity();
+        field.setLongValue(this.readLongValue(source));
+        return field;
+    }
+
+    @Override
+    public void pushReadFrom(Reader source, StreamReadHandler handler) {
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
+    }
+
+    @Override
+    public PullReadIterator pullReadFrom(Reader source) {
+        return new FieldPullReadIterator<>(this, source);
+    }
+
+    @Override
+    public String readValue(Reader source) {
+        return Long.toString(this.readLongValue(source));
+    }
+
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        char[] chars = buffer.allocate(20);
+        ByteCharMapping.readFully(source, chars, this.fieldSize, this.getName());
+        buffer.setRange(0, PackedDecimalFieldDescriptor.formatDecimal(this.decode(chars), 0, chars));
+    }
+
+    /**
+     * Read the value of the field from a given source stream.
+     *
+     * @param source the source stream to read from.
+     *
+     * @return the value.
+     */
+    public long readLongValue(Reader source) {
+        char[] content = new char[this.fieldSize];
+        ByteCharMapping.readFully(source, content, this.fieldSize, this.getName());
+        return this.decode(content);
+    }
+
+    @Override
+    public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
+        if (handler instanceof BinaryIntegerFieldDescriptorHandler) {
+            ((BinaryIntegerFieldDescriptorHandler) handler).handleBinaryIntegerFieldDescriptor(this);
+        } else {
+            handler.handleFlatDataItemDescriptor(this);
+        }
+        return handler;
+    }
+
+    long parseValue(String value) {
+        try {
+            return Long.parseLong(Objects.requireNonNull(value, "Undefined field value!"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    MSG_Value_out_of_range(this.getName(), value, this.minValue, this.maxValue), e);
+        }
+    }
+
+    long checkValue(long value) {
+        if (value < this.minValue || value > this.maxValue) {
+            throw new IllegalArgumentException(
+                    MSG_Value_out_of_range(this.getName(), value, this.minValue, this.maxValue));
+        }
+        return value;
+    }
+
+    char[] encode(long value) {
+        char[] content = new char[this.fieldSize];
+        for (int i = 0; i < this.fieldSize; i++) {
+            int shift = 8 * (this.bigEndian ? this.fieldSize - 1 - i : i);
+            content[i] = this.byteCharMapping.toChar((int) (value >>> shift));
+        }
+        return content;
+    }
+
+    private long decode(char[] content) {
+        long value = 0L;
+        for (int i = 0; i < this.fieldSize; i++) {
+            int index = this.bigEndian ? i : this.fieldSize - 1 - i;
+            value = value << 8 | this.byteCharMapping.byteAt(content, index, this.getName());
+        }
+        if (this.signed) {
+            int unusedBits = 64 - this.fieldSize * 8;
+            value = value << unusedBits >> unusedBits;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps the characters of a single byte charset to bytes and vice versa.
+ * <p>
+ * Flat data is read from a {@link Reader} which decodes the bytes of the source into characters. Binary fields need
+ * the original bytes. As long as the source is decoded by a single byte charset which maps each of the 256 byte values
+ * to a distinct character (e.g. ISO-8859-1 or the EBCDIC charset IBM1047) the bytes can be restored from the characters
+ * without any loss.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class ByteCharMapping {
+
+    private static final ConcurrentMap<Charset, ByteCharMapping> MAPPINGS = new ConcurrentHashMap<>();
+
+    static String MSG_Unsupported_charset(Charset charset) {
+        return String.format(
+                "The charset '%s' is not a single byte charset which maps each byte to a distinct character!",
+                charset.name());
+    }
+
+    /**
+     * Get the mapping for a charset.
+     *
+     * @param charset the charset.
+     *
+     * @return the mapping.
+     *
+     * @throws IllegalArgumentException when the charset doesn't map each byte value to a distinct character.
+     */
+    static ByteCharMapping forCharset(Charset charset) {
+        return MAPPINGS.computeIfAbsent(charset, ByteCharMapping::new);
+    }
+
+    private final Charset charset;
+    private final char[] byteToChar = new char[256];
+    private final short[] charToByte = new short[Character.MAX_VALUE + 1];
+
+    private ByteCharMapping(Charset charset) {
+        this.charset = charset;
+        Arrays.fill(this.charToByte, (short) -1);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        for (int b = 0; b < 256; b++) {
+            CharBuffer chars;
+            try {
+                chars = decoder.decode(ByteBuffer.wrap(new byte[] {(byte) b}));
+            } catch (CharacterCodingException e) {
+                throw new IllegalArgumentException(MSG_Unsupported_charset(charset), e);
+            }
+            if (chars.length() != 1 || this.charToByte[chars.charAt(0)] != -1) {
+                throw new IllegalArgumentException(MSG_Unsupported_charset(charset));
+            }
+            this.byteToChar[b] = chars.charAt(0);
+            this.charToByte[chars.charAt(0)] = (short) b;
+        }
+    }
+
+    /**
+     * Get the charset of this mapping.
+     *
+     * @return the charset.
+     */
+    Charset getCharset() {
+        return this.charset;
+    }
+
+    /**
+     * Get the character for a byte value.
+     *
+     * @param b the byte value (only the lower 8 bits are used).
+     *
+     * @return the character.
+     */
+    char toChar(int b) {
+        return this.byteToChar[b & 0xFF];
+    }
+
+    /**
+     * Get the byte value for a character.
+     *
+     * @param c the character.
+     *
+     * @return the unsigned byte value or -1 if the character is not mapped by the charset.
+     */
+    int toByte(char c) {
+        return this.charToByte[c];
+    }
+
+    /**
+     * Get the byte value of a character from the content of a binary field.
+     *
+     * @param content the content of the field.
+     * @param index the index of the character.
+     * @param fieldName the name of the field (for error messages).
+     *
+     * @return the unsigned byte value.
+     *
+     * @throws FlatDataReadException when the character is not mapped by the charset.
+     */
+    int byteAt(char[] content, int index, String fieldName) {
+        int b = this.charToByte[content[index]];
+        if (b < 0) {
+            throw new FlatDataReadException(MSG_Unmapped_character(fieldName, content[index], this.charset));
+        }
+        return b;
+    }
+
+    /**
+     * Read the characters of a binary field from a source stream.
+     *
+     * @param source the source stream.
+     * @param target the array to read the characters into.
+     * @param length the number of characters to read.
+     * @param fieldName the name of the field (for error messages).
+     *
+     * @throws FlatDataReadException when reading fails or the source stream has not enough characters.
+     */
+    static void readFully(Reader source, char[] target, int length, String fieldName) {
+        int readLength = 0;
+        try {
+            int count;
+            while (readLength < length && (count = source.read(target, readLength, length - readLength)) != -1) {
+                readLength += count;
+            }
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(fieldName), e);
+        }
+        if (readLength < length) {
+            throw new FlatDataReadException(MSG_Read_failed(fieldName) + String.format(
+                    " The source stream was not long enough! Field length is %d but the remaining content from the " +
+                            "source stream had a length of %d.", length, readLength));
+        }
+    }
+
+    static String MSG_Unmapped_character(String fieldName, char c, Charset charset) {
+        return String.format("The content of binary field '%s' contains the character U+%04X which is not mapped " +
+                "by the charset '%s'!", fieldName, (int) c, charset.name());
+    }
+
+    static String MSG_Read_failed(String fieldName) {
+        return String.format("Failed to read value of binary field '%s' from source stream!", fieldName);
+    }
+}
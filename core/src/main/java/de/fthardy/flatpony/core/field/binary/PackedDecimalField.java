@@ -0,0 +1,163 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.AbstractFlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.field.FlatDataMutableField;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * The implementation of the packed decimal field.
+ * <p>
+ * The value is stored as a number and not as a string. For fields with up to 18 digits the number is kept as an
+ * unscaled {@code long}.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public class PackedDecimalField extends AbstractFlatDataItemEntity<PackedDecimalFieldDescriptor>
+        implements FlatDataMutableField<PackedDecimalFieldDescriptor> {
+
+    static String MSG_Write_failed(String fieldName) {
+        return String.format("Failed to write packed decimal field '%s' to target stream!", fieldName);
+    }
+
+    private long unscaledValue;
+    private BigDecimal largeValue;
+
+    /**
+     * Create a new packed decimal field instance.
+     *
+     * @param descriptor the descriptor which is creating this field instance.
+     */
+    PackedDecimalField(PackedDecimalFieldDescriptor descriptor) {
+        super(descriptor);
+        this.setValue(descriptor.getDefaultValue());
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "@" + System.identityHashCode(this) +
+                "[value='" + this.getValue() + "', descriptor=" + this.getDescriptor().toString() + "]";
+    }
+
+    @Override
+    public int getLength() {
+        return this.getDescriptor().getMinLength();
+    }
+
+    @Override
+    public String getValue() {
+        return this.getDecimalValue().toPlainString();
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.setDecimalValue(this.getDescriptor().parseValue(value));
+    }
+
+    /**
+     * Get the unscaled value of the field.
+     *
+     * @return the unscaled value.
+     *
+     * @throws ArithmeticException when the field has more than 18 digits and the value doesn't fit into a long.
+     */
+    public long getUnscaledValue() {
+        return this.largeValue == null ? this.unscaledValue : this.largeValue.unscaledValue().longValueExact();
+    }
+
+    /**
+     * Set the unscaled value of the field.
+     *
+     * @param unscaledValue the unscaled value.
+     *
+     * @throws IllegalArgumentException when the value has more digits than the field.
+     */
+    public void setUnscaledValue(long unscaledValue) {
+        if (this.getDescriptor().getDigits() > PackedDecimalFieldDescriptor.MAX_LONG_DIGITS) {
+            this.largeValue = BigDecimal.valueOf(unscaledValue, this.getDescriptor().getScale());
+        } else {
+            this.unscaledValue = this.getDescriptor().checkUnscaledValue(unscaledValue);
+        }
+    }
+
+    /**
+     * Get the value of the field as a decimal.
+     *
+     * @return the value with the scale of the field.
+     */
+    public BigDecimal getDecimalValue() {
+        return this.largeValue == null ?
+                BigDecimal.valueOf(this.unscaledValue, this.getDescriptor().getScale()) : this.largeValue;
+    }
+
+    /**
+     * Set the value of the field as a decimal.
+     *
+     * @param value the value.
+     *
+     * @throws IllegalArgumentException when the value has more fraction digits than the scale of the field or too
+     * many digits.
+     */
+    public void setDecimalValue(BigDecimal value) {
+        BigDecimal fieldValue = this.getDescriptor().toFieldDecimal(Objects.requireNonNull(value, "Undefined value!"));
+        if (this.getDescriptor().getDigits() > PackedDecimalFieldDescriptor.MAX_LONG_DIGITS) {
+            this.largeValue = fieldValue;
+        } else {
+            this.unscaledValue = fieldValue.unscaledValue().longValue();
+        }
+    }
+
+    @Override
+    public FlatDataMutableField<PackedDecimalFieldDescriptor> asMutableField() {
+        return this;
+    }
+
+    @Override
+    public void writeTo(Writer target) {
+        try {
+            target.write(this.largeValue == null ?
+                    this.getDescriptor().encode(this.unscaledValue) : this.getDescriptor().encode(this.largeValue));
+        } catch (IOException e) {
+            throw new FlatDataWriteException(MSG_Write_failed(this.getDescriptor().getName()), e);
+        }
+    }
+
+    @Override
+    public <H extends FlatDataItemEntityHandler> H applyHandler(H handler) {
+        if (handler instanceof PackedDecimalFieldHandler) {
+            ((PackedDecimalFieldHandler) handler).handlePackedDecimalField(this);
+        } else {
+            handler.handleFlatDataItemEntity(this);
+        }
+        return handler;
+    }
+}
@@ -0,0 +1,555 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
+import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
+import de.fthardy.flatpony.core.streamio.PullReadIterator;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * The implementation of a descriptor for a packed decimal field (also known as COBOL {@code COMP-3}).
+ * <p>
+ * A packed decimal field stores two decimal digits per byte. The lower nibble of the last byte holds the sign, where
+ * {@code 0xC}, {@code 0xA}, {@code 0xE} and {@code 0xF} mean positive and {@code 0xB} and {@code 0xD} mean negative.
+ * A field with {@code n} digits occupies {@code n / 2 + 1} bytes. For an even number of digits the first nibble is a
+ * padding nibble which has to be zero. Positive values are always written with the sign nibble {@code 0xC} and
+ * negative values with {@code 0xD}. The decimal point is implied by the scale of the field and is not stored.
+ * </p>
+ * <p>
+ * Flat data is read from a character stream. To get the original bytes of the field the source stream has to be
+ * decoded with a single byte charset which maps each byte to a distinct character. The same charset has to be defined
+ * for the field descriptor. By default this is ISO-8859-1, which maps each byte to the character with the same code.
+ * For EBCDIC records with text fields a charset like IBM1047 can be used for the source stream and the descriptor.
+ * Note that some EBCDIC charsets of the JDK (e.g. IBM037) decode two different bytes to a line feed and are therefore
+ * rejected.
+ * </p>
+ * <p>
+ * The value of a packed decimal field is the plain decimal notation of its number (e.g. {@code -123.45} for a field
+ * with a scale of 2). The descriptor and the field provide access to the number as an unscaled {@code long} or as a
+ * {@link BigDecimal} which is decoded directly from the nibbles without an intermediate string. Fields with up to 18
+ * digits are decoded into a {@code long}.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public class PackedDecimalFieldDescriptor extends AbstractFlatDataFieldDescriptor<PackedDecimalField>
+        implements FlatDataFieldDescriptor<PackedDecimalField> {
+
+    /** The maximum number of digits for a packed decimal field. */
+    public static final int MAX_DIGITS = 31;
+
+    static final int MAX_LONG_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    /**
+     * Allows to define the number of digits.
+     *
+     * @see PackedDecimalFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineDigits {
+
+        /**
+         * Define the number of digits (the precision) of the field.
+         *
+         * @param digits the number of digits. Must be between 1 and {@link #MAX_DIGITS}.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineScale withDigits(int digits);
+    }
+
+    /**
+     * Allows to define the scale.
+     * <p>
+     * By default the scale is 0.
+     * </p>
+     *
+     * @see PackedDecimalFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineScale extends DefineDefaultValue {
+
+        /**
+         * Define the scale of the field which is the number of digits after the implied decimal point.
+         *
+         * @param scale the scale. Must not be negative and not be greater than the number of digits.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineDefaultValue withScale(int scale);
+    }
+
+    /**
+     * Allows to define a default value.
+     * <p>
+     * By default the default value is zero.
+     * </p>
+     *
+     * @see PackedDecimalFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineDefaultValue extends DefineCharset {
+
+        /**
+         * Define a default value.
+         *
+         * @param defaultValue the default value in plain decimal notation.
+         *
+         * @return the builder for further configuration or instance creation.
+         */
+        DefineCharset withDefaultValue(String defaultValue);
+    }
+
+    /**
+     * Allows to define the charset which is used to decode the source stream.
+     * <p>
+     * By default ISO-8859-1 is used.
+     * </p>
+     *
+     * @see PackedDecimalFieldDescriptor
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineCharset extends ObjectBuilder<PackedDecimalFieldDescriptor> {
+
+        /**
+         * Define the charset which is used to decode the source stream.
+         *
+         * @param charset the charset. Must be a single byte charset which maps each byte to a distinct character.
+         *
+         * @return the builder for instance creation.
+         */
+        ObjectBuilder<PackedDecimalFieldDescriptor> useCharset(Charset charset);
+    }
+
+    private interface BuildParams {
+        String getDescriptorName();
+        int getDigits();
+        int getScale();
+        String getDefaultValue();
+        ByteCharMapping getByteCharMapping();
+    }
+
+    private static final class BuilderImpl extends AbstractItemDescriptorBuilder<PackedDecimalFieldDescriptor>
+            implements DefineDigits, DefineScale, BuildParams {
+
+        private int digits;
+        private int scale;
+        private String defaultValue;
+        private ByteCharMapping byteCharMapping = ByteCharMapping.forCharset(StandardCharsets.ISO_8859_1);
+
+        BuilderImpl(String descriptorName) {
+            super(descriptorName);
+        }
+
+        @Override
+        public DefineScale withDigits(int digits) {
+            if (digits < 1 || digits > MAX_DIGITS) {
+                throw new IllegalArgumentException(
+                        String.format("Number of digits must be between 1 and %d!", MAX_DIGITS));
+            }
+            this.digits = digits;
+            return this;
+        }
+
+        @Override
+        public DefineDefaultValue withScale(int scale) {
+            if (scale < 0 || scale > this.digits) {
+                throw new IllegalArgumentException("Scale must be between 0 and the number of digits!");
+            }
+            this.scale = scale;
+            return this;
+        }
+
+        @Override
+        public DefineCharset withDefaultValue(String defaultValue) {
+            this.defaultValue = Objects.requireNonNull(defaultValue);
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<PackedDecimalFieldDescriptor> useCharset(Charset charset) {
+            this.byteCharMapping = ByteCharMapping.forCharset(Objects.requireNonNull(charset));
+            return this;
+        }
+
+        @Override
+        public int getDigits() {
+            return this.digits;
+        }
+
+        @Override
+        public int getScale() {
+            return this.scale;
+        }
+
+        @Override
+        public String getDefaultValue() {
+            return this.defaultValue == null ?
+                    BigDecimal.ZERO.setScale(this.scale).toPlainString() : this.defaultValue;
+        }
+
+        @Override
+        public ByteCharMapping getByteCharMapping() {
+            return this.byteCharMapping;
+        }
+
+        @Override
+        protected PackedDecimalFieldDescriptor createItemDescriptorInstance() {
+            return new PackedDecimalFieldDescriptor(this);
+        }
+    }
+
+    /**
+     * Create a builder to configure and create a new instance of this field descriptor.
+     *
+     * @param name the name for the new field descriptor instance.
+     *
+     * @return the builder instance.
+     */
+    public static DefineDigits newInstance(String name) {
+        return new BuilderImpl(name);
+    }
+
+    static String MSG_Invalid_packed_decimal(String fieldName) {
+        return String.format("The content of packed decimal field '%s' is not a valid packed decimal!", fieldName);
+    }
+
+    static String MSG_Value_not_representable(String fieldName, Object value, int digits, int scale) {
+        return String.format(
+                "The value '%s' cannot be represented by packed decimal field '%s' with %d digits and a scale of %d!",
+                value, fieldName, digits, scale);
+    }
+
+    private final int digits;
+    private final int scale;
+    private final int byteLength;
+    private final ByteCharMapping byteCharMapping;
+
+    private PackedDecimalFieldDescriptor(BuildParams params) {
+        super(params.getDescriptorName(), params.getDefaultValue());
+        this.digits = params.getDigits();
+        this.scale = params.getScale();
+        this.byteLength = this.digits / 2 + 1;
+        this.byteCharMapping = params.getByteCharMapping();
+        this.toFieldDecimal(this.parseValue(this.getDefaultValue()));
+    }
+
+    @Override
+    public int getMinLength() {
+        return this.byteLength;
+    }
+
+    /**
+     * Get the number of digits of the field.
+     *
+     * @return the number of digits.
+     */
+    public int getDigits() {
+        return this.digits;
+    }
+
+    /**
+     * Get the scale of the field.
+     *
+     * @return the number of digits after the implied decimal point.
+     */
+    public int getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Get the charset which is used to decode the source stream.
+     *
+     * @return the charset.
+     */
+    public Charset getCharset() {
+        return this.byteCharMapping.getCharset();
+    }
+
+    @Override
+    public PackedDecimalField createItemEntity() {
+        return new PackedDecimalField(this);
+    }
+
+    @Override
+    public PackedDecimalField readItemEntityFrom(Reader source) {
+        PackedDecimalField field = this.createItemEntity();
+        if (this.digits > MAX_LONG_DIGITS) {
+            field.setDecimalValue(this.readDecimalValue(source));
+        } else {
+            field.setUnscaledValue(this.readUnscaledValue(source));
+        }
+        return field;
+    }
+
+    @Override
+    public void pushReadFrom(Reader source, StreamReadHandler handler) {
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
+    }
+
+    @Override
+    public PullReadIterator pullReadFrom(Reader source) {
+        return new FieldPullReadIterator<>(this, source);
+    }
+
+    @Override
+    public String readValue(Reader source) {
+        return this.readDecimalValue(source).toPlainString();
+    }
+
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        if (this.digits > MAX_LONG_DIGITS) {
+            buffer.set(this.readValue(source));
+        } else {
+            char[] chars = buffer.allocate(Math.max(this.byteLength, this.digits + 3));
+            ByteCharMapping.readFully(source, chars, this.byteLength, this.getName());
+            long unscaledValue = this.decodeUnscaledValue(chars);
+            buffer.setRange(0, formatDecimal(unscaledValue, this.scale, chars));
+        }
+    }
+
+    /**
+     * Read the unscaled value of the field from a given source stream.
+     *
+     * @param source the source stream to read from.
+     *
+     * @return the unscaled value.
+     *
+     * @throws ArithmeticException when the field has more than 18 digits and the value doesn't fit into a long.
+     */
+    public long readUnscaledValue(Reader source) {
+        if (this.digits > MAX_LONG_DIGITS) {
+            return this.readDecimalValue(source).unscaledValue().longValueExact();
+        }
+        char[] content = new char[this.byteLength];
+        ByteCharMapping.readFully(source, content, this.byteLength, this.getName());
+        return this.decodeUnscaledValue(content);
+    }
+
+    /**
+     * Read the value of the field from a given source stream as a decimal.
+     *
+     * @param source the source stream to read from.
+     *
+     * @return the value with the scale of the field.
+     */
+    public BigDecimal readDecimalValue(Reader source) {
+        char[] content = new char[this.byteLength];
+        ByteCharMapping.readFully(source, content, this.byteLength, this.getName());
+        if (this.digits > MAX_LONG_DIGITS) {
+            return new BigDecimal(this.decodeLargeUnscaledValue(content), this.scale);
+        }
+        return BigDecimal.valueOf(this.decodeUnscaledValue(content), this.scale);
+    }
+
+    @Override
+    public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
+        if (handler instanceof PackedDecimalFieldDescriptorHandler) {
+            ((PackedDecimalFieldDescriptorHandler) handler).handlePackedDecimalFieldDescriptor(this);
+        } else {
+            handler.handleFlatDataItemDescriptor(this);
+        }
+        return handler;
+    }
+
+    BigDecimal parseValue(String value) {
+        try {
+            return new BigDecimal(Objects.requireNonNull(value, "Undefined field value!"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    MSG_Value_not_representable(this.getName(), value, this.digits, this.scale), e);
+        }
+    }
+
+    BigDecimal toFieldDecimal(BigDecimal value) {
+        BigDecimal fieldValue;
+        try {
+            fieldValue = value.setScale(this.scale);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    MSG_Value_not_representable(this.getName(), value, this.digits, this.scale), e);
+        }
+        if (fieldValue.signum() != 0 && fieldValue.precision() > this.digits) {
+            throw new IllegalArgumentException(
+                    MSG_Value_not_representable(this.getName(), value, this.digits, this.scale));
+        }
+        return fieldValue;
+    }
+
+    long checkUnscaledValue(long unscaledValue) {
+        if (this.digits <= MAX_LONG_DIGITS && Math.abs(unscaledValue) >= POWERS_OF_TEN[this.digits]) {
+            throw new IllegalArgumentException(MSG_Value_not_representable(
+                    this.getName(), BigDecimal.valueOf(unscaledValue, this.scale), this.digits, this.scale));
+        }
+        return unscaledValue;
+    }
+
+    char[] encode(long unscaledValue) {
+        char[] content = new char[this.byteLength];
+        long magnitude = Math.abs(unscaledValue);
+        int last = this.byteLength - 1;
+        content[last] = this.byteCharMapping.toChar((int) (magnitude % 10) << 4 | (unscaledValue < 0 ? 0xD : 0xC));
+        magnitude /= 10;
+        for (int i = last - 1; i >= 0; i--) {
+            int low = (int) (magnitude % 10);
+            magnitude /= 10;
+            content[i] = this.byteCharMapping.toChar((int) (magnitude % 10) << 4 | low);
+            magnitude /= 10;
+        }
+        return content;
+    }
+
+    char[] encode(BigDecimal value) {
+        BigInteger unscaledValue = value.unscaledValue();
+        if (unscaledValue.bitLength() < 64) {
+            return this.encode(unscaledValue.longValue());
+        }
+        String magnitude = unscaledValue.abs().toString();
+        char[] content = new char[this.byteLength];
+        int digitIndex = magnitude.length() - 1;
+        int last = this.byteLength - 1;
+        content[last] = this.byteCharMapping.toChar(
+                (magnitude.charAt(digitIndex--) - '0') << 4 | (unscaledValue.signum() < 0 ? 0xD : 0xC));
+        for (int i = last - 1; i >= 0; i--) {
+            int low = digitIndex >= 0 ? magnitude.charAt(digitIndex--) - '0' : 0;
+            int high = digitIndex >= 0 ? magnitude.charAt(digitIndex--) - '0' : 0;
+            content[i] = this.byteCharMapping.toChar(high << 4 | low);
+        }
+        return content;
+    }
+
+    private long decodeUnscaledValue(char[] content) {
+        long value = 0L;
+        int last = this.byteLength - 1;
+        for (int i = 0; i < last; i++) {
+            int b = this.byteCharMapping.byteAt(content, i, this.getName());
+            value = value * 100 + this.digit(b >>> 4, i) * 10 + this.digit(b & 0x0F, -1);
+        }
+        int b = this.byteCharMapping.byteAt(content, last, this.getName());
+        value = value * 10 + this.digit(b >>> 4, last);
+        return this.isNegative(b & 0x0F) ? -value : value;
+    }
+
+    private BigInteger decodeLargeUnscaledValue(char[] content) {
+        char[] digitChars = new char[this.byteLength * 2];
+        int last = this.byteLength - 1;
+        for (int i = 0; i < last; i++) {
+            int b = this.byteCharMapping.byteAt(content, i, this.getName());
+            digitChars[2 * i + 1] = (char) ('0' + this.digit(b >>> 4, i));
+            digitChars[2 * i + 2] = (char) ('0' + this.digit(b & 0x0F, -1));
+        }
+        int b = this.byteCharMapping.byteAt(content, last, this.getName());
+        digitChars[2 * last + 1] = (char) ('0' + this.digit(b >>> 4, last));
+        digitChars[0] = this.isNegative(b & 0x0F) ? '-' : '+';
+        return new BigInteger(new String(digitChars));
+    }
+
+    private int digit(int nibble, int byteIndex) {
+        if (nibble > 9 || (byteIndex == 0 && nibble != 0 && this.digits % 2 == 0)) {
+            throw new FlatDataReadException(MSG_Invalid_packed_decimal(this.getName()));
+        }
+        return nibble;
+    }
+
+    private boolean isNegative(int signNibble) {
+        switch (signNibble) {
+            case 0xB:
+            case 0xD:
+                return true;
+            case 0xA:
+            case 0xC:
+            case 0xE:
+            case 0xF:
+                return false;
+            default:
+                throw new FlatDataReadException(MSG_Invalid_packed_decimal(this.getName()));
+        }
+    }
+
+    /**
+     * Format an unscaled value in plain decimal notation.
+     *
+     * @param unscaledValue the unscaled value.
+     * @param scale the scale.
+     * @param target the array to write the characters into. Must have space for at least 22 characters or the number
+     *               of digits of the value plus 3.
+     *
+     * @return the number of characters written.
+     */
+    static int formatDecimal(long unscaledValue, int scale, char[] target) {
+        // work with the negative magnitude to handle Long.MIN_VALUE
+        long negativeMagnitude = unscaledValue < 0 ? unscaledValue : -unscaledValue;
+        int digitCount = 1;
+        for (long v = negativeMagnitude / 10; v != 0; v /= 10) {
+            digitCount++;
+        }
+        int integerDigits = Math.max(digitCount - scale, 1);
+        int length = (unscaledValue < 0 ? 1 : 0) + integerDigits + (scale > 0 ? scale + 1 : 0);
+        int position = length;
+        for (int i = 0; i < scale; i++) {
+            target[--position] = (char) ('0' - negativeMagnitude % 10);
+            negativeMagnitude /= 10;
+        }
+        if (scale > 0) {
+            target[--position] = '.';
+        }
+        for (int i = 0; i < integerDigits; i++) {
+            target[--position] = (char) ('0' - negativeMagnitude % 10);
+            negativeMagnitude /= 10;
+        }
+        if (unscaledValue < 0) {
+            target[--position] = '-';
+        }
+        return length;
+    }
+}
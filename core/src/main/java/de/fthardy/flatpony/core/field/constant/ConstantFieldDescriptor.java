@@ -27,6 +27,7 @@ import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataReadException;
 import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
@@ -189,7 +190,7 @@ public class ConstantFieldDescriptor extends AbstractFlatDataFieldDescriptor<Con
 
     @Override
     public void pushReadFrom(Reader source, StreamReadHandler handler) {
-        handler.onFieldItem(this, this.readValue(source));
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
     }
 
     @Override
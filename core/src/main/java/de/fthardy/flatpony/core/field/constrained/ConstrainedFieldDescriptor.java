@@ -24,6 +24,7 @@ SOFTWARE.
 package de.fthardy.flatpony.core.field.constrained;
 
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.constrained.constraint.ValueConstraint;
 import de.fthardy.flatpony.core.field.constrained.constraint.ValueConstraintViolationException;
@@ -215,6 +216,11 @@ public class ConstrainedFieldDescriptor implements FlatDataFieldDescriptor<Const
         return this.decoratedFieldDescriptor.readValue(source);
     }
 
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        this.decoratedFieldDescriptor.readValue(source, buffer);
+    }
+
     @Override
     public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
         if (handler instanceof ConstrainedFieldDescriptorHandler) {
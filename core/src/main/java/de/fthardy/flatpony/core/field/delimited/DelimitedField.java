@@ -56,13 +56,13 @@ public class DelimitedField extends AbstractFlatDataMutableField<DelimitedFieldD
 
     @Override
     public int getLength() {
-        return this.getValue().length();
+        return this.getDescriptor().toContent(this.getValue()).length();
     }
 
     @Override
     public void writeTo(Writer target) {
         try {
-            target.write(this.getValue());
+            target.write(this.getDescriptor().toContent(this.getValue()));
             target.write(this.getDescriptor().getDelimiter());
         } catch (IOException e) {
             throw new FlatDataWriteException(MSG_Write_failed(this.getDescriptor().getName()), e);
@@ -26,7 +26,9 @@ package de.fthardy.flatpony.core.field.delimited;
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataReadException;
 import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
@@ -47,9 +49,11 @@ import java.util.Objects;
  * delimiter char is ignored and not part of the field value.
  * </p>
  * <p>
- * WARNING:
- * Actually this implementation doesn't support escaping of the delimiter. This means that the delimiter character
- * cannot be used in the field content.
+ * Optionally a quote character can be defined. A field content which starts with the quote character is read up to
+ * the closing quote character, so it may contain the delimiter character and line breaks. Within a quoted content a
+ * quote character is represented by two quote characters. When a field is written its value is quoted if it contains
+ * the delimiter, the quote character or a line break. Without a quote character the delimiter character cannot be
+ * used in the field content.
  * </p>
  *
  * @author Frank Timothy Hardy
@@ -94,7 +98,7 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
      * 
      * @author Frank Timothy Hardy
      */
-    public interface DefineDelimiter extends Builder {
+    public interface DefineDelimiter extends DefineQuote {
 
         /**
          * Define a different delimiter character.
@@ -103,7 +107,27 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
          *                  
          * @return the builder for further configuration or instance creation.
          */
-        Builder withDelimiter(char delimiter);
+        DefineQuote withDelimiter(char delimiter);
+    }
+
+    /**
+     * Allows to define a quote character.
+     * <p>
+     * By default no quote character is defined.
+     * </p>
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineQuote extends Builder {
+
+        /**
+         * Define a quote character which allows field contents to contain the delimiter character.
+         *
+         * @param quote the quote character which must differ from the delimiter character.
+         *
+         * @return the builder for instance creation.
+         */
+        Builder withQuote(char quote);
     }
     
     private interface BuildParams {
@@ -111,6 +135,12 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
         String getDescriptorName();
         String getDefaultValue();
         int getDelimiter();
+        int getQuote();
+    }
+
+    @FunctionalInterface
+    private interface CharAppender {
+        void append(char c);
     }
     
     private static final class BuilderImpl extends AbstractItemDescriptorBuilder<DelimitedFieldDescriptor>
@@ -118,6 +148,7 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
         
         private String defaultValue = "";
         private int delimiter = DEFAULT_DELIMITER;
+        private int quote = NO_QUOTE;
         
         BuilderImpl(String descriptorName) {
             super(descriptorName);
@@ -130,11 +161,20 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
         }
 
         @Override
-        public Builder withDelimiter(char delimiter) {
+        public DefineQuote withDelimiter(char delimiter) {
             this.delimiter = delimiter;
             return this;
         }
 
+        @Override
+        public Builder withQuote(char quote) {
+            if (quote == this.delimiter) {
+                throw new IllegalArgumentException(MSG_Quote_equals_delimiter(quote));
+            }
+            this.quote = quote;
+            return this;
+        }
+
         @Override
         public String getDefaultValue() {
             return this.defaultValue;
@@ -145,6 +185,11 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
             return this.delimiter;
         }
 
+        @Override
+        public int getQuote() {
+            return this.quote;
+        }
+
         @Override
         protected DelimitedFieldDescriptor createItemDescriptorInstance() {
             return new DelimitedFieldDescriptor(this);
@@ -154,10 +199,20 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
     /** The default delimiter definition used by this implementation. */
     public static final char DEFAULT_DELIMITER = ',';
 
+    private static final int NO_QUOTE = -1;
+
     static String MSG_Read_failed(String fieldName) {
         return String.format("Failed to read separated field '%s' from source stream!", fieldName);
     }
 
+    static String MSG_Unterminated_quote(String fieldName) {
+        return MSG_Read_failed(fieldName) + " The quoted content is not terminated.";
+    }
+
+    static String MSG_Quote_equals_delimiter(char quote) {
+        return String.format("The quote character '%s' must differ from the delimiter!", quote);
+    }
+
     /**
      * Create a builder to configure and create a new instance of this field descriptor.
      * 
@@ -170,10 +225,12 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
     }
 
     private final int delimiter;
+    private final int quote;
     
     private DelimitedFieldDescriptor(BuildParams params) {
         super(params.getDescriptorName(), params.getDefaultValue());
         this.delimiter = params.getDelimiter();
+        this.quote = params.getQuote();
     }
 
     @Override
@@ -190,7 +247,7 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
 
     @Override
     public void pushReadFrom(Reader source, StreamReadHandler handler) {
-        handler.onFieldItem(this, this.readValue(source));
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
     }
 
     @Override
@@ -201,16 +258,49 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
     @Override
     public String readValue(Reader source) {
         StringBuilder valueBuilder = new StringBuilder();
+        this.readContent(source, valueBuilder::append);
+        return valueBuilder.toString();
+    }
+
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        buffer.clear();
+        this.readContent(source, buffer::append);
+    }
+
+    private void readContent(Reader source, CharAppender appender) {
         try {
             int charValue = source.read();
+            if (charValue == this.quote && this.quote != NO_QUOTE) {
+                charValue = this.readQuotedContent(source, appender);
+            }
             while (charValue != -1 && charValue != delimiter) {
-                valueBuilder.append((char) charValue);
+                appender.append((char) charValue);
                 charValue = source.read();
             }
         } catch (IOException e) {
             throw new FlatDataReadException(MSG_Read_failed(this.getName()), e);
         }
-        return valueBuilder.toString();
+    }
+
+    /**
+     * Read a quoted content after the opening quote.
+     *
+     * @return the character following the closing quote.
+     */
+    private int readQuotedContent(Reader source, CharAppender appender) throws IOException {
+        while (true) {
+            int charValue = source.read();
+            if (charValue == -1) {
+                throw new FlatDataReadException(MSG_Unterminated_quote(this.getName()));
+            } else if (charValue == this.quote) {
+                charValue = source.read();
+                if (charValue != this.quote) {
+                    return charValue;
+                }
+            }
+            appender.append((char) charValue);
+        }
     }
 
     @Override
@@ -231,4 +321,50 @@ public class DelimitedFieldDescriptor extends AbstractFlatDataFieldDescriptor<De
     public char getDelimiter() {
         return (char) this.delimiter;
     }
+
+    /**
+     * @return {@code true} if a quote character is defined.
+     */
+    public boolean hasQuote() {
+        return this.quote != NO_QUOTE;
+    }
+
+    /**
+     * Get the quote character used by this descriptor.
+     *
+     * @return the quote character.
+     *
+     * @throws IllegalStateException if no quote character is defined.
+     */
+    public char getQuote() {
+        if (this.quote == NO_QUOTE) {
+            throw new IllegalStateException("No quote character defined!");
+        }
+        return (char) this.quote;
+    }
+
+    /**
+     * Get the content of a field with the given value.
+     *
+     * @param value the field value.
+     *
+     * @return the value which is quoted if a quote character is defined and the value needs to be quoted.
+     */
+    String toContent(String value) {
+        if (this.quote == NO_QUOTE || !this.needsQuotes(value)) {
+            return value;
+        }
+        String quoteString = String.valueOf((char) this.quote);
+        return quoteString + value.replace(quoteString, quoteString + quoteString) + quoteString;
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == this.delimiter || c == this.quote || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
 }
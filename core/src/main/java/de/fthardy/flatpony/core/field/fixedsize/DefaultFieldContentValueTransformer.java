@@ -23,6 +23,8 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.field.fixedsize;
 
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+
 import java.util.Arrays;
 
 /**
@@ -77,4 +79,21 @@ public final class DefaultFieldContentValueTransformer implements FieldContentVa
         }
         return padToLeft ? content.substring(0, index + 1) : content.substring(index);
     }
+
+    @Override
+    public void extractValueFromContent(FieldValueBuffer buffer) {
+        char[] chars = buffer.getChars();
+        int start = buffer.getOffset();
+        int end = start + buffer.length();
+        if (padToLeft) {
+            while (end > start && chars[end - 1] == fillChar) {
+                end--;
+            }
+        } else {
+            while (start < end && chars[start] == fillChar) {
+                start++;
+            }
+        }
+        buffer.setRange(start, end - start);
+    }
 }
@@ -23,6 +23,8 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.field.fixedsize;
 
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+
 /**
  * A field content value transformer has the task to make a field content from a given value and vice versa to extract a
  * value from a given field content.
@@ -64,4 +66,18 @@ public interface FieldContentValueTransformer {
      * @return the value string.
      */
     String extractValueFromContent(String content);
+
+    /**
+     * Extract the value from the content held by a given buffer.
+     * <p>
+     * The buffer contains the content of the field when this method is called and has to contain the value when the
+     * method returns. The default implementation works on a string by calling {@link #extractValueFromContent(String)}.
+     * Implementations should override this method if they can extract the value without creating a string.
+     * </p>
+     *
+     * @param buffer the buffer which contains the content.
+     */
+    default void extractValueFromContent(FieldValueBuffer buffer) {
+        buffer.set(this.extractValueFromContent(buffer.toString()));
+    }
 }
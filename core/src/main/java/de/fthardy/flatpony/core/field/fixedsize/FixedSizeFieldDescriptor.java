@@ -26,8 +26,10 @@ package de.fthardy.flatpony.core.field.fixedsize;
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataReadException;
 import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
@@ -244,7 +246,7 @@ public class FixedSizeFieldDescriptor extends AbstractFlatDataFieldDescriptor<Fi
 
     @Override
     public void pushReadFrom(Reader source, StreamReadHandler handler) {
-        handler.onFieldItem(this, this.readValue(source));
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
     }
 
     @Override
@@ -270,6 +272,28 @@ public class FixedSizeFieldDescriptor extends AbstractFlatDataFieldDescriptor<Fi
         return contentValueTransformer.extractValueFromContent(new String(chars));
     }
 
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        char[] chars = buffer.allocate(this.fieldSize);
+        int readLength = 0;
+        try {
+            int count;
+            while (readLength < this.fieldSize && 
+                    (count = source.read(chars, readLength, this.fieldSize - readLength)) != -1) {
+                readLength += count;
+            }
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.getName()), e);
+        }
+
+        if (readLength < this.fieldSize) {
+            throw new FlatDataReadException(MSG_Input_stream_too_short(this.getName(), this.fieldSize, readLength));
+        }
+
+        buffer.setRange(0, this.fieldSize);
+        contentValueTransformer.extractValueFromContent(buffer);
+    }
+
     @Override
     public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
         if (handler instanceof FixedSizeFieldDescriptorHandler) {
@@ -28,7 +28,6 @@ import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
 import de.fthardy.flatpony.core.field.FlatDataMutableField;
 
 import java.io.Writer;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -64,8 +63,11 @@ public class ObservableField extends AbstractFlatDataItemEntity<ObservableFieldD
         void onValueChange(ObservableField field, String value, String newValue);
     }
     
+    private static final Observer[] NO_OBSERVERS = new Observer[0];
+
     private final FlatDataMutableField<?> observedField;
-    private final List<Observer> observers = Collections.synchronizedList(new ArrayList<>()); 
+    // created lazily because most fields are never observed
+    private volatile ObserverRegistry<Observer> observers;
 
     /**
      * Create a new instance of this field wrapper.
@@ -89,8 +91,11 @@ public class ObservableField extends AbstractFlatDataItemEntity<ObservableFieldD
     public void setValue(String value) {
         String currentValue = this.observedField.getValue();
         this.observedField.setValue(value);
-        synchronized (this.observers) {
-            this.observers.forEach(o -> o.onValueChange(this, currentValue, value));
+        ObserverRegistry<Observer> registry = this.observers;
+        if (registry != null) {
+            for (Observer observer : registry.snapshot()) {
+                observer.onValueChange(this, currentValue, value);
+            }
         }
     }
 
@@ -137,10 +142,17 @@ public class ObservableField extends AbstractFlatDataItemEntity<ObservableFieldD
      * @param observer the observer to add.
      */
     public void addObserver(Observer observer) {
-        if (this.observers.contains(observer)) {
-            throw new IllegalArgumentException(ObservableFieldDescriptor.MSG_OBSERVER_ALREADY_ADDED);
+        ObserverRegistry<Observer> registry = this.observers;
+        if (registry == null) {
+            synchronized (this) {
+                registry = this.observers;
+                if (registry == null) {
+                    registry = new ObserverRegistry<>(NO_OBSERVERS);
+                    this.observers = registry;
+                }
+            }
         }
-        this.observers.add(observer);
+        registry.add(observer);
     }
 
     /**
@@ -149,13 +161,17 @@ public class ObservableField extends AbstractFlatDataItemEntity<ObservableFieldD
      * @param observer the observer to remove.
      */
     public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
+        ObserverRegistry<Observer> registry = this.observers;
+        if (registry != null) {
+            registry.remove(observer);
+        }
     }
 
     /**
      * @return the observer list.
      */
     List<Observer> getObservers() {
-        return Collections.unmodifiableList(this.observers);
+        ObserverRegistry<Observer> registry = this.observers;
+        return registry == null ? Collections.emptyList() : registry.asList();
     }
 }
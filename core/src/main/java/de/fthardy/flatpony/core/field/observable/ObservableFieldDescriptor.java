@@ -23,9 +23,12 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.field.observable;
 
+import de.fthardy.flatpony.core.FlatDataContext;
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.FlatDataMutableField;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.FieldPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
@@ -40,7 +43,10 @@ import java.util.*;
  * <p>
  * This descriptor is a decorator implementation which can be used to extend any type of a mutable field.
  * An observable field allows to register {@link Observer}s. These observers are then notified whenever either a new 
- * field entity is created or read or a field value is read by a stream read method. 
+ * field entity is created or read or a field value is read by a stream read method. A
+ * {@link de.fthardy.flatpony.core.util.FieldReference field reference} is such an observer which records the field
+ * entities and values in the current {@link FlatDataContext}. A descriptor without observers reads a field value like
+ * the observed field descriptor, i.e. without creating a string for a read into a buffer.
  * </p>
  *
  * @see Observer
@@ -179,12 +185,14 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
         return new BuilderImpl(fieldDescriptor);
     }
 
+    private static final Observer[] NO_OBSERVERS = new Observer[0];
+
     private final FlatDataFieldDescriptor<? extends FlatDataMutableField<?>> observedFieldDescriptor;
-    private final List<Observer> observers = Collections.synchronizedList(new ArrayList<>());
+    private final ObserverRegistry<Observer> observers = new ObserverRegistry<>(NO_OBSERVERS);
     
     private ObservableFieldDescriptor(BuildParams params) {
         this.observedFieldDescriptor = params.getFieldDescriptor();
-        this.observers.addAll(params.getObservers());
+        params.getObservers().forEach(this.observers::add);
     }
 
     @Override
@@ -211,8 +219,8 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
     @Override
     public ObservableField createItemEntity() {
         ObservableField newField = new ObservableField(this, this.observedFieldDescriptor.createItemEntity());
-        synchronized (this.observers) {
-            this.observers.forEach(o -> o.onFieldEntityCreated(newField));
+        for (Observer observer : this.observers.snapshot()) {
+            observer.onFieldEntityCreated(newField);
         }
         return newField;
     }
@@ -221,15 +229,15 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
     public ObservableField readItemEntityFrom(Reader source) {
         ObservableField readField = new ObservableField(
                 this, this.observedFieldDescriptor.readItemEntityFrom(source));
-        synchronized (this.observers) {
-            this.observers.forEach(o -> o.onFieldEntityRead(readField));
+        for (Observer observer : this.observers.snapshot()) {
+            observer.onFieldEntityRead(readField);
         }
         return readField; 
     }
 
     @Override
     public void pushReadFrom(Reader source, StreamReadHandler handler) {
-        handler.onFieldItem(this, this.readValue(source));
+        CharSequenceStreamReadHandler.readFieldValue(this, source, handler);
     }
 
     @Override
@@ -240,12 +248,22 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
     @Override
     public String readValue(Reader source) {
         String value = this.observedFieldDescriptor.readValue(source);
-        synchronized (this.observers) {
-            this.observers.forEach(o -> o.onFieldValueRead(this, value));
+        for (Observer observer : this.observers.snapshot()) {
+            observer.onFieldValueRead(this, value);
         }
         return value;
     }
 
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        if (this.observers.snapshot().length == 0) {
+            this.observedFieldDescriptor.readValue(source, buffer);
+        } else {
+            // the observers need the value as string anyway
+            buffer.set(this.readValue(source));
+        }
+    }
+
     @Override
     public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
         if (handler instanceof ObservableFieldDescriptorHandler) {
@@ -269,9 +287,6 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
      * @param observer the observer to add.
      */
     public void addObserver(Observer observer) {
-        if (this.observers.contains(observer)) {
-            throw new IllegalArgumentException(MSG_OBSERVER_ALREADY_ADDED);
-        }
         this.observers.add(observer);
     }
 
@@ -288,6 +303,6 @@ public class ObservableFieldDescriptor implements FlatDataFieldDescriptor<Observ
      * @return the observer list.
      */
     List<Observer> getObservers() {
-        return Collections.unmodifiableList(this.observers);
+        return this.observers.asList();
     }
 }
@@ -0,0 +1,98 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.observable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A copy-on-write registry of observers.
+ * <p>
+ * The observers are held in an immutable array which is replaced on each modification. Hence the observers can be
+ * notified without any lock by iterating over the current {@link #snapshot()}, while the rare modifications are
+ * synchronized.
+ * </p>
+ *
+ * @param <O> the type of the observers.
+ *
+ * @author Frank Timothy Hardy
+ */
+final class ObserverRegistry<O> {
+
+    private volatile O[] observers;
+
+    /**
+     * Create a new registry.
+     *
+     * @param emptyArray an empty array of the observer type which is used as initial snapshot.
+     */
+    ObserverRegistry(O[] emptyArray) {
+        this.observers = emptyArray;
+    }
+
+    /**
+     * @return the current observers. The array must not be modified.
+     */
+    O[] snapshot() {
+        return this.observers;
+    }
+
+    /**
+     * @param observer the observer to add.
+     *
+     * @throws IllegalArgumentException if the observer has already been added.
+     */
+    synchronized void add(O observer) {
+        Objects.requireNonNull(observer, "Undefined observer!");
+        O[] current = this.observers;
+        if (Arrays.asList(current).contains(observer)) {
+            throw new IllegalArgumentException(ObservableFieldDescriptor.MSG_OBSERVER_ALREADY_ADDED);
+        }
+        O[] newObservers = Arrays.copyOf(current, current.length + 1);
+        newObservers[current.length] = observer;
+        this.observers = newObservers;
+    }
+
+    /**
+     * @param observer the observer to remove.
+     */
+    synchronized void remove(O observer) {
+        O[] current = this.observers;
+        int index = Arrays.asList(current).indexOf(observer);
+        if (index >= 0) {
+            O[] newObservers = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, index + 1, newObservers, index, current.length - index - 1);
+            this.observers = newObservers;
+        }
+    }
+
+    /**
+     * @return an unmodifiable list of the current observers.
+     */
+    List<O> asList() {
+        return Collections.unmodifiableList(Arrays.asList(this.observers));
+    }
+}
@@ -29,6 +29,9 @@ import de.fthardy.flatpony.core.field.FlatDataField;
 import de.fthardy.flatpony.core.field.FlatDataMutableField;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConvertException;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToIntFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter;
 
 import java.io.Writer;
 
@@ -38,6 +41,11 @@ import java.io.Writer;
  * A type converter field allows to get and set the field value in a particular type 
  * A converted field provides the raw field value in a particular converted type. 
  * </p>
+ * <p>
+ * The value in the target type is cached and only converted again when the raw field value has changed. When the
+ * converter of the descriptor supports a primitive conversion the value can be obtained without boxing by
+ * {@link #getValueAsInt()}, {@link #getValueAsLong()} or {@link #getValueAsDouble()}.
+ * </p>
  * 
  * @param <T> the target type for the field value.
  *           
@@ -55,7 +63,15 @@ public class TypedField<T> extends AbstractFlatDataItemEntity<TypedFieldDescript
                 fieldValue, targetTypeName);
     }
 
+    static String MSG_Primitive_conversion_not_supported(String fieldName, String primitiveTypeName) {
+        return String.format("The field value converter of field '%s' doesn't support a conversion to %s!",
+                fieldName, primitiveTypeName);
+    }
+
     private final FlatDataField<?> decoratedField;
+    
+    private String convertedFieldValue;
+    private T convertedValue;
 
     /**
      * Creates a new instance of a constant field.
@@ -131,9 +147,16 @@ public class TypedField<T> extends AbstractFlatDataItemEntity<TypedFieldDescript
      * @throws FieldValueConvertException when the field value cannot be converted into the target type. 
      */
     public T getValueAsTargetType() {
+        String fieldValue = this.decoratedField.getValue();
+        if (this.convertedFieldValue != null && this.convertedFieldValue.equals(fieldValue)) {
+            return this.convertedValue;
+        }
         FieldValueConverter<T> converter = this.getDescriptor().getFieldValueConverter();
         try {
-            return converter.convertFromFieldValue(this.decoratedField.getValue());
+            T value = converter.convertFromFieldValue(fieldValue);
+            this.convertedValue = value;
+            this.convertedFieldValue = fieldValue;
+            return value;
         } catch (FieldValueConvertException e) {
             throw e;
         } catch (RuntimeException e) {
@@ -142,6 +165,90 @@ public class TypedField<T> extends AbstractFlatDataItemEntity<TypedFieldDescript
         }
     }
 
+    /**
+     * Get the field value as a primitive int value.
+     * <p>
+     * Requires the converter of the descriptor to be a {@link ToIntFieldValueConverter}.
+     * </p>
+     *
+     * @return the field value converted into an int value.
+     *
+     * @throws UnsupportedOperationException when the converter doesn't support a conversion to int.
+     * @throws FieldValueConvertException when the field value cannot be converted into an int value.
+     */
+    public int getValueAsInt() {
+        FieldValueConverter<T> converter = this.getDescriptor().getFieldValueConverter();
+        if (!(converter instanceof ToIntFieldValueConverter)) {
+            throw new UnsupportedOperationException(
+                    MSG_Primitive_conversion_not_supported(this.getDescriptor().getName(), "int"));
+        }
+        try {
+            return ((ToIntFieldValueConverter) converter).convertToInt(this.decoratedField.getValue());
+        } catch (FieldValueConvertException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new FieldValueConvertException(MSG_Convert_to_target_type_failed(this.getValue(), "int"), e);
+        }
+    }
+
+    /**
+     * Get the field value as a primitive long value.
+     * <p>
+     * Requires the converter of the descriptor to be a {@link ToLongFieldValueConverter} or a
+     * {@link ToIntFieldValueConverter}.
+     * </p>
+     *
+     * @return the field value converted into a long value.
+     *
+     * @throws UnsupportedOperationException when the converter doesn't support a conversion to long.
+     * @throws FieldValueConvertException when the field value cannot be converted into a long value.
+     */
+    public long getValueAsLong() {
+        FieldValueConverter<T> converter = this.getDescriptor().getFieldValueConverter();
+        if (converter instanceof ToIntFieldValueConverter) {
+            return this.getValueAsInt();
+        } else if (!(converter instanceof ToLongFieldValueConverter)) {
+            throw new UnsupportedOperationException(
+                    MSG_Primitive_conversion_not_supported(this.getDescriptor().getName(), "long"));
+        }
+        try {
+            return ((ToLongFieldValueConverter) converter).convertToLong(this.decoratedField.getValue());
+        } catch (FieldValueConvertException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new FieldValueConvertException(MSG_Convert_to_target_type_failed(this.getValue(), "long"), e);
+        }
+    }
+
+    /**
+     * Get the field value as a primitive double value.
+     * <p>
+     * Requires the converter of the descriptor to be a {@link ToDoubleFieldValueConverter}, a
+     * {@link ToLongFieldValueConverter} or a {@link ToIntFieldValueConverter}.
+     * </p>
+     *
+     * @return the field value converted into a double value.
+     *
+     * @throws UnsupportedOperationException when the converter doesn't support a conversion to double.
+     * @throws FieldValueConvertException when the field value cannot be converted into a double value.
+     */
+    public double getValueAsDouble() {
+        FieldValueConverter<T> converter = this.getDescriptor().getFieldValueConverter();
+        if (converter instanceof ToIntFieldValueConverter || converter instanceof ToLongFieldValueConverter) {
+            return this.getValueAsLong();
+        } else if (!(converter instanceof ToDoubleFieldValueConverter)) {
+            throw new UnsupportedOperationException(
+                    MSG_Primitive_conversion_not_supported(this.getDescriptor().getName(), "double"));
+        }
+        try {
+            return ((ToDoubleFieldValueConverter) converter).convertToDouble(this.decoratedField.getValue());
+        } catch (FieldValueConvertException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new FieldValueConvertException(MSG_Convert_to_target_type_failed(this.getValue(), "double"), e);
+        }
+    }
+
     /**
      * Set the field value as the converted target type which is then converted back into the raw field value.
      * 
@@ -24,10 +24,17 @@ SOFTWARE.
 package de.fthardy.flatpony.core.field.typed;
 
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToBooleanFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToIntFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.streamio.TypedStreamReadHandler;
 import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
 import de.fthardy.flatpony.core.util.ObjectBuilder;
 
@@ -41,6 +48,13 @@ import java.util.Objects;
  * particular data type. For this purpose this field wrapper needs a {@link FieldValueConverter converter}
  * implementation that converts the field value into the target type and vice versa. 
  * </p>
+ * <p>
+ * When a push read is performed with a {@link TypedStreamReadHandler} the value is reported to the handler already
+ * converted. If the converter supports a primitive conversion (e.g. {@link ToIntFieldValueConverter} or
+ * {@link ToDecimalFieldValueConverter}) the value is read into a reusable buffer and reported as primitive value
+ * without creating any intermediate string. The read value is kept in the buffer while the handler is called, so the
+ * default callbacks of the handler can report it unchanged.
+ * </p>
  *     
  * @param <T> the target type for the field value. 
  * 
@@ -114,6 +128,9 @@ public class TypedFieldDescriptor<T> implements FlatDataFieldDescriptor<TypedFie
         return new BuilderImpl<T>(fieldDescriptor);
     }
 
+    // the number of characters which always fit into an unscaled long value (including a sign)
+    private static final int MAX_UNSCALED_LENGTH = 18;
+
     private final FlatDataFieldDescriptor<?> decoratedFieldDescriptor;
     private final FieldValueConverter<T> fieldValueConverter;
 
@@ -155,7 +172,11 @@ public class TypedFieldDescriptor<T> implements FlatDataFieldDescriptor<TypedFie
 
     @Override
     public void pushReadFrom(Reader source, StreamReadHandler handler) {
-        this.decoratedFieldDescriptor.pushReadFrom(source, handler);
+        if (handler instanceof TypedStreamReadHandler) {
+            this.pushReadTypedValueFrom(source, (TypedStreamReadHandler) handler);
+        } else {
+            this.decoratedFieldDescriptor.pushReadFrom(source, handler);
+        }
     }
 
     @Override
@@ -168,6 +189,11 @@ public class TypedFieldDescriptor<T> implements FlatDataFieldDescriptor<TypedFie
         return this.decoratedFieldDescriptor.readValue(source);
     }
 
+    @Override
+    public void readValue(Reader source, FieldValueBuffer buffer) {
+        this.decoratedFieldDescriptor.readValue(source, buffer);
+    }
+
     @Override
     public <H extends FlatDataItemDescriptorHandler> H applyHandler(H handler) {
         if (handler instanceof TypedFieldDescriptorHandler) {
@@ -178,6 +204,40 @@ public class TypedFieldDescriptor<T> implements FlatDataFieldDescriptor<TypedFie
         return handler;
     }
 
+    private void pushReadTypedValueFrom(Reader source, TypedStreamReadHandler handler) {
+        if (this.fieldValueConverter instanceof ToIntFieldValueConverter) {
+            ToIntFieldValueConverter converter = (ToIntFieldValueConverter) this.fieldValueConverter;
+            handler.onIntFieldItem(this, converter.convertToInt(this.readValueIntoBuffer(source)));
+        } else if (this.fieldValueConverter instanceof ToLongFieldValueConverter) {
+            ToLongFieldValueConverter converter = (ToLongFieldValueConverter) this.fieldValueConverter;
+            handler.onLongFieldItem(this, converter.convertToLong(this.readValueIntoBuffer(source)));
+        } else if (this.fieldValueConverter instanceof ToDoubleFieldValueConverter) {
+            ToDoubleFieldValueConverter converter = (ToDoubleFieldValueConverter) this.fieldValueConverter;
+            handler.onDoubleFieldItem(this, converter.convertToDouble(this.readValueIntoBuffer(source)));
+        } else if (this.fieldValueConverter instanceof ToBooleanFieldValueConverter) {
+            ToBooleanFieldValueConverter converter = (ToBooleanFieldValueConverter) this.fieldValueConverter;
+            handler.onBooleanFieldItem(this, converter.convertToBoolean(this.readValueIntoBuffer(source)));
+        } else if (this.fieldValueConverter instanceof ToDecimalFieldValueConverter) {
+            ToDecimalFieldValueConverter converter = (ToDecimalFieldValueConverter) this.fieldValueConverter;
+            FieldValueBuffer buffer = this.readValueIntoBuffer(source);
+            if (buffer.length() <= MAX_UNSCALED_LENGTH) {
+                handler.onDecimalFieldItem(this, converter.convertToUnscaled(buffer), converter.getScale());
+            } else {
+                // The unscaled value might exceed the range of long
+                handler.onTypedFieldItem(this, this.fieldValueConverter.convertFromFieldValue(buffer.toString()));
+            }
+        } else {
+            handler.onTypedFieldItem(this,
+                    this.fieldValueConverter.convertFromFieldValue(this.readValueIntoBuffer(source).toString()));
+        }
+    }
+
+    private FieldValueBuffer readValueIntoBuffer(Reader source) {
+        FieldValueBuffer buffer = FieldValueBuffer.ofCurrentThread();
+        this.decoratedFieldDescriptor.readValue(source, buffer);
+        return buffer;
+    }
+
     /**
      * Get the field descriptor decorated by this descriptor instance.
      * 
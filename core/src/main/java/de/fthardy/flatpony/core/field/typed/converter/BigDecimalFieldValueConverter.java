@@ -0,0 +1,143 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Converts field values to BigDecimal and vice versa.
+ * <p>
+ * The field value may be padded with blanks and may have a leading sign. By default a converted value keeps the scale
+ * of the field value. Alternatively a fixed scale can be defined together with a rounding mode. Then any value is
+ * converted into the given scale and formatted with exactly this number of fraction digits.
+ * </p>
+ * <p>
+ * Plain decimal values with up to 18 digits are parsed directly into an unscaled long value so the
+ * {@link BigDecimal} instance is created without parsing a string and without any intermediate rescaling. Any other
+ * value is handed over to the constructor of {@link BigDecimal} after the same padding blanks have been removed.
+ * A value is formatted by {@link BigDecimal#toPlainString()} because the unscaled value of a {@link BigDecimal} is
+ * only accessible as {@link java.math.BigInteger}, so a conversion into a long for a hand-written formatting would
+ * cost more than it saves.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class BigDecimalFieldValueConverter implements FieldValueConverter<BigDecimal> {
+
+    private static final int KEEP_SCALE = -1;
+    private static final int MAX_FAST_PATH_SCALE = 18;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+
+    /**
+     * Create a new instance of this converter which keeps the scale of the field values.
+     */
+    public BigDecimalFieldValueConverter() {
+        this.scale = KEEP_SCALE;
+        this.roundingMode = RoundingMode.UNNECESSARY;
+    }
+
+    /**
+     * Create a new instance of this converter with a fixed scale.
+     *
+     * @param scale the number of fraction digits. Must not be negative.
+     * @param roundingMode the rounding mode to apply when a value has more fraction digits than the scale.
+     */
+    public BigDecimalFieldValueConverter(int scale, RoundingMode roundingMode) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("The scale must not be negative!");
+        }
+        this.scale = scale;
+        this.roundingMode = Objects.requireNonNull(roundingMode, "Undefined rounding mode!");
+    }
+
+    @Override
+    public Class<BigDecimal> getTargetType() {
+        return BigDecimal.class;
+    }
+
+    @Override
+    public BigDecimal convertFromFieldValue(String fieldValue) {
+        return this.convertToBigDecimal(fieldValue);
+    }
+
+    /**
+     * Convert the given field value to a BigDecimal value.
+     *
+     * @param fieldValue the field value to convert.
+     *
+     * @return the BigDecimal value.
+     *
+     * @throws FieldValueConvertException when the field value cannot be converted.
+     */
+    public BigDecimal convertToBigDecimal(CharSequence fieldValue) {
+        int targetScale = this.scale == KEEP_SCALE ? NumericValueParser.countFractionDigits(fieldValue) : this.scale;
+        if (targetScale <= MAX_FAST_PATH_SCALE) {
+            long unscaled = NumericValueParser.parseUnscaled(fieldValue, targetScale, this.roundingMode);
+            if (unscaled != NumericValueParser.NOT_REPRESENTABLE) {
+                return BigDecimal.valueOf(unscaled, targetScale);
+            }
+        }
+        try {
+            BigDecimal value = new BigDecimal(NumericValueParser.trimBlanks(fieldValue));
+            return this.scale == KEEP_SCALE ? value : value.setScale(this.scale, this.roundingMode);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new FieldValueConvertException(NumericValueParser.MSG_Invalid_number(fieldValue, "decimal"), e);
+        }
+    }
+
+    @Override
+    public String convertToFieldValue(BigDecimal value) {
+        if (this.scale == KEEP_SCALE || value.scale() == this.scale) {
+            return value.toPlainString();
+        }
+        try {
+            return value.setScale(this.scale, this.roundingMode).toPlainString();
+        } catch (ArithmeticException e) {
+            throw new FieldValueConvertException(NumericValueParser.MSG_Rounding_necessary(
+                    value.toPlainString(), this.scale), e);
+        }
+    }
+
+    /**
+     * Get the scale.
+     *
+     * @return the number of fraction digits or -1 if the scale of the field values is kept.
+     */
+    public int getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Get the rounding mode.
+     *
+     * @return the rounding mode.
+     */
+    public RoundingMode getRoundingMode() {
+        return this.roundingMode;
+    }
+}
@@ -30,7 +30,7 @@ import java.util.Objects;
  * 
  * @author Frank Timothy Hardy
  */
-public final class BooleanFieldValueConverter implements FieldValueConverter<Boolean> {
+public final class BooleanFieldValueConverter implements ToBooleanFieldValueConverter {
     
     static String MSG_Invalid_value(String value, String trueValue, String falseValue) {
         return String.format(
@@ -56,23 +56,19 @@ public final class BooleanFieldValueConverter implements FieldValueConverter<Boo
     }
 
     @Override
-    public Class<Boolean> getTargetType() {
-        return Boolean.class;
-    }
-
-    @Override
-    public Boolean convertFromFieldValue(String fieldValue) {
-        if (fieldValue.equals(this.falseValue)) {
-            return Boolean.FALSE;
-        } else if (fieldValue.equals(this.trueValue)) {
-            return Boolean.TRUE;
+    public boolean convertToBoolean(CharSequence fieldValue) {
+        if (this.falseValue.contentEquals(fieldValue)) {
+            return false;
+        } else if (this.trueValue.contentEquals(fieldValue)) {
+            return true;
         } else {
-            throw new FieldValueConvertException(MSG_Invalid_value(fieldValue, this.trueValue, this.falseValue));
+            throw new FieldValueConvertException(
+                    MSG_Invalid_value(fieldValue.toString(), this.trueValue, this.falseValue));
         }
     }
 
     @Override
-    public String convertToFieldValue(Boolean value) {
+    public String convertFromBoolean(boolean value) {
         return value ? this.trueValue : this.falseValue;
     }
 }
@@ -0,0 +1,312 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.util.Arrays;
+
+/**
+ * A compiled fixed width date/time pattern.
+ * <p>
+ * The pattern is compiled into the positions of its numeric fields and literal characters so that a value can be
+ * parsed and formatted positionally without a {@link java.time.format.DateTimeFormatter}. The following pattern
+ * letters are supported:
+ * </p>
+ * <ul>
+ *     <li>{@code yyyy} - the year (4 digits)</li>
+ *     <li>{@code MM} - the month of the year (2 digits)</li>
+ *     <li>{@code dd} - the day of the month (2 digits)</li>
+ *     <li>{@code HH} - the hour of the day (2 digits)</li>
+ *     <li>{@code mm} - the minute of the hour (2 digits)</li>
+ *     <li>{@code ss} - the second of the minute (2 digits)</li>
+ *     <li>{@code S...S} - the fraction of the second (1 to 9 digits)</li>
+ * </ul>
+ * <p>
+ * Any other character which is not a letter is a literal. Letters can be used as literals when enclosed in single
+ * quotes (e.g. {@code yyyy-MM-dd'T'HH:mm:ss}). Two single quotes represent a single quote.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class DateTimePattern {
+
+    static final int YEAR = 0;
+    static final int MONTH = 1;
+    static final int DAY = 2;
+    static final int HOUR = 3;
+    static final int MINUTE = 4;
+    static final int SECOND = 5;
+    static final int FRACTION = 6;
+
+    private static final String FIELD_LETTERS = "yMdHmsS";
+    private static final int[] MIN_FIELD_LENGTHS = {4, 2, 2, 2, 2, 2, 1};
+    private static final int[] MAX_FIELD_LENGTHS = {4, 2, 2, 2, 2, 2, 9};
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+    };
+
+    static String MSG_Invalid_pattern(String pattern, String reason) {
+        return String.format("Invalid date/time pattern [%s]: %s", pattern, reason);
+    }
+
+    static String MSG_Value_does_not_match_pattern(CharSequence value, String pattern) {
+        return String.format("The field value [%s] does not match the pattern [%s]!", value, pattern);
+    }
+
+    static String MSG_Value_cannot_be_formatted(Object value, String pattern) {
+        return String.format("The value [%s] cannot be formatted with the pattern [%s]!", value, pattern);
+    }
+
+    /**
+     * Compile a pattern.
+     *
+     * @param pattern the pattern to compile.
+     *
+     * @return the compiled pattern.
+     *
+     * @throws IllegalArgumentException when the pattern is invalid.
+     */
+    static DateTimePattern compile(String pattern) {
+        int[] offsets = new int[FIELD_LETTERS.length()];
+        int[] lengths = new int[FIELD_LETTERS.length()];
+        Arrays.fill(offsets, -1);
+        StringBuilder template = new StringBuilder();
+
+        int index = 0;
+        while (index < pattern.length()) {
+            char c = pattern.charAt(index);
+            if (c == '\'') {
+                int end = index + 1;
+                if (end < pattern.length() && pattern.charAt(end) == '\'') {
+                    template.append('\'');
+                    index += 2;
+                    continue;
+                }
+                while (end < pattern.length() && pattern.charAt(end) != '\'') {
+                    template.append(pattern.charAt(end++));
+                }
+                if (end == pattern.length()) {
+                    throw new IllegalArgumentException(MSG_Invalid_pattern(pattern, "Unterminated quote!"));
+                }
+                index = end + 1;
+            } else if (Character.isLetter(c)) {
+                int field = FIELD_LETTERS.indexOf(c);
+                if (field == -1) {
+                    throw new IllegalArgumentException(
+                            MSG_Invalid_pattern(pattern, "Unsupported pattern letter '" + c + "'!"));
+                }
+                if (offsets[field] != -1) {
+                    throw new IllegalArgumentException(
+                            MSG_Invalid_pattern(pattern, "Duplicate pattern letter '" + c + "'!"));
+                }
+                int end = index;
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+                int length = end - index;
+                if (length < MIN_FIELD_LENGTHS[field] || length > MAX_FIELD_LENGTHS[field]) {
+                    throw new IllegalArgumentException(
+                            MSG_Invalid_pattern(pattern, "Invalid number of pattern letters '" + c + "'!"));
+                }
+                offsets[field] = template.length();
+                lengths[field] = length;
+                for (int i = 0; i < length; i++) {
+                    template.append('0');
+                }
+                index = end;
+            } else {
+                template.append(c);
+                index++;
+            }
+        }
+        return new DateTimePattern(pattern, template.toString().toCharArray(), offsets, lengths);
+    }
+
+    private final String pattern;
+    private final char[] template;
+    private final boolean[] literalPositions;
+    private final int[] fieldOffsets;
+    private final int[] fieldLengths;
+
+    private DateTimePattern(String pattern, char[] template, int[] fieldOffsets, int[] fieldLengths) {
+        this.pattern = pattern;
+        this.template = template;
+        this.fieldOffsets = fieldOffsets;
+        this.fieldLengths = fieldLengths;
+        this.literalPositions = new boolean[template.length];
+        Arrays.fill(this.literalPositions, true);
+        for (int field = 0; field < fieldOffsets.length; field++) {
+            if (fieldOffsets[field] != -1) {
+                Arrays.fill(this.literalPositions, fieldOffsets[field], fieldOffsets[field] + fieldLengths[field], false);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.pattern;
+    }
+
+    /**
+     * Check if the pattern contains a particular field.
+     *
+     * @param field the field.
+     *
+     * @return {@code true} if the pattern contains the field.
+     */
+    boolean hasField(int field) {
+        return this.fieldOffsets[field] != -1;
+    }
+
+    /**
+     * Make sure that the pattern contains exactly the given fields.
+     *
+     * @param requiredFields the fields which have to be contained.
+     * @param optionalFields the fields which may be contained.
+     *
+     * @return this pattern.
+     *
+     * @throws IllegalArgumentException when a required field is missing or any other field is contained.
+     */
+    DateTimePattern checkFields(int[] requiredFields, int[] optionalFields) {
+        int expected = 0;
+        for (int field : requiredFields) {
+            if (!this.hasField(field)) {
+                throw new IllegalArgumentException(MSG_Invalid_pattern(this.pattern,
+                        "Missing pattern letter '" + FIELD_LETTERS.charAt(field) + "'!"));
+            }
+            expected |= 1 << field;
+        }
+        for (int field : optionalFields) {
+            expected |= 1 << field;
+        }
+        for (int field = 0; field < this.fieldOffsets.length; field++) {
+            if (this.hasField(field) && (expected & 1 << field) == 0) {
+                throw new IllegalArgumentException(MSG_Invalid_pattern(this.pattern,
+                        "Pattern letter '" + FIELD_LETTERS.charAt(field) + "' is not supported for this type!"));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Check that a value has the length of the pattern and the literals at their positions.
+     *
+     * @param value the value to check.
+     *
+     * @throws FieldValueConvertException when the value does not match the pattern.
+     */
+    void checkLiterals(CharSequence value) {
+        if (value.length() != this.template.length) {
+            throw new FieldValueConvertException(MSG_Value_does_not_match_pattern(value, this.pattern));
+        }
+        for (int i = 0; i < this.template.length; i++) {
+            if (this.literalPositions[i] && value.charAt(i) != this.template[i]) {
+                throw new FieldValueConvertException(MSG_Value_does_not_match_pattern(value, this.pattern));
+            }
+        }
+    }
+
+    /**
+     * Parse the digits of a field from a value which has been checked by {@link #checkLiterals(CharSequence)}.
+     *
+     * @param value the value.
+     * @param field the field to parse.
+     *
+     * @return the numeric value of the field or 0 if the pattern doesn't contain the field.
+     *
+     * @throws FieldValueConvertException when the field contains a character which is not a digit.
+     */
+    int parseField(CharSequence value, int field) {
+        int offset = this.fieldOffsets[field];
+        if (offset == -1) {
+            return 0;
+        }
+        int result = 0;
+        for (int i = offset, end = offset + this.fieldLengths[field]; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new FieldValueConvertException(MSG_Value_does_not_match_pattern(value, this.pattern));
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Parse the fraction of the second.
+     *
+     * @param value the value.
+     *
+     * @return the nano of the second or 0 if the pattern doesn't contain a fraction.
+     */
+    int parseNanos(CharSequence value) {
+        return this.parseField(value, FRACTION) * POWERS_OF_TEN[9 - this.fieldLengths[FRACTION]];
+    }
+
+    /**
+     * Create a new character array which contains the literals of the pattern.
+     *
+     * @return the new array which can be filled with the fields.
+     */
+    char[] newTemplate() {
+        return this.template.clone();
+    }
+
+    /**
+     * Format a field into a character array created by {@link #newTemplate()}.
+     *
+     * @param target the target array.
+     * @param field the field to format.
+     * @param fieldValue the value of the field. If the pattern doesn't contain the field it is ignored.
+     *
+     * @return {@code true} if the value fits into the field.
+     */
+    boolean formatField(char[] target, int field, int fieldValue) {
+        int offset = this.fieldOffsets[field];
+        if (offset == -1) {
+            return true;
+        }
+        int remainder = fieldValue;
+        for (int i = offset + this.fieldLengths[field] - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + remainder % 10);
+            remainder /= 10;
+        }
+        return remainder == 0 && fieldValue >= 0;
+    }
+
+    /**
+     * Format the nano of the second into a character array created by {@link #newTemplate()}.
+     * <p>
+     * Digits which do not fit into the fraction field are truncated.
+     * </p>
+     *
+     * @param target the target array.
+     * @param nanos the nano of the second.
+     */
+    void formatNanos(char[] target, int nanos) {
+        if (this.hasField(FRACTION)) {
+            this.formatField(target, FRACTION, nanos / POWERS_OF_TEN[9 - this.fieldLengths[FRACTION]]);
+        }
+    }
+}
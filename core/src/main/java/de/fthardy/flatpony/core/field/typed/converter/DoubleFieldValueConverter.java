@@ -0,0 +1,181 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Converts field values to Double and vice versa.
+ * <p>
+ * The field value may be padded with blanks and may have a leading sign. By default the field values are parsed like
+ * {@link Double#parseDouble(String)} does and formatted by {@link Double#toString(double)}. Alternatively a fixed
+ * scale can be defined together with a rounding mode. Then a field value is rounded to the given number of fraction
+ * digits before it is converted to a double and a double value is formatted with exactly this number of fraction
+ * digits. The rounding is applied to the decimal representation of a double value given by
+ * {@link Double#toString(double)} which is the same as {@code BigDecimal.valueOf(value).setScale(scale, roundingMode)}.
+ * </p>
+ * <p>
+ * As a {@link ToDoubleFieldValueConverter} this converter allows to parse the value directly from a read buffer into
+ * a primitive double value. Common values are parsed and formatted without creating any {@link BigDecimal} instances.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class DoubleFieldValueConverter implements ToDoubleFieldValueConverter {
+
+    static String MSG_Not_a_finite_value(double value) {
+        return String.format("Cannot convert the value [%s] to a field value with a fixed scale!", value);
+    }
+
+    private static final int NO_SCALE = -1;
+    private static final int MAX_FAST_PATH_SCALE = 18;
+
+    /** Up to this limit a scaled value has enough fraction bits to decide how it has to be rounded. */
+    private static final double MAX_FAST_PATH_SCALED_VALUE = 0x1p50;
+
+    /** The largest integer which can be represented exactly by a double. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+
+    /**
+     * Create a new instance of this converter without a fixed scale.
+     */
+    public DoubleFieldValueConverter() {
+        this.scale = NO_SCALE;
+        this.roundingMode = RoundingMode.UNNECESSARY;
+    }
+
+    /**
+     * Create a new instance of this converter with a fixed scale.
+     *
+     * @param scale the number of fraction digits. Must not be negative.
+     * @param roundingMode the rounding mode to apply when a value has more fraction digits than the scale.
+     */
+    public DoubleFieldValueConverter(int scale, RoundingMode roundingMode) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("The scale must not be negative!");
+        }
+        this.scale = scale;
+        this.roundingMode = Objects.requireNonNull(roundingMode, "Undefined rounding mode!");
+    }
+
+    @Override
+    public double convertToDouble(CharSequence fieldValue) {
+        if (this.scale == NO_SCALE) {
+            return NumericValueParser.parseDouble(fieldValue);
+        }
+        if (this.scale <= MAX_FAST_PATH_SCALE) {
+            long unscaled = NumericValueParser.parseUnscaled(fieldValue, this.scale, this.roundingMode);
+            if (unscaled != NumericValueParser.NOT_REPRESENTABLE) {
+                if (Math.abs(unscaled) <= MAX_EXACT_DOUBLE_INTEGER) {
+                    // Both operands are exact so the single rounding of the division gives the correct result
+                    return unscaled / NumericValueParser.POWERS_OF_TEN[this.scale];
+                }
+                return BigDecimal.valueOf(unscaled, this.scale).doubleValue();
+            }
+        }
+        try {
+            return new BigDecimal(NumericValueParser.trimBlanks(fieldValue)).setScale(this.scale, this.roundingMode).doubleValue();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new FieldValueConvertException(NumericValueParser.MSG_Invalid_number(fieldValue, "double"), e);
+        }
+    }
+
+    @Override
+    public String convertFromDouble(double value) {
+        if (this.scale == NO_SCALE) {
+            return Double.toString(value);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new FieldValueConvertException(MSG_Not_a_finite_value(value));
+        }
+        if (this.scale <= MAX_FAST_PATH_SCALE) {
+            long unscaled = this.roundToUnscaled(value);
+            if (unscaled != NumericValueParser.NOT_REPRESENTABLE) {
+                return NumericValueFormatter.formatUnscaled(unscaled, this.scale);
+            }
+        }
+        try {
+            return BigDecimal.valueOf(value).setScale(this.scale, this.roundingMode).toPlainString();
+        } catch (ArithmeticException e) {
+            throw new FieldValueConvertException(NumericValueParser.MSG_Rounding_necessary(
+                    Double.toString(value), this.scale), e);
+        }
+    }
+
+    /**
+     * Get the scale.
+     *
+     * @return the number of fraction digits or -1 if no fixed scale is defined.
+     */
+    public int getScale() {
+        return this.scale;
+    }
+
+    /**
+     * Get the rounding mode.
+     *
+     * @return the rounding mode.
+     */
+    public RoundingMode getRoundingMode() {
+        return this.roundingMode;
+    }
+
+    private long roundToUnscaled(double value) {
+        double magnitude = Math.abs(value);
+        double factor = NumericValueParser.POWERS_OF_TEN[this.scale];
+        double scaled = magnitude * factor;
+        if (!(scaled < MAX_FAST_PATH_SCALED_VALUE)) {
+            return NumericValueParser.NOT_REPRESENTABLE;
+        }
+
+        long unscaled;
+        double nearest = Math.rint(scaled);
+        if (nearest / factor == magnitude) {
+            // The decimal value has no more fraction digits than the scale, so there is nothing to round
+            unscaled = (long) nearest;
+        } else if (this.roundingMode == RoundingMode.UNNECESSARY) {
+            return NumericValueParser.NOT_REPRESENTABLE;
+        } else {
+            double integral = Math.floor(scaled);
+            double fraction = scaled - integral;
+            // The scaled value is off by a few ulps at most. Values which are too close to a rounding boundary are
+            // left to BigDecimal.
+            double margin = 4 * Math.ulp(scaled);
+            if (fraction <= margin || fraction >= 1.0 - margin || Math.abs(fraction - 0.5) <= margin) {
+                return NumericValueParser.NOT_REPRESENTABLE;
+            }
+            unscaled = (long) integral;
+            if (NumericValueParser.isRoundingAwayFromZero(
+                    this.roundingMode, value < 0, false, fraction > 0.5 ? 9 : 1, true)) {
+                unscaled++;
+            }
+        }
+        return value < 0 ? -unscaled : unscaled;
+    }
+}
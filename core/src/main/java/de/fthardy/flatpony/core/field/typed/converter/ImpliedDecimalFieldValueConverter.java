@@ -0,0 +1,141 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Converts field values with an implied decimal point to BigDecimal and vice versa.
+ * <p>
+ * Host generated amounts often have no decimal point (e.g. a COBOL {@code PIC 9(7)V99}). The field value
+ * {@code 000012345} with a scale of 2 represents the amount 123.45. The field value may be padded with blanks and may
+ * have a leading sign. A value is formatted with at least {@code scale + 1} digits. Leading zeros up to the field size
+ * can be achieved by a fixed size field with a zero as fill character.
+ * </p>
+ * <p>
+ * The digits are decoded in a single pass into an unscaled long value. Values with more than 18 digits are decoded
+ * via {@link BigInteger}. The unscaled value can also be obtained directly by {@link #convertToUnscaled(CharSequence)}
+ * which doesn't create any objects at all.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ImpliedDecimalFieldValueConverter implements ToDecimalFieldValueConverter {
+
+    private static final int MAX_FAST_PATH_LENGTH = 18;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+
+    /**
+     * Create a new instance of this converter which doesn't allow to round values when they are formatted.
+     *
+     * @param scale the number of implied fraction digits. Must not be negative.
+     */
+    public ImpliedDecimalFieldValueConverter(int scale) {
+        this(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Create a new instance of this converter.
+     *
+     * @param scale the number of implied fraction digits. Must not be negative.
+     * @param roundingMode the rounding mode to apply when a value with more fraction digits is formatted.
+     */
+    public ImpliedDecimalFieldValueConverter(int scale, RoundingMode roundingMode) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("The scale must not be negative!");
+        }
+        this.scale = scale;
+        this.roundingMode = Objects.requireNonNull(roundingMode, "Undefined rounding mode!");
+    }
+
+    @Override
+    public BigDecimal convertFromFieldValue(String fieldValue) {
+        if (fieldValue.length() > MAX_FAST_PATH_LENGTH) {
+            String digits = NumericValueParser.trimBlanks(fieldValue);
+            if (digits.length() > MAX_FAST_PATH_LENGTH) {
+                try {
+                    return new BigDecimal(new BigInteger(digits), this.scale);
+                } catch (NumberFormatException e) {
+                    throw new FieldValueConvertException(
+                            NumericValueParser.MSG_Invalid_number(fieldValue, "decimal"), e);
+                }
+            }
+        }
+        return BigDecimal.valueOf(this.convertToUnscaled(fieldValue), this.scale);
+    }
+
+    @Override
+    public long convertToUnscaled(CharSequence fieldValue) {
+        return NumericValueParser.parseLong(fieldValue);
+    }
+
+    @Override
+    public String convertToFieldValue(BigDecimal value) {
+        BigDecimal scaledValue;
+        try {
+            scaledValue = value.setScale(this.scale, this.roundingMode);
+        } catch (ArithmeticException e) {
+            throw new FieldValueConvertException(
+                    NumericValueParser.MSG_Rounding_necessary(value.toPlainString(), this.scale), e);
+        }
+        if (scaledValue.precision() <= MAX_FAST_PATH_LENGTH) {
+            // Moving the decimal point keeps the compact representation so no BigInteger is created
+            return this.convertFromUnscaled(scaledValue.scaleByPowerOfTen(this.scale).longValue());
+        }
+        String digits = scaledValue.unscaledValue().abs().toString();
+        StringBuilder builder = new StringBuilder(digits.length() + this.scale + 2);
+        if (scaledValue.signum() < 0) {
+            builder.append('-');
+        }
+        for (int i = digits.length(); i <= this.scale; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits).toString();
+    }
+
+    @Override
+    public String convertFromUnscaled(long unscaled) {
+        char[] chars = new char[Math.max(19, this.scale + 1) + 1];
+        int position = NumericValueFormatter.formatMagnitude(unscaled, this.scale + 1, chars, chars.length);
+        if (unscaled < 0) {
+            chars[--position] = '-';
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    @Override
+    public int getScale() {
+        return this.scale;
+    }
+
+    @Override
+    public RoundingMode getRoundingMode() {
+        return this.roundingMode;
+    }
+}
@@ -25,23 +25,22 @@ package de.fthardy.flatpony.core.field.typed.converter;
 
 /**
  * Converts field values to Integer and vice versa.
+ * <p>
+ * The field value may be padded with blanks and may have a leading sign. As a {@link ToIntFieldValueConverter} this
+ * converter allows to parse the value directly from a read buffer into a primitive int value.
+ * </p>
  * 
  * @author Frank Timothy Hardy
  */
-public final class IntegerFieldValueConverter implements FieldValueConverter<Integer> {
+public final class IntegerFieldValueConverter implements ToIntFieldValueConverter {
 
     @Override
-    public Class<Integer> getTargetType() {
-        return Integer.class;
+    public int convertToInt(CharSequence fieldValue) {
+        return NumericValueParser.parseInt(fieldValue);
     }
 
     @Override
-    public Integer convertFromFieldValue(String fieldValue) {
-        return Integer.valueOf(fieldValue);
-    }
-
-    @Override
-    public String convertToFieldValue(Integer value) {
-        return value.toString();
+    public String convertFromInt(int value) {
+        return Integer.toString(value);
     }
 }
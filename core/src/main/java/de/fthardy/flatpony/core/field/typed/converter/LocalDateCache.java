@@ -0,0 +1,74 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.time.LocalDate;
+
+/**
+ * A small cache for recently used dates.
+ * <p>
+ * The cache is direct mapped: each date has exactly one slot, determined by a hash of its year, month and day. A new
+ * date simply replaces the date in its slot. Since {@link LocalDate} is immutable the cache can be shared by several
+ * threads without any synchronization. In the worst case a date is created again.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class LocalDateCache {
+
+    private final LocalDate[] entries;
+    private final int shift;
+
+    /**
+     * Create a new cache.
+     *
+     * @param size the number of dates to hold. Is rounded up to the next power of two.
+     */
+    LocalDateCache(int size) {
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
+        this.entries = new LocalDate[1 << bits];
+        this.shift = 32 - bits;
+    }
+
+    /**
+     * Get the date for the given year, month and day.
+     *
+     * @param year the year.
+     * @param month the month of the year.
+     * @param day the day of the month.
+     *
+     * @return the cached date or a new one if the date is not in the cache.
+     *
+     * @throws java.time.DateTimeException when the values do not represent a valid date.
+     */
+    LocalDate get(int year, int month, int day) {
+        int index = (((year * 100 + month) * 100 + day) * 0x9E3779B9) >>> this.shift;
+        LocalDate date = this.entries[index];
+        if (date == null || date.getDayOfMonth() != day || date.getMonthValue() != month || date.getYear() != year) {
+            date = LocalDate.of(year, month, day);
+            this.entries[index] = date;
+        }
+        return date;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import static de.fthardy.flatpony.core.field.typed.converter.DateTimePattern.*;
+
+/**
+ * Converts field values to LocalDate and vice versa using a fixed width numeric pattern (e.g. {@code yyyyMMdd} or
+ * {@code yyyy-MM-dd}).
+ * <p>
+ * The pattern is compiled once so that the digits of a field value are parsed positionally without a
+ * {@link java.time.format.DateTimeFormatter}. See {@link DateTimePattern} for the supported pattern letters. The
+ * pattern must contain a year, a month and a day and nothing else.
+ * </p>
+ * <p>
+ * Optionally the converter caches recently converted dates. This pays off when the same dates occur again and again
+ * (e.g. the business date in each record of a daily file).
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class LocalDateFieldValueConverter implements FieldValueConverter<LocalDate> {
+
+    private final DateTimePattern pattern;
+    private final LocalDateCache cache;
+
+    /**
+     * Create a new instance of this converter without a cache.
+     *
+     * @param pattern the date pattern.
+     *
+     * @throws IllegalArgumentException when the pattern is invalid.
+     */
+    public LocalDateFieldValueConverter(String pattern) {
+        this(pattern, 0);
+    }
+
+    /**
+     * Create a new instance of this converter.
+     *
+     * @param pattern the date pattern.
+     * @param cacheSize the number of recently converted dates to cache or 0 to disable caching.
+     *
+     * @throws IllegalArgumentException when the pattern is invalid or the cache size is negative.
+     */
+    public LocalDateFieldValueConverter(String pattern, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative!");
+        }
+        this.pattern = DateTimePattern.compile(pattern)
+                .checkFields(new int[] {YEAR, MONTH, DAY}, new int[0]);
+        this.cache = cacheSize == 0 ? null : new LocalDateCache(cacheSize);
+    }
+
+    @Override
+    public Class<LocalDate> getTargetType() {
+        return LocalDate.class;
+    }
+
+    @Override
+    public LocalDate convertFromFieldValue(String fieldValue) {
+        return this.convertToLocalDate(fieldValue);
+    }
+
+    /**
+     * Convert the given field value to a LocalDate value.
+     *
+     * @param fieldValue the field value to convert.
+     *
+     * @return the date.
+     *
+     * @throws FieldValueConvertException when the field value does not match the pattern or is not a valid date.
+     */
+    public LocalDate convertToLocalDate(CharSequence fieldValue) {
+        this.pattern.checkLiterals(fieldValue);
+        int year = this.pattern.parseField(fieldValue, YEAR);
+        int month = this.pattern.parseField(fieldValue, MONTH);
+        int day = this.pattern.parseField(fieldValue, DAY);
+        try {
+            return this.cache == null ? LocalDate.of(year, month, day) : this.cache.get(year, month, day);
+        } catch (DateTimeException e) {
+            throw new FieldValueConvertException(
+                    MSG_Value_does_not_match_pattern(fieldValue, this.pattern.toString()), e);
+        }
+    }
+
+    @Override
+    public String convertToFieldValue(LocalDate value) {
+        char[] chars = this.pattern.newTemplate();
+        if (!this.pattern.formatField(chars, YEAR, value.getYear())) {
+            throw new FieldValueConvertException(MSG_Value_cannot_be_formatted(value, this.pattern.toString()));
+        }
+        this.pattern.formatField(chars, MONTH, value.getMonthValue());
+        this.pattern.formatField(chars, DAY, value.getDayOfMonth());
+        return new String(chars);
+    }
+}
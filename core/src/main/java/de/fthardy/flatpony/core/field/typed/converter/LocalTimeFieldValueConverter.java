@@ -0,0 +1,101 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.time.DateTimeException;
+import java.time.LocalTime;
+
+import static de.fthardy.flatpony.core.field.typed.converter.DateTimePattern.*;
+
+/**
+ * Converts field values to LocalTime and vice versa using a fixed width numeric pattern (e.g. {@code HHmmss} or
+ * {@code HH:mm:ss.SSS}).
+ * <p>
+ * The pattern is compiled once so that the digits of a field value are parsed positionally without a
+ * {@link java.time.format.DateTimeFormatter}. See {@link DateTimePattern} for the supported pattern letters. The
+ * pattern must contain an hour and a minute and may contain a second and a fraction of the second. When a time is
+ * formatted, digits of the fraction which do not fit into the pattern are truncated.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class LocalTimeFieldValueConverter implements FieldValueConverter<LocalTime> {
+
+    private final DateTimePattern pattern;
+
+    /**
+     * Create a new instance of this converter.
+     *
+     * @param pattern the time pattern.
+     *
+     * @throws IllegalArgumentException when the pattern is invalid.
+     */
+    public LocalTimeFieldValueConverter(String pattern) {
+        this.pattern = DateTimePattern.compile(pattern)
+                .checkFields(new int[] {HOUR, MINUTE}, new int[] {SECOND, FRACTION});
+    }
+
+    @Override
+    public Class<LocalTime> getTargetType() {
+        return LocalTime.class;
+    }
+
+    @Override
+    public LocalTime convertFromFieldValue(String fieldValue) {
+        return this.convertToLocalTime(fieldValue);
+    }
+
+    /**
+     * Convert the given field value to a LocalTime value.
+     *
+     * @param fieldValue the field value to convert.
+     *
+     * @return the time.
+     *
+     * @throws FieldValueConvertException when the field value does not match the pattern or is not a valid time.
+     */
+    public LocalTime convertToLocalTime(CharSequence fieldValue) {
+        this.pattern.checkLiterals(fieldValue);
+        try {
+            return LocalTime.of(
+                    this.pattern.parseField(fieldValue, HOUR),
+                    this.pattern.parseField(fieldValue, MINUTE),
+                    this.pattern.parseField(fieldValue, SECOND),
+                    this.pattern.parseNanos(fieldValue));
+        } catch (DateTimeException e) {
+            throw new FieldValueConvertException(
+                    MSG_Value_does_not_match_pattern(fieldValue, this.pattern.toString()), e);
+        }
+    }
+
+    @Override
+    public String convertToFieldValue(LocalTime value) {
+        char[] chars = this.pattern.newTemplate();
+        this.pattern.formatField(chars, HOUR, value.getHour());
+        this.pattern.formatField(chars, MINUTE, value.getMinute());
+        this.pattern.formatField(chars, SECOND, value.getSecond());
+        this.pattern.formatNanos(chars, value.getNano());
+        return new String(chars);
+    }
+}
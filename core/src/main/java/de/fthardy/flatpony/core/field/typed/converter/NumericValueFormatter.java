@@ -0,0 +1,99 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+/**
+ * Formats numeric values into field value strings.
+ * <p>
+ * The counterpart of {@link NumericValueParser}. A decimal value is formatted from its unscaled long value without
+ * the detour over {@link java.math.BigDecimal}.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class NumericValueFormatter {
+
+    /**
+     * Format an unscaled value as a plain decimal string.
+     * <p>
+     * The result is the same as {@code BigDecimal.valueOf(unscaled, scale).toPlainString()}.
+     * </p>
+     *
+     * @param unscaled the unscaled value.
+     * @param scale the number of fraction digits. Must not be negative.
+     *
+     * @return the formatted value.
+     */
+    static String formatUnscaled(long unscaled, int scale) {
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+
+        char[] chars = new char[Math.max(19, scale + 1) + 2];
+        int position = chars.length;
+        // Work with the negative value to be able to format Long.MIN_VALUE
+        long remainder = unscaled > 0 ? -unscaled : unscaled;
+        for (int i = 0; i < scale; i++) {
+            chars[--position] = (char) ('0' - remainder % 10);
+            remainder /= 10;
+        }
+        chars[--position] = '.';
+        do {
+            chars[--position] = (char) ('0' - remainder % 10);
+            remainder /= 10;
+        } while (remainder != 0);
+        if (unscaled < 0) {
+            chars[--position] = '-';
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    /**
+     * Format the digits of the magnitude of an unscaled value right aligned into a character array.
+     *
+     * @param unscaled the unscaled value.
+     * @param minDigits the minimum number of digits. Missing digits are filled up with leading zeros.
+     * @param target the target array. Must be able to hold at least {@code max(19, minDigits)} digits.
+     * @param end the position after the last digit in the target array.
+     *
+     * @return the position of the first digit in the target array.
+     */
+    static int formatMagnitude(long unscaled, int minDigits, char[] target, int end) {
+        int position = end;
+        // Work with the negative value to be able to format Long.MIN_VALUE
+        long remainder = unscaled > 0 ? -unscaled : unscaled;
+        do {
+            target[--position] = (char) ('0' - remainder % 10);
+            remainder /= 10;
+        } while (remainder != 0);
+        while (end - position < minDigits) {
+            target[--position] = '0';
+        }
+        return position;
+    }
+
+    private NumericValueFormatter() {
+        // Provides static methods only
+    }
+}
@@ -0,0 +1,414 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.RoundingMode;
+
+/**
+ * Parses primitive numeric values directly from character sequences.
+ * <p>
+ * The parse methods work on any {@link CharSequence} so that a field value can be parsed straight from a read buffer
+ * without creating an intermediate string. Leading and trailing blanks are ignored so that the value of a padded
+ * field can be parsed without trimming it first. An optional sign ('+' or '-') may precede the digits.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class NumericValueParser {
+
+    static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** The largest integer which can be represented exactly by a double. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /** The maximum number of significant digits accumulated for a double before falling back to the JDK. */
+    private static final int MAX_FAST_PATH_DIGITS = 18;
+
+    /**
+     * Returned by {@link #parseUnscaled(CharSequence, int, RoundingMode)} when a value cannot be represented as an
+     * unscaled long value or has a format which is not supported by the fast path.
+     */
+    static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    static final long[] LONG_POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L,
+            100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L,
+            10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+
+    static String MSG_Invalid_number(CharSequence value, String typeName) {
+        return String.format("Cannot convert field value [%s] to %s!", value, typeName);
+    }
+
+    static String MSG_Rounding_necessary(CharSequence value, int scale) {
+        return String.format("Cannot convert field value [%s] to scale %d without rounding!", value, scale);
+    }
+
+    /**
+     * Parse an int value.
+     *
+     * @param value the characters to parse.
+     *
+     * @return the parsed value.
+     *
+     * @throws FieldValueConvertException when the characters do not represent a valid int value.
+     */
+    static int parseInt(CharSequence value) {
+        long result = parseLong(value, "int");
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new FieldValueConvertException(MSG_Invalid_number(value, "int"));
+        }
+        return (int) result;
+    }
+
+    /**
+     * Parse a long value.
+     *
+     * @param value the characters to parse.
+     *
+     * @return the parsed value.
+     *
+     * @throws FieldValueConvertException when the characters do not represent a valid long value.
+     */
+    static long parseLong(CharSequence value) {
+        return parseLong(value, "long");
+    }
+
+    private static long parseLong(CharSequence value, String typeName) {
+        int end = trimEnd(value);
+        int index = trimStart(value, end);
+        if (index == end) {
+            throw new FieldValueConvertException(MSG_Invalid_number(value, typeName));
+        }
+
+        boolean negative = false;
+        char c = value.charAt(index);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++index == end) {
+                throw new FieldValueConvertException(MSG_Invalid_number(value, typeName));
+            }
+        }
+
+        // Accumulate negatively to be able to represent Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        while (index < end) {
+            int digit = value.charAt(index++) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw new FieldValueConvertException(MSG_Invalid_number(value, typeName));
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new FieldValueConvertException(MSG_Invalid_number(value, typeName));
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse a double value.
+     * <p>
+     * The digits of the value (up to {@value #MAX_FAST_PATH_DIGITS} of them without the leading zeros) are accumulated
+     * into a long significand. When the significand is at most 2<sup>53</sup> and the decimal exponent, i.e. the
+     * exponent of the value minus the number of fraction digits, lies between -22 and 22, the value is computed by a
+     * single multiplication or division of two exactly representable doubles, which gives the correctly rounded
+     * result. Any other value is handed over to {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param value the characters to parse.
+     *
+     * @return the parsed value.
+     *
+     * @throws FieldValueConvertException when the characters do not represent a valid double value.
+     */
+    static double parseDouble(CharSequence value) {
+        int end = trimEnd(value);
+        int start = trimStart(value, end);
+        if (start == end) {
+            throw new FieldValueConvertException(MSG_Invalid_number(value, "double"));
+        }
+
+        int index = start;
+        boolean negative = false;
+        char c = value.charAt(index);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            index++;
+        }
+
+        long significand = 0;
+        int significantDigits = 0;
+        int digitCount = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        while (index < end) {
+            c = value.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digitCount++;
+                if (significantDigits > 0 || c != '0') {
+                    if (++significantDigits > MAX_FAST_PATH_DIGITS) {
+                        return parseDoubleSlow(value, start, end);
+                    }
+                    significand = significand * 10 + (c - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+            index++;
+        }
+        if (digitCount == 0) {
+            return parseDoubleSlow(value, start, end);
+        }
+
+        if (index < end) {
+            c = value.charAt(index);
+            if (c != 'e' && c != 'E' || ++index == end) {
+                return parseDoubleSlow(value, start, end);
+            }
+            boolean negativeExponent = false;
+            c = value.charAt(index);
+            if (c == '-' || c == '+') {
+                negativeExponent = c == '-';
+                if (++index == end) {
+                    return parseDoubleSlow(value, start, end);
+                }
+            }
+            int explicitExponent = 0;
+            while (index < end) {
+                int digit = value.charAt(index++) - '0';
+                if (digit < 0 || digit > 9 || explicitExponent > 10000) {
+                    return parseDoubleSlow(value, start, end);
+                }
+                explicitExponent = explicitExponent * 10 + digit;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        double result;
+        if (significand == 0) {
+            result = 0.0;
+        } else if (significand <= MAX_EXACT_DOUBLE_INTEGER && exponent >= -22 && exponent <= 22) {
+            // Both operands are exact so the single rounding of the operation gives the correct result
+            result = exponent < 0 ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+        } else {
+            return parseDoubleSlow(value, start, end);
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Count the fraction digits of a plain decimal value.
+     *
+     * @param value the characters of the decimal value.
+     *
+     * @return the number of digits after the decimal point.
+     */
+    static int countFractionDigits(CharSequence value) {
+        int end = trimEnd(value);
+        int index = 0;
+        while (index < end && value.charAt(index) != '.') {
+            index++;
+        }
+        int count = 0;
+        while (++index < end && Character.isDigit(value.charAt(index))) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Parse a plain decimal value into an unscaled long value with the given scale.
+     * <p>
+     * The value may consist of an optional sign, digits and an optional decimal point. When the value has more
+     * fraction digits than the given scale it is rounded with the given rounding mode. If the value has any other
+     * format (e.g. an exponent) or cannot be represented as a long value {@link #NOT_REPRESENTABLE} is returned, so
+     * the caller can fall back to a slower conversion.
+     * </p>
+     *
+     * @param value the characters to parse.
+     * @param scale the number of fraction digits of the result. Must be in the range 0..18.
+     * @param roundingMode the rounding mode to apply when fraction digits have to be discarded.
+     *
+     * @return the unscaled value or {@link #NOT_REPRESENTABLE}.
+     *
+     * @throws FieldValueConvertException when the value contains no digits or the rounding mode is
+     * {@link RoundingMode#UNNECESSARY} and rounding would be necessary.
+     */
+    static long parseUnscaled(CharSequence value, int scale, RoundingMode roundingMode) {
+        int end = trimEnd(value);
+        int index = trimStart(value, end);
+
+        boolean negative = false;
+        if (index < end) {
+            char c = value.charAt(index);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                index++;
+            }
+        }
+
+        long magnitude = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        int discardedDigits = 0;
+        int firstDiscardedDigit = 0;
+        boolean moreDiscarded = false;
+        for (; index < end; index++) {
+            char c = value.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digitCount++;
+                int digit = c - '0';
+                if (fraction && fractionDigits == scale) {
+                    if (discardedDigits++ == 0) {
+                        firstDiscardedDigit = digit;
+                    } else if (digit != 0) {
+                        moreDiscarded = true;
+                    }
+                } else if (magnitude > (Long.MAX_VALUE - digit) / 10) {
+                    return NOT_REPRESENTABLE;
+                } else {
+                    magnitude = magnitude * 10 + digit;
+                    if (fraction) {
+                        fractionDigits++;
+                    }
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return NOT_REPRESENTABLE;
+            }
+        }
+        if (digitCount == 0) {
+            throw new FieldValueConvertException(MSG_Invalid_number(value, "decimal"));
+        }
+
+        if (fractionDigits < scale) {
+            long factor = LONG_POWERS_OF_TEN[scale - fractionDigits];
+            if (magnitude > Long.MAX_VALUE / factor) {
+                return NOT_REPRESENTABLE;
+            }
+            magnitude *= factor;
+        } else if (discardedDigits > 0) {
+            if (roundingMode == RoundingMode.UNNECESSARY && (firstDiscardedDigit != 0 || moreDiscarded)) {
+                throw new FieldValueConvertException(MSG_Rounding_necessary(value, scale));
+            }
+            if (isRoundingAwayFromZero(
+                    roundingMode, negative, (magnitude & 1) == 1, firstDiscardedDigit, moreDiscarded)) {
+                if (magnitude == Long.MAX_VALUE) {
+                    return NOT_REPRESENTABLE;
+                }
+                magnitude++;
+            }
+        }
+        return negative ? -magnitude : magnitude;
+    }
+
+    /**
+     * Decide whether a value has to be rounded away from zero when digits are discarded.
+     *
+     * @param roundingMode the rounding mode to apply.
+     * @param negative {@code true} if the value is negative.
+     * @param oddLastDigit {@code true} if the last digit which is kept is odd.
+     * @param firstDiscardedDigit the first (most significant) discarded digit.
+     * @param moreDiscarded {@code true} if any further discarded digit is non-zero.
+     *
+     * @return {@code true} if the magnitude of the kept digits has to be incremented.
+     */
+    static boolean isRoundingAwayFromZero(RoundingMode roundingMode, boolean negative, boolean oddLastDigit,
+                                          int firstDiscardedDigit, boolean moreDiscarded) {
+        boolean discardedNonZero = firstDiscardedDigit != 0 || moreDiscarded;
+        switch (roundingMode) {
+            case UP:
+                return discardedNonZero;
+            case CEILING:
+                return discardedNonZero && !negative;
+            case FLOOR:
+                return discardedNonZero && negative;
+            case HALF_UP:
+                return firstDiscardedDigit >= 5;
+            case HALF_DOWN:
+                return firstDiscardedDigit > 5 || firstDiscardedDigit == 5 && moreDiscarded;
+            case HALF_EVEN:
+                return firstDiscardedDigit > 5 || firstDiscardedDigit == 5 && (moreDiscarded || oddLastDigit);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Remove the leading and trailing blanks of a value like the fast paths of the parse methods do.
+     * <p>
+     * Unlike {@link String#trim()} no other control characters are removed, so a slow path which parses the trimmed
+     * value accepts the same values as the fast path.
+     * </p>
+     *
+     * @param value the value to trim.
+     *
+     * @return the value without leading and trailing blanks.
+     */
+    static String trimBlanks(CharSequence value) {
+        int end = trimEnd(value);
+        return value.subSequence(trimStart(value, end), end).toString();
+    }
+
+    private static double parseDoubleSlow(CharSequence value, int start, int end) {
+        try {
+            return Double.parseDouble(value.subSequence(start, end).toString());
+        } catch (NumberFormatException e) {
+            throw new FieldValueConvertException(MSG_Invalid_number(value, "double"), e);
+        }
+    }
+
+    private static int trimEnd(CharSequence value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int trimStart(CharSequence value, int end) {
+        int start = 0;
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private NumericValueParser() {
+        // Provides static methods only
+    }
+}
@@ -0,0 +1,205 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Converts zoned decimal field values with a trailing overpunch sign to BigDecimal and vice versa.
+ * <p>
+ * Host generated signed numbers (e.g. a COBOL {@code PIC S9(7)V99}) encode the sign into the last digit. The
+ * characters '{' and 'A' to 'I' represent the digits 0 to 9 of a positive value. The characters '}' and 'J' to 'R'
+ * represent the digits 0 to 9 of a negative value. A plain digit as last character is read as positive value. The
+ * decimal point is implied by the scale of the converter, e.g. the field value {@code 0001234J} with a scale of 2
+ * represents the amount -123.41. The field value may have leading blanks. A value is formatted with at least
+ * {@code scale + 1} digits and always with an overpunch sign.
+ * </p>
+ * <p>
+ * The characters are decoded in a single pass into an unscaled long value. Values with more than 18 digits are decoded
+ * via {@link BigInteger}. The unscaled value can also be obtained directly by {@link #convertToUnscaled(CharSequence)}
+ * which doesn't create any objects at all.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class OverpunchFieldValueConverter implements ToDecimalFieldValueConverter {
+
+    private static final int MAX_FAST_PATH_DIGITS = 18;
+
+    private static final char[] POSITIVE_SIGN_DIGITS = "{ABCDEFGHI".toCharArray();
+    private static final char[] NEGATIVE_SIGN_DIGITS = "}JKLMNOPQR".toCharArray();
+
+    /** Maps a last character to its digit. Negative values are marked by adding 10. Invalid characters are -1. */
+    private static final int[] SIGN_DIGIT_VALUES = new int[128];
+
+    static {
+        Arrays.fill(SIGN_DIGIT_VALUES, -1);
+        for (int digit = 0; digit < 10; digit++) {
+            SIGN_DIGIT_VALUES['0' + digit] = digit;
+            SIGN_DIGIT_VALUES[POSITIVE_SIGN_DIGITS[digit]] = digit;
+            SIGN_DIGIT_VALUES[NEGATIVE_SIGN_DIGITS[digit]] = digit + 10;
+        }
+    }
+
+    static String MSG_Invalid_overpunch_value(CharSequence value) {
+        return String.format("Cannot convert field value [%s] to a signed overpunch number!", value);
+    }
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+
+    /**
+     * Create a new instance of this converter which doesn't allow to round values when they are formatted.
+     *
+     * @param scale the number of implied fraction digits. Must not be negative.
+     */
+    public OverpunchFieldValueConverter(int scale) {
+        this(scale, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Create a new instance of this converter.
+     *
+     * @param scale the number of implied fraction digits. Must not be negative.
+     * @param roundingMode the rounding mode to apply when a value with more fraction digits is formatted.
+     */
+    public OverpunchFieldValueConverter(int scale, RoundingMode roundingMode) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("The scale must not be negative!");
+        }
+        this.scale = scale;
+        this.roundingMode = Objects.requireNonNull(roundingMode, "Undefined rounding mode!");
+    }
+
+    @Override
+    public BigDecimal convertFromFieldValue(String fieldValue) {
+        int start = skipBlanks(fieldValue);
+        if (fieldValue.length() - start > MAX_FAST_PATH_DIGITS) {
+            return new BigDecimal(this.decodeToBigInteger(fieldValue, start), this.scale);
+        }
+        return BigDecimal.valueOf(this.convertToUnscaled(fieldValue), this.scale);
+    }
+
+    @Override
+    public long convertToUnscaled(CharSequence fieldValue) {
+        int last = fieldValue.length() - 1;
+        int index = skipBlanks(fieldValue);
+        if (index > last) {
+            throw new FieldValueConvertException(MSG_Invalid_overpunch_value(fieldValue));
+        }
+        long magnitude = 0;
+        for (; index < last; index++) {
+            int digit = fieldValue.charAt(index) - '0';
+            if (digit < 0 || digit > 9 || magnitude > (Long.MAX_VALUE - digit) / 10) {
+                throw new FieldValueConvertException(MSG_Invalid_overpunch_value(fieldValue));
+            }
+            magnitude = magnitude * 10 + digit;
+        }
+        int signDigit = signDigitValue(fieldValue.charAt(last));
+        if (signDigit == -1 || magnitude > (Long.MAX_VALUE - signDigit % 10) / 10) {
+            throw new FieldValueConvertException(MSG_Invalid_overpunch_value(fieldValue));
+        }
+        magnitude = magnitude * 10 + signDigit % 10;
+        return signDigit < 10 ? magnitude : -magnitude;
+    }
+
+    @Override
+    public String convertToFieldValue(BigDecimal value) {
+        BigDecimal scaledValue;
+        try {
+            scaledValue = value.setScale(this.scale, this.roundingMode);
+        } catch (ArithmeticException e) {
+            throw new FieldValueConvertException(
+                    NumericValueParser.MSG_Rounding_necessary(value.toPlainString(), this.scale), e);
+        }
+        if (scaledValue.precision() <= MAX_FAST_PATH_DIGITS) {
+            // Moving the decimal point keeps the compact representation so no BigInteger is created
+            return this.convertFromUnscaled(scaledValue.scaleByPowerOfTen(this.scale).longValue());
+        }
+        String digits = scaledValue.unscaledValue().abs().toString();
+        char[] chars = new char[Math.max(digits.length(), this.scale + 1)];
+        int position = chars.length - digits.length();
+        Arrays.fill(chars, 0, position, '0');
+        digits.getChars(0, digits.length(), chars, position);
+        overpunchLastDigit(chars, scaledValue.signum() < 0);
+        return new String(chars);
+    }
+
+    @Override
+    public String convertFromUnscaled(long unscaled) {
+        char[] chars = new char[Math.max(19, this.scale + 1)];
+        int position = NumericValueFormatter.formatMagnitude(unscaled, this.scale + 1, chars, chars.length);
+        overpunchLastDigit(chars, unscaled < 0);
+        return new String(chars, position, chars.length - position);
+    }
+
+    @Override
+    public int getScale() {
+        return this.scale;
+    }
+
+    @Override
+    public RoundingMode getRoundingMode() {
+        return this.roundingMode;
+    }
+
+    private BigInteger decodeToBigInteger(String fieldValue, int start) {
+        char[] digits = fieldValue.substring(start).toCharArray();
+        int signDigit = signDigitValue(digits[digits.length - 1]);
+        if (signDigit == -1) {
+            throw new FieldValueConvertException(MSG_Invalid_overpunch_value(fieldValue));
+        }
+        digits[digits.length - 1] = (char) ('0' + signDigit % 10);
+        try {
+            BigInteger magnitude = new BigInteger(new String(digits));
+            if (magnitude.signum() < 0 || digits[0] == '+') {
+                throw new NumberFormatException();
+            }
+            return signDigit < 10 ? magnitude : magnitude.negate();
+        } catch (NumberFormatException e) {
+            throw new FieldValueConvertException(MSG_Invalid_overpunch_value(fieldValue), e);
+        }
+    }
+
+    private static int skipBlanks(CharSequence fieldValue) {
+        int index = 0;
+        while (index < fieldValue.length() && fieldValue.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int signDigitValue(char c) {
+        return c < SIGN_DIGIT_VALUES.length ? SIGN_DIGIT_VALUES[c] : -1;
+    }
+
+    private static void overpunchLastDigit(char[] chars, boolean negative) {
+        int digit = chars[chars.length - 1] - '0';
+        chars[chars.length - 1] = negative ? NEGATIVE_SIGN_DIGITS[digit] : POSITIVE_SIGN_DIGITS[digit];
+    }
+}
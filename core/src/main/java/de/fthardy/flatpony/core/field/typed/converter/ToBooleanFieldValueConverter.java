@@ -0,0 +1,75 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+/**
+ * The interface for a field value converter which is able to convert a field value to a primitive boolean value and
+ * vice versa.
+ * <p>
+ * A converter which implements this interface allows readers to obtain the field value as boolean without boxing and
+ * without creating an intermediate string (see
+ * {@link de.fthardy.flatpony.core.streamio.TypedStreamReadHandler#onBooleanFieldItem}). The conversions of the boxed
+ * target type are implemented by default on top of the primitive conversions.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public interface ToBooleanFieldValueConverter extends FieldValueConverter<Boolean> {
+
+    /**
+     * Convert the given field value to a boolean value.
+     *
+     * @param fieldValue the field value to convert. The characters might be backed by a reusable buffer so an
+     *                   implementation must not keep a reference to it.
+     *
+     * @return the boolean value.
+     *
+     * @throws FieldValueConvertException when the field value cannot be converted.
+     */
+    boolean convertToBoolean(CharSequence fieldValue) throws FieldValueConvertException;
+
+    /**
+     * Convert a boolean value to a field value.
+     *
+     * @param value the value to convert.
+     *
+     * @return the field value.
+     */
+    String convertFromBoolean(boolean value);
+
+    @Override
+    default Class<Boolean> getTargetType() {
+        return Boolean.class;
+    }
+
+    @Override
+    default Boolean convertFromFieldValue(String fieldValue) throws FieldValueConvertException {
+        return this.convertToBoolean(fieldValue);
+    }
+
+    @Override
+    default String convertToFieldValue(Boolean value) {
+        return this.convertFromBoolean(value);
+    }
+}
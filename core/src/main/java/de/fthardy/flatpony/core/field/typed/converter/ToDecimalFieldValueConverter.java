@@ -0,0 +1,85 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The interface for a field value converter which converts field values to decimals with a fixed scale and which is
+ * able to provide the unscaled value of a decimal as primitive long value.
+ * <p>
+ * A converter which implements this interface allows readers to obtain a decimal field value without creating an
+ * intermediate string and without creating a {@link BigDecimal} (see
+ * {@link de.fthardy.flatpony.core.streamio.TypedStreamReadHandler#onDecimalFieldItem}).
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public interface ToDecimalFieldValueConverter extends FieldValueConverter<BigDecimal> {
+
+    /**
+     * Get the scale.
+     *
+     * @return the number of fraction digits of the converted decimal values.
+     */
+    int getScale();
+
+    /**
+     * Get the rounding mode.
+     *
+     * @return the rounding mode to apply when a decimal with more fraction digits than the {@link #getScale() scale}
+     * is converted. The default implementation doesn't allow to round values.
+     */
+    default RoundingMode getRoundingMode() {
+        return RoundingMode.UNNECESSARY;
+    }
+
+    /**
+     * Convert the given field value to the unscaled value of the decimal.
+     *
+     * @param fieldValue the field value to convert. The characters might be backed by a reusable buffer so an
+     *                   implementation must not keep a reference to it.
+     *
+     * @return the unscaled value with respect to the {@link #getScale() scale}.
+     *
+     * @throws FieldValueConvertException when the field value is not a valid number or the unscaled value exceeds
+     * the range of long.
+     */
+    long convertToUnscaled(CharSequence fieldValue) throws FieldValueConvertException;
+
+    /**
+     * Convert an unscaled value to a field value.
+     *
+     * @param unscaled the unscaled value with respect to the {@link #getScale() scale}.
+     *
+     * @return the field value.
+     */
+    String convertFromUnscaled(long unscaled);
+
+    @Override
+    default Class<BigDecimal> getTargetType() {
+        return BigDecimal.class;
+    }
+}
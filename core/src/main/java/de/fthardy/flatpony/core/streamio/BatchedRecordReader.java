@@ -0,0 +1,283 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A reader which reads records from a source stream and delivers them in batches to a {@link RecordBatchHandler}.
+ * <p>
+ * Compared to a push read with a {@link StreamReadHandler} the handler is called only once per batch instead of once
+ * per read event. This amortizes the dispatching costs and allows a handler to process the records in bulk (e.g. with
+ * batch inserts). A batch is delivered when it contains the maximum number of records or when the field values of its
+ * records reach the maximum number of characters. The records are read with a single {@link PullReadCursor} and are
+ * stored in a single {@link RecordBatch} which are both reused for all records and batches.
+ * </p>
+ * <p>
+ * A record is the item described by the record descriptor. Its field values are collected in read order, i.e. the
+ * structure events are not part of a batch. An instance of this reader can be used for several source streams but
+ * is not thread safe.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class BatchedRecordReader {
+
+    /**
+     * Allows to define the maximum number of records for a batch.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineMaxRecordCount extends DefineMaxCharCount {
+
+        /**
+         * Define the maximum number of records for a batch.
+         * <p>
+         * The default is {@value BatchedRecordReader#DEFAULT_MAX_RECORD_COUNT}.
+         * </p>
+         *
+         * @param maxRecordCount the maximum number of records which must be at least 1.
+         *
+         * @return the builder instance for further configuration.
+         */
+        DefineMaxCharCount withMaxRecordCount(int maxRecordCount);
+    }
+
+    /**
+     * Allows to define the maximum number of characters for a batch.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineMaxCharCount extends ObjectBuilder<BatchedRecordReader> {
+
+        /**
+         * Define the maximum number of characters of the field values for a batch.
+         * <p>
+         * A batch is delivered as soon as the field values of its records reach this number. Hence a batch always
+         * contains at least one record even if the field values of this record exceed the maximum. By default the
+         * number of characters is unlimited.
+         * </p>
+         *
+         * @param maxCharCount the maximum number of characters which must be at least 1.
+         *
+         * @return the builder instance to create the new reader instance.
+         */
+        ObjectBuilder<BatchedRecordReader> withMaxCharCount(int maxCharCount);
+    }
+
+    private interface BuildParams {
+        FlatDataItemDescriptor<?> getRecordDescriptor();
+        int getMaxRecordCount();
+        int getMaxCharCount();
+    }
+
+    private static final class BuilderImpl implements DefineMaxRecordCount, BuildParams {
+
+        private final FlatDataItemDescriptor<?> recordDescriptor;
+        private int maxRecordCount = DEFAULT_MAX_RECORD_COUNT;
+        private int maxCharCount = Integer.MAX_VALUE;
+
+        BuilderImpl(FlatDataItemDescriptor<?> recordDescriptor) {
+            this.recordDescriptor = Objects.requireNonNull(recordDescriptor, "Undefined record descriptor!");
+        }
+
+        @Override
+        public DefineMaxCharCount withMaxRecordCount(int maxRecordCount) {
+            if (maxRecordCount < 1) {
+                throw new IllegalArgumentException("The maximum number of records must be at least 1!");
+            }
+            this.maxRecordCount = maxRecordCount;
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<BatchedRecordReader> withMaxCharCount(int maxCharCount) {
+            if (maxCharCount < 1) {
+                throw new IllegalArgumentException("The maximum number of characters must be at least 1!");
+            }
+            this.maxCharCount = maxCharCount;
+            return this;
+        }
+
+        @Override
+        public FlatDataItemDescriptor<?> getRecordDescriptor() {
+            return this.recordDescriptor;
+        }
+
+        @Override
+        public int getMaxRecordCount() {
+            return this.maxRecordCount;
+        }
+
+        @Override
+        public int getMaxCharCount() {
+            return this.maxCharCount;
+        }
+
+        @Override
+        public BatchedRecordReader build() {
+            return new BatchedRecordReader(this);
+        }
+    }
+
+    /**
+     * The default maximum number of records of a batch.
+     */
+    public static final int DEFAULT_MAX_RECORD_COUNT = 1000;
+
+    static String MSG_Read_failed(String recordName) {
+        return String.format("Failed to read records '%s' from source stream!", recordName);
+    }
+
+    /**
+     * Create a builder to configure and create a new batched record reader.
+     *
+     * @param recordDescriptor the descriptor of the records to read.
+     *
+     * @return the builder instance.
+     */
+    public static DefineMaxRecordCount newInstance(FlatDataItemDescriptor<?> recordDescriptor) {
+        return new BuilderImpl(recordDescriptor);
+    }
+
+    private final FlatDataItemDescriptor<?> recordDescriptor;
+    private final int maxRecordCount;
+    private final int maxCharCount;
+    private final RecordBatch batch = new RecordBatch();
+
+    private BatchedRecordReader(BuildParams params) {
+        this.recordDescriptor = params.getRecordDescriptor();
+        this.maxRecordCount = params.getMaxRecordCount();
+        this.maxCharCount = params.getMaxCharCount();
+    }
+
+    /**
+     * @return the descriptor of the records to read.
+     */
+    public FlatDataItemDescriptor<?> getRecordDescriptor() {
+        return this.recordDescriptor;
+    }
+
+    /**
+     * @return the maximum number of records of a batch.
+     */
+    public int getMaxRecordCount() {
+        return this.maxRecordCount;
+    }
+
+    /**
+     * @return the maximum number of characters of a batch.
+     */
+    public int getMaxCharCount() {
+        return this.maxCharCount;
+    }
+
+    /**
+     * Read all records from the given source stream and deliver them in batches to the given handler.
+     * <p>
+     * The records are read until the end of the source stream is reached. If the source stream doesn't support
+     * marking, which is needed to detect the end of the stream, it is wrapped by a {@link BufferedReader}.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     * @param handler the handler to receive the batches.
+     *
+     * @return the total number of read records.
+     */
+    public long readFrom(Reader source, RecordBatchHandler handler) {
+        Objects.requireNonNull(handler, "Undefined record batch handler!");
+        try {
+            return this.readFrom(source, () -> {
+                this.batch.clear();
+                return this.batch;
+            }, handler);
+        } finally {
+            this.batch.clear();
+        }
+    }
+
+    /**
+     * Read all records from the given source stream into the batches provided by the given supplier.
+     * <p>
+     * The supplier is called for a new (empty) batch before the first record and after each delivered batch. Hence the
+     * last supplied batch may not be delivered.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     * @param batchSupplier the supplier of the batches to read the records into.
+     * @param handler the handler to receive the filled batches.
+     *
+     * @return the total number of read records.
+     */
+    long readFrom(Reader source, Supplier<RecordBatch> batchSupplier, RecordBatchHandler handler) {
+        Reader reader = Objects.requireNonNull(source, "Undefined source stream!").markSupported() ?
+                source : new BufferedReader(source);
+        PullReadCursor cursor = new PullReadCursor(this.recordDescriptor, reader);
+        long recordCount = 0;
+        RecordBatch currentBatch = batchSupplier.get();
+        while (this.hasMoreContent(reader)) {
+            this.readRecord(cursor, currentBatch);
+            recordCount++;
+            if (currentBatch.getRecordCount() == this.maxRecordCount ||
+                    currentBatch.getCharCount() >= this.maxCharCount) {
+                handler.onRecordBatch(currentBatch);
+                currentBatch = batchSupplier.get();
+            }
+        }
+        if (currentBatch.getRecordCount() > 0) {
+            handler.onRecordBatch(currentBatch);
+        }
+        return recordCount;
+    }
+
+    private void readRecord(PullReadCursor cursor, RecordBatch currentBatch) {
+        cursor.reset();
+        while (cursor.hasNext()) {
+            if (cursor.next() == PullReadCursor.EventType.FIELD) {
+                currentBatch.addField((FlatDataFieldDescriptor<?>) cursor.getDescriptor(), cursor.getText());
+            }
+        }
+        currentBatch.endRecord();
+    }
+
+    private boolean hasMoreContent(Reader reader) {
+        try {
+            reader.mark(1);
+            int c = reader.read();
+            reader.reset();
+            return c != -1;
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+    }
+}
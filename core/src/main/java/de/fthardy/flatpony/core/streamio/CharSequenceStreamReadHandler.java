@@ -0,0 +1,83 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+
+import java.io.Reader;
+
+/**
+ * The interface definition for a stream read handler which receives field values as character sequences.
+ * <p>
+ * When a handler implementing this interface is passed to a push or pull read, the built-in field descriptors read the
+ * value into the {@link FieldValueBuffer} of the current thread and hand over the buffer itself instead of creating a
+ * string for each value. The character sequence is only valid for the duration of the callback because the buffer is
+ * reused for the next field. A handler which needs the value afterwards has to copy it (e.g. by calling
+ * {@link CharSequence#toString()}).
+ * </p>
+ * <p>
+ * Values which are only available as strings (e.g. the values of a pre-read item entity structure) are reported via
+ * {@link #onFieldItem(FlatDataFieldDescriptor, String)} which forwards them to
+ * {@link #onFieldItem(FlatDataFieldDescriptor, CharSequence)} by default.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public interface CharSequenceStreamReadHandler extends StreamReadHandler {
+
+    /**
+     * Read the value of a field from a given source stream and report it to a stream read handler.
+     * <p>
+     * A handler implementing this interface receives the value in the field value buffer of the current thread so that
+     * no string is created. Any other handler receives the value as string.
+     * </p>
+     *
+     * @param fieldDescriptor the descriptor of the field to read.
+     * @param source the source stream to read from.
+     * @param handler the handler to report the value to.
+     */
+    static void readFieldValue(FlatDataFieldDescriptor<?> fieldDescriptor, Reader source, StreamReadHandler handler) {
+        if (handler instanceof CharSequenceStreamReadHandler) {
+            FieldValueBuffer buffer = FieldValueBuffer.ofCurrentThread();
+            fieldDescriptor.readValue(source, buffer);
+            ((CharSequenceStreamReadHandler) handler).onFieldItem(fieldDescriptor, buffer);
+        } else {
+            handler.onFieldItem(fieldDescriptor, fieldDescriptor.readValue(source));
+        }
+    }
+
+    /**
+     * Allows to react to a read field value.
+     *
+     * @param fieldDescriptor the descriptor of the field.
+     * @param value the read value of the field. Only valid for the duration of the call.
+     */
+    void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value);
+
+    @Override
+    default void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, String value) {
+        this.onFieldItem(fieldDescriptor, (CharSequence) value);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+
+import java.io.Reader;
+import java.util.NoSuchElementException;
+
+/**
+ * A pull read iterator implementation which is backed by a {@link PullReadCursor}.
+ * <p>
+ * A single instance of this iterator reads the whole item including all nested items. The cursor keeps the nested
+ * items on an explicit stack of recycled frames, so an event costs the same regardless of the nesting depth and no
+ * iterator is created for the nested built-in items. The events are reported in the same way as by the pull read
+ * iterators of the items themselves, i.e. a typed or constrained field is reported with the descriptor of the
+ * decorated field. The pull read iterators of unknown items report their events directly to the handler passed to
+ * {@link #nextEvent(StreamReadHandler)}.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class CursorPullReadIterator implements PullReadIterator {
+
+    public static String MSG_No_pull_read_event(String itemName, String descriptorClassName) {
+        return String.format("Structure-Item '%s' [%s] has no further pull read event!", itemName, descriptorClassName);
+    }
+
+    private final PullReadCursor cursor;
+
+    /**
+     * Create a new instance of this iterator.
+     *
+     * @param descriptor the descriptor of the item to read.
+     * @param source the source stream to read from.
+     */
+    public CursorPullReadIterator(FlatDataItemDescriptor<?> descriptor, Reader source) {
+        this.cursor = new PullReadCursor(descriptor, source);
+    }
+
+    @Override
+    public boolean hasNextEvent() {
+        return this.cursor.hasNext();
+    }
+
+    @Override
+    public void nextEvent(StreamReadHandler handler) {
+        if (!this.cursor.hasNext()) {
+            FlatDataItemDescriptor<?> descriptor = this.cursor.getItemDescriptor();
+            throw new NoSuchElementException(MSG_No_pull_read_event(
+                    descriptor.getName(), descriptor.getClass().getSimpleName()));
+        }
+        PullReadCursor.EventType eventType = this.cursor.next(handler);
+        if (eventType == null) {
+            // the event has been reported by the pull read iterator of an unknown item
+            return;
+        }
+        switch (eventType) {
+            case STRUCTURE_START:
+                handler.onStructureItemStart((FlatDataStructureDescriptor<?>) this.cursor.getDescriptor());
+                break;
+            case STRUCTURE_END:
+                handler.onStructureItemEnd((FlatDataStructureDescriptor<?>) this.cursor.getDescriptor());
+                break;
+            default:
+                FlatDataFieldDescriptor<?> fieldDescriptor =
+                        undecorated((FlatDataFieldDescriptor<?>) this.cursor.getDescriptor());
+                if (handler instanceof CharSequenceStreamReadHandler) {
+                    ((CharSequenceStreamReadHandler) handler).onFieldItem(fieldDescriptor, this.cursor.getText());
+                } else {
+                    handler.onFieldItem(fieldDescriptor, this.cursor.getValue());
+                }
+        }
+    }
+
+    private static FlatDataFieldDescriptor<?> undecorated(FlatDataFieldDescriptor<?> fieldDescriptor) {
+        FlatDataFieldDescriptor<?> descriptor = fieldDescriptor;
+        while (true) {
+            if (descriptor instanceof TypedFieldDescriptor) {
+                descriptor = ((TypedFieldDescriptor<?>) descriptor).getDecoratedFieldDescriptor();
+            } else if (descriptor instanceof ConstrainedFieldDescriptor) {
+                descriptor = ((ConstrainedFieldDescriptor) descriptor).getDecoratedFieldDescriptor();
+            } else {
+                return descriptor;
+            }
+        }
+    }
+}
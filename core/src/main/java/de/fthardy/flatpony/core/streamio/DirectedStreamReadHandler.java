@@ -0,0 +1,71 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+
+/**
+ * The interface definition for a handler which controls a push read by the directives it returns for each event.
+ * <p>
+ * In contrast to a {@link StreamReadHandler} a push read with this handler doesn't have to run to the end of the item.
+ * The handler can skip the content of a structure item it is not interested in or it can stop reading as soon as it
+ * has got what it needs. Like with a {@link CharSequenceStreamReadHandler} the field values are handed over as
+ * character sequences which are only valid for the duration of the callback.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ *
+ * @see PullReadCursor#pushTo(DirectedStreamReadHandler)
+ */
+public interface DirectedStreamReadHandler {
+
+    /**
+     * Allows to react to a read field value.
+     *
+     * @param fieldDescriptor the descriptor of the field.
+     * @param value the read value of the field. Only valid for the duration of the call.
+     *
+     * @return the directive how to continue.
+     */
+    ReadDirective onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value);
+
+    /**
+     * Allows to react to the start of a particular structure item.
+     *
+     * @param itemDescriptor the descriptor of the structure item.
+     *
+     * @return the directive how to continue.
+     */
+    ReadDirective onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor);
+
+    /**
+     * Allows to react to the end of a particular structure item.
+     *
+     * @param itemDescriptor the descriptor of the structure item.
+     *
+     * @return the directive how to continue.
+     */
+    ReadDirective onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor);
+}
@@ -69,7 +69,7 @@ public final class FieldPullReadIterator<T extends FlatDataFieldDescriptor<?>> i
     @Override
     public void nextEvent(StreamReadHandler handler) {
         if (this.nextEvent) {
-            handler.onFieldItem(this.descriptor, this.descriptor.readValue(this.source));
+            CharSequenceStreamReadHandler.readFieldValue(this.descriptor, this.source, handler);
             this.nextEvent = false;
         } else {
             throw new NoSuchElementException(MSG_No_pull_read_event(this.descriptor));
@@ -0,0 +1,420 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldDescriptor;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldDescriptor;
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides the records of a source as a lazy {@link Stream} of top level item entities.
+ * <p>
+ * A record is read not before the stream requests it. If the record descriptor describes a fixed length layout, an
+ * in-memory source or a file with a single byte charset is streamed by a spliterator which splits at exact record
+ * boundaries, because the position of each record is known from the record length. Hence a
+ * {@link Stream#parallel() parallel} stream parses the records of such a source in parallel, while the stream keeps
+ * the record order. Any other source is streamed sequentially, since the record boundaries are only known by reading
+ * the records.
+ * </p>
+ * <p>
+ * Each record is read within a {@link FlatDataContext} of the spliterator which is cleared before each record. A
+ * stream which holds a resource, like a file or a reader, closes it when the stream is closed, so such a stream should
+ * be used in a try-with-resources statement.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class FlatRecords {
+
+    /**
+     * A spliterator which reads the records one after another from a reader and cannot be split.
+     */
+    private static final class ReaderSpliterator implements Spliterator<FlatDataItemEntity<?>> {
+        private final FlatDataItemDescriptor<?> descriptor;
+        private final Reader source;
+        private final FlatDataContext context = new FlatDataContext();
+
+        ReaderSpliterator(FlatDataItemDescriptor<?> descriptor, Reader source) {
+            this.descriptor = descriptor;
+            this.source = source.markSupported() ? source : new BufferedReader(source);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super FlatDataItemEntity<?>> action) {
+            if (!this.hasMoreContent()) {
+                return false;
+            }
+            this.context.clear();
+            action.accept(this.descriptor.readItemEntityFrom(this.source, this.context));
+            return true;
+        }
+
+        @Override
+        public Spliterator<FlatDataItemEntity<?>> trySplit() {
+            // the record boundaries are unknown without reading the records
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        private boolean hasMoreContent() {
+            try {
+                this.source.mark(1);
+                int c = this.source.read();
+                this.source.reset();
+                return c != -1;
+            } catch (IOException e) {
+                throw new FlatDataReadException(MSG_Read_failed(this.descriptor.getName()), e);
+            }
+        }
+    }
+
+    /**
+     * A spliterator over a range of fixed length records which splits the range at a record boundary.
+     */
+    private abstract static class FixedLengthSpliterator implements Spliterator<FlatDataItemEntity<?>> {
+        final FlatDataItemDescriptor<?> descriptor;
+        final int recordLength;
+        final long sourceLength;
+        final FlatDataContext context = new FlatDataContext();
+        long index;
+        final long end;
+
+        FixedLengthSpliterator(
+                FlatDataItemDescriptor<?> descriptor, int recordLength, long sourceLength, long index, long end) {
+            this.descriptor = descriptor;
+            this.recordLength = recordLength;
+            this.sourceLength = sourceLength;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super FlatDataItemEntity<?>> action) {
+            if (this.index >= this.end) {
+                return false;
+            }
+            long start = this.index++ * this.recordLength;
+            // the last record may be incomplete, so reading it fails like a sequential read
+            int length = (int) Math.min(this.recordLength, this.sourceLength - start);
+            this.context.clear();
+            action.accept(this.descriptor.readItemEntityFrom(this.readRecord(start, length), this.context));
+            return true;
+        }
+
+        @Override
+        public Spliterator<FlatDataItemEntity<?>> trySplit() {
+            long middle = (this.index + this.end) >>> 1;
+            if (middle <= this.index) {
+                return null;
+            }
+            Spliterator<FlatDataItemEntity<?>> prefix = this.split(this.index, middle);
+            this.index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.end - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED | IMMUTABLE;
+        }
+
+        abstract Reader readRecord(long start, int length);
+
+        abstract Spliterator<FlatDataItemEntity<?>> split(long index, long end);
+    }
+
+    private static final class CharSequenceSpliterator extends FixedLengthSpliterator {
+        private final CharSequence source;
+
+        CharSequenceSpliterator(
+                FlatDataItemDescriptor<?> descriptor, int recordLength, CharSequence source, long index, long end) {
+            super(descriptor, recordLength, source.length(), index, end);
+            this.source = source;
+        }
+
+        @Override
+        Reader readRecord(long start, int length) {
+            return new StringReader(this.source.subSequence((int) start, (int) start + length).toString());
+        }
+
+        @Override
+        Spliterator<FlatDataItemEntity<?>> split(long index, long end) {
+            return new CharSequenceSpliterator(this.descriptor, this.recordLength, this.source, index, end);
+        }
+    }
+
+    private static final class FileChannelSpliterator extends FixedLengthSpliterator {
+        private final FileChannel channel;
+        private final Charset charset;
+        private ByteBuffer buffer;
+        private long bufferStart;
+
+        FileChannelSpliterator(FlatDataItemDescriptor<?> descriptor, int recordLength, FileChannel channel,
+                Charset charset, long sourceLength, long index, long end) {
+            super(descriptor, recordLength, sourceLength, index, end);
+            this.channel = channel;
+            this.charset = charset;
+        }
+
+        @Override
+        Reader readRecord(long start, int length) {
+            if (this.buffer == null || start < this.bufferStart ||
+                    start + length > this.bufferStart + this.buffer.limit()) {
+                this.fillBuffer(start);
+            }
+            int offset = (int) (start - this.bufferStart);
+            return new StringReader(new String(this.buffer.array(), offset, length, this.charset));
+        }
+
+        @Override
+        Spliterator<FlatDataItemEntity<?>> split(long index, long end) {
+            return new FileChannelSpliterator(
+                    this.descriptor, this.recordLength, this.channel, this.charset, this.sourceLength, index, end);
+        }
+
+        /**
+         * Read the records from the given position up to the end of the range in blocks of whole records.
+         */
+        private void fillBuffer(long position) {
+            if (this.buffer == null) {
+                long remaining = Math.min(this.end * this.recordLength, this.sourceLength) - position;
+                int recordsPerBlock = Math.max(1, BLOCK_SIZE / this.recordLength);
+                this.buffer = ByteBuffer.allocate(
+                        (int) Math.min(remaining, (long) recordsPerBlock * this.recordLength));
+            }
+            this.buffer.clear();
+            long limit = Math.min(this.end * this.recordLength, this.sourceLength);
+            this.buffer.limit((int) Math.min(this.buffer.capacity(), limit - position));
+            try {
+                while (this.buffer.hasRemaining()) {
+                    if (this.channel.read(this.buffer, position + this.buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new FlatDataReadException(MSG_Read_failed(this.descriptor.getName()), e);
+            }
+            this.buffer.limit(this.buffer.position());
+            this.bufferStart = position;
+        }
+    }
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int VARIABLE_LENGTH = -1;
+
+    static String MSG_Read_failed(String recordName) {
+        return String.format("Failed to read records '%s' from source!", recordName);
+    }
+
+    static String MSG_Close_failed(String recordName) {
+        return String.format("Failed to close the source of records '%s'!", recordName);
+    }
+
+    /**
+     * Create a lazy stream of the records read from the given reader.
+     * <p>
+     * The stream is sequential only, since the records of a reader can only be read one after another. Closing the
+     * stream closes the reader.
+     * </p>
+     *
+     * @param descriptor the descriptor of the records.
+     * @param source the reader of the source.
+     *
+     * @return the stream of the record entities.
+     */
+    public static Stream<FlatDataItemEntity<?>> stream(FlatDataItemDescriptor<?> descriptor, Reader source) {
+        Objects.requireNonNull(descriptor, "Undefined record descriptor!");
+        Objects.requireNonNull(source, "Undefined source!");
+        return StreamSupport.stream(new ReaderSpliterator(descriptor, source), false).onClose(() -> {
+            try {
+                source.close();
+            } catch (IOException e) {
+                throw new FlatDataReadException(MSG_Close_failed(descriptor.getName()), e);
+            }
+        });
+    }
+
+    /**
+     * Create a lazy stream of the records read from the given in-memory source.
+     * <p>
+     * If the records have a fixed length the stream can be split at the record boundaries.
+     * </p>
+     *
+     * @param descriptor the descriptor of the records.
+     * @param source the source.
+     *
+     * @return the stream of the record entities.
+     */
+    public static Stream<FlatDataItemEntity<?>> stream(FlatDataItemDescriptor<?> descriptor, CharSequence source) {
+        Objects.requireNonNull(descriptor, "Undefined record descriptor!");
+        Objects.requireNonNull(source, "Undefined source!");
+        int recordLength = getFixedLength(descriptor);
+        if (recordLength <= 0) {
+            return stream(descriptor, new StringReader(source.toString()));
+        }
+        return StreamSupport.stream(new CharSequenceSpliterator(
+                descriptor, recordLength, source, 0, recordCount(source.length(), recordLength)), false);
+    }
+
+    /**
+     * Create a lazy stream of the records read from the given file.
+     * <p>
+     * If the records have a fixed length and the charset encodes each character by a single byte, the stream can be
+     * split at the record boundaries. Closing the stream closes the file.
+     * </p>
+     *
+     * @param descriptor the descriptor of the records.
+     * @param file the file.
+     * @param charset the charset of the file.
+     *
+     * @return the stream of the record entities.
+     */
+    public static Stream<FlatDataItemEntity<?>> stream(
+            FlatDataItemDescriptor<?> descriptor, Path file, Charset charset) {
+        Objects.requireNonNull(descriptor, "Undefined record descriptor!");
+        Objects.requireNonNull(file, "Undefined file!");
+        Objects.requireNonNull(charset, "Undefined charset!");
+        int recordLength = getFixedLength(descriptor);
+        try {
+            if (recordLength <= 0 || !isSingleByteCharset(charset)) {
+                return stream(descriptor, Files.newBufferedReader(file, charset));
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            long size = channel.size();
+            return StreamSupport.stream(new FileChannelSpliterator(
+                    descriptor, recordLength, channel, charset, size, 0, recordCount(size, recordLength)), false)
+                    .onClose(() -> {
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            throw new FlatDataReadException(MSG_Close_failed(descriptor.getName()), e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(descriptor.getName()), e);
+        }
+    }
+
+    /**
+     * Determine the length of the items of the given descriptor if all of them have the same length.
+     *
+     * @param descriptor the item descriptor.
+     *
+     * @return the fixed length or a negative value if the length of the items varies.
+     */
+    public static int getFixedLength(FlatDataItemDescriptor<?> descriptor) {
+        if (descriptor instanceof FixedSizeFieldDescriptor || descriptor instanceof ConstantFieldDescriptor ||
+                descriptor instanceof BinaryIntegerFieldDescriptor ||
+                descriptor instanceof PackedDecimalFieldDescriptor) {
+            return descriptor.getMinLength();
+        } else if (descriptor instanceof TypedFieldDescriptor) {
+            return getFixedLength(((TypedFieldDescriptor<?>) descriptor).getDecoratedFieldDescriptor());
+        } else if (descriptor instanceof ConstrainedFieldDescriptor) {
+            return getFixedLength(((ConstrainedFieldDescriptor) descriptor).getDecoratedFieldDescriptor());
+        } else if (descriptor instanceof ObservableFieldDescriptor) {
+            return getFixedLength(((ObservableFieldDescriptor) descriptor).getObservedFieldDescriptor());
+        } else if (descriptor instanceof DelimitedItemDescriptor) {
+            int targetLength = getFixedLength(((DelimitedItemDescriptor) descriptor).getTargetItemDescriptor());
+            return targetLength < 0 ? VARIABLE_LENGTH : targetLength + 1;
+        } else if (descriptor instanceof CompositeItemDescriptor) {
+            int length = 0;
+            for (FlatDataItemDescriptor<?> component :
+                    ((CompositeItemDescriptor) descriptor).getComponentItemDescriptors()) {
+                int componentLength = getFixedLength(component);
+                if (componentLength < 0) {
+                    return VARIABLE_LENGTH;
+                }
+                length += componentLength;
+            }
+            return length;
+        } else if (descriptor instanceof SequenceItemDescriptor) {
+            SequenceItemDescriptor sequenceDescriptor = (SequenceItemDescriptor) descriptor;
+            SequenceItemDescriptor.Multiplicity multiplicity = sequenceDescriptor.getMultiplicity();
+            int elementLength = getFixedLength(sequenceDescriptor.getElementItemDescriptor());
+            if (sequenceDescriptor.getCountFieldReference() != null || multiplicity == null || elementLength < 0 ||
+                    multiplicity.getMinOccurrences() != multiplicity.getMaxOccurrences()) {
+                return VARIABLE_LENGTH;
+            }
+            return elementLength * multiplicity.getMinOccurrences();
+        }
+        return VARIABLE_LENGTH;
+    }
+
+    private static long recordCount(long sourceLength, int recordLength) {
+        return (sourceLength + recordLength - 1) / recordLength;
+    }
+
+    private static boolean isSingleByteCharset(Charset charset) {
+        if (!charset.canEncode()) {
+            return false;
+        }
+        CharsetEncoder encoder = charset.newEncoder();
+        return encoder.maxBytesPerChar() == 1.0f && encoder.averageBytesPerChar() == 1.0f;
+    }
+
+    private FlatRecords() {
+        // Provides static methods only
+    }
+}
@@ -25,6 +25,8 @@ package de.fthardy.flatpony.core.streamio;
 
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.field.*;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerField;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalField;
 import de.fthardy.flatpony.core.field.constant.ConstantField;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedField;
 import de.fthardy.flatpony.core.field.delimited.DelimitedField;
@@ -74,6 +76,16 @@ public final class ItemEntityStructureFlattener implements FlatDataFieldHandler,
         flattenedItemEntities.add(field);
     }
 
+    @Override
+    public void handlePackedDecimalField(PackedDecimalField field) {
+        flattenedItemEntities.add(field);
+    }
+
+    @Override
+    public void handleBinaryIntegerField(BinaryIntegerField field) {
+        flattenedItemEntities.add(field);
+    }
+
     @Override
     public void handleConstrainedField(ConstrainedField field) {
         field.getDecoratedField().applyHandler(this);
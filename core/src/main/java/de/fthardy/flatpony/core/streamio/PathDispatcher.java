@@ -0,0 +1,414 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A directed stream read handler which dispatches the read events to handlers subscribed for item paths.
+ * <p>
+ * A path consists of the names of the item descriptors from the root item down to the subscribed item, separated by
+ * {@code '/'}, e.g. {@code "Record/Header/Date"}. The wildcard {@code '*'} matches the name of any single item and the
+ * wildcard {@code "**"} matches any number of items including none, e.g. {@code "**}{@code /Date"} matches every item
+ * named "Date". The item descriptors are walked down through composite, delimited, optional and sequence items.
+ * </p>
+ * <p>
+ * When the dispatcher is built the subscriptions are compiled into a trie whose nodes are keyed by the identity of
+ * the descriptors. Each event is dispatched by a single lookup in the node of the enclosing structure item. The start
+ * of a structure item which has no subscription for itself or any of its descendants is answered with
+ * {@link ReadDirective#SKIP_SUBTREE}, so the content of the structure is skipped by the read process. Fields without
+ * a subscription are ignored.
+ * </p>
+ * <p>
+ * A handler can stop the read by calling {@link #stop()}. Before the dispatcher is used for another read after a
+ * stopped read, {@link #reset()} has to be called. A dispatcher is not thread safe.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ *
+ * @see PullReadCursor#pushTo(DirectedStreamReadHandler)
+ */
+public final class PathDispatcher implements DirectedStreamReadHandler {
+
+    /**
+     * The handler for field items.
+     *
+     * @author Frank Timothy Hardy
+     */
+    @FunctionalInterface
+    public interface FieldItemHandler {
+
+        /**
+         * Allows to react to a read field value.
+         *
+         * @param fieldDescriptor the descriptor of the field.
+         * @param value the read value of the field. Only valid for the duration of the call.
+         */
+        void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value);
+    }
+
+    /**
+     * The handler for the start or the end of structure items.
+     *
+     * @author Frank Timothy Hardy
+     */
+    @FunctionalInterface
+    public interface StructureItemHandler {
+
+        /**
+         * Allows to react to the start or the end of a structure item.
+         *
+         * @param itemDescriptor the descriptor of the structure item.
+         */
+        void onStructureItem(FlatDataStructureDescriptor<?> itemDescriptor);
+    }
+
+    /**
+     * Allows to subscribe handlers for paths.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface AddSubscriptions extends ObjectBuilder<PathDispatcher> {
+
+        /**
+         * Subscribe a handler for the fields matching a path.
+         *
+         * @param path the path.
+         * @param handler the handler.
+         *
+         * @return the builder instance to add further subscriptions or to create the dispatcher.
+         */
+        AddSubscriptions onField(String path, FieldItemHandler handler);
+
+        /**
+         * Subscribe a handler for the start of the structure items matching a path.
+         *
+         * @param path the path.
+         * @param handler the handler.
+         *
+         * @return the builder instance to add further subscriptions or to create the dispatcher.
+         */
+        AddSubscriptions onStructureStart(String path, StructureItemHandler handler);
+
+        /**
+         * Subscribe a handler for the end of the structure items matching a path.
+         *
+         * @param path the path.
+         * @param handler the handler.
+         *
+         * @return the builder instance to add further subscriptions or to create the dispatcher.
+         */
+        AddSubscriptions onStructureEnd(String path, StructureItemHandler handler);
+    }
+
+    private interface BuildParams {
+        FlatDataItemDescriptor<?> getRootDescriptor();
+        List<Subscription> getSubscriptions();
+    }
+
+    private static final class BuilderImpl implements AddSubscriptions, BuildParams {
+
+        private final FlatDataItemDescriptor<?> rootDescriptor;
+        private final List<Subscription> subscriptions = new ArrayList<>();
+
+        BuilderImpl(FlatDataItemDescriptor<?> rootDescriptor) {
+            this.rootDescriptor = Objects.requireNonNull(rootDescriptor, "Undefined root descriptor!");
+        }
+
+        @Override
+        public AddSubscriptions onField(String path, FieldItemHandler handler) {
+            return this.add(new Subscription(
+                    path, Objects.requireNonNull(handler, "Undefined field item handler!"), null, null));
+        }
+
+        @Override
+        public AddSubscriptions onStructureStart(String path, StructureItemHandler handler) {
+            return this.add(new Subscription(
+                    path, null, Objects.requireNonNull(handler, "Undefined structure item handler!"), null));
+        }
+
+        @Override
+        public AddSubscriptions onStructureEnd(String path, StructureItemHandler handler) {
+            return this.add(new Subscription(
+                    path, null, null, Objects.requireNonNull(handler, "Undefined structure item handler!")));
+        }
+
+        @Override
+        public FlatDataItemDescriptor<?> getRootDescriptor() {
+            return this.rootDescriptor;
+        }
+
+        @Override
+        public List<Subscription> getSubscriptions() {
+            return this.subscriptions;
+        }
+
+        @Override
+        public PathDispatcher build() {
+            return new PathDispatcher(this);
+        }
+
+        private AddSubscriptions add(Subscription subscription) {
+            this.subscriptions.add(subscription);
+            return this;
+        }
+    }
+
+    private static final class Subscription {
+        final String path;
+        final String[] segments;
+        final FieldItemHandler fieldItemHandler;
+        final StructureItemHandler startHandler;
+        final StructureItemHandler endHandler;
+        boolean matched;
+
+        Subscription(String path, FieldItemHandler fieldItemHandler, StructureItemHandler startHandler,
+                StructureItemHandler endHandler) {
+            this.path = Objects.requireNonNull(path, "Undefined path!");
+            this.segments = path.split("/", -1);
+            if (path.isEmpty() || Arrays.asList(this.segments).contains("")) {
+                throw new IllegalArgumentException(MSG_Invalid_path(path));
+            }
+            this.fieldItemHandler = fieldItemHandler;
+            this.startHandler = startHandler;
+            this.endHandler = endHandler;
+        }
+
+        boolean matches(List<String> names) {
+            return matches(this.segments, 0, names, 0);
+        }
+
+        private static boolean matches(String[] segments, int segmentIndex, List<String> names, int nameIndex) {
+            if (segmentIndex == segments.length) {
+                return nameIndex == names.size();
+            }
+            String segment = segments[segmentIndex];
+            if (segment.equals("**")) {
+                for (int i = nameIndex; i <= names.size(); i++) {
+                    if (matches(segments, segmentIndex + 1, names, i)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return nameIndex < names.size() && (segment.equals("*") || segment.equals(names.get(nameIndex))) &&
+                    matches(segments, segmentIndex + 1, names, nameIndex + 1);
+        }
+    }
+
+    private static final class Node {
+        final Map<FlatDataItemDescriptor<?>, Node> children = new IdentityHashMap<>();
+        FieldItemHandler[] fieldItemHandlers = new FieldItemHandler[0];
+        StructureItemHandler[] startHandlers = new StructureItemHandler[0];
+        StructureItemHandler[] endHandlers = new StructureItemHandler[0];
+
+        boolean hasHandlers() {
+            return this.fieldItemHandlers.length > 0 || this.startHandlers.length > 0 || this.endHandlers.length > 0;
+        }
+    }
+
+    static String MSG_Invalid_path(String path) {
+        return String.format("The path '%s' is invalid!", path);
+    }
+
+    static String MSG_Path_matches_nothing(String path) {
+        return String.format("The path '%s' doesn't match any item!", path);
+    }
+
+    /**
+     * Create a builder to subscribe handlers and to create a new dispatcher.
+     *
+     * @param rootDescriptor the descriptor of the root item which is read.
+     *
+     * @return the builder instance.
+     */
+    public static AddSubscriptions newInstance(FlatDataItemDescriptor<?> rootDescriptor) {
+        return new BuilderImpl(rootDescriptor);
+    }
+
+    private final FlatDataItemDescriptor<?> rootDescriptor;
+    private final Node[] nodeStack;
+    private int depth;
+    private boolean stopRequested;
+
+    private PathDispatcher(BuildParams params) {
+        this.rootDescriptor = params.getRootDescriptor();
+        List<Subscription> subscriptions = params.getSubscriptions();
+        Node top = new Node();
+        int maxDepth = compile(top, this.rootDescriptor, new ArrayList<>(), subscriptions);
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.matched) {
+                throw new IllegalArgumentException(MSG_Path_matches_nothing(subscription.path));
+            }
+        }
+        this.nodeStack = new Node[maxDepth + 1];
+        this.nodeStack[0] = top;
+        this.depth = 1;
+    }
+
+    /**
+     * @return the descriptor of the root item.
+     */
+    public FlatDataItemDescriptor<?> getRootDescriptor() {
+        return this.rootDescriptor;
+    }
+
+    /**
+     * Request to stop the read. The current event is answered by {@link ReadDirective#STOP}.
+     */
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    /**
+     * Reset the dispatcher in order to dispatch the events of a new read, e.g. after a stopped read.
+     */
+    public void reset() {
+        Arrays.fill(this.nodeStack, 1, this.nodeStack.length, null);
+        this.depth = 1;
+        this.stopRequested = false;
+    }
+
+    @Override
+    public ReadDirective onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+        Node node = this.nodeStack[this.depth - 1].children.get(fieldDescriptor);
+        if (node != null) {
+            for (FieldItemHandler handler : node.fieldItemHandlers) {
+                handler.onFieldItem(fieldDescriptor, value);
+            }
+        }
+        return this.directive();
+    }
+
+    @Override
+    public ReadDirective onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+        Node node = this.nodeStack[this.depth - 1].children.get(itemDescriptor);
+        if (node == null) {
+            return this.stopRequested ? ReadDirective.STOP : ReadDirective.SKIP_SUBTREE;
+        }
+        this.nodeStack[this.depth++] = node;
+        for (StructureItemHandler handler : node.startHandlers) {
+            handler.onStructureItem(itemDescriptor);
+        }
+        return this.directive();
+    }
+
+    @Override
+    public ReadDirective onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+        Node node = this.nodeStack[--this.depth];
+        this.nodeStack[this.depth] = null;
+        for (StructureItemHandler handler : node.endHandlers) {
+            handler.onStructureItem(itemDescriptor);
+        }
+        return this.directive();
+    }
+
+    private ReadDirective directive() {
+        return this.stopRequested ? ReadDirective.STOP : ReadDirective.CONTINUE;
+    }
+
+    private static int compile(
+            Node parent, FlatDataItemDescriptor<?> descriptor, List<String> names, List<Subscription> subscriptions) {
+        names.add(descriptor.getName());
+        Node node = new Node();
+        boolean isField = descriptor instanceof FlatDataFieldDescriptor;
+        List<FieldItemHandler> fieldItemHandlers = new ArrayList<>();
+        List<StructureItemHandler> startHandlers = new ArrayList<>();
+        List<StructureItemHandler> endHandlers = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            if ((isField ? subscription.fieldItemHandler != null : subscription.fieldItemHandler == null) &&
+                    subscription.matches(names)) {
+                subscription.matched = true;
+                addIfDefined(fieldItemHandlers, subscription.fieldItemHandler);
+                addIfDefined(startHandlers, subscription.startHandler);
+                addIfDefined(endHandlers, subscription.endHandler);
+            }
+        }
+        node.fieldItemHandlers = fieldItemHandlers.toArray(node.fieldItemHandlers);
+        node.startHandlers = startHandlers.toArray(node.startHandlers);
+        node.endHandlers = endHandlers.toArray(node.endHandlers);
+
+        int maxDepth = 1;
+        for (FlatDataItemDescriptor<?> child : childDescriptorsOf(descriptor)) {
+            maxDepth = Math.max(maxDepth, 1 + compile(node, child, names, subscriptions));
+        }
+        names.remove(names.size() - 1);
+
+        if (node.hasHandlers() || !node.children.isEmpty()) {
+            // Fields of pre-read items are reported by the descriptor of the innermost decorated field
+            for (FlatDataItemDescriptor<?> d = descriptor; d != null; d = decoratedFieldDescriptorOf(d)) {
+                parent.children.put(d, node);
+            }
+        }
+        return maxDepth;
+    }
+
+    private static <T> void addIfDefined(List<T> list, T element) {
+        if (element != null) {
+            list.add(element);
+        }
+    }
+
+    private static List<? extends FlatDataItemDescriptor<?>> childDescriptorsOf(FlatDataItemDescriptor<?> descriptor) {
+        if (descriptor instanceof CompositeItemDescriptor) {
+            return ((CompositeItemDescriptor) descriptor).getComponentItemDescriptors();
+        } else if (descriptor instanceof DelimitedItemDescriptor) {
+            return Collections.singletonList(((DelimitedItemDescriptor) descriptor).getTargetItemDescriptor());
+        } else if (descriptor instanceof OptionalItemDescriptor) {
+            return Collections.singletonList(((OptionalItemDescriptor) descriptor).getTargetItemDescriptor());
+        } else if (descriptor instanceof SequenceItemDescriptor) {
+            return Collections.singletonList(((SequenceItemDescriptor) descriptor).getElementItemDescriptor());
+        }
+        return Collections.emptyList();
+    }
+
+    private static FlatDataItemDescriptor<?> decoratedFieldDescriptorOf(FlatDataItemDescriptor<?> descriptor) {
+        if (descriptor instanceof TypedFieldDescriptor) {
+            return ((TypedFieldDescriptor<?>) descriptor).getDecoratedFieldDescriptor();
+        } else if (descriptor instanceof ConstrainedFieldDescriptor) {
+            return ((ConstrainedFieldDescriptor) descriptor).getDecoratedFieldDescriptor();
+        } else if (descriptor instanceof ObservableFieldDescriptor) {
+            return ((ObservableFieldDescriptor) descriptor).getObservedFieldDescriptor();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,689 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.field.AbstractFlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToBooleanFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToIntFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter;
+import de.fthardy.flatpony.core.structure.FlatDataStructure;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import de.fthardy.flatpony.core.util.FieldReference;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A cursor for pull reading an item in the style of a StAX stream reader.
+ * <p>
+ * In contrast to a {@link PullReadIterator} the cursor doesn't need a {@link StreamReadHandler} to receive the read
+ * events. Each call to {@link #next()} advances the cursor to the next event and returns its type. The data of the
+ * current event is then accessible through the getters of the cursor, e.g. {@link #getDescriptor()} or
+ * {@link #getText()}. The cursor walks the built-in structure items with a single state machine which keeps its frames
+ * on an explicit stack. The frames and the value buffer are reused, so no iterator objects are created for the nested
+ * items and no string is created for a field value unless it is requested by {@link #getValue()}.
+ * </p>
+ * <p>
+ * Optional items and sequences which have to be read by "trial and error" (i.e. without a flag or count field value)
+ * are read into item entities first. Their events are then reported from the flattened entity structure. Unknown
+ * structure items and fields which aren't based on the built-in field descriptors are read by their own
+ * {@link PullReadIterator} whose events are reported by the cursor just the same.
+ * </p>
+ * <p>
+ * The cursor can also push its events by {@link #pushTo(DirectedStreamReadHandler)} to a handler which controls the
+ * read, i.e. which can skip structure items or stop the read.
+ * </p>
+ * <p>
+ * A cursor can be reused to read the item again (e.g. for the next record) by calling {@link #reset()} or
+ * {@link #reset(Reader)}. A cursor is not thread safe.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class PullReadCursor {
+
+    /**
+     * The types of the events reported by a cursor.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public enum EventType {
+
+        /**
+         * The start of a structure item.
+         */
+        STRUCTURE_START,
+
+        /**
+         * A field item with its value.
+         */
+        FIELD,
+
+        /**
+         * The end of a structure item.
+         */
+        STRUCTURE_END
+    }
+
+    private static final class Frame {
+        private int kind;
+        private FlatDataItemDescriptor<?> descriptor;
+        private List<FlatDataItemDescriptor<?>> children;
+        private FlatDataItemDescriptor<?> child;
+        private int index;
+        private int count;
+        private PullReadIterator iterator;
+        private boolean firstEventPending;
+        private List<FlatDataItemEntity<?>> itemEntities;
+        private Deque<FlatDataStructure<?>> openStructures;
+
+        void clear() {
+            this.descriptor = null;
+            this.children = null;
+            this.child = null;
+            this.iterator = null;
+            this.itemEntities = null;
+            if (this.openStructures != null) {
+                this.openStructures.clear();
+            }
+        }
+    }
+
+    private final class DelegateEventHandler implements CharSequenceStreamReadHandler {
+
+        @Override
+        public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+            if (value != buffer) {
+                buffer.set(value);
+            }
+            eventType = EventType.FIELD;
+            currentDescriptor = fieldDescriptor;
+        }
+
+        @Override
+        public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+            setStructureEvent(EventType.STRUCTURE_START, itemDescriptor);
+        }
+
+        @Override
+        public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+            setStructureEvent(EventType.STRUCTURE_END, itemDescriptor);
+        }
+    }
+
+    static String MSG_No_further_event(FlatDataItemDescriptor<?> descriptor) {
+        return String.format("The pull read cursor for item '%s' has no further event!", descriptor.getName());
+    }
+
+    static String MSG_No_structure_start_event(EventType eventType) {
+        return String.format(
+                "The current event of the pull read cursor is not a structure start event but %s!", eventType);
+    }
+
+    static String MSG_No_field_event(EventType eventType) {
+        return String.format("The current event of the pull read cursor is not a field event but %s!", eventType);
+    }
+
+    private static final int KIND_COMPOSITE = 0;
+    private static final int KIND_DELIMITED = 1;
+    private static final int KIND_REPEATED = 2;
+    private static final int KIND_REPLAY = 3;
+    private static final int KIND_DELEGATE = 4;
+
+    private static final int MAX_UNSCALED_LENGTH = 18;
+
+    private final FlatDataItemDescriptor<?> itemDescriptor;
+    private final FlatDataContext context;
+    private final DelegateEventHandler delegateEventHandler = new DelegateEventHandler();
+    private final PullReadFieldHandler pullReadFieldHandler = new PullReadFieldHandler(this.delegateEventHandler);
+    private StreamReadHandler delegateTarget = this.delegateEventHandler;
+    private final FieldValueBuffer buffer = new FieldValueBuffer();
+    private final List<Frame> frames = new ArrayList<>();
+
+    private Reader source;
+    private int depth;
+    private boolean started;
+    private EventType eventType;
+    private FlatDataItemDescriptor<?> currentDescriptor;
+
+    /**
+     * Create a new cursor instance.
+     *
+     * @param itemDescriptor the descriptor of the item to read.
+     * @param source the source stream to read from.
+     */
+    public PullReadCursor(FlatDataItemDescriptor<?> itemDescriptor, Reader source) {
+        this.itemDescriptor = Objects.requireNonNull(itemDescriptor, "Undefined item descriptor!");
+        this.source = Objects.requireNonNull(source, "Undefined source stream!");
+        this.context = null;
+    }
+
+    /**
+     * Create a new cursor instance which reads within the given context.
+     * <p>
+     * The context is bound to the current thread for the duration of each call to {@link #next()}.
+     * </p>
+     *
+     * @param itemDescriptor the descriptor of the item to read.
+     * @param source the source stream to read from.
+     * @param context the context which holds the state of the referenced fields.
+     */
+    public PullReadCursor(FlatDataItemDescriptor<?> itemDescriptor, Reader source, FlatDataContext context) {
+        this.itemDescriptor = Objects.requireNonNull(itemDescriptor, "Undefined item descriptor!");
+        this.source = Objects.requireNonNull(source, "Undefined source stream!");
+        this.context = Objects.requireNonNull(context, "Undefined context!");
+    }
+
+    /**
+     * Reset the cursor in order to read the item once more from the current position of the source stream.
+     */
+    public void reset() {
+        while (this.depth > 0) {
+            this.frames.get(--this.depth).clear();
+        }
+        this.started = false;
+        this.eventType = null;
+        this.currentDescriptor = null;
+        this.buffer.clear();
+    }
+
+    /**
+     * Reset the cursor in order to read the item from another source stream.
+     *
+     * @param source the source stream to read from.
+     */
+    public void reset(Reader source) {
+        this.source = Objects.requireNonNull(source, "Undefined source stream!");
+        this.reset();
+    }
+
+    /**
+     * @return the descriptor of the item read by this cursor.
+     */
+    public FlatDataItemDescriptor<?> getItemDescriptor() {
+        return this.itemDescriptor;
+    }
+
+    /**
+     * Check if there is a further event.
+     * <p>
+     * Each item provides at least one event, so a fresh (or reset) cursor always has a further event. Only an item
+     * whose own pull read iterator provides no event at all violates this, which is reported by {@link #next()}.
+     * </p>
+     *
+     * @return {@code true} if there is a further event.
+     */
+    public boolean hasNext() {
+        if (this.depth == 1 && this.frames.get(0).kind == KIND_DELEGATE) {
+            return this.frames.get(0).iterator.hasNextEvent();
+        }
+        return !this.started || this.depth > 0;
+    }
+
+    /**
+     * Advance the cursor to the next event.
+     *
+     * @return the type of the new current event.
+     *
+     * @throws NoSuchElementException when there is no further event or the item provides no event at all.
+     */
+    public EventType next() {
+        return this.context == null ? this.moveToNext() : this.context.call(this::moveToNext);
+    }
+
+    /**
+     * Advance the cursor to the next event and let the pull read iterators of unknown items report their events
+     * directly to the given handler.
+     *
+     * @param handler the handler to receive the events of unknown items.
+     * @return the type of the new current event or {@code null} if the event has been reported to the handler.
+     */
+    EventType next(StreamReadHandler handler) {
+        this.delegateTarget = handler;
+        try {
+            return this.next();
+        } finally {
+            this.delegateTarget = this.delegateEventHandler;
+        }
+    }
+
+    private EventType moveToNext() {
+        if (!this.started) {
+            this.started = true;
+            this.enter(this.itemDescriptor, false);
+        } else if (this.depth > 0) {
+            this.advance(this.frames.get(this.depth - 1));
+        } else {
+            throw new NoSuchElementException(MSG_No_further_event(this.itemDescriptor));
+        }
+        return this.eventType;
+    }
+
+    /**
+     * Skip the content of the structure item whose start is the current event.
+     * <p>
+     * The content of the structure item is read from the source stream without being reported. Afterwards the current
+     * event is the end of the skipped structure item.
+     * </p>
+     *
+     * @throws IllegalStateException when the current event is not the start of a structure item.
+     */
+    public void skipStructure() {
+        if (this.eventType != EventType.STRUCTURE_START) {
+            throw new IllegalStateException(MSG_No_structure_start_event(this.eventType));
+        }
+        int level = 1;
+        while (level > 0) {
+            EventType nextEventType = this.next();
+            if (nextEventType == EventType.STRUCTURE_START) {
+                level++;
+            } else if (nextEventType == EventType.STRUCTURE_END) {
+                level--;
+            }
+        }
+    }
+
+    /**
+     * Push the remaining events of the item to the given handler until the end of the item is reached or the handler
+     * stops the read.
+     * <p>
+     * When the handler returns {@link ReadDirective#SKIP_SUBTREE} for the start of a structure item, its content is
+     * skipped by {@link #skipStructure()}. The field values are handed over as the buffer of the cursor.
+     * </p>
+     *
+     * @param handler the handler to receive the events.
+     *
+     * @return {@code true} if the item has been read completely or {@code false} if the handler stopped the read.
+     */
+    public boolean pushTo(DirectedStreamReadHandler handler) {
+        Objects.requireNonNull(handler, "Undefined directed stream read handler!");
+        while (this.hasNext()) {
+            ReadDirective directive;
+            EventType nextEventType = this.next();
+            if (nextEventType == EventType.FIELD) {
+                directive = handler.onFieldItem((FlatDataFieldDescriptor<?>) this.currentDescriptor, this.buffer);
+            } else if (nextEventType == EventType.STRUCTURE_START) {
+                directive = handler.onStructureItemStart((FlatDataStructureDescriptor<?>) this.currentDescriptor);
+                if (directive == ReadDirective.SKIP_SUBTREE) {
+                    this.skipStructure();
+                }
+            } else {
+                directive = handler.onStructureItemEnd((FlatDataStructureDescriptor<?>) this.currentDescriptor);
+            }
+            if (Objects.requireNonNull(directive, "Undefined read directive!") == ReadDirective.STOP) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the type of the current event or {@code null} if {@link #next()} hasn't been called yet.
+     */
+    public EventType getEventType() {
+        return this.eventType;
+    }
+
+    /**
+     * @return the descriptor of the item of the current event or {@code null} if {@link #next()} hasn't been called
+     * yet.
+     */
+    public FlatDataItemDescriptor<?> getDescriptor() {
+        return this.currentDescriptor;
+    }
+
+    /**
+     * Get the value of the current field event as character sequence.
+     * <p>
+     * The returned character sequence is only valid until the next call to {@link #next()} because the cursor reuses
+     * its buffer for the next field value.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public CharSequence getText() {
+        this.assertFieldEvent();
+        return this.buffer;
+    }
+
+    /**
+     * @return the value of the current field event as string.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public String getValue() {
+        this.assertFieldEvent();
+        return this.buffer.toString();
+    }
+
+    /**
+     * Get the value of the current field event as int value.
+     * <p>
+     * For a typed field with an int value converter the value is converted by the converter directly from the read
+     * buffer. Otherwise the value is parsed as decimal number.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public int getInt() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        if (converter instanceof ToIntFieldValueConverter) {
+            return ((ToIntFieldValueConverter) converter).convertToInt(this.buffer);
+        }
+        return Integer.parseInt(this.buffer.toString());
+    }
+
+    /**
+     * Get the value of the current field event as long value.
+     * <p>
+     * For a typed field with a long or int value converter the value is converted by the converter directly from the
+     * read buffer. Otherwise the value is parsed as decimal number.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public long getLong() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        if (converter instanceof ToLongFieldValueConverter) {
+            return ((ToLongFieldValueConverter) converter).convertToLong(this.buffer);
+        } else if (converter instanceof ToIntFieldValueConverter) {
+            return ((ToIntFieldValueConverter) converter).convertToInt(this.buffer);
+        }
+        return Long.parseLong(this.buffer.toString());
+    }
+
+    /**
+     * Get the value of the current field event as double value.
+     * <p>
+     * For a typed field with a double value converter the value is converted by the converter directly from the read
+     * buffer. Otherwise the value is parsed as floating point number.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public double getDouble() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        if (converter instanceof ToDoubleFieldValueConverter) {
+            return ((ToDoubleFieldValueConverter) converter).convertToDouble(this.buffer);
+        }
+        return Double.parseDouble(this.buffer.toString());
+    }
+
+    /**
+     * Get the value of the current field event as decimal value.
+     * <p>
+     * For a typed field with a decimal value converter the unscaled value is converted by the converter directly from
+     * the read buffer as long as it fits into a long value. Otherwise the value is parsed as decimal number.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public BigDecimal getDecimal() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        if (converter instanceof ToDecimalFieldValueConverter) {
+            ToDecimalFieldValueConverter decimalConverter = (ToDecimalFieldValueConverter) converter;
+            return this.buffer.length() > MAX_UNSCALED_LENGTH ?
+                    decimalConverter.convertFromFieldValue(this.buffer.toString()) :
+                    BigDecimal.valueOf(decimalConverter.convertToUnscaled(this.buffer), decimalConverter.getScale());
+        }
+        return new BigDecimal(this.buffer.toString());
+    }
+
+    /**
+     * Get the value of the current field event as boolean value.
+     * <p>
+     * For a typed field with a boolean value converter the value is converted by the converter directly from the read
+     * buffer. Otherwise the value is parsed by {@link Boolean#parseBoolean(String)}.
+     * </p>
+     *
+     * @return the field value.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    public boolean getBoolean() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        if (converter instanceof ToBooleanFieldValueConverter) {
+            return ((ToBooleanFieldValueConverter) converter).convertToBoolean(this.buffer);
+        }
+        return Boolean.parseBoolean(this.buffer.toString());
+    }
+
+    /**
+     * Get the value of the current field event converted by the value converter of the typed field.
+     *
+     * @param <T> the type of the value.
+     *
+     * @return the converted field value or the field value as string if the current field is not a typed field.
+     *
+     * @throws IllegalStateException when the current event is not a field event.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getTypedValue() {
+        this.assertFieldEvent();
+        FieldValueConverter<?> converter = this.getFieldValueConverter();
+        String value = this.buffer.toString();
+        return (T) (converter == null ? value : converter.convertFromFieldValue(value));
+    }
+
+    private FieldValueConverter<?> getFieldValueConverter() {
+        return this.currentDescriptor instanceof TypedFieldDescriptor ?
+                ((TypedFieldDescriptor<?>) this.currentDescriptor).getFieldValueConverter() : null;
+    }
+
+    private void assertFieldEvent() {
+        if (this.eventType != EventType.FIELD) {
+            throw new IllegalStateException(MSG_No_field_event(this.eventType));
+        }
+    }
+
+    private void enter(FlatDataItemDescriptor<?> descriptor, boolean firstEventPending) {
+        if (isBuiltInField(descriptor)) {
+            FlatDataFieldDescriptor<?> fieldDescriptor = (FlatDataFieldDescriptor<?>) descriptor;
+            fieldDescriptor.readValue(this.source, this.buffer);
+            this.eventType = EventType.FIELD;
+            this.currentDescriptor = fieldDescriptor;
+        } else if (descriptor instanceof CompositeItemDescriptor) {
+            Frame frame = this.pushFrame(KIND_COMPOSITE, descriptor);
+            frame.children = ((CompositeItemDescriptor) descriptor).getComponentItemDescriptors();
+            frame.count = frame.children.size();
+            this.setStructureEvent(EventType.STRUCTURE_START, descriptor);
+        } else if (descriptor instanceof DelimitedItemDescriptor) {
+            Frame frame = this.pushFrame(KIND_DELIMITED, descriptor);
+            frame.child = ((DelimitedItemDescriptor) descriptor).getTargetItemDescriptor();
+            frame.count = 1;
+            this.setStructureEvent(EventType.STRUCTURE_START, descriptor);
+        } else if (descriptor instanceof OptionalItemDescriptor) {
+            this.enterOptionalItem((OptionalItemDescriptor) descriptor);
+        } else if (descriptor instanceof SequenceItemDescriptor) {
+            this.enterSequenceItem((SequenceItemDescriptor) descriptor);
+        } else {
+            Frame frame = this.pushFrame(KIND_DELEGATE, descriptor);
+            frame.iterator = descriptor.pullReadFrom(this.source);
+            frame.firstEventPending = firstEventPending;
+            this.advance(frame);
+        }
+    }
+
+    private static boolean isBuiltInField(FlatDataItemDescriptor<?> descriptor) {
+        return descriptor instanceof AbstractFlatDataFieldDescriptor ||
+                descriptor instanceof TypedFieldDescriptor ||
+                descriptor instanceof ConstrainedFieldDescriptor ||
+                descriptor instanceof ObservableFieldDescriptor;
+    }
+
+    private void enterOptionalItem(OptionalItemDescriptor descriptor) {
+        FieldReference<Boolean> flagFieldReference = descriptor.getFlagFieldReference();
+        Boolean flagValue = flagFieldReference == null ? null : flagFieldReference.getFieldValue();
+        if (flagValue == null) {
+            this.pushFrame(KIND_REPLAY, descriptor);
+        } else {
+            Frame frame = this.pushFrame(KIND_REPEATED, descriptor);
+            frame.child = descriptor.getTargetItemDescriptor();
+            frame.count = flagValue ? 1 : 0;
+        }
+        this.setStructureEvent(EventType.STRUCTURE_START, descriptor);
+    }
+
+    private void enterSequenceItem(SequenceItemDescriptor descriptor) {
+        FieldReference<Integer> countFieldReference = descriptor.getCountFieldReference();
+        Integer count = countFieldReference == null ? null : countFieldReference.getFieldValue();
+        if (count == null) {
+            this.pushFrame(KIND_REPLAY, descriptor);
+        } else {
+            Frame frame = this.pushFrame(KIND_REPEATED, descriptor);
+            frame.child = descriptor.getElementItemDescriptor();
+            frame.count = count;
+        }
+        this.setStructureEvent(EventType.STRUCTURE_START, descriptor);
+    }
+
+    private void advance(Frame frame) {
+        if (frame.kind == KIND_DELEGATE) {
+            if (frame.firstEventPending || frame.iterator.hasNextEvent()) {
+                frame.firstEventPending = false;
+                this.setStructureEvent(null, null);
+                frame.iterator.nextEvent(this.delegateTarget);
+            } else {
+                // The item of an iterator without any further event has been read completely
+                this.popFrame();
+                if (this.depth > 0) {
+                    this.advance(this.frames.get(this.depth - 1));
+                } else {
+                    // there is no further event, so the previous event must not be reported again
+                    this.eventType = null;
+                    this.currentDescriptor = null;
+                    throw new NoSuchElementException(MSG_No_further_event(this.itemDescriptor));
+                }
+            }
+        } else if (frame.kind == KIND_REPLAY && frame.itemEntities == null) {
+            this.readItemEntities(frame);
+            this.advance(frame);
+        } else if (frame.index < frame.count) {
+            if (frame.kind == KIND_REPLAY) {
+                this.replay(frame, frame.itemEntities.get(frame.index++));
+            } else {
+                FlatDataItemDescriptor<?> child =
+                        frame.kind == KIND_COMPOSITE ? frame.children.get(frame.index) : frame.child;
+                frame.index++;
+                // A composite moves on to its next component only when the previous one has no further event, so
+                // the first event of the next component is reported right away as each item has at least one event
+                this.enter(child, frame.kind == KIND_COMPOSITE && frame.index > 1);
+            }
+        } else {
+            if (frame.kind == KIND_DELIMITED) {
+                ((DelimitedItemDescriptor) frame.descriptor).readDelimiter(this.source);
+            }
+            this.setStructureEvent(EventType.STRUCTURE_END, frame.descriptor);
+            this.popFrame();
+        }
+    }
+
+    private void replay(Frame frame, FlatDataItemEntity<?> itemEntity) {
+        if (itemEntity == frame.openStructures.peek()) {
+            this.setStructureEvent(EventType.STRUCTURE_END, frame.openStructures.pop().getDescriptor());
+        } else if (itemEntity instanceof FlatDataStructure) {
+            FlatDataStructure<?> structure = (FlatDataStructure<?>) itemEntity;
+            frame.openStructures.push(structure);
+            this.setStructureEvent(EventType.STRUCTURE_START, structure.getDescriptor());
+        } else {
+            itemEntity.applyHandler(this.pullReadFieldHandler);
+        }
+    }
+
+    private void readItemEntities(Frame frame) {
+        ItemEntityStructureFlattener flattener = new ItemEntityStructureFlattener();
+        if (frame.descriptor instanceof OptionalItemDescriptor) {
+            FlatDataItemEntity<?> itemEntity =
+                    ((OptionalItemDescriptor) frame.descriptor).readByTrialAndErrorFrom(this.source);
+            if (itemEntity != null) {
+                itemEntity.applyHandler(flattener);
+            }
+        } else {
+            ((SequenceItemDescriptor) frame.descriptor).readElementEntitiesByTrialAndErrorFrom(this.source)
+                    .forEach(itemEntity -> itemEntity.applyHandler(flattener));
+        }
+        frame.itemEntities = flattener.getFlattenedItemEntities();
+        frame.count = frame.itemEntities.size();
+        if (frame.openStructures == null) {
+            frame.openStructures = new ArrayDeque<>();
+        }
+    }
+
+    private Frame pushFrame(int kind, FlatDataItemDescriptor<?> descriptor) {
+        if (this.depth == this.frames.size()) {
+            this.frames.add(new Frame());
+        }
+        Frame frame = this.frames.get(this.depth++);
+        frame.kind = kind;
+        frame.descriptor = descriptor;
+        frame.index = 0;
+        frame.count = 0;
+        return frame;
+    }
+
+    private void popFrame() {
+        this.frames.get(--this.depth).clear();
+    }
+
+    private void setStructureEvent(EventType eventType, FlatDataItemDescriptor<?> descriptor) {
+        this.eventType = eventType;
+        this.currentDescriptor = descriptor;
+    }
+}
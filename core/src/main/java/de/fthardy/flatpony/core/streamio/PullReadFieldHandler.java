@@ -25,6 +25,8 @@ package de.fthardy.flatpony.core.streamio;
 
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.field.*;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerField;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalField;
 import de.fthardy.flatpony.core.field.constant.ConstantField;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedField;
 import de.fthardy.flatpony.core.field.delimited.DelimitedField;
@@ -69,6 +71,16 @@ public final class PullReadFieldHandler implements FlatDataFieldHandler {
         this.handler.onFieldItem(field.getDescriptor(), field.getValue());
     }
 
+    @Override
+    public void handlePackedDecimalField(PackedDecimalField field) {
+        this.handler.onFieldItem(field.getDescriptor(), field.getValue());
+    }
+
+    @Override
+    public void handleBinaryIntegerField(BinaryIntegerField field) {
+        this.handler.onFieldItem(field.getDescriptor(), field.getValue());
+    }
+
     @Override
     public void handleConstrainedField(ConstrainedField field) {
         field.getDecoratedField().applyHandler(this);
@@ -2,6 +2,8 @@ package de.fthardy.flatpony.core.streamio;
 
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.field.*;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerField;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalField;
 import de.fthardy.flatpony.core.field.constant.ConstantField;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedField;
 import de.fthardy.flatpony.core.field.delimited.DelimitedField;
@@ -48,6 +50,16 @@ public final class PushReadItemEntityTreeWalker implements FlatDataFieldHandler,
         this.handler.onFieldItem(field.getDescriptor(), field.getValue());
     }
 
+    @Override
+    public void handlePackedDecimalField(PackedDecimalField field) {
+        this.handler.onFieldItem(field.getDescriptor(), field.getValue());
+    }
+
+    @Override
+    public void handleBinaryIntegerField(BinaryIntegerField field) {
+        this.handler.onFieldItem(field.getDescriptor(), field.getValue());
+    }
+
     @Override
     public void handleConstrainedField(ConstrainedField field) {
         field.getDecoratedField().applyHandler(this);
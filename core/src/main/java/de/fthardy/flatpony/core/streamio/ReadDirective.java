@@ -0,0 +1,55 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+/**
+ * The directives which a {@link DirectedStreamReadHandler} returns to control the read process.
+ *
+ * @author Frank Timothy Hardy
+ */
+public enum ReadDirective {
+
+    /**
+     * Continue reading with the next event.
+     */
+    CONTINUE,
+
+    /**
+     * Skip the content of the structure item which has just been started.
+     * <p>
+     * The content is still consumed from the source stream but no events are reported for it, including the end event
+     * of the structure item. When returned for a field or for the end of a structure item this directive has the same
+     * effect as {@link #CONTINUE}.
+     * </p>
+     */
+    SKIP_SUBTREE,
+
+    /**
+     * Stop reading immediately.
+     * <p>
+     * The source stream is left at the position right after the data of the last reported event.
+     * </p>
+     */
+    STOP
+}
@@ -0,0 +1,206 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+
+import java.util.Arrays;
+
+/**
+ * A batch of records read by a {@link BatchedRecordReader}.
+ * <p>
+ * A record is represented by the sequence of its field values in read order. The values of all records are stored in
+ * a single character array which can be accessed directly by {@link #getChars()} together with
+ * {@link #getValueOffset(int, int)} and {@link #getValueLength(int, int)} to avoid the creation of strings. The
+ * arrays of a batch grow on demand and are kept when the batch is cleared, so a batch which is reused for the next
+ * records doesn't allocate any memory once it has reached its working size.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class RecordBatch {
+
+    private static final int INITIAL_RECORD_CAPACITY = 16;
+    private static final int INITIAL_FIELD_CAPACITY = 64;
+    private static final int INITIAL_CHAR_CAPACITY = 1024;
+
+    private char[] chars = new char[INITIAL_CHAR_CAPACITY];
+    private int charCount;
+
+    private FlatDataFieldDescriptor<?>[] fieldDescriptors = new FlatDataFieldDescriptor<?>[INITIAL_FIELD_CAPACITY];
+    private int[] valueOffsets = new int[INITIAL_FIELD_CAPACITY];
+    private int[] valueLengths = new int[INITIAL_FIELD_CAPACITY];
+    private int fieldCount;
+
+    private int[] recordStarts = new int[INITIAL_RECORD_CAPACITY + 1];
+    private int recordCount;
+
+    RecordBatch() {
+        // only created by the batched record reader
+    }
+
+    /**
+     * @return the number of records in this batch.
+     */
+    public int getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * @return the number of characters of all field values in this batch.
+     */
+    public int getCharCount() {
+        return this.charCount;
+    }
+
+    /**
+     * @param record the index of the record.
+     *
+     * @return the number of field values of the record.
+     */
+    public int getFieldCount(int record) {
+        this.assertRecordIndex(record);
+        return this.recordStarts[record + 1] - this.recordStarts[record];
+    }
+
+    /**
+     * @param record the index of the record.
+     * @param field the index of the field value within the record.
+     *
+     * @return the descriptor of the field.
+     */
+    public FlatDataFieldDescriptor<?> getFieldDescriptor(int record, int field) {
+        return this.fieldDescriptors[this.indexOf(record, field)];
+    }
+
+    /**
+     * @param record the index of the record.
+     * @param field the index of the field value within the record.
+     *
+     * @return the field value as string.
+     */
+    public String getValue(int record, int field) {
+        int index = this.indexOf(record, field);
+        return new String(this.chars, this.valueOffsets[index], this.valueLengths[index]);
+    }
+
+    /**
+     * Copy a field value into the given buffer.
+     *
+     * @param record the index of the record.
+     * @param field the index of the field value within the record.
+     * @param buffer the buffer to copy the value into.
+     */
+    public void copyValue(int record, int field, FieldValueBuffer buffer) {
+        int index = this.indexOf(record, field);
+        int length = this.valueLengths[index];
+        char[] target = buffer.allocate(length);
+        System.arraycopy(this.chars, this.valueOffsets[index], target, 0, length);
+        buffer.setRange(0, length);
+    }
+
+    /**
+     * @return the character array which contains the values of all fields. Only valid for the current batch.
+     */
+    public char[] getChars() {
+        return this.chars;
+    }
+
+    /**
+     * @param record the index of the record.
+     * @param field the index of the field value within the record.
+     *
+     * @return the offset of the field value in the character array.
+     */
+    public int getValueOffset(int record, int field) {
+        return this.valueOffsets[this.indexOf(record, field)];
+    }
+
+    /**
+     * @param record the index of the record.
+     * @param field the index of the field value within the record.
+     *
+     * @return the length of the field value.
+     */
+    public int getValueLength(int record, int field) {
+        return this.valueLengths[this.indexOf(record, field)];
+    }
+
+    void addField(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+        if (this.fieldCount == this.fieldDescriptors.length) {
+            int capacity = this.fieldCount * 2;
+            this.fieldDescriptors = Arrays.copyOf(this.fieldDescriptors, capacity);
+            this.valueOffsets = Arrays.copyOf(this.valueOffsets, capacity);
+            this.valueLengths = Arrays.copyOf(this.valueLengths, capacity);
+        }
+        int length = value.length();
+        if (this.charCount + length > this.chars.length) {
+            this.chars = Arrays.copyOf(this.chars, Math.max(this.charCount + length, this.chars.length * 2));
+        }
+        if (value instanceof FieldValueBuffer) {
+            FieldValueBuffer buffer = (FieldValueBuffer) value;
+            System.arraycopy(buffer.getChars(), buffer.getOffset(), this.chars, this.charCount, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                this.chars[this.charCount + i] = value.charAt(i);
+            }
+        }
+        this.fieldDescriptors[this.fieldCount] = fieldDescriptor;
+        this.valueOffsets[this.fieldCount] = this.charCount;
+        this.valueLengths[this.fieldCount] = length;
+        this.fieldCount++;
+        this.charCount += length;
+    }
+
+    void endRecord() {
+        if (this.recordCount + 1 == this.recordStarts.length) {
+            this.recordStarts = Arrays.copyOf(this.recordStarts, this.recordStarts.length * 2);
+        }
+        this.recordStarts[++this.recordCount] = this.fieldCount;
+    }
+
+    void clear() {
+        Arrays.fill(this.fieldDescriptors, 0, this.fieldCount, null);
+        this.fieldCount = 0;
+        this.charCount = 0;
+        this.recordCount = 0;
+    }
+
+    private int indexOf(int record, int field) {
+        this.assertRecordIndex(record);
+        int start = this.recordStarts[record];
+        int end = this.recordStarts[record + 1];
+        if (field < 0 || start + field >= end) {
+            throw new IndexOutOfBoundsException("Field index: " + field + ", field count: " + (end - start));
+        }
+        return start + field;
+    }
+
+    private void assertRecordIndex(int record) {
+        if (record < 0 || record >= this.recordCount) {
+            throw new IndexOutOfBoundsException("Record index: " + record + ", record count: " + this.recordCount);
+        }
+    }
+}
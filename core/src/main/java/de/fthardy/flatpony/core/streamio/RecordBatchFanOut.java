@@ -0,0 +1,381 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+import de.fthardy.flatpony.core.util.WorkerThreads;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reads records once and fans the record batches out to several consumers which process them in parallel.
+ * <p>
+ * The records are read by a {@link BatchedRecordReader} on the calling thread into the slots of a pre-allocated ring
+ * buffer of {@link RecordBatch} instances. Each consumer runs on its own thread and tracks its own progress through
+ * the ring buffer, so the consumers process the batches independently of each other and in read order. A slot is
+ * reused only when all consumers have processed its batch. Hence the reader waits when the slowest consumer is a full
+ * ring behind (back pressure), and a consumer waits when it has caught up with the reader.
+ * </p>
+ * <p>
+ * A batch is only valid for the duration of the consumer callback. Since every consumer sees the same batch
+ * instance, a consumer must not modify it. If a consumer fails, the read is stopped and the failure is rethrown by
+ * {@link #readFrom(Reader)} once all consumers have finished.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class RecordBatchFanOut {
+
+    /**
+     * Allows to define the size of the ring buffer.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineRingSize extends AddConsumers {
+
+        /**
+         * Define the number of batch slots of the ring buffer.
+         * <p>
+         * The default is {@value RecordBatchFanOut#DEFAULT_RING_SIZE}.
+         * </p>
+         *
+         * @param ringSize the number of slots which must be a power of two.
+         *
+         * @return the builder instance to add the consumers.
+         */
+        AddConsumers withRingSize(int ringSize);
+    }
+
+    /**
+     * Allows to add the consumers.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface AddConsumers {
+
+        /**
+         * Add a consumer.
+         *
+         * @param consumer the consumer.
+         *
+         * @return the builder instance to add further consumers or to create the fan out instance.
+         */
+        DefineThreadFactory addConsumer(RecordBatchHandler consumer);
+    }
+
+    /**
+     * Allows to define the thread factory for the consumer threads.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineThreadFactory extends ObjectBuilder<RecordBatchFanOut> {
+
+        /**
+         * Add a further consumer.
+         *
+         * @param consumer the consumer.
+         *
+         * @return the builder instance to add further consumers or to create the fan out instance.
+         */
+        DefineThreadFactory addConsumer(RecordBatchHandler consumer);
+
+        /**
+         * Define the thread factory to create the consumer threads.
+         * <p>
+         * The default is {@link Executors#defaultThreadFactory()}.
+         * </p>
+         *
+         * @param threadFactory the thread factory.
+         *
+         * @return the builder instance to create the fan out instance.
+         */
+        ObjectBuilder<RecordBatchFanOut> withThreadFactory(ThreadFactory threadFactory);
+    }
+
+    private interface BuildParams {
+        BatchedRecordReader getReader();
+        int getRingSize();
+        List<RecordBatchHandler> getConsumers();
+        ThreadFactory getThreadFactory();
+    }
+
+    private static final class BuilderImpl implements DefineRingSize, DefineThreadFactory, BuildParams {
+
+        private final BatchedRecordReader reader;
+        private int ringSize = DEFAULT_RING_SIZE;
+        private final List<RecordBatchHandler> consumers = new ArrayList<>();
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        BuilderImpl(BatchedRecordReader reader) {
+            this.reader = Objects.requireNonNull(reader, "Undefined batched record reader!");
+        }
+
+        @Override
+        public AddConsumers withRingSize(int ringSize) {
+            if (ringSize < 1 || Integer.bitCount(ringSize) != 1) {
+                throw new IllegalArgumentException("The ring size must be a power of two!");
+            }
+            this.ringSize = ringSize;
+            return this;
+        }
+
+        @Override
+        public DefineThreadFactory addConsumer(RecordBatchHandler consumer) {
+            this.consumers.add(Objects.requireNonNull(consumer, "Undefined consumer!"));
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<RecordBatchFanOut> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory, "Undefined thread factory!");
+            return this;
+        }
+
+        @Override
+        public BatchedRecordReader getReader() {
+            return this.reader;
+        }
+
+        @Override
+        public int getRingSize() {
+            return this.ringSize;
+        }
+
+        @Override
+        public List<RecordBatchHandler> getConsumers() {
+            return this.consumers;
+        }
+
+        @Override
+        public ThreadFactory getThreadFactory() {
+            return this.threadFactory;
+        }
+
+        @Override
+        public RecordBatchFanOut build() {
+            return new RecordBatchFanOut(this);
+        }
+    }
+
+    /**
+     * The per read state which is shared by the reading thread and the consumer threads.
+     */
+    private final class Run {
+        final ConsumerProcess[] processes;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        volatile long publishedSequence = -1;
+        volatile boolean finished;
+        long claimedSequence = -1;
+
+        Run() {
+            this.processes = new ConsumerProcess[consumers.length];
+            for (int i = 0; i < consumers.length; i++) {
+                this.processes[i] = new ConsumerProcess(this, consumers[i]);
+            }
+        }
+
+        RecordBatch claim() {
+            // a failed consumer doesn't hold back the reader, so the failure is checked for each batch
+            this.abortOnFailure();
+            long sequence = ++this.claimedSequence;
+            int idleCount = 0;
+            while (this.minimumConsumerSequence() < sequence - ringSize) {
+                this.abortOnFailure();
+                idleCount = idle(idleCount);
+            }
+            RecordBatch batch = slots[(int) (sequence & mask)];
+            batch.clear();
+            return batch;
+        }
+
+        void publish(RecordBatch batch) {
+            this.publishedSequence = this.claimedSequence;
+        }
+
+        private void abortOnFailure() {
+            if (this.failure.get() != null) {
+                throw new AbortedException();
+            }
+        }
+
+        private long minimumConsumerSequence() {
+            long minimum = Long.MAX_VALUE;
+            for (ConsumerProcess process : this.processes) {
+                minimum = Math.min(minimum, process.sequence);
+            }
+            return minimum;
+        }
+    }
+
+    private final class ConsumerProcess implements Runnable {
+        final Run run;
+        final RecordBatchHandler consumer;
+        volatile long sequence = -1;
+
+        ConsumerProcess(Run run, RecordBatchHandler consumer) {
+            this.run = run;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long next = this.sequence + 1;
+                int idleCount = 0;
+                while (this.run.failure.get() == null) {
+                    long available = this.run.publishedSequence;
+                    if (next <= available) {
+                        for (; next <= available; next++) {
+                            this.consumer.onRecordBatch(slots[(int) (next & mask)]);
+                            this.sequence = next;
+                        }
+                        idleCount = 0;
+                    } else if (this.run.finished && next > this.run.publishedSequence) {
+                        break;
+                    } else {
+                        idleCount = idle(idleCount);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                this.run.failure.compareAndSet(null, e);
+            } finally {
+                // a finished consumer must not hold back the reader
+                this.sequence = Long.MAX_VALUE;
+            }
+        }
+    }
+
+    private static final class AbortedException extends RuntimeException {
+        AbortedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * The default number of batch slots of the ring buffer.
+     */
+    public static final int DEFAULT_RING_SIZE = 8;
+
+    private static final int SPIN_COUNT = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    static String MSG_Interrupted(String recordName) {
+        return String.format("Interrupted while waiting for the consumers of records '%s'!", recordName);
+    }
+
+    /**
+     * Create a builder to configure and create a new fan out instance.
+     *
+     * @param reader the reader to read the record batches.
+     *
+     * @return the builder instance.
+     */
+    public static DefineRingSize newInstance(BatchedRecordReader reader) {
+        return new BuilderImpl(reader);
+    }
+
+    private final BatchedRecordReader reader;
+    private final int ringSize;
+    private final int mask;
+    private final RecordBatch[] slots;
+    private final RecordBatchHandler[] consumers;
+    private final ThreadFactory threadFactory;
+
+    private RecordBatchFanOut(BuildParams params) {
+        this.reader = params.getReader();
+        this.ringSize = params.getRingSize();
+        this.mask = this.ringSize - 1;
+        this.slots = new RecordBatch[this.ringSize];
+        for (int i = 0; i < this.ringSize; i++) {
+            this.slots[i] = new RecordBatch();
+        }
+        this.consumers = params.getConsumers().toArray(new RecordBatchHandler[0]);
+        this.threadFactory = params.getThreadFactory();
+    }
+
+    /**
+     * @return the number of batch slots of the ring buffer.
+     */
+    public int getRingSize() {
+        return this.ringSize;
+    }
+
+    /**
+     * @return the number of consumers.
+     */
+    public int getConsumerCount() {
+        return this.consumers.length;
+    }
+
+    /**
+     * Read all records from the given source stream and hand the batches over to all consumers.
+     * <p>
+     * This method returns when all consumers have processed all batches. An instance of this class must not be used
+     * for several reads at the same time.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     *
+     * @return the total number of read records.
+     */
+    public long readFrom(Reader source) {
+        Objects.requireNonNull(source, "Undefined source stream!");
+        Run run = new Run();
+        WorkerThreads threads = new WorkerThreads(this.threadFactory);
+        long recordCount = 0;
+        try {
+            for (ConsumerProcess process : run.processes) {
+                threads.start(process);
+            }
+            recordCount = this.reader.readFrom(source, run::claim, run::publish);
+        } catch (AbortedException e) {
+            // a consumer has failed
+        } catch (RuntimeException | Error e) {
+            run.failure.compareAndSet(null, e);
+        } finally {
+            run.finished = true;
+            threads.join(e -> run.failure.compareAndSet(null, new FlatDataReadException(
+                    MSG_Interrupted(this.reader.getRecordDescriptor().getName()), e)));
+        }
+        WorkerThreads.rethrow(run.failure.get());
+        return recordCount;
+    }
+
+    private static int idle(int idleCount) {
+        if (idleCount < SPIN_COUNT) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idleCount + 1;
+    }
+}
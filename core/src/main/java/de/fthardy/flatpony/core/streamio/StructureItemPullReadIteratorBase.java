@@ -33,12 +33,17 @@ import java.util.Objects;
  * Abstract base implementation for pull read iterators for structure items.
  * 
  * @author Frank Timothy Hardy
+ *
+ * @deprecated The built-in structure items are read by a {@link CursorPullReadIterator}, which reads all nested items
+ * with a single {@link PullReadCursor}. The pull read iterator of a custom structure item is still supported but
+ * should implement {@link PullReadIterator} directly.
  */
+@Deprecated
 public abstract class StructureItemPullReadIteratorBase<T extends FlatDataStructureDescriptor<?>>
         implements PullReadIterator {
 
     public static String MSG_No_pull_read_event(String itemName, String descriptorClassName) {
-        return String.format("Structure-Item '%s' [%s] has no further pull read event!", itemName, descriptorClassName);
+        return CursorPullReadIterator.MSG_No_pull_read_event(itemName, descriptorClassName);
     }
 
     protected final T descriptor;
@@ -0,0 +1,132 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+
+import java.math.BigDecimal;
+
+/**
+ * The interface definition for a stream read handler which receives the values of typed fields as converted values.
+ * <p>
+ * When a handler implementing this interface is passed to a push read, a {@link TypedFieldDescriptor} reports its
+ * value already converted instead of calling
+ * {@link #onFieldItem(de.fthardy.flatpony.core.field.FlatDataFieldDescriptor, String)}. When the converter supports a
+ * primitive conversion the value is parsed directly from the read buffer and reported through one of the primitive
+ * callbacks so neither a string nor a boxed value is created. Decimals are reported as unscaled long value together
+ * with their scale. The values of any other converter are reported through
+ * {@link #onTypedFieldItem(TypedFieldDescriptor, Object)}. All other fields are still reported as strings.
+ * </p>
+ * <p>
+ * Each callback has a default implementation, so a handler only needs to implement the callbacks it is interested in.
+ * The primitive callbacks box the value and pass it on to {@link #onTypedFieldItem(TypedFieldDescriptor, Object)}
+ * which in turn reports the field value as it has been read for the decorated field. The read field value is held by
+ * the {@link FieldValueBuffer#ofCurrentThread() read buffer of the current thread} while a callback is running, so a
+ * handler which doesn't implement any typed callback receives the same strings as a handler without typed callbacks.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ *
+ * @see de.fthardy.flatpony.core.field.typed.converter.ToIntFieldValueConverter
+ * @see de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter
+ * @see de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter
+ * @see de.fthardy.flatpony.core.field.typed.converter.ToDecimalFieldValueConverter
+ * @see de.fthardy.flatpony.core.field.typed.converter.ToBooleanFieldValueConverter
+ */
+public interface TypedStreamReadHandler extends StreamReadHandler {
+
+    /**
+     * Allows to react to a read field value which has been converted into an int value.
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param value the read value of the field.
+     */
+    @SuppressWarnings("unchecked")
+    default void onIntFieldItem(TypedFieldDescriptor<?> fieldDescriptor, int value) {
+        this.onTypedFieldItem((TypedFieldDescriptor<Integer>) fieldDescriptor, value);
+    }
+
+    /**
+     * Allows to react to a read field value which has been converted into a long value.
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param value the read value of the field.
+     */
+    @SuppressWarnings("unchecked")
+    default void onLongFieldItem(TypedFieldDescriptor<?> fieldDescriptor, long value) {
+        this.onTypedFieldItem((TypedFieldDescriptor<Long>) fieldDescriptor, value);
+    }
+
+    /**
+     * Allows to react to a read field value which has been converted into a double value.
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param value the read value of the field.
+     */
+    @SuppressWarnings("unchecked")
+    default void onDoubleFieldItem(TypedFieldDescriptor<?> fieldDescriptor, double value) {
+        this.onTypedFieldItem((TypedFieldDescriptor<Double>) fieldDescriptor, value);
+    }
+
+    /**
+     * Allows to react to a read field value which has been converted into a decimal value.
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param unscaledValue the unscaled value of the decimal.
+     * @param scale the scale of the decimal.
+     */
+    @SuppressWarnings("unchecked")
+    default void onDecimalFieldItem(TypedFieldDescriptor<?> fieldDescriptor, long unscaledValue, int scale) {
+        this.onTypedFieldItem((TypedFieldDescriptor<BigDecimal>) fieldDescriptor,
+                BigDecimal.valueOf(unscaledValue, scale));
+    }
+
+    /**
+     * Allows to react to a read field value which has been converted into a boolean value.
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param value the read value of the field.
+     */
+    @SuppressWarnings("unchecked")
+    default void onBooleanFieldItem(TypedFieldDescriptor<?> fieldDescriptor, boolean value) {
+        this.onTypedFieldItem((TypedFieldDescriptor<Boolean>) fieldDescriptor, value);
+    }
+
+    /**
+     * Allows to react to a read field value which has been converted by the converter of the typed field.
+     * <p>
+     * The default implementation reports the read field value, which is still held by the read buffer of the current
+     * thread, as string for the decorated field. An overriding method must therefore not use the read buffer of the
+     * current thread before calling it.
+     * </p>
+     *
+     * @param fieldDescriptor the descriptor of the typed field.
+     * @param value the read and converted value of the field.
+     * @param <T> the type of the value.
+     */
+    default <T> void onTypedFieldItem(TypedFieldDescriptor<T> fieldDescriptor, T value) {
+        this.onFieldItem(fieldDescriptor.getDecoratedFieldDescriptor(), FieldValueBuffer.ofCurrentThread().toString());
+    }
+}
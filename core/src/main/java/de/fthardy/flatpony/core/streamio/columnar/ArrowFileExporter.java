@@ -0,0 +1,337 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.FlatDataWriteException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Exports the records read by a {@link ColumnarRecordReader} as a file in the Apache Arrow IPC file format.
+ * <p>
+ * Each batch of the reader becomes an Arrow record batch. The column vectors are copied into a reused off-heap buffer
+ * in the Arrow memory layout, i.e. a validity bitmap followed by either a fixed-width value buffer or, for string
+ * columns, an offset buffer and a UTF-8 data buffer. The columns are mapped to Arrow types as follows:
+ * </p>
+ * <ul>
+ *     <li>{@link IntColumnVector} to a signed 32 bit integer,</li>
+ *     <li>{@link LongColumnVector} to a signed 64 bit integer,</li>
+ *     <li>{@link DoubleColumnVector} to a double precision floating point number,</li>
+ *     <li>{@link DecimalColumnVector} to a 128 bit decimal with the precision and scale of the column and</li>
+ *     <li>{@link StringColumnVector} to a UTF-8 string.</li>
+ * </ul>
+ * <p>
+ * An instance of this class can be used for several exports but is not thread safe.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ArrowFileExporter {
+
+    private static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    private static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    private static final int ALIGNMENT = 8;
+
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_UTF8 = 5;
+    private static final byte TYPE_DECIMAL = 7;
+    private static final short PRECISION_DOUBLE = 2;
+
+    static String MSG_Export_failed(String recordName) {
+        return String.format("Failed to export records '%s' to the target channel!", recordName);
+    }
+
+    private final ColumnarRecordReader reader;
+    private final String recordName;
+    private final List<ColumnVector> columns;
+    private final List<long[]> blocks = new ArrayList<>();
+    private final long[] nodes;
+    private final List<long[]> buffers = new ArrayList<>();
+    private ByteBuffer body = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private WritableByteChannel target;
+    private long position;
+
+    /**
+     * Creates a new instance of this exporter.
+     *
+     * @param reader the reader for the records to export.
+     */
+    public ArrowFileExporter(ColumnarRecordReader reader) {
+        this.reader = Objects.requireNonNull(reader, "Undefined columnar record reader!");
+        this.recordName = reader.getRecordDescriptor().getName();
+        this.columns = reader.getColumns();
+        this.nodes = new long[this.columns.size() * 2];
+    }
+
+    /**
+     * Read all records from the given source stream and write them as an Arrow IPC file to the given channel.
+     * <p>
+     * The channel is not closed.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     * @param target the channel to write the Arrow file to.
+     *
+     * @return the total number of exported records.
+     */
+    public long exportTo(Reader source, WritableByteChannel target) {
+        Objects.requireNonNull(source, "Undefined source stream!");
+        this.target = Objects.requireNonNull(target, "Undefined target channel!");
+        this.position = 0;
+        this.blocks.clear();
+        try {
+            this.write(ByteBuffer.wrap(MAGIC));
+            this.write(ByteBuffer.allocate(2));
+            this.writeMessage(this.createMessage(HEADER_SCHEMA, this.createSchema(), 0));
+            long recordCount = this.reader.readFrom(source, this::writeRecordBatch);
+            // an end-of-stream marker for readers which consume the file like a stream
+            this.write(intBuffer(CONTINUATION_MARKER, 0));
+            this.writeFooter();
+            return recordCount;
+        } catch (IOException | UncheckedIOException e) {
+            throw new FlatDataWriteException(MSG_Export_failed(this.recordName), e);
+        } finally {
+            this.target = null;
+        }
+    }
+
+    private FlatBufferWriter.Table createSchema() {
+        List<FlatBufferWriter.Table> fields = new ArrayList<>(this.columns.size());
+        for (ColumnVector column : this.columns) {
+            FlatBufferWriter.Table field = new FlatBufferWriter.Table().addString(0, column.getName())
+                    .addBool(1, true).addTableVector(5, new ArrayList<>());
+            if (column instanceof IntColumnVector) {
+                field.addByte(2, TYPE_INT).addTable(3, new FlatBufferWriter.Table().addInt(0, 32).addBool(1, true));
+            } else if (column instanceof LongColumnVector) {
+                field.addByte(2, TYPE_INT).addTable(3, new FlatBufferWriter.Table().addInt(0, 64).addBool(1, true));
+            } else if (column instanceof DoubleColumnVector) {
+                field.addByte(2, TYPE_FLOATING_POINT).addTable(
+                        3, new FlatBufferWriter.Table().addShort(0, PRECISION_DOUBLE));
+            } else if (column instanceof DecimalColumnVector) {
+                field.addByte(2, TYPE_DECIMAL).addTable(3, new FlatBufferWriter.Table()
+                        .addInt(0, ((DecimalColumnVector) column).getPrecision())
+                        .addInt(1, ((DecimalColumnVector) column).getScale())
+                        .addInt(2, 128));
+            } else {
+                field.addByte(2, TYPE_UTF8).addTable(3, new FlatBufferWriter.Table());
+            }
+            fields.add(field);
+        }
+        return new FlatBufferWriter.Table().addShort(0, 0).addTableVector(1, fields);
+    }
+
+    private FlatBufferWriter.Table createMessage(byte headerType, FlatBufferWriter.Table header, long bodyLength) {
+        return new FlatBufferWriter.Table().addShort(0, METADATA_VERSION_V5).addByte(1, headerType)
+                .addTable(2, header).addLong(3, bodyLength);
+    }
+
+    private void writeRecordBatch(ColumnarBatch batch) {
+        int rowCount = batch.getRowCount();
+        this.body.clear();
+        this.buffers.clear();
+        for (int i = 0; i < this.columns.size(); i++) {
+            ColumnVector column = this.columns.get(i);
+            this.nodes[2 * i] = rowCount;
+            this.nodes[2 * i + 1] = column.getNullCount();
+            this.putValidityBitmap(column, rowCount);
+            if (column instanceof IntColumnVector) {
+                int[] values = ((IntColumnVector) column).getValues();
+                this.ensureBodyCapacity(4L * rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    this.body.putInt(values[row]);
+                }
+            } else if (column instanceof LongColumnVector) {
+                this.putLongs(((LongColumnVector) column).getValues(), rowCount);
+            } else if (column instanceof DoubleColumnVector) {
+                double[] values = ((DoubleColumnVector) column).getValues();
+                this.ensureBodyCapacity(8L * rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    this.body.putDouble(values[row]);
+                }
+            } else if (column instanceof DecimalColumnVector) {
+                long[] values = ((DecimalColumnVector) column).getUnscaledValues();
+                this.ensureBodyCapacity(16L * rowCount);
+                for (int row = 0; row < rowCount; row++) {
+                    this.body.putLong(values[row]).putLong(values[row] < 0 ? -1L : 0L);
+                }
+            } else {
+                this.putStrings((StringColumnVector) column, rowCount);
+                continue;
+            }
+            this.endBuffer();
+        }
+        try {
+            long bodyLength = this.body.position();
+            long[] bufferList = new long[this.buffers.size() * 2];
+            for (int i = 0; i < this.buffers.size(); i++) {
+                bufferList[2 * i] = this.buffers.get(i)[0];
+                bufferList[2 * i + 1] = this.buffers.get(i)[1];
+            }
+            FlatBufferWriter.Table recordBatch = new FlatBufferWriter.Table().addLong(0, rowCount)
+                    .addStructVector(1, this.columns.size(), toBytes(this.nodes))
+                    .addStructVector(2, this.buffers.size(), toBytes(bufferList));
+            long offset = this.position;
+            int metadataLength = this.writeMessage(this.createMessage(HEADER_RECORD_BATCH, recordBatch, bodyLength));
+            this.body.flip();
+            this.write(this.body);
+            this.blocks.add(new long[] {offset, metadataLength, bodyLength});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putValidityBitmap(ColumnVector column, int rowCount) {
+        if (column.getNullCount() > 0) {
+            long[] bitmap = column.getValidityBitmap();
+            int byteCount = (rowCount + 7) / 8;
+            this.ensureBodyCapacity(byteCount);
+            for (int i = 0; i < byteCount; i++) {
+                this.body.put((byte) (bitmap[i >>> 3] >>> (8 * (i & 7))));
+            }
+        }
+        this.endBuffer();
+    }
+
+    private void putLongs(long[] values, int rowCount) {
+        this.ensureBodyCapacity(8L * rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            this.body.putLong(values[row]);
+        }
+    }
+
+    private void putStrings(StringColumnVector column, int rowCount) {
+        List<String> dictionary = column.getDictionary();
+        byte[][] encodedDictionary = new byte[dictionary.size()][];
+        for (int code = 0; code < encodedDictionary.length; code++) {
+            encodedDictionary[code] = dictionary.get(code).getBytes(StandardCharsets.UTF_8);
+        }
+        int[] codes = column.getCodes();
+        this.ensureBodyCapacity(4L * (rowCount + 1));
+        int offset = 0;
+        this.body.putInt(offset);
+        for (int row = 0; row < rowCount; row++) {
+            if (codes[row] >= 0) {
+                offset += encodedDictionary[codes[row]].length;
+            }
+            this.body.putInt(offset);
+        }
+        this.endBuffer();
+        this.ensureBodyCapacity(offset);
+        for (int row = 0; row < rowCount; row++) {
+            if (codes[row] >= 0) {
+                this.body.put(encodedDictionary[codes[row]]);
+            }
+        }
+        this.endBuffer();
+    }
+
+    private void endBuffer() {
+        long start = this.buffers.isEmpty() ? 0 : this.buffers.get(this.buffers.size() - 1)[2];
+        long length = this.body.position() - start;
+        this.ensureBodyCapacity(ALIGNMENT);
+        while (this.body.position() % ALIGNMENT != 0) {
+            this.body.put((byte) 0);
+        }
+        this.buffers.add(new long[] {start, length, this.body.position()});
+    }
+
+    private void ensureBodyCapacity(long additional) {
+        if (this.body.remaining() < additional) {
+            long capacity = Math.max(this.body.capacity() * 2L, this.body.position() + additional + ALIGNMENT);
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException("A record batch exceeds the maximum body size!");
+            }
+            ByteBuffer newBody = ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.LITTLE_ENDIAN);
+            this.body.flip();
+            newBody.put(this.body);
+            this.body = newBody;
+        }
+    }
+
+    private void writeFooter() throws IOException {
+        long[] blockList = new long[this.blocks.size() * 3];
+        for (int i = 0; i < this.blocks.size(); i++) {
+            long[] block = this.blocks.get(i);
+            blockList[3 * i] = block[0];
+            // the metadata length is an int followed by 4 bytes of padding
+            blockList[3 * i + 1] = block[1] & 0xFFFFFFFFL;
+            blockList[3 * i + 2] = block[2];
+        }
+        FlatBufferWriter.Table footer = new FlatBufferWriter.Table().addShort(0, METADATA_VERSION_V5)
+                .addTable(1, this.createSchema())
+                .addStructVector(2, 0, new byte[0])
+                .addStructVector(3, this.blocks.size(), toBytes(blockList));
+        byte[] content = FlatBufferWriter.write(footer);
+        this.write(ByteBuffer.wrap(content));
+        this.write(intBuffer(content.length));
+        this.write(ByteBuffer.wrap(MAGIC));
+    }
+
+    private int writeMessage(FlatBufferWriter.Table message) throws IOException {
+        byte[] content = FlatBufferWriter.write(message);
+        int paddedLength = (content.length + 8 + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT - 8;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + paddedLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(CONTINUATION_MARKER).putInt(paddedLength).put(content);
+        buffer.position(0);
+        this.write(buffer);
+        return 8 + paddedLength;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        this.position += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            this.target.write(buffer);
+        }
+    }
+
+    private static ByteBuffer intBuffer(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        buffer.position(0);
+        return buffer;
+    }
+
+    private static byte[] toBytes(long[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        return buffer.array();
+    }
+}
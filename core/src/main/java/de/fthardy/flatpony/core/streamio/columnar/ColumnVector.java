@@ -0,0 +1,190 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+
+import java.util.Arrays;
+
+/**
+ * Abstract base implementation of a column vector which holds the values of a single field for all rows of a
+ * {@link ColumnarBatch}.
+ * <p>
+ * While a batch is read the raw field values are staged in a character array. When the batch is complete each column
+ * converts its staged values in a single loop into its value array. A row for which the field hasn't been read (e.g.
+ * because it belongs to an absent optional item) is null. The validity of the rows is kept in a bitmap with one bit
+ * per row which is set for a valid (non-null) value.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public abstract class ColumnVector {
+
+    private static final int NULL_LENGTH = -1;
+
+    private final FlatDataFieldDescriptor<?> fieldDescriptor;
+
+    private char[] stagedChars = new char[256];
+    private int stagedCharCount;
+    private int[] stagedOffsets;
+    private int[] stagedLengths;
+
+    private long[] validity;
+    private int size;
+
+    /**
+     * Initialise a new column vector.
+     *
+     * @param fieldDescriptor the descriptor of the field whose values are held by the column.
+     * @param capacity the maximum number of rows.
+     */
+    ColumnVector(FlatDataFieldDescriptor<?> fieldDescriptor, int capacity) {
+        this.fieldDescriptor = fieldDescriptor;
+        this.stagedOffsets = new int[capacity];
+        this.stagedLengths = new int[capacity];
+        this.validity = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * @return the name of the column which is the name of the field.
+     */
+    public String getName() {
+        return this.fieldDescriptor.getName();
+    }
+
+    /**
+     * @return the descriptor of the field whose values are held by the column.
+     */
+    public FlatDataFieldDescriptor<?> getFieldDescriptor() {
+        return this.fieldDescriptor;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return {@code true} if the value of the given row is null.
+     */
+    public boolean isNull(int row) {
+        this.assertRowIndex(row);
+        return (this.validity[row >>> 6] & (1L << row)) == 0;
+    }
+
+    /**
+     * @return the validity bitmap with one bit per row which is set for a non-null value. The array may be longer than
+     * needed for the current number of rows.
+     */
+    public long[] getValidityBitmap() {
+        return this.validity;
+    }
+
+    /**
+     * @return the number of null values.
+     */
+    public int getNullCount() {
+        int validCount = 0;
+        int words = this.size >>> 6;
+        for (int i = 0; i < words; i++) {
+            validCount += Long.bitCount(this.validity[i]);
+        }
+        if ((this.size & 63) != 0) {
+            validCount += Long.bitCount(this.validity[words] & ((1L << this.size) - 1));
+        }
+        return this.size - validCount;
+    }
+
+    /**
+     * Is called to convert the staged value of a valid row.
+     *
+     * @param row the index of the row.
+     * @param value the staged field value.
+     */
+    abstract void convertValue(int row, CharSequence value);
+
+    /**
+     * Is called to reset the value of a null row.
+     *
+     * @param row the index of the row.
+     */
+    abstract void clearValue(int row);
+
+    /**
+     * Is called before the values of a new batch are converted.
+     */
+    void reset() {
+        // nothing to do by default
+    }
+
+    final void stageNull(int row) {
+        this.stagedLengths[row] = NULL_LENGTH;
+    }
+
+    final void stage(int row, CharSequence value) {
+        int length = value.length();
+        if (this.stagedCharCount + length > this.stagedChars.length) {
+            this.stagedChars = Arrays.copyOf(
+                    this.stagedChars, Math.max(this.stagedCharCount + length, this.stagedChars.length * 2));
+        }
+        if (value instanceof FieldValueBuffer) {
+            FieldValueBuffer buffer = (FieldValueBuffer) value;
+            System.arraycopy(buffer.getChars(), buffer.getOffset(), this.stagedChars, this.stagedCharCount, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                this.stagedChars[this.stagedCharCount + i] = value.charAt(i);
+            }
+        }
+        this.stagedOffsets[row] = this.stagedCharCount;
+        this.stagedLengths[row] = length;
+        this.stagedCharCount += length;
+    }
+
+    final void convert(int rowCount, CharArraySequence view) {
+        this.reset();
+        Arrays.fill(this.validity, 0L);
+        for (int row = 0; row < rowCount; row++) {
+            int length = this.stagedLengths[row];
+            if (length == NULL_LENGTH) {
+                this.clearValue(row);
+            } else {
+                this.validity[row >>> 6] |= 1L << row;
+                this.convertValue(row, view.set(this.stagedChars, this.stagedOffsets[row], length));
+            }
+        }
+        this.size = rowCount;
+        this.stagedCharCount = 0;
+    }
+
+    final void assertRowIndex(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException("Row index: " + row + ", size: " + this.size);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A batch of records read by a {@link ColumnarRecordReader} which holds one {@link ColumnVector} per field.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ColumnarBatch {
+
+    private final List<ColumnVector> columns;
+    private int rowCount;
+
+    ColumnarBatch(ColumnVector[] columns) {
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+    }
+
+    /**
+     * @return the number of rows (i.e. records) of this batch.
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * @return the column vectors in the order of the fields in the record layout.
+     */
+    public List<ColumnVector> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @param index the index of the column.
+     *
+     * @return the column vector.
+     */
+    public ColumnVector getColumn(int index) {
+        return this.columns.get(index);
+    }
+
+    /**
+     * Get the first column vector with the given name.
+     *
+     * @param name the name of the column which is the name of its field.
+     *
+     * @return the column vector.
+     *
+     * @throws NoSuchElementException when there is no column with the given name.
+     */
+    public ColumnVector getColumn(String name) {
+        for (ColumnVector column : this.columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        throw new NoSuchElementException(name);
+    }
+
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+/**
+ * The interface definition for a handler which receives the records read by a {@link ColumnarRecordReader} as batches
+ * of column vectors.
+ *
+ * @author Frank Timothy Hardy
+ */
+public interface ColumnarBatchHandler {
+
+    /**
+     * Allows to react to a batch of read records.
+     * <p>
+     * The batch and its column vectors are reused for the next batch. Hence they are only valid for the duration of
+     * the call.
+     * </p>
+     *
+     * @param batch the batch of read records.
+     */
+    void onColumnarBatch(ColumnarBatch batch);
+}
@@ -0,0 +1,356 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldDescriptor;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldDescriptor;
+import de.fthardy.flatpony.core.field.constrained.ConstrainedFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToIntFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter;
+import de.fthardy.flatpony.core.streamio.PullReadCursor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A reader which reads records from a source stream into batches of column vectors.
+ * <p>
+ * The record layout is analysed once when the reader is created. Each field of the layout becomes a column whose
+ * type depends on the field:
+ * </p>
+ * <ul>
+ *     <li>a typed field with an int, long or double converter becomes an {@link IntColumnVector}, a
+ *     {@link LongColumnVector} or a {@link DoubleColumnVector},</li>
+ *     <li>a typed field with a decimal converter and a packed decimal field with up to 18 digits become a
+ *     {@link DecimalColumnVector} whose precision is the size of a fixed size field or the number of packed
+ *     digits,</li>
+ *     <li>a binary integer field becomes a {@link LongColumnVector} and</li>
+ *     <li>all other fields become a dictionary encoded {@link StringColumnVector}.</li>
+ * </ul>
+ * <p>
+ * The layout may consist of composite, delimited and optional items. The fields of an absent optional item are null.
+ * Sequences are not supported because their number of fields varies from record to record.
+ * </p>
+ * <p>
+ * While a batch is read the field values are staged per column. When the batch is complete each column converts its
+ * values in a single loop. The column vectors are reused for all batches. An instance of this reader can be used for
+ * several source streams but is not thread safe.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ColumnarRecordReader {
+
+    /**
+     * Allows to define the batch size.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineBatchSize extends ObjectBuilder<ColumnarRecordReader> {
+
+        /**
+         * Define the maximum number of records of a batch.
+         * <p>
+         * The default is {@value ColumnarRecordReader#DEFAULT_BATCH_SIZE}.
+         * </p>
+         *
+         * @param batchSize the batch size which must be at least 1.
+         *
+         * @return the builder instance to create the new reader instance.
+         */
+        ObjectBuilder<ColumnarRecordReader> withBatchSize(int batchSize);
+    }
+
+    private interface BuildParams {
+        FlatDataItemDescriptor<?> getRecordDescriptor();
+        int getBatchSize();
+    }
+
+    private static final class BuilderImpl implements DefineBatchSize, BuildParams {
+
+        private final FlatDataItemDescriptor<?> recordDescriptor;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        BuilderImpl(FlatDataItemDescriptor<?> recordDescriptor) {
+            this.recordDescriptor = Objects.requireNonNull(recordDescriptor, "Undefined record descriptor!");
+        }
+
+        @Override
+        public ObjectBuilder<ColumnarRecordReader> withBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("The batch size must be at least 1!");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        @Override
+        public FlatDataItemDescriptor<?> getRecordDescriptor() {
+            return this.recordDescriptor;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return this.batchSize;
+        }
+
+        @Override
+        public ColumnarRecordReader build() {
+            return new ColumnarRecordReader(this);
+        }
+    }
+
+    /**
+     * The default batch size.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    static String MSG_Unsupported_item(FlatDataItemDescriptor<?> descriptor) {
+        return String.format("The item '%s' [%s] is not supported by a columnar read!",
+                descriptor.getName(), descriptor.getClass().getSimpleName());
+    }
+
+    static String MSG_Field_not_unique(FlatDataFieldDescriptor<?> descriptor) {
+        return String.format(
+                "The field descriptor '%s' is used more than once in the record layout!", descriptor.getName());
+    }
+
+    static String MSG_Read_failed(String recordName) {
+        return String.format("Failed to read records '%s' from source stream!", recordName);
+    }
+
+    static String MSG_Unknown_field(FlatDataFieldDescriptor<?> descriptor) {
+        return String.format("The read field '%s' is not part of the record layout!", descriptor.getName());
+    }
+
+    /**
+     * Create a builder to configure and create a new columnar record reader.
+     *
+     * @param recordDescriptor the descriptor of the records to read.
+     *
+     * @return the builder instance.
+     */
+    public static DefineBatchSize newInstance(FlatDataItemDescriptor<?> recordDescriptor) {
+        return new BuilderImpl(recordDescriptor);
+    }
+
+    private final FlatDataItemDescriptor<?> recordDescriptor;
+    private final int batchSize;
+    private final ColumnVector[] columns;
+    private final Map<FlatDataFieldDescriptor<?>, ColumnVector> columnByFieldDescriptor = new IdentityHashMap<>();
+    private final ColumnarBatch batch;
+    private final CharArraySequence view = new CharArraySequence();
+
+    private ColumnarRecordReader(BuildParams params) {
+        this.recordDescriptor = params.getRecordDescriptor();
+        this.batchSize = params.getBatchSize();
+        List<ColumnVector> columnList = new ArrayList<>();
+        this.collectColumns(this.recordDescriptor, columnList);
+        this.columns = columnList.toArray(new ColumnVector[0]);
+        this.batch = new ColumnarBatch(this.columns);
+    }
+
+    /**
+     * @return the descriptor of the records to read.
+     */
+    public FlatDataItemDescriptor<?> getRecordDescriptor() {
+        return this.recordDescriptor;
+    }
+
+    /**
+     * @return the batch size.
+     */
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    List<ColumnVector> getColumns() {
+        return this.batch.getColumns();
+    }
+
+    /**
+     * Read all records from the given source stream and deliver them in batches to the given handler.
+     * <p>
+     * The records are read until the end of the source stream is reached. If the source stream doesn't support
+     * marking, which is needed to detect the end of the stream, it is wrapped by a {@link BufferedReader}.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     * @param handler the handler to receive the batches.
+     *
+     * @return the total number of read records.
+     */
+    public long readFrom(Reader source, ColumnarBatchHandler handler) {
+        Objects.requireNonNull(handler, "Undefined columnar batch handler!");
+        Reader reader = Objects.requireNonNull(source, "Undefined source stream!").markSupported() ?
+                source : new BufferedReader(source);
+        PullReadCursor cursor = new PullReadCursor(this.recordDescriptor, reader);
+        long recordCount = 0;
+        int row = 0;
+        while (this.hasMoreContent(reader)) {
+            this.readRecord(cursor, row++);
+            recordCount++;
+            if (row == this.batchSize) {
+                this.deliverBatch(row, handler);
+                row = 0;
+            }
+        }
+        if (row > 0) {
+            this.deliverBatch(row, handler);
+        }
+        return recordCount;
+    }
+
+    private void readRecord(PullReadCursor cursor, int row) {
+        for (ColumnVector column : this.columns) {
+            column.stageNull(row);
+        }
+        cursor.reset();
+        while (cursor.hasNext()) {
+            if (cursor.next() == PullReadCursor.EventType.FIELD) {
+                FlatDataFieldDescriptor<?> fieldDescriptor = (FlatDataFieldDescriptor<?>) cursor.getDescriptor();
+                ColumnVector column = this.columnByFieldDescriptor.get(fieldDescriptor);
+                if (column == null) {
+                    throw new FlatDataReadException(MSG_Unknown_field(fieldDescriptor));
+                }
+                column.stage(row, cursor.getText());
+            }
+        }
+    }
+
+    private void deliverBatch(int rowCount, ColumnarBatchHandler handler) {
+        for (ColumnVector column : this.columns) {
+            column.convert(rowCount, this.view);
+        }
+        this.batch.setRowCount(rowCount);
+        handler.onColumnarBatch(this.batch);
+    }
+
+    private boolean hasMoreContent(Reader reader) {
+        try {
+            reader.mark(1);
+            int c = reader.read();
+            reader.reset();
+            return c != -1;
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+    }
+
+    private void collectColumns(FlatDataItemDescriptor<?> descriptor, List<ColumnVector> columnList) {
+        if (descriptor instanceof FlatDataFieldDescriptor) {
+            FlatDataFieldDescriptor<?> fieldDescriptor = (FlatDataFieldDescriptor<?>) descriptor;
+            ColumnVector column = this.createColumn(fieldDescriptor);
+            columnList.add(column);
+            // Fields of a pre-read optional item are reported by the descriptor of the innermost decorated field
+            for (FlatDataFieldDescriptor<?> d = fieldDescriptor; d != null; d = decoratedFieldDescriptorOf(d)) {
+                if (this.columnByFieldDescriptor.put(d, column) != null) {
+                    throw new IllegalArgumentException(MSG_Field_not_unique(d));
+                }
+            }
+        } else if (descriptor instanceof CompositeItemDescriptor) {
+            ((CompositeItemDescriptor) descriptor).getComponentItemDescriptors().forEach(
+                    d -> this.collectColumns(d, columnList));
+        } else if (descriptor instanceof DelimitedItemDescriptor) {
+            this.collectColumns(((DelimitedItemDescriptor) descriptor).getTargetItemDescriptor(), columnList);
+        } else if (descriptor instanceof OptionalItemDescriptor) {
+            this.collectColumns(((OptionalItemDescriptor) descriptor).getTargetItemDescriptor(), columnList);
+        } else {
+            throw new IllegalArgumentException(MSG_Unsupported_item(descriptor));
+        }
+    }
+
+    private ColumnVector createColumn(FlatDataFieldDescriptor<?> fieldDescriptor) {
+        FlatDataFieldDescriptor<?> d = fieldDescriptor;
+        while (d instanceof ObservableFieldDescriptor || d instanceof ConstrainedFieldDescriptor) {
+            d = decoratedFieldDescriptorOf(d);
+        }
+        if (d instanceof TypedFieldDescriptor) {
+            FieldValueConverter<?> converter = ((TypedFieldDescriptor<?>) d).getFieldValueConverter();
+            if (converter instanceof ToIntFieldValueConverter) {
+                return new IntColumnVector(fieldDescriptor, this.batchSize, (ToIntFieldValueConverter) converter);
+            } else if (converter instanceof ToLongFieldValueConverter) {
+                return new LongColumnVector(fieldDescriptor, this.batchSize, (ToLongFieldValueConverter) converter);
+            } else if (converter instanceof ToDoubleFieldValueConverter) {
+                return new DoubleColumnVector(
+                        fieldDescriptor, this.batchSize, (ToDoubleFieldValueConverter) converter);
+            } else if (converter instanceof ToDecimalFieldValueConverter) {
+                ToDecimalFieldValueConverter decimalConverter = (ToDecimalFieldValueConverter) converter;
+                return new DecimalColumnVector(fieldDescriptor, this.batchSize, decimalConverter,
+                        decimalPrecisionOf(((TypedFieldDescriptor<?>) d).getDecoratedFieldDescriptor()),
+                        decimalConverter.getScale());
+            }
+        } else if (d instanceof PackedDecimalFieldDescriptor) {
+            PackedDecimalFieldDescriptor packedDecimalDescriptor = (PackedDecimalFieldDescriptor) d;
+            if (packedDecimalDescriptor.getDigits() <= 18) {
+                return new DecimalColumnVector(fieldDescriptor, this.batchSize, null,
+                        packedDecimalDescriptor.getDigits(), packedDecimalDescriptor.getScale());
+            }
+        } else if (d instanceof BinaryIntegerFieldDescriptor) {
+            return new LongColumnVector(fieldDescriptor, this.batchSize, null);
+        }
+        return new StringColumnVector(fieldDescriptor, this.batchSize);
+    }
+
+    private static int decimalPrecisionOf(FlatDataFieldDescriptor<?> fieldDescriptor) {
+        FlatDataFieldDescriptor<?> d = fieldDescriptor;
+        while (d instanceof ObservableFieldDescriptor || d instanceof ConstrainedFieldDescriptor) {
+            d = decoratedFieldDescriptorOf(d);
+        }
+        // the decimal converters read the digits of the unscaled value, so a fixed size field limits their number
+        return d instanceof FixedSizeFieldDescriptor ?
+                Math.min(d.getMinLength(), DecimalColumnVector.MAX_PRECISION) :
+                DecimalColumnVector.MAX_PRECISION;
+    }
+
+    private static FlatDataFieldDescriptor<?> decoratedFieldDescriptorOf(FlatDataFieldDescriptor<?> descriptor) {
+        if (descriptor instanceof TypedFieldDescriptor) {
+            return ((TypedFieldDescriptor<?>) descriptor).getDecoratedFieldDescriptor();
+        } else if (descriptor instanceof ConstrainedFieldDescriptor) {
+            return ((ConstrainedFieldDescriptor) descriptor).getDecoratedFieldDescriptor();
+        } else if (descriptor instanceof ObservableFieldDescriptor) {
+            return ((ObservableFieldDescriptor) descriptor).getObservedFieldDescriptor();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.FieldValueConvertException;
+import de.fthardy.flatpony.core.field.typed.converter.ToDecimalFieldValueConverter;
+
+import java.math.BigDecimal;
+
+/**
+ * A column vector holding decimal values as unscaled long values with a common precision and scale.
+ * <p>
+ * The precision is the maximum number of digits of the unscaled values. It is derived from the field descriptor of the
+ * column and is at most {@value #MAX_PRECISION}, which is the number of digits of the largest long value.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class DecimalColumnVector extends ColumnVector {
+
+    static String MSG_Invalid_decimal(String columnName, CharSequence value) {
+        return String.format("The value '%s' of column '%s' is not a valid decimal value!", value, columnName);
+    }
+
+    /**
+     * The maximum precision of the values.
+     */
+    public static final int MAX_PRECISION = 19;
+
+    private static final int MAX_UNSCALED_LENGTH = 18;
+
+    private final ToDecimalFieldValueConverter converter;
+    private final int precision;
+    private final int scale;
+    private final long[] unscaledValues;
+
+    DecimalColumnVector(FlatDataFieldDescriptor<?> fieldDescriptor, int capacity,
+                        ToDecimalFieldValueConverter converter, int precision, int scale) {
+        super(fieldDescriptor, capacity);
+        this.converter = converter;
+        this.precision = precision;
+        this.scale = scale;
+        this.unscaledValues = new long[capacity];
+    }
+
+    /**
+     * @return the maximum number of digits of all values.
+     */
+    public int getPrecision() {
+        return this.precision;
+    }
+
+    /**
+     * @return the scale of all values.
+     */
+    public int getScale() {
+        return this.scale;
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the unscaled value of the row which is 0 for a null value.
+     */
+    public long getUnscaledValue(int row) {
+        this.assertRowIndex(row);
+        return this.unscaledValues[row];
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the value of the row or {@code null} for a null value.
+     */
+    public BigDecimal getDecimal(int row) {
+        return this.isNull(row) ? null : BigDecimal.valueOf(this.unscaledValues[row], this.scale);
+    }
+
+    /**
+     * @return the array of unscaled values. It may be longer than the number of rows.
+     */
+    public long[] getUnscaledValues() {
+        return this.unscaledValues;
+    }
+
+    @Override
+    void convertValue(int row, CharSequence value) {
+        if (this.converter == null) {
+            this.unscaledValues[row] = parseUnscaled(value, this.getName());
+        } else if (value.length() > MAX_UNSCALED_LENGTH) {
+            this.unscaledValues[row] = this.convertToUnscaled(value.toString());
+        } else {
+            this.unscaledValues[row] = this.converter.convertToUnscaled(value);
+        }
+    }
+
+    private long convertToUnscaled(String value) {
+        BigDecimal decimal = this.converter.convertFromFieldValue(value);
+        try {
+            return decimal.setScale(this.scale, this.converter.getRoundingMode()).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            // Either rounding is necessary but not allowed or the unscaled value exceeds the range of long
+            throw new FieldValueConvertException(MSG_Invalid_decimal(this.getName(), value), e);
+        }
+    }
+
+    @Override
+    void clearValue(int row) {
+        this.unscaledValues[row] = 0L;
+    }
+
+    /**
+     * Parse a plain decimal number ignoring the decimal point.
+     * <p>
+     * This matches the values of the binary number fields which are read as plain numbers with a fixed number of
+     * fraction digits.
+     * </p>
+     */
+    static long parseUnscaled(CharSequence value, String columnName) {
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index++;
+        }
+        if (index == length) {
+            throw new FieldValueConvertException(MSG_Invalid_decimal(columnName, value));
+        }
+        // accumulated negatively to cover the whole range of long values
+        long result = 0;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (result < (Long.MIN_VALUE + digit) / 10) {
+                    throw new FieldValueConvertException(MSG_Invalid_decimal(columnName, value));
+                }
+                result = result * 10 - digit;
+            } else if (c != '.') {
+                throw new FieldValueConvertException(MSG_Invalid_decimal(columnName, value));
+            }
+        }
+        if (!negative && result == Long.MIN_VALUE) {
+            throw new FieldValueConvertException(MSG_Invalid_decimal(columnName, value));
+        }
+        return negative ? result : -result;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.ToDoubleFieldValueConverter;
+
+/**
+ * A column vector holding double values.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class DoubleColumnVector extends ColumnVector {
+
+    private final ToDoubleFieldValueConverter converter;
+    private final double[] values;
+
+    DoubleColumnVector(
+            FlatDataFieldDescriptor<?> fieldDescriptor, int capacity, ToDoubleFieldValueConverter converter) {
+        super(fieldDescriptor, capacity);
+        this.converter = converter;
+        this.values = new double[capacity];
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the value of the row which is 0 for a null value.
+     */
+    public double getDouble(int row) {
+        this.assertRowIndex(row);
+        return this.values[row];
+    }
+
+    /**
+     * @return the value array. It may be longer than the number of rows.
+     */
+    public double[] getValues() {
+        return this.values;
+    }
+
+    @Override
+    void convertValue(int row, CharSequence value) {
+        this.values[row] = this.converter.convertToDouble(value);
+    }
+
+    @Override
+    void clearValue(int row) {
+        this.values[row] = 0.0;
+    }
+}
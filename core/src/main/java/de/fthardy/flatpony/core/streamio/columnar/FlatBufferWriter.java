@@ -0,0 +1,292 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A minimal writer for the FlatBuffers binary format which is used to encode the metadata of the Arrow IPC format.
+ * <p>
+ * Unlike the builders of the FlatBuffers library this writer lays out the buffer from front to back: a table is
+ * preceded by its vtable and followed by the objects it refers to, so all offsets point forward as required by the
+ * format. Only the features needed for the Arrow metadata are supported: scalar fields, tables, strings and vectors of
+ * tables, longs and structs.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class FlatBufferWriter {
+
+    /**
+     * A table to be written.
+     */
+    static final class Table {
+
+        private final List<Slot> slots = new ArrayList<>();
+
+        Table addByte(int id, int value) {
+            return this.add(new Slot(id, 1, value, null));
+        }
+
+        Table addBool(int id, boolean value) {
+            return this.add(new Slot(id, 1, value ? 1 : 0, null));
+        }
+
+        Table addShort(int id, int value) {
+            return this.add(new Slot(id, 2, value, null));
+        }
+
+        Table addInt(int id, int value) {
+            return this.add(new Slot(id, 4, value, null));
+        }
+
+        Table addLong(int id, long value) {
+            return this.add(new Slot(id, 8, value, null));
+        }
+
+        Table addTable(int id, Table table) {
+            return this.add(new Slot(id, 4, 0, table));
+        }
+
+        Table addString(int id, String value) {
+            return this.add(new Slot(id, 4, 0, value.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Table addTableVector(int id, List<Table> tables) {
+            return this.add(new Slot(id, 4, 0, tables));
+        }
+
+        Table addLongVector(int id, long[] values) {
+            return this.add(new Slot(id, 4, 0, values));
+        }
+
+        /**
+         * Add a vector of structs whose content is given as little endian encoded bytes.
+         *
+         * @param id the field id.
+         * @param count the number of structs.
+         * @param content the encoded structs. The struct alignment is assumed to be 8.
+         *
+         * @return this table.
+         */
+        Table addStructVector(int id, int count, byte[] content) {
+            return this.add(new Slot(id, 4, 0, new StructVector(count, content)));
+        }
+
+        private Table add(Slot slot) {
+            this.slots.add(slot);
+            return this;
+        }
+    }
+
+    private static final class Slot {
+        final int id;
+        final int size;
+        final long value;
+        final Object reference;
+        int offset;
+
+        Slot(int id, int size, long value, Object reference) {
+            this.id = id;
+            this.size = size;
+            this.value = value;
+            this.reference = reference;
+        }
+    }
+
+    private static final class StructVector {
+        final int count;
+        final byte[] content;
+
+        StructVector(int count, byte[] content) {
+            this.count = count;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Write a buffer for the given root table.
+     *
+     * @param root the root table.
+     *
+     * @return the buffer content.
+     */
+    static byte[] write(Table root) {
+        FlatBufferWriter writer = new FlatBufferWriter();
+        writer.putInt(0);
+        writer.patchOffset(0, writer.writeTable(root));
+        return Arrays.copyOf(writer.bytes, writer.size);
+    }
+
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    private FlatBufferWriter() {
+        // only used internally
+    }
+
+    private int writeTable(Table table) {
+        List<Slot> slots = new ArrayList<>(table.slots);
+        slots.sort(Comparator.comparingInt((Slot s) -> s.size).reversed());
+        int alignment = 4;
+        int inlineSize = 4;
+        int fieldCount = 0;
+        for (Slot slot : slots) {
+            alignment = Math.max(alignment, slot.size);
+            inlineSize = align(inlineSize, slot.size);
+            slot.offset = inlineSize;
+            inlineSize += slot.size;
+            fieldCount = Math.max(fieldCount, slot.id + 1);
+        }
+        int vtableSize = 4 + 2 * fieldCount;
+        while ((this.size + vtableSize) % alignment != 0) {
+            this.putByte(0);
+        }
+        this.putShort(vtableSize);
+        this.putShort(inlineSize);
+        for (int id = 0; id < fieldCount; id++) {
+            int offset = 0;
+            for (Slot slot : slots) {
+                if (slot.id == id) {
+                    offset = slot.offset;
+                }
+            }
+            this.putShort(offset);
+        }
+        int tablePosition = this.size;
+        this.ensureCapacity(inlineSize);
+        this.size += inlineSize;
+        this.setInt(tablePosition, vtableSize);
+        for (Slot slot : slots) {
+            this.setScalar(tablePosition + slot.offset, slot.size, slot.value);
+        }
+        for (Slot slot : slots) {
+            if (slot.reference != null) {
+                this.patchOffset(tablePosition + slot.offset, this.writeReference(slot.reference));
+            }
+        }
+        return tablePosition;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writeReference(Object reference) {
+        if (reference instanceof Table) {
+            return this.writeTable((Table) reference);
+        } else if (reference instanceof byte[]) {
+            byte[] string = (byte[]) reference;
+            this.alignSize(4, 0);
+            int position = this.size;
+            this.putInt(string.length);
+            for (byte b : string) {
+                this.putByte(b);
+            }
+            this.putByte(0);
+            return position;
+        } else if (reference instanceof long[]) {
+            long[] values = (long[]) reference;
+            this.alignSize(8, 4);
+            int position = this.size;
+            this.putInt(values.length);
+            for (long value : values) {
+                this.ensureCapacity(8);
+                this.setScalar(this.size, 8, value);
+                this.size += 8;
+            }
+            return position;
+        } else if (reference instanceof StructVector) {
+            StructVector vector = (StructVector) reference;
+            this.alignSize(8, 4);
+            int position = this.size;
+            this.putInt(vector.count);
+            for (byte b : vector.content) {
+                this.putByte(b);
+            }
+            return position;
+        } else {
+            List<Table> tables = (List<Table>) reference;
+            this.alignSize(4, 0);
+            int position = this.size;
+            this.putInt(tables.size());
+            for (int i = 0; i < tables.size(); i++) {
+                this.putInt(0);
+            }
+            for (int i = 0; i < tables.size(); i++) {
+                this.patchOffset(position + 4 + 4 * i, this.writeTable(tables.get(i)));
+            }
+            return position;
+        }
+    }
+
+    private void alignSize(int alignment, int shift) {
+        // pads the buffer so that the position after the next 'shift' bytes is aligned
+        while ((this.size + shift) % alignment != 0) {
+            this.putByte(0);
+        }
+    }
+
+    private void patchOffset(int position, int target) {
+        this.setInt(position, target - position);
+    }
+
+    private void putByte(int value) {
+        this.ensureCapacity(1);
+        this.bytes[this.size++] = (byte) value;
+    }
+
+    private void putShort(int value) {
+        this.ensureCapacity(2);
+        this.setScalar(this.size, 2, value);
+        this.size += 2;
+    }
+
+    private void putInt(int value) {
+        this.ensureCapacity(4);
+        this.setInt(this.size, value);
+        this.size += 4;
+    }
+
+    private void setInt(int position, int value) {
+        this.setScalar(position, 4, value);
+    }
+
+    private void setScalar(int position, int byteCount, long value) {
+        for (int i = 0; i < byteCount; i++) {
+            this.bytes[position + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (this.size + additional > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + additional));
+        }
+    }
+
+    private static int align(int position, int alignment) {
+        return (position + alignment - 1) / alignment * alignment;
+    }
+}
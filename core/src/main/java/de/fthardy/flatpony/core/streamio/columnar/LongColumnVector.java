@@ -0,0 +1,72 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.ToLongFieldValueConverter;
+
+/**
+ * A column vector holding long values.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class LongColumnVector extends ColumnVector {
+
+    private final ToLongFieldValueConverter converter;
+    private final long[] values;
+
+    LongColumnVector(FlatDataFieldDescriptor<?> fieldDescriptor, int capacity, ToLongFieldValueConverter converter) {
+        super(fieldDescriptor, capacity);
+        this.converter = converter;
+        this.values = new long[capacity];
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the value of the row which is 0 for a null value.
+     */
+    public long getLong(int row) {
+        this.assertRowIndex(row);
+        return this.values[row];
+    }
+
+    /**
+     * @return the value array. It may be longer than the number of rows.
+     */
+    public long[] getValues() {
+        return this.values;
+    }
+
+    @Override
+    void convertValue(int row, CharSequence value) {
+        this.values[row] = this.converter == null ? DecimalColumnVector.parseUnscaled(value, this.getName()) :
+                this.converter.convertToLong(value);
+    }
+
+    @Override
+    void clearValue(int row) {
+        this.values[row] = 0L;
+    }
+}
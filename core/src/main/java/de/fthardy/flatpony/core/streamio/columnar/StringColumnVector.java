@@ -0,0 +1,143 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A column vector holding dictionary encoded string values.
+ * <p>
+ * Each distinct value of a batch is stored once in the dictionary of the column and each row holds the index of its
+ * value in the dictionary. A value is only turned into a string when it is added to the dictionary, so repeating values
+ * (like codes or flags) don't create any strings at all. The dictionary is built anew for each batch.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class StringColumnVector extends ColumnVector {
+
+    private final int[] codes;
+    private final List<String> dictionary = new ArrayList<>();
+    private final List<String> unmodifiableDictionary = Collections.unmodifiableList(this.dictionary);
+    private int[] hashTable = new int[64];
+
+    StringColumnVector(FlatDataFieldDescriptor<?> fieldDescriptor, int capacity) {
+        super(fieldDescriptor, capacity);
+        this.codes = new int[capacity];
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the value of the row or {@code null} for a null value.
+     */
+    public String getString(int row) {
+        return this.isNull(row) ? null : this.dictionary.get(this.codes[row]);
+    }
+
+    /**
+     * @param row the index of the row.
+     *
+     * @return the dictionary index of the value of the row or -1 for a null value.
+     */
+    public int getCode(int row) {
+        this.assertRowIndex(row);
+        return this.codes[row];
+    }
+
+    /**
+     * @return the array of dictionary indices. It may be longer than the number of rows.
+     */
+    public int[] getCodes() {
+        return this.codes;
+    }
+
+    /**
+     * @return the dictionary of the distinct values of the current batch.
+     */
+    public List<String> getDictionary() {
+        return this.unmodifiableDictionary;
+    }
+
+    @Override
+    void reset() {
+        this.dictionary.clear();
+        Arrays.fill(this.hashTable, 0);
+    }
+
+    @Override
+    void convertValue(int row, CharSequence value) {
+        this.codes[row] = this.encode(value);
+    }
+
+    @Override
+    void clearValue(int row) {
+        this.codes[row] = -1;
+    }
+
+    private int encode(CharSequence value) {
+        int mask = this.hashTable.length - 1;
+        int slot = hash(value) & mask;
+        // the hash table holds the dictionary index + 1, so 0 marks an empty slot
+        while (this.hashTable[slot] != 0) {
+            int code = this.hashTable[slot] - 1;
+            if (this.dictionary.get(code).contentEquals(value)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int code = this.dictionary.size();
+        this.dictionary.add(value.toString());
+        this.hashTable[slot] = code + 1;
+        if (this.dictionary.size() * 2 > this.hashTable.length) {
+            this.rehash();
+        }
+        return code;
+    }
+
+    private void rehash() {
+        this.hashTable = new int[this.hashTable.length * 2];
+        int mask = this.hashTable.length - 1;
+        for (int code = 0; code < this.dictionary.size(); code++) {
+            int slot = hash(this.dictionary.get(code)) & mask;
+            while (this.hashTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.hashTable[slot] = code + 1;
+        }
+    }
+
+    private static int hash(CharSequence value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * An unsynchronized writer which collects the written characters in a growing char array.
+ * <p>
+ * In contrast to {@link java.io.CharArrayWriter} the methods don't synchronize, since a buffer is only written by a
+ * single thread at a time. The array is kept on {@link #reset()}, so a reused buffer doesn't allocate any memory once
+ * it has reached its working size.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class CharBufferWriter extends Writer {
+
+    private char[] chars;
+    private int length;
+
+    CharBufferWriter(int initialCapacity) {
+        this.chars = new char[initialCapacity];
+    }
+
+    @Override
+    public void write(int c) {
+        this.ensureCapacity(1);
+        this.chars[this.length++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int count) {
+        this.ensureCapacity(count);
+        System.arraycopy(buffer, offset, this.chars, this.length, count);
+        this.length += count;
+    }
+
+    @Override
+    public void write(String string, int offset, int count) {
+        this.ensureCapacity(count);
+        string.getChars(offset, offset + count, this.chars, this.length);
+        this.length += count;
+    }
+
+    @Override
+    public void flush() {
+        // nothing to flush
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    /**
+     * @return the number of written characters.
+     */
+    int length() {
+        return this.length;
+    }
+
+    /**
+     * Write all written characters to the given target.
+     *
+     * @param target the target to write to.
+     *
+     * @throws IOException if writing to the target fails.
+     */
+    void writeTo(Writer target) throws IOException {
+        target.write(this.chars, 0, this.length);
+    }
+
+    /**
+     * Discard all written characters but keep the array.
+     */
+    void reset() {
+        this.length = 0;
+    }
+
+    private void ensureCapacity(int count) {
+        if (this.length + count > this.chars.length) {
+            this.chars = Arrays.copyOf(this.chars, Math.max(this.chars.length * 2, this.length + count));
+        }
+    }
+}
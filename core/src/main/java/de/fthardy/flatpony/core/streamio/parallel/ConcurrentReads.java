@@ -0,0 +1,147 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs blocking reads, e.g. the reads of many small files or streams, concurrently.
+ * <p>
+ * The reads are structured: {@link #invokeAll(List)} doesn't return before all reads have finished. When a read fails
+ * the other reads are cancelled by interrupting them and the failure is rethrown, so no read outlives the call.
+ * </p>
+ * <p>
+ * The library is packaged as a multi-release JAR. On Java 21 or later each read runs on its own virtual thread, so
+ * reads which block on I/O don't tie up platform threads. On older Java versions the reads are run by a bounded
+ * number of platform threads.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ConcurrentReads {
+
+    static String MSG_Read_failed() {
+        return "Failed to read from source stream!";
+    }
+
+    static String MSG_Interrupted() {
+        return "Interrupted while waiting for the reads!";
+    }
+
+    /**
+     * @return {@code true} if the reads run on virtual threads.
+     */
+    public static boolean isVirtual() {
+        return ReadExecutors.isVirtual();
+    }
+
+    /**
+     * Run the given reads concurrently and wait for all of them.
+     * <p>
+     * A runtime exception or an error of a read is rethrown as it is. Any other exception is wrapped by a
+     * {@link FlatDataReadException}.
+     * </p>
+     *
+     * @param reads the reads to run.
+     * @param <T> the type of the read results.
+     *
+     * @return the results of the reads in the order of the given reads.
+     *
+     * @throws FlatDataReadException when a read fails with a checked exception or the calling thread is interrupted
+     * while waiting for the reads.
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<? extends T>> reads) {
+        Objects.requireNonNull(reads, "Undefined reads!");
+        if (reads.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ExecutorService executor = ReadExecutors.newExecutor(reads.size());
+        List<Future<T>> futures = new ArrayList<>(reads.size());
+        try {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+            for (Callable<? extends T> read : reads) {
+                Objects.requireNonNull(read, "Undefined read!");
+                futures.add(completionService.submit(read::call));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                awaitResult(completionService.take());
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(awaitResult(future));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlatDataReadException(MSG_Interrupted(), e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    private static <T> T awaitResult(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new FlatDataReadException(MSG_Read_failed(), (Exception) cause);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ConcurrentReads() {
+        // Provides static methods only
+    }
+}
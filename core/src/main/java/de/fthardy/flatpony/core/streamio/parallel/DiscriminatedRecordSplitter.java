@@ -0,0 +1,91 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A record splitter for records of different fixed lengths where the length of a record is defined by a discriminator
+ * at the start of the record, e.g. a record type code.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class DiscriminatedRecordSplitter implements RecordSplitter {
+
+    static String MSG_Unknown_discriminator(String discriminator) {
+        return String.format("No record length is defined for discriminator '%s'!", discriminator);
+    }
+
+    static String MSG_Record_shorter_than_discriminator(String discriminator, int recordLength) {
+        return String.format("The record length %d defined for discriminator '%s' is shorter than the discriminator!",
+                recordLength, discriminator);
+    }
+
+    private final int discriminatorLength;
+    private final Map<String, Integer> recordLengths;
+
+    /**
+     * Creates a new instance of this record splitter.
+     *
+     * @param discriminatorLength the number of characters of the discriminator.
+     * @param recordLengths the record length (including the discriminator) for each discriminator value.
+     */
+    public DiscriminatedRecordSplitter(int discriminatorLength, Map<String, Integer> recordLengths) {
+        if (discriminatorLength < 1) {
+            throw new IllegalArgumentException(
+                    FixedLengthRecordSplitter.MSG_Invalid_record_length(discriminatorLength));
+        }
+        this.discriminatorLength = discriminatorLength;
+        this.recordLengths = new HashMap<>(Objects.requireNonNull(recordLengths, "Undefined record lengths!"));
+        if (this.recordLengths.isEmpty()) {
+            throw new IllegalArgumentException("No record lengths defined!");
+        }
+        this.recordLengths.forEach((discriminator, recordLength) -> {
+            if (Objects.requireNonNull(recordLength, "Undefined record length!") < discriminatorLength) {
+                throw new IllegalArgumentException(MSG_Record_shorter_than_discriminator(discriminator, recordLength));
+            }
+        });
+    }
+
+    @Override
+    public boolean nextRecord(Reader source, StringBuilder record) throws IOException {
+        int count = FixedLengthRecordSplitter.readChars(source, record, this.discriminatorLength);
+        if (count < this.discriminatorLength) {
+            return count > 0;
+        }
+        String discriminator = record.toString();
+        Integer recordLength = this.recordLengths.get(discriminator);
+        if (recordLength == null) {
+            throw new FlatDataReadException(MSG_Unknown_discriminator(discriminator));
+        }
+        FixedLengthRecordSplitter.readChars(source, record, recordLength - this.discriminatorLength);
+        return true;
+    }
+}
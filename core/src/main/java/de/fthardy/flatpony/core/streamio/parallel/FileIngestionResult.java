@@ -0,0 +1,108 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.nio.file.Path;
+
+/**
+ * The result of the ingestion of a single file by a {@link MultiFileIngester}.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class FileIngestionResult {
+
+    private final Path file;
+    private final long fileSize;
+    private final long recordCount;
+    private final long elapsedNanos;
+    private final RuntimeException failure;
+
+    FileIngestionResult(Path file, long fileSize, long recordCount, long elapsedNanos, RuntimeException failure) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.recordCount = recordCount;
+        this.elapsedNanos = elapsedNanos;
+        this.failure = failure;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d records, %d bytes in %d ms%s", this.file, this.recordCount, this.fileSize,
+                this.elapsedNanos / 1_000_000, this.failure == null ? "" : " (" + this.failure.getMessage() + ")");
+    }
+
+    /**
+     * @return the ingested file.
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * @return the size of the file in bytes.
+     */
+    public long getFileSize() {
+        return this.fileSize;
+    }
+
+    /**
+     * @return the number of records which have been passed to the record handler.
+     */
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * @return the time spent on the file in nanoseconds, excluding the time waiting for memory.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return the throughput of the file in bytes per second.
+     */
+    public double getBytesPerSecond() {
+        return this.elapsedNanos == 0 ? 0.0 : this.fileSize * 1_000_000_000.0 / this.elapsedNanos;
+    }
+
+    /**
+     * @return {@code true} if the ingestion of the file failed.
+     */
+    public boolean hasFailure() {
+        return this.failure != null;
+    }
+
+    /**
+     * @return the failure which stopped the ingestion of the file.
+     *
+     * @throws IllegalStateException when the file has been ingested successfully.
+     */
+    public RuntimeException getFailure() {
+        if (this.failure == null) {
+            throw new IllegalStateException("No failure occurred!");
+        }
+        return this.failure;
+    }
+}
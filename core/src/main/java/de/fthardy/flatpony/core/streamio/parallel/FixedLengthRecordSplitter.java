@@ -0,0 +1,85 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A record splitter for records which all have the same fixed length.
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class FixedLengthRecordSplitter implements RecordSplitter {
+
+    static String MSG_Invalid_record_length(int recordLength) {
+        return String.format("Invalid record length: %d! Must be greater than zero.", recordLength);
+    }
+
+    /**
+     * Read the given number of characters from the source stream into the record chunk unless the end of the source
+     * stream is reached before.
+     *
+     * @return the number of characters which have been read.
+     */
+    static int readChars(Reader source, StringBuilder record, int count) throws IOException {
+        char[] buffer = new char[Math.min(count, 1024)];
+        int total = 0;
+        while (total < count) {
+            int read = source.read(buffer, 0, Math.min(buffer.length, count - total));
+            if (read == -1) {
+                break;
+            }
+            record.append(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private final int recordLength;
+
+    /**
+     * Creates a new instance of this record splitter.
+     *
+     * @param recordLength the number of characters of a record.
+     */
+    public FixedLengthRecordSplitter(int recordLength) {
+        if (recordLength < 1) {
+            throw new IllegalArgumentException(MSG_Invalid_record_length(recordLength));
+        }
+        this.recordLength = recordLength;
+    }
+
+    /**
+     * @return the number of characters of a record.
+     */
+    public int getRecordLength() {
+        return this.recordLength;
+    }
+
+    @Override
+    public boolean nextRecord(Reader source, StringBuilder record) throws IOException {
+        return readChars(source, record, this.recordLength) > 0;
+    }
+}
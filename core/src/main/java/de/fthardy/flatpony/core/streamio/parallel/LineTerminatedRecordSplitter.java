@@ -0,0 +1,75 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A record splitter for records which are terminated by a terminator character like a line feed.
+ * <p>
+ * The terminator belongs to the record chunk. The last record of a source stream doesn't need to be terminated.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class LineTerminatedRecordSplitter implements RecordSplitter {
+
+    private final char terminator;
+
+    /**
+     * Creates a new instance of this record splitter which splits at line feeds.
+     */
+    public LineTerminatedRecordSplitter() {
+        this('\n');
+    }
+
+    /**
+     * Creates a new instance of this record splitter.
+     *
+     * @param terminator the terminator character.
+     */
+    public LineTerminatedRecordSplitter(char terminator) {
+        this.terminator = terminator;
+    }
+
+    /**
+     * @return the terminator character.
+     */
+    public char getTerminator() {
+        return this.terminator;
+    }
+
+    @Override
+    public boolean nextRecord(Reader source, StringBuilder record) throws IOException {
+        int c;
+        while ((c = source.read()) != -1) {
+            record.append((char) c);
+            if (c == this.terminator) {
+                return true;
+            }
+        }
+        return record.length() > 0;
+    }
+}
@@ -0,0 +1,568 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.streamio.FlatRecords;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+import de.fthardy.flatpony.core.util.WorkerThreads;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Ingests many files concurrently by a bounded number of worker threads.
+ * <p>
+ * Each file is read sequentially by a single worker with the record descriptor given for the file. The descriptors are
+ * immutable and are therefore shared by all workers, even when many files have the same layout. The files are
+ * scheduled by their size with the largest file first, so that the small files fill the gaps at the end and the total
+ * time is kept short.
+ * </p>
+ * <p>
+ * The memory in use is capped across all running files: Before a file is read, a worker reserves the memory of the
+ * file from a budget shared by all workers and waits if the budget is exhausted. The memory of a file consists of its
+ * character buffer, its byte buffer for the decoding and the estimated memory of the record in progress. The buffers
+ * of a file are never larger than the file itself. The records are passed to the record handler one by one, so apart
+ * from the buffers only the record in progress is held per running file. The memory held by the record handler is not
+ * part of the budget.
+ * </p>
+ * <p>
+ * A failing file doesn't stop the other files. The outcome of each file is reported by a {@link FileIngestionResult}
+ * which contains the throughput or the failure. The memory budget and the worker threads are created by each call
+ * of {@link #ingest(Map, BiConsumer)}, so the memory limit applies to each ingestion on its own.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class MultiFileIngester {
+
+    /**
+     * Allows to define the number of worker threads.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineWorkerCount extends DefineMemoryLimit {
+
+        /**
+         * Define the number of worker threads which is the maximum number of files read at the same time.
+         * <p>
+         * The default is the number of available processors.
+         * </p>
+         *
+         * @param workerCount the number of worker threads.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineMemoryLimit withWorkerCount(int workerCount);
+    }
+
+    /**
+     * Allows to define the memory limit.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineMemoryLimit extends DefineBufferSize {
+
+        /**
+         * Define the maximum number of bytes of the memory of all running files together.
+         * <p>
+         * The default is a quarter of the {@link Runtime#maxMemory() maximum memory} of the JVM. The limit must be
+         * large enough for at least one file with buffers of the defined buffer size.
+         * </p>
+         *
+         * @param memoryLimit the memory limit in bytes.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineBufferSize withMemoryLimit(long memoryLimit);
+    }
+
+    /**
+     * Allows to define the buffer size.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineBufferSize extends DefineRecordMemory {
+
+        /**
+         * Define the maximum number of characters of the read buffer of a file.
+         * <p>
+         * The byte buffer for the decoding of a file has the same number of bytes. The default is
+         * {@value MultiFileIngester#DEFAULT_BUFFER_SIZE}.
+         * </p>
+         *
+         * @param bufferSize the buffer size in characters.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineRecordMemory withBufferSize(int bufferSize);
+    }
+
+    /**
+     * Allows to define the memory of a record.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineRecordMemory extends DefineCharset {
+
+        /**
+         * Define the estimated maximum number of bytes of the item entity of a record in progress.
+         * <p>
+         * The default is {@value MultiFileIngester#DEFAULT_RECORD_MEMORY}.
+         * </p>
+         *
+         * @param recordMemory the memory of a record in bytes.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineCharset withRecordMemory(long recordMemory);
+    }
+
+    /**
+     * Allows to define the charset.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineCharset extends DefineThreadFactory {
+
+        /**
+         * Define the charset of the files.
+         * <p>
+         * The default is {@link StandardCharsets#UTF_8}.
+         * </p>
+         *
+         * @param charset the charset.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineThreadFactory withCharset(Charset charset);
+    }
+
+    /**
+     * Allows to define the thread factory.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineThreadFactory extends ObjectBuilder<MultiFileIngester> {
+
+        /**
+         * Define the thread factory to create the worker threads.
+         * <p>
+         * The default is a factory of virtual threads on Java 21 or later and
+         * {@link java.util.concurrent.Executors#defaultThreadFactory()} otherwise.
+         * </p>
+         *
+         * @param threadFactory the thread factory.
+         *
+         * @return the builder instance to create the ingester instance.
+         */
+        ObjectBuilder<MultiFileIngester> withThreadFactory(ThreadFactory threadFactory);
+    }
+
+    private interface BuildParams {
+        int getWorkerCount();
+        long getMemoryLimit();
+        int getBufferSize();
+        long getRecordMemory();
+        Charset getCharset();
+        ThreadFactory getThreadFactory();
+    }
+
+    private static final class BuilderImpl implements DefineWorkerCount, BuildParams {
+
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+        private long memoryLimit;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private long recordMemory = DEFAULT_RECORD_MEMORY;
+        private Charset charset = StandardCharsets.UTF_8;
+        private ThreadFactory threadFactory = ReadExecutors.newThreadFactory();
+
+        @Override
+        public DefineMemoryLimit withWorkerCount(int workerCount) {
+            if (workerCount < 1) {
+                throw new IllegalArgumentException("The worker count must be greater than zero!");
+            }
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        @Override
+        public DefineBufferSize withMemoryLimit(long memoryLimit) {
+            if (memoryLimit < 1) {
+                throw new IllegalArgumentException("The memory limit must be greater than zero!");
+            }
+            this.memoryLimit = memoryLimit;
+            return this;
+        }
+
+        @Override
+        public DefineRecordMemory withBufferSize(int bufferSize) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("The buffer size must be greater than zero!");
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        @Override
+        public DefineCharset withRecordMemory(long recordMemory) {
+            if (recordMemory < 0) {
+                throw new IllegalArgumentException("The record memory must not be negative!");
+            }
+            this.recordMemory = recordMemory;
+            return this;
+        }
+
+        @Override
+        public DefineThreadFactory withCharset(Charset charset) {
+            this.charset = Objects.requireNonNull(charset, "Undefined charset!");
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<MultiFileIngester> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory, "Undefined thread factory!");
+            return this;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return this.workerCount;
+        }
+
+        @Override
+        public long getMemoryLimit() {
+            return this.memoryLimit == 0 ? Runtime.getRuntime().maxMemory() / 4 : this.memoryLimit;
+        }
+
+        @Override
+        public int getBufferSize() {
+            return this.bufferSize;
+        }
+
+        @Override
+        public long getRecordMemory() {
+            return this.recordMemory;
+        }
+
+        @Override
+        public Charset getCharset() {
+            return this.charset;
+        }
+
+        @Override
+        public ThreadFactory getThreadFactory() {
+            return this.threadFactory;
+        }
+
+        @Override
+        public MultiFileIngester build() {
+            long fileMemory = fileMemory(this.bufferSize, this.recordMemory);
+            if (this.getMemoryLimit() < fileMemory) {
+                throw new IllegalArgumentException(MSG_Memory_limit_too_small(this.getMemoryLimit(), fileMemory));
+            }
+            return new MultiFileIngester(this);
+        }
+    }
+
+    /**
+     * A file to ingest with its record descriptor.
+     */
+    private static final class Job {
+        final int index;
+        final Path file;
+        final FlatDataItemDescriptor<?> descriptor;
+        final long fileSize;
+        final IOException sizeFailure;
+
+        Job(int index, Path file, FlatDataItemDescriptor<?> descriptor) {
+            this.index = index;
+            this.file = Objects.requireNonNull(file, "Undefined file!");
+            this.descriptor = Objects.requireNonNull(descriptor, "Undefined record descriptor!");
+            long size = 0;
+            IOException failure = null;
+            try {
+                size = Files.size(file);
+            } catch (IOException e) {
+                failure = e;
+            }
+            this.fileSize = size;
+            this.sizeFailure = failure;
+        }
+    }
+
+    /**
+     * The memory shared by the workers of an ingestion.
+     */
+    private static final class MemoryBudget {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition released = this.lock.newCondition();
+        // guarded by lock
+        long available;
+
+        MemoryBudget(long available) {
+            this.available = available;
+        }
+
+        void reserve(long memory) throws InterruptedException {
+            this.lock.lock();
+            try {
+                while (this.available < memory) {
+                    this.released.await();
+                }
+                this.available -= memory;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        void release(long memory) {
+            this.lock.lock();
+            try {
+                this.available += memory;
+                this.released.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The per ingestion state which is shared by the worker threads.
+     */
+    private final class Run {
+        final Job[] jobs;
+        final BiConsumer<? super Path, ? super FlatDataItemEntity<?>> handler;
+        final FileIngestionResult[] results;
+        final AtomicInteger nextJob = new AtomicInteger();
+        final MemoryBudget memoryBudget = new MemoryBudget(memoryLimit);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Run(Job[] jobs, BiConsumer<? super Path, ? super FlatDataItemEntity<?>> handler) {
+            this.jobs = jobs;
+            this.handler = handler;
+            this.results = new FileIngestionResult[jobs.length];
+        }
+
+        void work() {
+            try {
+                int index;
+                while (!Thread.currentThread().isInterrupted() &&
+                        (index = this.nextJob.getAndIncrement()) < this.jobs.length) {
+                    Job job = this.jobs[index];
+                    int bufferSize = (int) Math.max(1, Math.min(MultiFileIngester.this.bufferSize, job.fileSize));
+                    long memory = fileMemory(bufferSize, recordMemory);
+                    this.memoryBudget.reserve(memory);
+                    try {
+                        this.results[job.index] = this.ingest(job, bufferSize);
+                    } finally {
+                        this.memoryBudget.release(memory);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // the ingestion has been stopped
+            } catch (Error e) {
+                this.failure.compareAndSet(null, e);
+            }
+        }
+
+        private FileIngestionResult ingest(Job job, int bufferSize) {
+            long startTime = System.nanoTime();
+            long recordCount = 0;
+            RuntimeException failure = null;
+            if (job.sizeFailure != null) {
+                failure = new FlatDataReadException(MSG_Read_failed(job.file), job.sizeFailure);
+            } else {
+                // the byte buffer of the decoder has the same size as the character buffer
+                try (Stream<FlatDataItemEntity<?>> records = FlatRecords.stream(job.descriptor, new BufferedReader(
+                        Channels.newReader(FileChannel.open(job.file, StandardOpenOption.READ),
+                                charset.newDecoder(), bufferSize), bufferSize))) {
+                    Iterator<FlatDataItemEntity<?>> iterator = records.iterator();
+                    while (iterator.hasNext()) {
+                        this.handler.accept(job.file, iterator.next());
+                        recordCount++;
+                    }
+                } catch (IOException e) {
+                    failure = new FlatDataReadException(MSG_Read_failed(job.file), e);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            return new FileIngestionResult(
+                    job.file, job.fileSize, recordCount, System.nanoTime() - startTime, failure);
+        }
+    }
+
+    /**
+     * The default maximum number of characters of the read buffer of a file.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    /**
+     * The default estimated maximum number of bytes of the item entity of a record in progress.
+     */
+    public static final long DEFAULT_RECORD_MEMORY = 65536;
+
+    // the minimum size of the byte buffer of a decoder created by Channels.newReader
+    private static final int MIN_BYTE_BUFFER_SIZE = 32;
+
+    static String MSG_Memory_limit_too_small(long memoryLimit, long fileMemory) {
+        return String.format("The memory limit of %d bytes is too small for the %d bytes of a single file!",
+                memoryLimit, fileMemory);
+    }
+
+    static String MSG_Read_failed(Path file) {
+        return String.format("Failed to read records from file '%s'!", file);
+    }
+
+    static String MSG_Interrupted() {
+        return "Interrupted while waiting for the ingestion of the files!";
+    }
+
+    /**
+     * Create a builder to configure and create a new multi file ingester.
+     *
+     * @return the builder instance.
+     */
+    public static DefineWorkerCount newInstance() {
+        return new BuilderImpl();
+    }
+
+    private static long fileMemory(int bufferSize, long recordMemory) {
+        // the characters of the character buffer take two bytes each, the byte buffer has at least 32 bytes
+        return 2L * bufferSize + Math.max(MIN_BYTE_BUFFER_SIZE, bufferSize) + recordMemory;
+    }
+
+    private final int workerCount;
+    private final long memoryLimit;
+    private final int bufferSize;
+    private final long recordMemory;
+    private final Charset charset;
+    private final ThreadFactory threadFactory;
+
+    private MultiFileIngester(BuildParams params) {
+        this.workerCount = params.getWorkerCount();
+        this.memoryLimit = params.getMemoryLimit();
+        this.bufferSize = params.getBufferSize();
+        this.recordMemory = params.getRecordMemory();
+        this.charset = params.getCharset();
+        this.threadFactory = params.getThreadFactory();
+    }
+
+    /**
+     * @return the number of worker threads.
+     */
+    public int getWorkerCount() {
+        return this.workerCount;
+    }
+
+    /**
+     * @return the maximum number of bytes of the memory of all running files together.
+     */
+    public long getMemoryLimit() {
+        return this.memoryLimit;
+    }
+
+    /**
+     * @return the maximum number of characters of the read buffer of a file.
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * @return the estimated maximum number of bytes of the item entity of a record in progress.
+     */
+    public long getRecordMemory() {
+        return this.recordMemory;
+    }
+
+    /**
+     * @return the charset of the files.
+     */
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    /**
+     * Ingest the given files.
+     * <p>
+     * The record handler is called by the worker threads concurrently and must therefore be thread safe. The records
+     * of a single file are passed to the handler in their order within the file.
+     * </p>
+     *
+     * @param files the files to ingest with the record descriptor for each file.
+     * @param handler the handler which receives each record together with its file.
+     *
+     * @return the results of the files in the iteration order of the given map.
+     */
+    public List<FileIngestionResult> ingest(Map<Path, ? extends FlatDataItemDescriptor<?>> files,
+            BiConsumer<? super Path, ? super FlatDataItemEntity<?>> handler) {
+        Objects.requireNonNull(files, "Undefined files!");
+        Objects.requireNonNull(handler, "Undefined record handler!");
+        List<Job> jobs = new ArrayList<>(files.size());
+        for (Map.Entry<Path, ? extends FlatDataItemDescriptor<?>> file : files.entrySet()) {
+            jobs.add(new Job(jobs.size(), file.getKey(), file.getValue()));
+        }
+        jobs.sort(Comparator.comparingLong((Job job) -> job.fileSize).reversed());
+
+        Run run = new Run(jobs.toArray(new Job[0]), handler);
+        WorkerThreads threads = new WorkerThreads(this.threadFactory);
+        try {
+            for (int i = Math.min(this.workerCount, Math.max(1, jobs.size())); i > 0; i--) {
+                threads.start(run::work);
+            }
+        } catch (RuntimeException | Error e) {
+            run.failure.compareAndSet(null, e);
+            threads.interrupt();
+        } finally {
+            threads.join(e -> run.failure.compareAndSet(null, new FlatDataReadException(MSG_Interrupted(), e)));
+        }
+        WorkerThreads.rethrow(run.failure.get());
+        return Arrays.asList(run.results);
+    }
+}
@@ -0,0 +1,535 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+import de.fthardy.flatpony.core.util.WorkerThreads;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Reads records by several threads in parallel and delivers the results in the original order.
+ * <p>
+ * A read is processed by a pipeline:
+ * </p>
+ * <ol>
+ *     <li>A splitter thread only finds the record boundaries by a {@link RecordSplitter} and hands the raw record
+ *     chunks over to the workers in tasks of several records.</li>
+ *     <li>The worker threads parse the record chunks of a task by the same record descriptor in parallel. Each worker
+ *     parses within its own {@link FlatDataContext}, which is cleared before each record.</li>
+ *     <li>The calling thread takes the parsed tasks from a bounded reorder buffer in their original order and hands the
+ *     results over to the consumer. Hence the consumer is called by the calling thread only and in record order.</li>
+ * </ol>
+ * <p>
+ * The reorder buffer limits the number of tasks which are split but not yet delivered. So the splitter waits when
+ * the delivery of the oldest task lags too far behind, e.g. because the consumer is slow or a task takes long to
+ * parse. If any of the stages fails, the read is stopped and the failure is rethrown by the read method.
+ * </p>
+ * <p>
+ * The splitter and worker threads, the tasks and the reorder buffer belong to a single call of a read method. So a
+ * reader is configured once and can serve several source streams at the same time.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ParallelRecordReader {
+
+    /**
+     * Parses a single record chunk.
+     *
+     * @param <T> the type of the parse result.
+     *
+     * @author Frank Timothy Hardy
+     */
+    @FunctionalInterface
+    public interface RecordParser<T> {
+
+        /**
+         * Parse a record chunk.
+         * <p>
+         * This method is called by several worker threads at the same time. It typically calls
+         * {@link FlatDataItemDescriptor#readItemEntityFrom(Reader, FlatDataContext)} or
+         * {@link FlatDataItemDescriptor#pushReadFrom(Reader, de.fthardy.flatpony.core.streamio.StreamReadHandler,
+         * FlatDataContext)} with a new handler which collects the result of the record.
+         * </p>
+         *
+         * @param recordDescriptor the descriptor of the records.
+         * @param record the reader of the record chunk.
+         * @param context the context of the worker thread which has been cleared for the record.
+         *
+         * @return the result which is handed over to the consumer.
+         */
+        T parse(FlatDataItemDescriptor<?> recordDescriptor, Reader record, FlatDataContext context);
+    }
+
+    /**
+     * Allows to define the record splitter.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineSplitter {
+
+        /**
+         * Define the record splitter which finds the record boundaries.
+         *
+         * @param splitter the record splitter.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineWorkerCount withSplitter(RecordSplitter splitter);
+    }
+
+    /**
+     * Allows to define the number of worker threads.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineWorkerCount extends DefineRecordsPerTask {
+
+        /**
+         * Define the number of worker threads.
+         * <p>
+         * The default is the number of available processors.
+         * </p>
+         *
+         * @param workerCount the number of worker threads.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineRecordsPerTask withWorkerCount(int workerCount);
+    }
+
+    /**
+     * Allows to define the number of records of a task.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineRecordsPerTask extends DefineReorderCapacity {
+
+        /**
+         * Define the maximum number of records which are handed over to a worker at once.
+         * <p>
+         * The default is {@value ParallelRecordReader#DEFAULT_RECORDS_PER_TASK}.
+         * </p>
+         *
+         * @param recordsPerTask the maximum number of records of a task.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineReorderCapacity withRecordsPerTask(int recordsPerTask);
+    }
+
+    /**
+     * Allows to define the capacity of the reorder buffer.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineReorderCapacity extends DefineThreadFactory {
+
+        /**
+         * Define the maximum number of tasks which are split but not yet delivered.
+         * <p>
+         * The default is {@value ParallelRecordReader#DEFAULT_TASKS_PER_WORKER} times the number of workers.
+         * </p>
+         *
+         * @param reorderCapacity the capacity of the reorder buffer.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineThreadFactory withReorderCapacity(int reorderCapacity);
+    }
+
+    /**
+     * Allows to define the thread factory.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineThreadFactory extends ObjectBuilder<ParallelRecordReader> {
+
+        /**
+         * Define the thread factory to create the splitter and the worker threads.
+         * <p>
+         * The default is {@link Executors#defaultThreadFactory()}.
+         * </p>
+         *
+         * @param threadFactory the thread factory.
+         *
+         * @return the builder instance to create the reader instance.
+         */
+        ObjectBuilder<ParallelRecordReader> withThreadFactory(ThreadFactory threadFactory);
+    }
+
+    private interface BuildParams {
+        FlatDataItemDescriptor<?> getRecordDescriptor();
+        RecordSplitter getSplitter();
+        int getWorkerCount();
+        int getRecordsPerTask();
+        int getReorderCapacity();
+        ThreadFactory getThreadFactory();
+    }
+
+    private static final class BuilderImpl implements DefineSplitter, DefineWorkerCount, BuildParams {
+
+        private final FlatDataItemDescriptor<?> recordDescriptor;
+        private RecordSplitter splitter;
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+        private int recordsPerTask = DEFAULT_RECORDS_PER_TASK;
+        private int reorderCapacity;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        BuilderImpl(FlatDataItemDescriptor<?> recordDescriptor) {
+            this.recordDescriptor = Objects.requireNonNull(recordDescriptor, "Undefined record descriptor!");
+        }
+
+        @Override
+        public DefineWorkerCount withSplitter(RecordSplitter splitter) {
+            this.splitter = Objects.requireNonNull(splitter, "Undefined record splitter!");
+            return this;
+        }
+
+        @Override
+        public DefineRecordsPerTask withWorkerCount(int workerCount) {
+            if (workerCount < 1) {
+                throw new IllegalArgumentException("The worker count must be greater than zero!");
+            }
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        @Override
+        public DefineReorderCapacity withRecordsPerTask(int recordsPerTask) {
+            if (recordsPerTask < 1) {
+                throw new IllegalArgumentException("The number of records per task must be greater than zero!");
+            }
+            this.recordsPerTask = recordsPerTask;
+            return this;
+        }
+
+        @Override
+        public DefineThreadFactory withReorderCapacity(int reorderCapacity) {
+            if (reorderCapacity < 1) {
+                throw new IllegalArgumentException("The reorder capacity must be greater than zero!");
+            }
+            this.reorderCapacity = reorderCapacity;
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<ParallelRecordReader> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory, "Undefined thread factory!");
+            return this;
+        }
+
+        @Override
+        public FlatDataItemDescriptor<?> getRecordDescriptor() {
+            return this.recordDescriptor;
+        }
+
+        @Override
+        public RecordSplitter getSplitter() {
+            return this.splitter;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return this.workerCount;
+        }
+
+        @Override
+        public int getRecordsPerTask() {
+            return this.recordsPerTask;
+        }
+
+        @Override
+        public int getReorderCapacity() {
+            return this.reorderCapacity == 0 ? this.workerCount * DEFAULT_TASKS_PER_WORKER : this.reorderCapacity;
+        }
+
+        @Override
+        public ThreadFactory getThreadFactory() {
+            return this.threadFactory;
+        }
+
+        @Override
+        public ParallelRecordReader build() {
+            return new ParallelRecordReader(this);
+        }
+    }
+
+    /**
+     * A number of consecutive records which are parsed by a worker.
+     */
+    private static final class Task {
+        final long sequence;
+        final String[] records;
+        final Object[] results;
+        int recordCount;
+
+        Task(long sequence, int recordsPerTask) {
+            this.sequence = sequence;
+            this.records = new String[recordsPerTask];
+            this.results = new Object[recordsPerTask];
+        }
+    }
+
+    private static final Task END_OF_TASKS = new Task(-1, 0);
+
+    /**
+     * The per read state which is shared by the splitter thread, the worker threads and the delivering thread.
+     */
+    private final class Run<T> {
+        final Reader source;
+        final RecordParser<? extends T> parser;
+        final BlockingQueue<Task> tasks = new LinkedBlockingQueue<>();
+        final Semaphore freeSlots = new Semaphore(reorderCapacity);
+        // the free slots ensure that only the tasks of a single round are in the reorder buffer
+        final ReorderBuffer<Task> parsedTasks = new ReorderBuffer<>(reorderCapacity);
+
+        Run(Reader source, RecordParser<? extends T> parser) {
+            this.source = source instanceof BufferedReader ? source : new BufferedReader(source);
+            this.parser = parser;
+        }
+
+        void split() {
+            try {
+                StringBuilder record = new StringBuilder();
+                long sequence = 0;
+                Task task = null;
+                while (splitter.nextRecord(this.source, record)) {
+                    if (task == null) {
+                        this.freeSlots.acquire();
+                        task = new Task(sequence++, recordsPerTask);
+                    }
+                    task.records[task.recordCount++] = record.toString();
+                    record.setLength(0);
+                    if (task.recordCount == recordsPerTask) {
+                        this.tasks.add(task);
+                        task = null;
+                    }
+                }
+                if (task != null) {
+                    this.tasks.add(task);
+                }
+                this.parsedTasks.end(sequence);
+            } catch (InterruptedException e) {
+                // the read has been stopped
+            } catch (IOException e) {
+                this.parsedTasks.fail(new FlatDataReadException(MSG_Read_failed(recordDescriptor.getName()), e));
+            } catch (RuntimeException | Error e) {
+                this.parsedTasks.fail(e);
+            } finally {
+                for (int i = 0; i < workerCount; i++) {
+                    this.tasks.add(END_OF_TASKS);
+                }
+            }
+        }
+
+        void parse() {
+            FlatDataContext context = new FlatDataContext();
+            try {
+                Task task;
+                while ((task = this.tasks.take()) != END_OF_TASKS) {
+                    for (int i = 0; i < task.recordCount; i++) {
+                        context.clear();
+                        task.results[i] = this.parser.parse(
+                                recordDescriptor, new StringReader(task.records[i]), context);
+                        task.records[i] = null;
+                    }
+                    this.parsedTasks.complete(task.sequence, task);
+                }
+            } catch (InterruptedException e) {
+                // the read has been stopped
+            } catch (RuntimeException | Error e) {
+                this.parsedTasks.fail(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        long deliver(Consumer<? super T> consumer) {
+            long recordCount = 0;
+            for (long sequence = 0; ; sequence++) {
+                Task task = this.takeParsedTask(sequence);
+                if (task == null) {
+                    return recordCount;
+                }
+                for (int i = 0; i < task.recordCount; i++) {
+                    consumer.accept((T) task.results[i]);
+                }
+                recordCount += task.recordCount;
+                this.freeSlots.release();
+            }
+        }
+
+        private Task takeParsedTask(long sequence) {
+            try {
+                return this.parsedTasks.take(sequence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlatDataReadException(MSG_Interrupted(recordDescriptor.getName()), e);
+            }
+        }
+    }
+
+    /**
+     * The default maximum number of records of a task.
+     */
+    public static final int DEFAULT_RECORDS_PER_TASK = 256;
+
+    /**
+     * The default number of reorder buffer slots per worker.
+     */
+    public static final int DEFAULT_TASKS_PER_WORKER = 4;
+
+    static String MSG_Read_failed(String recordName) {
+        return String.format("Failed to read records '%s' from source stream!", recordName);
+    }
+
+    static String MSG_Interrupted(String recordName) {
+        return String.format("Interrupted while waiting for the parsed records '%s'!", recordName);
+    }
+
+    /**
+     * Create a builder to configure and create a new parallel record reader.
+     *
+     * @param recordDescriptor the descriptor of the records to read.
+     *
+     * @return the builder instance.
+     */
+    public static DefineSplitter newInstance(FlatDataItemDescriptor<?> recordDescriptor) {
+        return new BuilderImpl(recordDescriptor);
+    }
+
+    private final FlatDataItemDescriptor<?> recordDescriptor;
+    private final RecordSplitter splitter;
+    private final int workerCount;
+    private final int recordsPerTask;
+    private final int reorderCapacity;
+    private final ThreadFactory threadFactory;
+
+    private ParallelRecordReader(BuildParams params) {
+        this.recordDescriptor = params.getRecordDescriptor();
+        this.splitter = params.getSplitter();
+        this.workerCount = params.getWorkerCount();
+        this.recordsPerTask = params.getRecordsPerTask();
+        this.reorderCapacity = params.getReorderCapacity();
+        this.threadFactory = params.getThreadFactory();
+    }
+
+    /**
+     * @return the descriptor of the records to read.
+     */
+    public FlatDataItemDescriptor<?> getRecordDescriptor() {
+        return this.recordDescriptor;
+    }
+
+    /**
+     * @return the record splitter.
+     */
+    public RecordSplitter getSplitter() {
+        return this.splitter;
+    }
+
+    /**
+     * @return the number of worker threads.
+     */
+    public int getWorkerCount() {
+        return this.workerCount;
+    }
+
+    /**
+     * @return the maximum number of records of a task.
+     */
+    public int getRecordsPerTask() {
+        return this.recordsPerTask;
+    }
+
+    /**
+     * @return the maximum number of tasks which are split but not yet delivered.
+     */
+    public int getReorderCapacity() {
+        return this.reorderCapacity;
+    }
+
+    /**
+     * Read all records from the given source stream into item entities.
+     *
+     * @param source the source stream to read from.
+     * @param consumer the consumer which receives the item entity of each record in record order.
+     *
+     * @return the total number of read records.
+     */
+    public long readFrom(Reader source, Consumer<? super FlatDataItemEntity<?>> consumer) {
+        return this.readFrom(source, FlatDataItemDescriptor::readItemEntityFrom, consumer);
+    }
+
+    /**
+     * Read all records from the given source stream by the given parser.
+     *
+     * @param source the source stream to read from.
+     * @param parser the parser which is called by the worker threads to parse a record.
+     * @param consumer the consumer which receives the parse result of each record in record order.
+     * @param <T> the type of the parse results.
+     *
+     * @return the total number of read records.
+     */
+    public <T> long readFrom(Reader source, RecordParser<? extends T> parser, Consumer<? super T> consumer) {
+        Objects.requireNonNull(source, "Undefined source stream!");
+        Objects.requireNonNull(parser, "Undefined record parser!");
+        Objects.requireNonNull(consumer, "Undefined consumer!");
+        Run<T> run = new Run<>(source, parser);
+        WorkerThreads threads = new WorkerThreads(this.threadFactory);
+        long recordCount = 0;
+        try {
+            threads.start(run::split);
+            for (int i = 0; i < this.workerCount; i++) {
+                threads.start(run::parse);
+            }
+            recordCount = run.deliver(consumer);
+        } catch (RuntimeException | Error e) {
+            run.parsedTasks.fail(e);
+        } finally {
+            if (run.parsedTasks.getFailure() != null) {
+                threads.interrupt();
+            }
+            threads.join(e -> run.parsedTasks.fail(
+                    new FlatDataReadException(MSG_Interrupted(this.recordDescriptor.getName()), e)));
+        }
+        WorkerThreads.rethrow(run.parsedTasks.getFailure());
+        return recordCount;
+    }
+}
@@ -0,0 +1,430 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+import de.fthardy.flatpony.core.util.WorkerThreads;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Writes records by several threads in parallel while keeping the original order in the target stream.
+ * <p>
+ * A write is processed by a pipeline:
+ * </p>
+ * <ol>
+ *     <li>A feeder thread takes the records from the given iterable and hands them over to the workers in tasks of
+ *     several records.</li>
+ *     <li>The worker threads serialize the records of a task by {@link FlatDataItemEntity#writeTo(Writer)} into the
+ *     char buffer of the task in parallel.</li>
+ *     <li>The calling thread writes the buffers of the serialized tasks to the target stream in their original
+ *     order.</li>
+ * </ol>
+ * <p>
+ * Since each record entity serializes itself, this works for any layout, e.g. fixed length records as well as
+ * delimited records. The number of tasks, and therefore the number of buffers, is fixed per write. A task and its
+ * buffer are reused when the buffer has been written to the target stream. So the memory in flight is bounded by the
+ * number of buffers times the size of the records of a task. If any of the stages fails, the write is stopped and the
+ * failure is rethrown by {@link #writeTo(Iterable, Writer)}.
+ * </p>
+ * <p>
+ * The feeder and worker threads and the tasks with their buffers are created by each call of
+ * {@link #writeTo(Iterable, Writer)} and are released when it returns. Hence the same writer can write to several
+ * target streams at the same time.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class ParallelRecordWriter {
+
+    /**
+     * Allows to define the number of worker threads.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineWorkerCount extends DefineRecordsPerTask {
+
+        /**
+         * Define the number of worker threads.
+         * <p>
+         * The default is the number of available processors.
+         * </p>
+         *
+         * @param workerCount the number of worker threads.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineRecordsPerTask withWorkerCount(int workerCount);
+    }
+
+    /**
+     * Allows to define the number of records of a task.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineRecordsPerTask extends DefineBufferCount {
+
+        /**
+         * Define the maximum number of records which are handed over to a worker at once.
+         * <p>
+         * The default is {@value ParallelRecordWriter#DEFAULT_RECORDS_PER_TASK}.
+         * </p>
+         *
+         * @param recordsPerTask the maximum number of records of a task.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineBufferCount withRecordsPerTask(int recordsPerTask);
+    }
+
+    /**
+     * Allows to define the number of buffers.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineBufferCount extends DefineThreadFactory {
+
+        /**
+         * Define the number of buffers which is the maximum number of tasks in flight.
+         * <p>
+         * The default is {@value ParallelRecordWriter#DEFAULT_BUFFERS_PER_WORKER} times the number of workers.
+         * </p>
+         *
+         * @param bufferCount the number of buffers.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineThreadFactory withBufferCount(int bufferCount);
+    }
+
+    /**
+     * Allows to define the thread factory.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineThreadFactory extends ObjectBuilder<ParallelRecordWriter> {
+
+        /**
+         * Define the thread factory to create the feeder and the worker threads.
+         * <p>
+         * The default is {@link Executors#defaultThreadFactory()}.
+         * </p>
+         *
+         * @param threadFactory the thread factory.
+         *
+         * @return the builder instance to create the writer instance.
+         */
+        ObjectBuilder<ParallelRecordWriter> withThreadFactory(ThreadFactory threadFactory);
+    }
+
+    private interface BuildParams {
+        int getWorkerCount();
+        int getRecordsPerTask();
+        int getBufferCount();
+        ThreadFactory getThreadFactory();
+    }
+
+    private static final class BuilderImpl implements DefineWorkerCount, BuildParams {
+
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+        private int recordsPerTask = DEFAULT_RECORDS_PER_TASK;
+        private int bufferCount;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        @Override
+        public DefineRecordsPerTask withWorkerCount(int workerCount) {
+            if (workerCount < 1) {
+                throw new IllegalArgumentException("The worker count must be greater than zero!");
+            }
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        @Override
+        public DefineBufferCount withRecordsPerTask(int recordsPerTask) {
+            if (recordsPerTask < 1) {
+                throw new IllegalArgumentException("The number of records per task must be greater than zero!");
+            }
+            this.recordsPerTask = recordsPerTask;
+            return this;
+        }
+
+        @Override
+        public DefineThreadFactory withBufferCount(int bufferCount) {
+            if (bufferCount < 1) {
+                throw new IllegalArgumentException("The buffer count must be greater than zero!");
+            }
+            this.bufferCount = bufferCount;
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<ParallelRecordWriter> withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory, "Undefined thread factory!");
+            return this;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return this.workerCount;
+        }
+
+        @Override
+        public int getRecordsPerTask() {
+            return this.recordsPerTask;
+        }
+
+        @Override
+        public int getBufferCount() {
+            return this.bufferCount == 0 ? this.workerCount * DEFAULT_BUFFERS_PER_WORKER : this.bufferCount;
+        }
+
+        @Override
+        public ThreadFactory getThreadFactory() {
+            return this.threadFactory;
+        }
+
+        @Override
+        public ParallelRecordWriter build() {
+            return new ParallelRecordWriter(this);
+        }
+    }
+
+    /**
+     * A number of consecutive records which are serialized by a worker into the buffer of the task.
+     */
+    private static final class Task {
+        final FlatDataItemEntity<?>[] records;
+        final CharBufferWriter buffer = new CharBufferWriter(INITIAL_BUFFER_CAPACITY);
+        long sequence;
+        int recordCount;
+
+        Task(int recordsPerTask) {
+            this.records = new FlatDataItemEntity<?>[recordsPerTask];
+        }
+    }
+
+    private static final Task END_OF_TASKS = new Task(0);
+
+    /**
+     * The per write state which is shared by the feeder thread, the worker threads and the writing thread.
+     */
+    private final class Run {
+        final Iterator<? extends FlatDataItemEntity<?>> records;
+        final BlockingQueue<Task> freeTasks = new ArrayBlockingQueue<>(bufferCount);
+        final BlockingQueue<Task> tasks = new LinkedBlockingQueue<>();
+        // the fixed number of tasks ensures that only the tasks of a single round are in the buffer
+        final ReorderBuffer<Task> serializedTasks = new ReorderBuffer<>(bufferCount);
+
+        Run(Iterator<? extends FlatDataItemEntity<?>> records) {
+            this.records = records;
+            for (int i = 0; i < bufferCount; i++) {
+                this.freeTasks.add(new Task(recordsPerTask));
+            }
+        }
+
+        void feed() {
+            try {
+                long sequence = 0;
+                Task task = null;
+                while (this.records.hasNext()) {
+                    FlatDataItemEntity<?> record = Objects.requireNonNull(this.records.next(), "Undefined record!");
+                    if (task == null) {
+                        task = this.freeTasks.take();
+                        task.sequence = sequence++;
+                    }
+                    task.records[task.recordCount++] = record;
+                    if (task.recordCount == recordsPerTask) {
+                        this.tasks.add(task);
+                        task = null;
+                    }
+                }
+                if (task != null) {
+                    this.tasks.add(task);
+                }
+                this.serializedTasks.end(sequence);
+            } catch (InterruptedException e) {
+                // the write has been stopped
+            } catch (RuntimeException | Error e) {
+                this.serializedTasks.fail(e);
+            } finally {
+                for (int i = 0; i < workerCount; i++) {
+                    this.tasks.add(END_OF_TASKS);
+                }
+            }
+        }
+
+        void serialize() {
+            try {
+                Task task;
+                while ((task = this.tasks.take()) != END_OF_TASKS) {
+                    for (int i = 0; i < task.recordCount; i++) {
+                        task.records[i].writeTo(task.buffer);
+                        task.records[i] = null;
+                    }
+                    this.serializedTasks.complete(task.sequence, task);
+                }
+            } catch (InterruptedException e) {
+                // the write has been stopped
+            } catch (RuntimeException | Error e) {
+                this.serializedTasks.fail(e);
+            }
+        }
+
+        long write(Writer target) {
+            long recordCount = 0;
+            for (long sequence = 0; ; sequence++) {
+                Task task = this.takeSerializedTask(sequence);
+                if (task == null) {
+                    return recordCount;
+                }
+                try {
+                    task.buffer.writeTo(target);
+                } catch (IOException e) {
+                    throw new FlatDataWriteException(MSG_Write_failed(), e);
+                }
+                recordCount += task.recordCount;
+                task.buffer.reset();
+                task.recordCount = 0;
+                this.freeTasks.add(task);
+            }
+        }
+
+        private Task takeSerializedTask(long sequence) {
+            try {
+                return this.serializedTasks.take(sequence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FlatDataWriteException(MSG_Interrupted(), e);
+            }
+        }
+    }
+
+    /**
+     * The default maximum number of records of a task.
+     */
+    public static final int DEFAULT_RECORDS_PER_TASK = 256;
+
+    /**
+     * The default number of buffers per worker.
+     */
+    public static final int DEFAULT_BUFFERS_PER_WORKER = 4;
+
+    private static final int INITIAL_BUFFER_CAPACITY = 8192;
+
+    static String MSG_Write_failed() {
+        return "Failed to write records to target stream!";
+    }
+
+    static String MSG_Interrupted() {
+        return "Interrupted while waiting for the serialized records!";
+    }
+
+    /**
+     * Create a builder to configure and create a new parallel record writer.
+     *
+     * @return the builder instance.
+     */
+    public static DefineWorkerCount newInstance() {
+        return new BuilderImpl();
+    }
+
+    private final int workerCount;
+    private final int recordsPerTask;
+    private final int bufferCount;
+    private final ThreadFactory threadFactory;
+
+    private ParallelRecordWriter(BuildParams params) {
+        this.workerCount = params.getWorkerCount();
+        this.recordsPerTask = params.getRecordsPerTask();
+        this.bufferCount = params.getBufferCount();
+        this.threadFactory = params.getThreadFactory();
+    }
+
+    /**
+     * @return the number of worker threads.
+     */
+    public int getWorkerCount() {
+        return this.workerCount;
+    }
+
+    /**
+     * @return the maximum number of records of a task.
+     */
+    public int getRecordsPerTask() {
+        return this.recordsPerTask;
+    }
+
+    /**
+     * @return the number of buffers.
+     */
+    public int getBufferCount() {
+        return this.bufferCount;
+    }
+
+    /**
+     * Write the given records to the given target stream.
+     * <p>
+     * The records must not be modified until this method returns.
+     * </p>
+     *
+     * @param records the records to write.
+     * @param target the target stream to write to.
+     *
+     * @return the total number of written records.
+     */
+    public long writeTo(Iterable<? extends FlatDataItemEntity<?>> records, Writer target) {
+        Objects.requireNonNull(records, "Undefined records!");
+        Objects.requireNonNull(target, "Undefined target stream!");
+        Run run = new Run(records.iterator());
+        WorkerThreads threads = new WorkerThreads(this.threadFactory);
+        long recordCount = 0;
+        try {
+            threads.start(run::feed);
+            for (int i = 0; i < this.workerCount; i++) {
+                threads.start(run::serialize);
+            }
+            recordCount = run.write(target);
+        } catch (RuntimeException | Error e) {
+            run.serializedTasks.fail(e);
+        } finally {
+            if (run.serializedTasks.getFailure() != null) {
+                threads.interrupt();
+            }
+            threads.join(e -> run.serializedTasks.fail(new FlatDataWriteException(MSG_Interrupted(), e)));
+        }
+        WorkerThreads.rethrow(run.serializedTasks.getFailure());
+        return recordCount;
+    }
+}
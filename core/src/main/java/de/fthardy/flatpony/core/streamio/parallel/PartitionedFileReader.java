@@ -0,0 +1,902 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.util.ObjectBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads a file of terminated records, e.g. a file with one record per line, by parsing several partitions of the file
+ * in parallel.
+ * <p>
+ * The file is split into byte ranges of about the same size. The start of each range, except for the first one, is
+ * moved forward behind the next record terminator, so each partition starts with a record. The partitions are parsed
+ * by tasks of a {@link ForkJoinPool} with the same record descriptor, each within its own {@link FlatDataContext}. A
+ * partition is parsed by reading records until its end is reached, so the record descriptor itself has to consume the
+ * record terminator, e.g. by a {@link de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor}.
+ * </p>
+ * <p>
+ * If a quote character is defined, a terminator within a quoted field content doesn't terminate a record, e.g. for
+ * records of {@link de.fthardy.flatpony.core.field.delimited.DelimitedFieldDescriptor quoted delimited fields}. The
+ * scan follows the rules of the delimited field: a quote character opens a quoted content only at the start of a
+ * field, i.e. at the start of a record or directly after a field delimiter, and is a plain character anywhere else.
+ * Within a quoted content a quote is represented by two quote characters. Since the scan state at the start of a byte
+ * range is unknown, the ranges are scanned in parallel speculatively for every state: for each state the scan finds
+ * the first record start and the state at the end of the range. Afterwards the true state of each range is resolved
+ * sequentially from the start of the file, which selects the true record start of each range. Hence the partitions
+ * are the same as if the file had been scanned sequentially.
+ * </p>
+ * <p>
+ * The results are provided either as a list of partitions in file order or merged in record order to a consumer. By
+ * default a file is split into partitions of at most {@value #DEFAULT_PARTITION_SIZE} bytes, so a large file results
+ * in many partitions. The parsing of a partition is started only if fewer than the maximum number of pending
+ * partitions have been started but not yet delivered. Hence the parse results which are held in memory are limited by
+ * the partition size and the number of pending partitions instead of the size of the file.
+ * </p>
+ * <p>
+ * The partitioning requires a charset which encodes the terminator, the quote character and the field delimiter as
+ * single bytes that are not part of any other character, e.g. UTF-8 or ISO-8859-1.
+ * </p>
+ * <p>
+ * Each read opens its own channel to the file and keeps its partitions and pending tasks to itself, while the pool is
+ * only borrowed. Hence several files can be read by the same reader and pool at the same time.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class PartitionedFileReader {
+
+    /**
+     * Allows to define the charset of the file.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineCharset extends DefineTerminator {
+
+        /**
+         * Define the charset of the file.
+         * <p>
+         * The default is UTF-8.
+         * </p>
+         *
+         * @param charset the charset.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineTerminator withCharset(Charset charset);
+    }
+
+    /**
+     * Allows to define the record terminator.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineTerminator extends DefineQuote {
+
+        /**
+         * Define the character which terminates a record.
+         * <p>
+         * The default is a line feed.
+         * </p>
+         *
+         * @param terminator the terminator character.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineQuote withTerminator(char terminator);
+    }
+
+    /**
+     * Allows to define the quote character.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineQuote extends DefinePartitionCount {
+
+        /**
+         * Define the quote character of quoted field contents which may contain the record terminator.
+         * <p>
+         * By default no quote character is defined. The field delimiter is needed to detect the start of a field where
+         * a quoted content may start. The record terminator is a field delimiter as well.
+         * </p>
+         *
+         * @param quote the quote character which must differ from the terminator and the field delimiter.
+         * @param delimiter the delimiter of the fields within a record.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefinePartitionCount withQuote(char quote, char delimiter);
+    }
+
+    /**
+     * Allows to define the number of partitions.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefinePartitionCount extends DefineMaxPendingPartitions {
+
+        /**
+         * Define the number of partitions a file is split into regardless of its size.
+         * <p>
+         * A small file may result in fewer partitions.
+         * </p>
+         *
+         * @param partitionCount the number of partitions.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineMaxPendingPartitions withPartitionCount(int partitionCount);
+
+        /**
+         * Define the maximum size of a partition.
+         * <p>
+         * A file is split into as many partitions as needed to respect this size, but at least into as many partitions
+         * as the parallelism of the pool. The default is {@value PartitionedFileReader#DEFAULT_PARTITION_SIZE} bytes.
+         * A partition may exceed this size by the rest of the record at its end.
+         * </p>
+         *
+         * @param partitionSize the maximum size of a partition in bytes.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefineMaxPendingPartitions withPartitionSize(long partitionSize);
+    }
+
+    /**
+     * Allows to define the maximum number of pending partitions.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineMaxPendingPartitions extends DefinePool {
+
+        /**
+         * Define the maximum number of partitions which are parsed or wait for their delivery.
+         * <p>
+         * The parsing of the next partition starts only when the number of pending partitions is below this maximum,
+         * i.e. when the consumer has taken the results of the preceding partitions. The default is twice the
+         * parallelism of the pool.
+         * </p>
+         *
+         * @param maxPendingPartitions the maximum number of pending partitions.
+         *
+         * @return the builder instance to define further properties.
+         */
+        DefinePool withMaxPendingPartitions(int maxPendingPartitions);
+    }
+
+    /**
+     * Allows to define the pool.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefinePool extends ObjectBuilder<PartitionedFileReader> {
+
+        /**
+         * Define the pool which parses the partitions.
+         * <p>
+         * The default is the {@link ForkJoinPool#commonPool() common pool}.
+         * </p>
+         *
+         * @param pool the pool.
+         *
+         * @return the builder instance to create the reader instance.
+         */
+        ObjectBuilder<PartitionedFileReader> withPool(ForkJoinPool pool);
+    }
+
+    private interface BuildParams {
+        FlatDataItemDescriptor<?> getRecordDescriptor();
+        Charset getCharset();
+        char getTerminator();
+        int getQuote();
+        char getDelimiter();
+        int getPartitionCount();
+        long getPartitionSize();
+        int getMaxPendingPartitions();
+        ForkJoinPool getPool();
+    }
+
+    private static final class BuilderImpl implements DefineCharset, BuildParams {
+
+        private final FlatDataItemDescriptor<?> recordDescriptor;
+        private Charset charset = StandardCharsets.UTF_8;
+        private char terminator = '\n';
+        private int quote = NO_QUOTE;
+        private char delimiter;
+        private int partitionCount = NO_PARTITION_COUNT;
+        private long partitionSize = DEFAULT_PARTITION_SIZE;
+        private int maxPendingPartitions;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        BuilderImpl(FlatDataItemDescriptor<?> recordDescriptor) {
+            this.recordDescriptor = Objects.requireNonNull(recordDescriptor, "Undefined record descriptor!");
+        }
+
+        @Override
+        public DefineTerminator withCharset(Charset charset) {
+            this.charset = Objects.requireNonNull(charset, "Undefined charset!");
+            return this;
+        }
+
+        @Override
+        public DefineQuote withTerminator(char terminator) {
+            this.terminator = terminator;
+            return this;
+        }
+
+        @Override
+        public DefinePartitionCount withQuote(char quote, char delimiter) {
+            if (quote == this.terminator) {
+                throw new IllegalArgumentException(MSG_Quote_equals_terminator(quote));
+            } else if (quote == delimiter) {
+                throw new IllegalArgumentException(MSG_Quote_equals_delimiter(quote));
+            }
+            this.quote = quote;
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        @Override
+        public DefineMaxPendingPartitions withPartitionCount(int partitionCount) {
+            if (partitionCount < 1) {
+                throw new IllegalArgumentException("The partition count must be greater than zero!");
+            }
+            this.partitionCount = partitionCount;
+            return this;
+        }
+
+        @Override
+        public DefineMaxPendingPartitions withPartitionSize(long partitionSize) {
+            if (partitionSize < 1) {
+                throw new IllegalArgumentException("The partition size must be greater than zero!");
+            }
+            this.partitionSize = partitionSize;
+            return this;
+        }
+
+        @Override
+        public DefinePool withMaxPendingPartitions(int maxPendingPartitions) {
+            if (maxPendingPartitions < 1) {
+                throw new IllegalArgumentException(
+                        "The maximum number of pending partitions must be greater than zero!");
+            }
+            this.maxPendingPartitions = maxPendingPartitions;
+            return this;
+        }
+
+        @Override
+        public ObjectBuilder<PartitionedFileReader> withPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "Undefined pool!");
+            return this;
+        }
+
+        @Override
+        public FlatDataItemDescriptor<?> getRecordDescriptor() {
+            return this.recordDescriptor;
+        }
+
+        @Override
+        public Charset getCharset() {
+            return this.charset;
+        }
+
+        @Override
+        public char getTerminator() {
+            return this.terminator;
+        }
+
+        @Override
+        public int getQuote() {
+            return this.quote;
+        }
+
+        @Override
+        public char getDelimiter() {
+            return this.delimiter;
+        }
+
+        @Override
+        public int getPartitionCount() {
+            return this.partitionCount;
+        }
+
+        @Override
+        public long getPartitionSize() {
+            return this.partitionSize;
+        }
+
+        @Override
+        public int getMaxPendingPartitions() {
+            return this.maxPendingPartitions == 0 ? this.pool.getParallelism() * 2 : this.maxPendingPartitions;
+        }
+
+        @Override
+        public ForkJoinPool getPool() {
+            return this.pool;
+        }
+
+        @Override
+        public PartitionedFileReader build() {
+            return new PartitionedFileReader(this);
+        }
+    }
+
+    /**
+     * An input stream which reads a byte range of a file channel by positional reads, so several streams can read
+     * from the same channel at the same time.
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (this.position >= this.end) {
+                return -1;
+            }
+            ByteBuffer target = ByteBuffer.wrap(buffer, offset, (int) Math.min(length, this.end - this.position));
+            int count = this.channel.read(target, this.position);
+            if (count > 0) {
+                this.position += count;
+            }
+            return count;
+        }
+    }
+
+    private final class PartitionTask<T> extends ForkJoinTask<List<T>> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final ParallelRecordReader.RecordParser<? extends T> parser;
+        private List<T> result;
+        private Throwable failure;
+        volatile boolean stopped;
+
+        PartitionTask(
+                FileChannel channel, long start, long end, ParallelRecordReader.RecordParser<? extends T> parser) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.parser = parser;
+        }
+
+        @Override
+        public List<T> getRawResult() {
+            return this.result;
+        }
+
+        @Override
+        protected void setRawResult(List<T> value) {
+            this.result = value;
+        }
+
+        @Override
+        protected boolean exec() {
+            // a failure is kept as it is instead of being rethrown by the pool which may wrap it
+            try {
+                List<T> records = new ArrayList<>();
+                FlatDataContext context = new FlatDataContext();
+                Reader reader = new BufferedReader(new InputStreamReader(
+                        new RangeInputStream(this.channel, this.start, this.end), charset));
+                while (!this.stopped && hasMoreContent(reader)) {
+                    context.clear();
+                    records.add(this.parser.parse(recordDescriptor, reader, context));
+                }
+                this.result = records;
+            } catch (RuntimeException | Error e) {
+                this.failure = e;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The result of the speculative scan of a byte range for each scan state at its start.
+     */
+    private static final class RangeScan {
+        // the first record start and the state at the end of the range for each state at the start of the range
+        final long[] recordStarts = {NO_RECORD_START, NO_RECORD_START, NO_RECORD_START, NO_RECORD_START};
+        final int[] endStates = {FIELD_START, UNQUOTED, QUOTED, QUOTE_IN_QUOTED};
+    }
+
+    /**
+     * The default maximum size of a partition in bytes.
+     */
+    public static final long DEFAULT_PARTITION_SIZE = 4L * 1024 * 1024;
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final int NO_QUOTE = -1;
+    private static final int NO_PARTITION_COUNT = 0;
+    private static final long NO_RECORD_START = -1;
+
+    // the scan states of the quoted field contents
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int STATE_COUNT = 4;
+
+    static String MSG_Unsupported_charset(Charset charset, char c) {
+        return String.format("The charset %s doesn't encode the character 0x%04X as single byte!",
+                charset.name(), (int) c);
+    }
+
+    static String MSG_Quote_equals_terminator(char quote) {
+        return String.format("The quote character '%s' must differ from the terminator!", quote);
+    }
+
+    static String MSG_Quote_equals_delimiter(char quote) {
+        return String.format("The quote character '%s' must differ from the field delimiter!", quote);
+    }
+
+    static String MSG_Read_failed(String recordName) {
+        return String.format("Failed to read records '%s' from file!", recordName);
+    }
+
+    static String MSG_Interrupted(String recordName) {
+        return String.format("Interrupted while waiting for the partitions of records '%s'!", recordName);
+    }
+
+    /**
+     * Create a builder to configure and create a new partitioned file reader.
+     *
+     * @param recordDescriptor the descriptor of the records to read.
+     *
+     * @return the builder instance.
+     */
+    public static DefineCharset newInstance(FlatDataItemDescriptor<?> recordDescriptor) {
+        return new BuilderImpl(recordDescriptor);
+    }
+
+    private final FlatDataItemDescriptor<?> recordDescriptor;
+    private final Charset charset;
+    private final char terminator;
+    private final byte terminatorByte;
+    private final int quote;
+    private final byte quoteByte;
+    private final char delimiter;
+    private final byte delimiterByte;
+    private final int partitionCount;
+    private final long partitionSize;
+    private final int maxPendingPartitions;
+    private final ForkJoinPool pool;
+
+    private PartitionedFileReader(BuildParams params) {
+        this.recordDescriptor = params.getRecordDescriptor();
+        this.charset = params.getCharset();
+        this.terminator = params.getTerminator();
+        this.terminatorByte = encodeSingleByte(this.charset, this.terminator);
+        this.quote = params.getQuote();
+        this.quoteByte = this.quote == NO_QUOTE ? 0 : encodeSingleByte(this.charset, (char) this.quote);
+        this.delimiter = params.getDelimiter();
+        this.delimiterByte = this.quote == NO_QUOTE ? 0 : encodeSingleByte(this.charset, this.delimiter);
+        this.partitionCount = params.getPartitionCount();
+        this.partitionSize = params.getPartitionSize();
+        this.maxPendingPartitions = params.getMaxPendingPartitions();
+        this.pool = params.getPool();
+    }
+
+    /**
+     * @return the descriptor of the records to read.
+     */
+    public FlatDataItemDescriptor<?> getRecordDescriptor() {
+        return this.recordDescriptor;
+    }
+
+    /**
+     * @return the charset of the files.
+     */
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    /**
+     * @return the record terminator.
+     */
+    public char getTerminator() {
+        return this.terminator;
+    }
+
+    /**
+     * @return {@code true} if a quote character is defined.
+     */
+    public boolean hasQuote() {
+        return this.quote != NO_QUOTE;
+    }
+
+    /**
+     * @return the quote character.
+     *
+     * @throws IllegalStateException if no quote character is defined.
+     */
+    public char getQuote() {
+        if (this.quote == NO_QUOTE) {
+            throw new IllegalStateException("No quote character defined!");
+        }
+        return (char) this.quote;
+    }
+
+    /**
+     * @return the field delimiter which is needed to detect the start of a quoted field content.
+     *
+     * @throws IllegalStateException if no quote character is defined.
+     */
+    public char getDelimiter() {
+        if (this.quote == NO_QUOTE) {
+            throw new IllegalStateException("No quote character defined!");
+        }
+        return this.delimiter;
+    }
+
+    /**
+     * @return {@code true} if a file is split into a fixed number of partitions regardless of its size.
+     */
+    public boolean hasPartitionCount() {
+        return this.partitionCount != NO_PARTITION_COUNT;
+    }
+
+    /**
+     * @return the maximum number of partitions a file is split into.
+     *
+     * @throws IllegalStateException if no partition count is defined.
+     */
+    public int getPartitionCount() {
+        if (this.partitionCount == NO_PARTITION_COUNT) {
+            throw new IllegalStateException("No partition count defined!");
+        }
+        return this.partitionCount;
+    }
+
+    /**
+     * @return the maximum size of a partition in bytes which is used unless a partition count is defined.
+     */
+    public long getPartitionSize() {
+        return this.partitionSize;
+    }
+
+    /**
+     * @return the maximum number of partitions which are parsed or wait for their delivery.
+     */
+    public int getMaxPendingPartitions() {
+        return this.maxPendingPartitions;
+    }
+
+    /**
+     * Read all records of the given file into item entities and deliver them in record order.
+     *
+     * @param file the file to read.
+     * @param consumer the consumer which receives the item entity of each record.
+     *
+     * @return the total number of read records.
+     */
+    public long readFrom(Path file, Consumer<? super FlatDataItemEntity<?>> consumer) {
+        return this.readFrom(file, FlatDataItemDescriptor::readItemEntityFrom, consumer);
+    }
+
+    /**
+     * Read all records of the given file by the given parser and deliver the results in record order.
+     * <p>
+     * The results of a partition are delivered by the calling thread as soon as the partition and all of its
+     * predecessors have been parsed. The parsing of further partitions continues while the results are delivered as
+     * long as the maximum number of pending partitions isn't reached.
+     * </p>
+     *
+     * @param file the file to read.
+     * @param parser the parser which is called by the pool to parse a record.
+     * @param consumer the consumer which receives the parse result of each record.
+     * @param <T> the type of the parse results.
+     *
+     * @return the total number of read records.
+     */
+    public <T> long readFrom(
+            Path file, ParallelRecordReader.RecordParser<? extends T> parser, Consumer<? super T> consumer) {
+        Objects.requireNonNull(consumer, "Undefined consumer!");
+        long[] recordCount = new long[1];
+        this.read(file, parser, partition -> {
+            partition.forEach(consumer);
+            recordCount[0] += partition.size();
+        });
+        return recordCount[0];
+    }
+
+    /**
+     * Read all records of the given file by the given parser into partitions.
+     * <p>
+     * All parse results are held by the returned list, so the maximum number of pending partitions only limits the
+     * partitions which are parsed at the same time.
+     * </p>
+     *
+     * @param file the file to read.
+     * @param parser the parser which is called by the pool to parse a record.
+     * @param <T> the type of the parse results.
+     *
+     * @return the parse results of each partition in file order.
+     */
+    public <T> List<List<T>> readPartitions(Path file, ParallelRecordReader.RecordParser<? extends T> parser) {
+        List<List<T>> partitions = new ArrayList<>();
+        this.<T>read(file, parser, partitions::add);
+        return partitions;
+    }
+
+    private <T> void read(
+            Path file, ParallelRecordReader.RecordParser<? extends T> parser, Consumer<List<T>> partitionConsumer) {
+        Objects.requireNonNull(file, "Undefined file!");
+        Objects.requireNonNull(parser, "Undefined record parser!");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int count = this.partitionCountOf(channel.size());
+            long[] bounds = this.quote == NO_QUOTE ?
+                    this.findPartitionBounds(channel, count) : this.findQuotedPartitionBounds(channel, count);
+            Deque<PartitionTask<T>> pendingTasks = new ArrayDeque<>();
+            int next = 0;
+            try {
+                while (true) {
+                    while (pendingTasks.size() < this.maxPendingPartitions && next < count) {
+                        if (bounds[next] < bounds[next + 1]) {
+                            PartitionTask<T> task = new PartitionTask<>(
+                                    channel, bounds[next], bounds[next + 1], parser);
+                            pendingTasks.add(task);
+                            this.pool.execute(task);
+                        }
+                        next++;
+                    }
+                    if (pendingTasks.isEmpty()) {
+                        break;
+                    }
+                    List<T> records = this.awaitPartition(pendingTasks.peek());
+                    // the delivered partition is released, so its results can be collected after the delivery
+                    pendingTasks.remove();
+                    partitionConsumer.accept(records);
+                }
+            } finally {
+                // the channel must not be closed while a partition is still being parsed
+                pendingTasks.forEach(task -> task.stopped = true);
+                pendingTasks.forEach(ForkJoinTask::quietlyJoin);
+            }
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+    }
+
+    private <T> List<T> awaitPartition(PartitionTask<T> task) {
+        List<T> records;
+        try {
+            records = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlatDataReadException(MSG_Interrupted(this.recordDescriptor.getName()), e);
+        } catch (ExecutionException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+        if (task.failure instanceof RuntimeException) {
+            throw (RuntimeException) task.failure;
+        } else if (task.failure != null) {
+            throw (Error) task.failure;
+        }
+        return records;
+    }
+
+    private int partitionCountOf(long size) {
+        if (this.partitionCount != NO_PARTITION_COUNT) {
+            return this.partitionCount;
+        }
+        long count = (size + this.partitionSize - 1) / this.partitionSize;
+        return (int) Math.min(Math.max(count, this.pool.getParallelism()), Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Split the file into byte ranges of about the same size and move each inner boundary behind the next terminator.
+     *
+     * @return the boundaries of the ranges where the range of partition i is [bounds[i], bounds[i + 1]).
+     */
+    private long[] findPartitionBounds(FileChannel channel, int count) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[count + 1];
+        bounds[count] = size;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        for (int i = 1; i < count; i++) {
+            long position = Math.max(splitPosition(size, i, count), bounds[i - 1]);
+            bounds[i] = position == 0 ? 0 : this.findRecordStart(channel, position, size, buffer);
+        }
+        return bounds;
+    }
+
+    /**
+     * Split the file into byte ranges of about the same size, scan the ranges speculatively in parallel and resolve
+     * the true record start of each range sequentially.
+     *
+     * @return the boundaries of the ranges where the range of partition i is [bounds[i], bounds[i + 1]).
+     */
+    private long[] findQuotedPartitionBounds(FileChannel channel, int count) throws IOException {
+        long size = channel.size();
+        // a range starts one byte early, so a record starting directly at the split position is found
+        long[] scanBounds = new long[count + 1];
+        scanBounds[count] = size;
+        for (int i = 1; i < count; i++) {
+            scanBounds[i] = Math.max(splitPosition(size, i, count) - 1, scanBounds[i - 1]);
+        }
+        List<ForkJoinTask<RangeScan>> scans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long start = scanBounds[i];
+            long end = scanBounds[i + 1];
+            scans.add(this.pool.submit(() -> this.scanRange(channel, start, end)));
+        }
+        long[] bounds = new long[count + 1];
+        bounds[count] = size;
+        int state = FIELD_START;
+        for (int i = 0; i < count; i++) {
+            RangeScan scan = this.awaitScan(scans.get(i));
+            if (i > 0) {
+                bounds[i] = scan.recordStarts[state];
+            }
+            state = scan.endStates[state];
+        }
+        // a range without a record start belongs to the preceding partition
+        for (int i = count - 1; i > 0; i--) {
+            if (bounds[i] == NO_RECORD_START) {
+                bounds[i] = bounds[i + 1];
+            }
+        }
+        return bounds;
+    }
+
+    private static long splitPosition(long size, int i, int count) {
+        // size * i / count without an overflow of size * i
+        return size / count * i + size % count * i / count;
+    }
+
+    private RangeScan scanRange(FileChannel channel, long start, long end) throws IOException {
+        RangeScan scan = new RangeScan();
+        int[] states = scan.endStates;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(SCAN_BUFFER_SIZE, end - position));
+            int count = channel.read(buffer, position);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                byte b = buffer.get(i);
+                for (int startState = 0; startState < STATE_COUNT; startState++) {
+                    int state = states[startState];
+                    if (b == this.terminatorByte && state != QUOTED &&
+                            scan.recordStarts[startState] == NO_RECORD_START) {
+                        scan.recordStarts[startState] = position + i + 1;
+                    }
+                    states[startState] = this.nextState(state, b);
+                }
+            }
+            position += count;
+        }
+        return scan;
+    }
+
+    /**
+     * Determine the scan state after the given byte like a delimited field reads its quoted or unquoted content.
+     */
+    private int nextState(int state, byte b) {
+        if (state == QUOTED) {
+            return b == this.quoteByte ? QUOTE_IN_QUOTED : QUOTED;
+        } else if (state == QUOTE_IN_QUOTED && b == this.quoteByte) {
+            // two quotes within a quoted content represent a single quote
+            return QUOTED;
+        } else if (b == this.terminatorByte || b == this.delimiterByte) {
+            return FIELD_START;
+        }
+        return state == FIELD_START && b == this.quoteByte ? QUOTED : UNQUOTED;
+    }
+
+    private RangeScan awaitScan(ForkJoinTask<RangeScan> scan) {
+        try {
+            return scan.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlatDataReadException(MSG_Interrupted(this.recordDescriptor.getName()), e);
+        } catch (ExecutionException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+    }
+
+    private long findRecordStart(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+        // the record starts directly at the position if the preceding byte is a terminator
+        long scanPosition = position - 1;
+        while (scanPosition < size) {
+            buffer.clear();
+            int count = channel.read(buffer, scanPosition);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                if (buffer.get(i) == this.terminatorByte) {
+                    return scanPosition + i + 1;
+                }
+            }
+            scanPosition += count;
+        }
+        return size;
+    }
+
+    private boolean hasMoreContent(Reader reader) {
+        try {
+            reader.mark(1);
+            int c = reader.read();
+            reader.reset();
+            return c != -1;
+        } catch (IOException e) {
+            throw new FlatDataReadException(MSG_Read_failed(this.recordDescriptor.getName()), e);
+        }
+    }
+
+    private static byte encodeSingleByte(Charset charset, char c) {
+        try {
+            ByteBuffer encoded = charset.newEncoder().encode(CharBuffer.wrap(new char[] {c}));
+            if (encoded.remaining() == 1) {
+                return encoded.get();
+            }
+        } catch (CharacterCodingException | UnsupportedOperationException e) {
+            // handled below
+        }
+        throw new IllegalArgumentException(MSG_Unsupported_charset(charset, c));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Finds the boundaries of the records in a source stream without parsing them.
+ * <p>
+ * A splitter is used by a {@link ParallelRecordReader} to cut the source stream into raw record chunks which are
+ * parsed afterwards by several worker threads. A chunk contains exactly the characters which the record descriptor
+ * consumes when the records are read sequentially, including e.g. a line terminator which is read by a
+ * {@link de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor}. A splitter is only called by a single
+ * thread at a time.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+@FunctionalInterface
+public interface RecordSplitter {
+
+    /**
+     * Read the next record chunk from the source stream.
+     * <p>
+     * If the end of the source stream is reached within a record the incomplete chunk is provided nonetheless, so
+     * parsing it leads to the same error as a sequential read.
+     * </p>
+     *
+     * @param source the source stream.
+     * @param record the empty builder to append the characters of the record chunk to.
+     *
+     * @return {@code true} if a record chunk has been read or {@code false} if the end of the source stream has been
+     * reached.
+     *
+     * @throws IOException if reading from the source stream fails.
+     * @throws de.fthardy.flatpony.core.FlatDataReadException if the record boundary cannot be determined.
+     */
+    boolean nextRecord(Reader source, StringBuilder record) throws IOException;
+}
@@ -0,0 +1,138 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands the tasks which are completed by several worker threads in any order over to a single thread in their
+ * original order.
+ * <p>
+ * The tasks are numbered consecutively from zero and each task occupies the slot of its number modulo the capacity.
+ * Hence the producer of the tasks must make sure that at most the capacity of tasks are completed but not yet taken.
+ * The first failure of any thread ends the hand over.
+ * </p>
+ *
+ * @param <T> the type of the tasks.
+ *
+ * @author Frank Timothy Hardy
+ */
+final class ReorderBuffer<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = this.lock.newCondition();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    // guarded by lock
+    private final Object[] slots;
+    private long taskCount = -1;
+
+    ReorderBuffer(int capacity) {
+        this.slots = new Object[capacity];
+    }
+
+    /**
+     * Wait for the completed task with the given number and take it.
+     *
+     * @param sequence the number of the task.
+     *
+     * @return the task or {@code null} if there is no further task or if a failure has occurred.
+     *
+     * @throws InterruptedException if the calling thread has been interrupted while waiting.
+     */
+    @SuppressWarnings("unchecked")
+    T take(long sequence) throws InterruptedException {
+        int slot = (int) (sequence % this.slots.length);
+        this.lock.lock();
+        try {
+            while (this.failure.get() == null) {
+                T task = (T) this.slots[slot];
+                if (task != null) {
+                    this.slots[slot] = null;
+                    return task;
+                } else if (this.taskCount >= 0 && sequence >= this.taskCount) {
+                    return null;
+                }
+                this.changed.await();
+            }
+            return null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Put a completed task into its slot.
+     *
+     * @param sequence the number of the task.
+     * @param task the completed task.
+     */
+    void complete(long sequence, T task) {
+        this.lock.lock();
+        try {
+            this.slots[(int) (sequence % this.slots.length)] = task;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Signal that no further tasks follow.
+     *
+     * @param taskCount the total number of tasks.
+     */
+    void end(long taskCount) {
+        this.lock.lock();
+        try {
+            this.taskCount = taskCount;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Record the given failure unless another failure has already been recorded and wake the waiting thread up.
+     *
+     * @param e the failure.
+     */
+    void fail(Throwable e) {
+        this.lock.lock();
+        try {
+            this.failure.compareAndSet(null, e);
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the first recorded failure or {@code null} if there is none.
+     */
+    Throwable getFailure() {
+        return this.failure.get();
+    }
+}
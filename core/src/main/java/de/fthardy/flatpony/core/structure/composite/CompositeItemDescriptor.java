@@ -26,9 +26,9 @@ package de.fthardy.flatpony.core.structure.composite;
 import de.fthardy.flatpony.core.AbstractFlatDataItemDescriptor;
 import de.fthardy.flatpony.core.FlatDataItemDescriptor;
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.streamio.CursorPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
-import de.fthardy.flatpony.core.streamio.StructureItemPullReadIteratorBase;
 import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
 import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
 import de.fthardy.flatpony.core.util.ObjectBuilder;
@@ -168,10 +168,13 @@ public class CompositeItemDescriptor extends AbstractFlatDataItemDescriptor<Comp
     }
 
     private final Map<String, FlatDataItemDescriptor<?>> elementItemDescriptorMap;
+    private final List<FlatDataItemDescriptor<?>> componentItemDescriptors;
 
     private CompositeItemDescriptor(BuildParams params) {
         super(params.getDescriptorName());
         this.elementItemDescriptorMap = params.getComponentItemDescriptorMap();
+        this.componentItemDescriptors = Collections.unmodifiableList(
+                new ArrayList<>(this.elementItemDescriptorMap.values()));
     }
 
     @Override
@@ -201,34 +204,7 @@ public class CompositeItemDescriptor extends AbstractFlatDataItemDescriptor<Comp
     
     @Override
     public PullReadIterator pullReadFrom(Reader source) {
-        return new StructureItemPullReadIteratorBase<CompositeItemDescriptor>(this, source) {
-
-            Iterator<FlatDataItemDescriptor<?>> elementItemIterator;
-            PullReadIterator currentElementStreamIterator;
-
-            @Override
-            protected boolean handleContent(StreamReadHandler handler) {
-                if (elementItemIterator.hasNext()) {
-                    if (!currentElementStreamIterator.hasNextEvent()) {
-                        currentElementStreamIterator = elementItemIterator.next().pullReadFrom(source);
-                    }
-                    currentElementStreamIterator.nextEvent(handler);
-                } else {
-                    if (currentElementStreamIterator.hasNextEvent()) {
-                        currentElementStreamIterator.nextEvent(handler);
-                    } else {
-                        return true;
-                    }
-                }
-                return false;
-            }
-
-            @Override
-            protected void fetchContent() {
-                elementItemIterator = elementItemDescriptorMap.values().iterator();
-                currentElementStreamIterator = elementItemIterator.next().pullReadFrom(source);
-            }
-        };
+        return new CursorPullReadIterator(this, source);
     }
 
     @Override
@@ -257,4 +233,11 @@ public class CompositeItemDescriptor extends AbstractFlatDataItemDescriptor<Comp
             throw new NoSuchElementException(name);
         }
     }
+
+    /**
+     * @return the component item descriptors in the order of their definition.
+     */
+    public List<FlatDataItemDescriptor<?>> getComponentItemDescriptors() {
+        return this.componentItemDescriptors;
+    }
 }
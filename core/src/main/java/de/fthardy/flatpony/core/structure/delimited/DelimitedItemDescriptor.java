@@ -27,9 +27,9 @@ import de.fthardy.flatpony.core.FlatDataItemDescriptor;
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.streamio.CursorPullReadIterator;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
-import de.fthardy.flatpony.core.streamio.StructureItemPullReadIteratorBase;
 import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
 import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
 import de.fthardy.flatpony.core.util.ObjectBuilder;
@@ -180,24 +180,7 @@ public class DelimitedItemDescriptor implements FlatDataStructureDescriptor<Deli
 
     @Override
     public PullReadIterator pullReadFrom(Reader reader) {
-        return new StructureItemPullReadIteratorBase<DelimitedItemDescriptor>(this, reader) {
-            
-            PullReadIterator targetItemStreamIterator;
-
-            @Override
-            protected boolean handleContent(StreamReadHandler handler) {
-                if (!targetItemStreamIterator.hasNextEvent()) {
-                    return true;
-                }
-                targetItemStreamIterator.nextEvent(handler);
-                return false;
-            }
-
-            @Override
-            protected void fetchContent() {
-                targetItemStreamIterator = targetItemDescriptor.pullReadFrom(reader);
-            }
-        };
+        return new CursorPullReadIterator(this, reader);
     }
 
     @Override
@@ -224,7 +207,17 @@ public class DelimitedItemDescriptor implements FlatDataStructureDescriptor<Deli
         return targetItemDescriptor;
     }
     
-    private void readDelimiter(Reader source) {
+    /**
+     * Read the delimiter which follows the target item.
+     * <p>
+     * The end of the source stream is accepted instead of the delimiter.
+     * </p>
+     *
+     * @param source the source stream to read from.
+     *
+     * @throws FlatDataReadException when the next character isn't the delimiter or the stream could not be read.
+     */
+    public void readDelimiter(Reader source) {
         try {
             int i = source.read();
             if (i != -1 && i != this.delimiter) {
@@ -28,7 +28,6 @@ import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.FlatDataReadException;
 import de.fthardy.flatpony.core.streamio.*;
-import de.fthardy.flatpony.core.structure.FlatDataStructure;
 import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
 import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
 import de.fthardy.flatpony.core.util.FieldReference;
@@ -36,9 +35,6 @@ import de.fthardy.flatpony.core.util.ObjectBuilder;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -112,78 +108,6 @@ public class OptionalItemDescriptor implements FlatDataStructureDescriptor<Optio
         }
     }
 
-    private final class PullReadIteratorWithFlagField extends StructureItemPullReadIteratorBase<OptionalItemDescriptor> {
-
-        private final boolean flagValue;
-        private PullReadIterator targetItemStreamIterator;
-
-        PullReadIteratorWithFlagField(Reader source, boolean flagValue) {
-            super(OptionalItemDescriptor.this, source);
-            this.flagValue = flagValue;
-        }
-
-        @Override
-        protected boolean handleContent(StreamReadHandler handler) {
-            if (targetItemStreamIterator == null) {
-                return true;
-            }
-            if (!targetItemStreamIterator.hasNextEvent()) {
-                return true;
-            }
-            targetItemStreamIterator.nextEvent(handler);
-            return false;
-        }
-
-        @Override
-        protected void fetchContent() {
-            if (this.flagValue) {
-                targetItemStreamIterator = targetItemDescriptor.pullReadFrom(source);
-            }
-        }
-    }
-    
-    private final class PullReadIteratorWithoutFlagField 
-            extends StructureItemPullReadIteratorBase<OptionalItemDescriptor> {
-
-        private final Deque<FlatDataStructure<?>> lastStructureItemEntityDeque = new ArrayDeque<>();
-        private Iterator<FlatDataItemEntity<?>> flattenedItemEntityIterator;
-
-        PullReadIteratorWithoutFlagField(Reader source) {
-            super(OptionalItemDescriptor.this, source);
-        }
-
-        @Override
-        protected boolean handleContent(StreamReadHandler handler) {
-            if (flattenedItemEntityIterator == null) {
-                return true;
-            }
-            if (!flattenedItemEntityIterator.hasNext()) {
-                return true;
-            }
-            FlatDataItemEntity<?> nextItemEntity = flattenedItemEntityIterator.next();
-            if (nextItemEntity == lastStructureItemEntityDeque.peek()) {
-                handler.onStructureItemEnd(lastStructureItemEntityDeque.pop().getDescriptor());
-            } else if (nextItemEntity instanceof FlatDataStructure) {
-                FlatDataStructure<?> structure = (FlatDataStructure<?>) nextItemEntity;
-                lastStructureItemEntityDeque.push(structure);
-                handler.onStructureItemStart(structure.getDescriptor());
-            } else {
-                nextItemEntity.applyHandler(new PullReadFieldHandler(handler));
-            }
-            return false;
-        }
-
-        @Override
-        protected void fetchContent() {
-            FlatDataItemEntity<?> itemEntity = readByTrialAndErrorFrom(source);
-            if (itemEntity != null) {
-                ItemEntityStructureFlattener itemCollector = new ItemEntityStructureFlattener();
-                itemEntity.applyHandler(itemCollector);
-                flattenedItemEntityIterator = itemCollector.getFlattenedItemEntities().iterator();
-            }
-        }
-    }
-
     /**
      * Create a new instance of this item descriptor.
      * 
@@ -300,18 +224,7 @@ public class OptionalItemDescriptor implements FlatDataStructureDescriptor<Optio
 
     @Override
     public PullReadIterator pullReadFrom(Reader source) {
-        PullReadIterator pullReadIterator;
-        if (this.flagFieldReference == null) {
-            pullReadIterator = new PullReadIteratorWithoutFlagField(source); 
-        } else {
-            Boolean fieldValue = this.flagFieldReference.getFieldValue();
-            if (fieldValue == null) {
-                pullReadIterator = new PullReadIteratorWithoutFlagField(source); 
-            } else {
-                pullReadIterator = new PullReadIteratorWithFlagField(source, fieldValue);
-            }
-        }
-        return pullReadIterator; 
+        return new CursorPullReadIterator(this, source);
     }
 
     @Override
@@ -338,7 +251,20 @@ public class OptionalItemDescriptor implements FlatDataStructureDescriptor<Optio
         return this.flagFieldReference;
     }
 
-    private FlatDataItemEntity<?> readByTrialAndErrorFrom(Reader source) {
+    /**
+     * Try to read the target item from the given source stream.
+     * <p>
+     * The source stream is marked before the target item is read. If the target item cannot be read the source stream
+     * is reset to the mark, so the stream position is unchanged.
+     * </p>
+     *
+     * @param source the source stream to read from which must support marking.
+     *
+     * @return the read target item entity or {@code null} if the target item could not be read.
+     *
+     * @throws FlatDataReadException when the source stream doesn't support marking or marking or resetting fails.
+     */
+    public FlatDataItemEntity<?> readByTrialAndErrorFrom(Reader source) {
         if (source.markSupported()) {
             try {
                 source.mark(this.targetItemDescriptor.getMinLength());
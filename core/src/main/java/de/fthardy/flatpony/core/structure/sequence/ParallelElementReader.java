@@ -0,0 +1,196 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.structure.sequence;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataReadException;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads a known number of fixed length element items of a sequence with the tasks of a {@link ForkJoinPool}.
+ * <p>
+ * Because all elements have the same length their offsets are known in advance. The element content is read from the
+ * source stream in blocks by the calling thread and each block is parsed by recursively splitting its element range so
+ * that idle workers can steal the pending halves. Each leaf task parses its elements by the parser given by the caller
+ * within its own {@link FlatDataContext}, e.g. into an item entity or into the recorded events of a push read.
+ * </p>
+ * <p>
+ * All elements except for the last one are read by this reader and delivered block by block in their order as soon as
+ * a block has been parsed, so only the elements of a single block are held at a time. The last element has to be read
+ * by the caller directly from the source stream within the context of the calling thread, in the same way (read or
+ * push read) as the sequential read does. Since every element has the same structure it leaves the same observable
+ * field values behind as a sequential read. When an element cannot be parsed the elements before it are delivered and
+ * then the failure of the element is thrown, which is the failure a sequential read would have thrown.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class ParallelElementReader {
+
+    private static final int MAX_BLOCK_LENGTH = 1 << 22;
+    private static final int MAX_BLOCK_ELEMENT_COUNT = 1 << 16;
+    private static final int TASKS_PER_WORKER = 4;
+
+    private static final class Failure {
+
+        // written under the lock of the failure only but read by the workers for each element without locking
+        private volatile int elementIndex = Integer.MAX_VALUE;
+        private RuntimeException exception;
+
+        boolean precedes(int elementIndex) {
+            return this.elementIndex < elementIndex;
+        }
+
+        synchronized void record(int elementIndex, RuntimeException exception) {
+            if (elementIndex < this.elementIndex) {
+                this.exception = exception;
+                this.elementIndex = elementIndex;
+            }
+        }
+
+        synchronized RuntimeException getException() {
+            return this.exception;
+        }
+    }
+
+    private final class ParseTask extends RecursiveAction {
+
+        private final char[] content;
+        private final Function<? super Reader, ?> parser;
+        private final Object[] elements;
+        private final int fromIndex;
+        private final int toIndex;
+        private final int granularity;
+        private final Failure failure;
+
+        ParseTask(char[] content, Function<? super Reader, ?> parser, Object[] elements, int fromIndex, int toIndex,
+                int granularity, Failure failure) {
+            this.content = content;
+            this.parser = parser;
+            this.elements = elements;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.granularity = granularity;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toIndex - this.fromIndex > this.granularity) {
+                int middleIndex = (this.fromIndex + this.toIndex) >>> 1;
+                invokeAll(
+                        new ParseTask(content, parser, elements, fromIndex, middleIndex, granularity, failure),
+                        new ParseTask(content, parser, elements, middleIndex, toIndex, granularity, failure));
+            } else {
+                FlatDataContext context = new FlatDataContext();
+                for (int i = this.fromIndex; i < this.toIndex && !this.failure.precedes(i); i++) {
+                    context.clear();
+                    Reader element = new CharArrayReader(this.content, i * elementLength, elementLength);
+                    try {
+                        this.elements[i] = context.call(() -> this.parser.apply(element));
+                    } catch (RuntimeException e) {
+                        this.failure.record(i, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private final int elementLength;
+    private final ForkJoinPool pool;
+
+    ParallelElementReader(int elementLength, ForkJoinPool pool) {
+        this.elementLength = elementLength;
+        this.pool = pool;
+    }
+
+    /**
+     * Read all elements but the last one and deliver them in their order.
+     *
+     * @param source the source stream to read from.
+     * @param count the number of elements including the last one which is left to the caller.
+     * @param sequenceName the name of the sequence item.
+     * @param parser the parser which reads an element from the given reader. It is called by the workers.
+     * @param consumer the consumer which receives the parsed elements. It is called by the calling thread.
+     * @param <T> the type of the parsed elements.
+     */
+    <T> void readLeadingElements(Reader source, int count, String sequenceName,
+            Function<? super Reader, ? extends T> parser, Consumer<? super T> consumer) {
+        int blockElementCount = Math.max(1, Math.min(MAX_BLOCK_ELEMENT_COUNT, MAX_BLOCK_LENGTH / this.elementLength));
+        char[] content = new char[Math.min(count - 1, blockElementCount) * this.elementLength];
+        int remainingCount = count - 1;
+        while (remainingCount > 0) {
+            int elementCount = Math.min(remainingCount, blockElementCount);
+            int length = this.readContent(source, content, elementCount * this.elementLength, sequenceName);
+            if (length < elementCount * this.elementLength) {
+                // Let the parser fail on the incomplete content just like a sequential read
+                Reader remainder = new CharArrayReader(content, 0, length);
+                for (int i = 0; i < elementCount; i++) {
+                    consumer.accept(parser.apply(remainder));
+                }
+            } else {
+                this.parseBlock(content, elementCount, parser, consumer);
+            }
+            remainingCount -= elementCount;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void parseBlock(char[] content, int elementCount, Function<? super Reader, ? extends T> parser,
+            Consumer<? super T> consumer) {
+        Object[] elements = new Object[elementCount];
+        int granularity = Math.max(1, elementCount / (this.pool.getParallelism() * TASKS_PER_WORKER));
+        Failure failure = new Failure();
+        this.pool.invoke(new ParseTask(content, parser, elements, 0, elementCount, granularity, failure));
+        for (int i = 0; i < elementCount; i++) {
+            if (failure.precedes(i + 1)) {
+                throw failure.getException();
+            }
+            consumer.accept((T) elements[i]);
+        }
+    }
+
+    private int readContent(Reader source, char[] content, int length, String sequenceName) {
+        int offset = 0;
+        try {
+            while (offset < length) {
+                int count = source.read(content, offset, length - offset);
+                if (count < 0) {
+                    break;
+                }
+                offset += count;
+            }
+        } catch (IOException e) {
+            throw new FlatDataReadException(SequenceItemDescriptor.MSG_Read_failed(sequenceName), e);
+        }
+        return offset;
+    }
+}
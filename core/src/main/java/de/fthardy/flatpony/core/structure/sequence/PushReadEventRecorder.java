@@ -0,0 +1,171 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.structure.sequence;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.streamio.TypedStreamReadHandler;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Records the events of a push read of an element item so that they can be replayed to a stream read handler later.
+ * <p>
+ * A recorder pushes an element through the element item descriptor itself, so typed fields, constrained fields and
+ * all other decorators report the same events as they do for a sequential push read. Because descriptors choose their
+ * callbacks by the interfaces of the handler, a recorder created by {@link #of(StreamReadHandler)} implements the same
+ * handler interfaces as the handler the events are replayed to. Field values which are reported as character sequence
+ * or by a typed callback are replayed within the read buffer of the replaying thread, since the handler may access the
+ * read buffer of the current thread while a callback is running.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+class PushReadEventRecorder implements StreamReadHandler {
+
+    private static final class Typed extends PushReadEventRecorder implements TypedStreamReadHandler {}
+
+    private static final class CharSequences extends PushReadEventRecorder implements CharSequenceStreamReadHandler {}
+
+    private static final class TypedCharSequences extends PushReadEventRecorder
+            implements TypedStreamReadHandler, CharSequenceStreamReadHandler {}
+
+    /**
+     * Create a recorder for the events to replay to a given handler.
+     *
+     * @param handler the handler the recorded events are replayed to.
+     * @return the new recorder instance.
+     */
+    static PushReadEventRecorder of(StreamReadHandler handler) {
+        boolean typed = handler instanceof TypedStreamReadHandler;
+        if (handler instanceof CharSequenceStreamReadHandler) {
+            return typed ? new TypedCharSequences() : new CharSequences();
+        }
+        return typed ? new Typed() : new PushReadEventRecorder();
+    }
+
+    private final List<Consumer<StreamReadHandler>> events = new ArrayList<>();
+    private RuntimeException failure;
+
+    /**
+     * Record the events of a push read of an element item.
+     * <p>
+     * A failure of the push read is kept together with the events which have occurred before it.
+     * </p>
+     *
+     * @param elementItemDescriptor the descriptor of the element item.
+     * @param source the source stream to read the element from.
+     * @return this recorder instance.
+     */
+    PushReadEventRecorder record(FlatDataItemDescriptor<?> elementItemDescriptor, Reader source) {
+        try {
+            elementItemDescriptor.pushReadFrom(source, this);
+        } catch (RuntimeException e) {
+            this.failure = e;
+        }
+        return this;
+    }
+
+    /**
+     * Replay the recorded events to a handler and throw the recorded failure if any.
+     *
+     * @param handler the handler to replay the events to.
+     */
+    void replayTo(StreamReadHandler handler) {
+        for (Consumer<StreamReadHandler> event : this.events) {
+            event.accept(handler);
+        }
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    @Override
+    public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, String value) {
+        this.events.add(handler -> handler.onFieldItem(fieldDescriptor, value));
+    }
+
+    public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+        String text = value.toString();
+        this.events.add(handler -> ((CharSequenceStreamReadHandler) handler).onFieldItem(
+                fieldDescriptor, bufferOf(text)));
+    }
+
+    @Override
+    public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+        this.events.add(handler -> handler.onStructureItemStart(itemDescriptor));
+    }
+
+    @Override
+    public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+        this.events.add(handler -> handler.onStructureItemEnd(itemDescriptor));
+    }
+
+    public void onIntFieldItem(TypedFieldDescriptor<?> fieldDescriptor, int value) {
+        this.addTypedEvent(handler -> handler.onIntFieldItem(fieldDescriptor, value));
+    }
+
+    public void onLongFieldItem(TypedFieldDescriptor<?> fieldDescriptor, long value) {
+        this.addTypedEvent(handler -> handler.onLongFieldItem(fieldDescriptor, value));
+    }
+
+    public void onDoubleFieldItem(TypedFieldDescriptor<?> fieldDescriptor, double value) {
+        this.addTypedEvent(handler -> handler.onDoubleFieldItem(fieldDescriptor, value));
+    }
+
+    public void onDecimalFieldItem(TypedFieldDescriptor<?> fieldDescriptor, long unscaledValue, int scale) {
+        this.addTypedEvent(handler -> handler.onDecimalFieldItem(fieldDescriptor, unscaledValue, scale));
+    }
+
+    public void onBooleanFieldItem(TypedFieldDescriptor<?> fieldDescriptor, boolean value) {
+        this.addTypedEvent(handler -> handler.onBooleanFieldItem(fieldDescriptor, value));
+    }
+
+    public <T> void onTypedFieldItem(TypedFieldDescriptor<T> fieldDescriptor, T value) {
+        this.addTypedEvent(handler -> handler.onTypedFieldItem(fieldDescriptor, value));
+    }
+
+    private void addTypedEvent(Consumer<TypedStreamReadHandler> event) {
+        // The read field value is still held by the read buffer of the recording thread
+        String text = FieldValueBuffer.ofCurrentThread().toString();
+        this.events.add(handler -> {
+            bufferOf(text);
+            event.accept((TypedStreamReadHandler) handler);
+        });
+    }
+
+    private static FieldValueBuffer bufferOf(String text) {
+        FieldValueBuffer buffer = FieldValueBuffer.ofCurrentThread();
+        buffer.set(text);
+        return buffer;
+    }
+}
@@ -25,7 +25,6 @@ package de.fthardy.flatpony.core.structure.sequence;
 
 import de.fthardy.flatpony.core.*;
 import de.fthardy.flatpony.core.streamio.*;
-import de.fthardy.flatpony.core.structure.FlatDataStructure;
 import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
 import de.fthardy.flatpony.core.util.AbstractItemDescriptorBuilder;
 import de.fthardy.flatpony.core.util.FieldReference;
@@ -34,6 +33,7 @@ import de.fthardy.flatpony.core.util.ObjectBuilder;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The implementation of a descriptor for a sequence item.
@@ -62,6 +62,11 @@ import java.util.*;
  * available causing the sequence read algorithm to fall back to the "trial and error" strategy even though a count
  * field reference has been defined. Keep that in mind. 
  * </p>
+ * <p>
+ * Large sequences with a count field can optionally be read in parallel by a {@link java.util.concurrent.ForkJoinPool}
+ * when all element items have the same fixed length. The offsets of the elements are computable in advance in this
+ * case. The result of a parallel read is identical to the result of a sequential read.
+ * </p>
  *
  * @author Frank Timothy Hardy
  */
@@ -107,7 +112,7 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
      * 
      * @author Frank Timothy Hardy
      */
-    public interface DefineMultiplicity extends ObjectBuilder<SequenceItemDescriptor> {
+    public interface DefineMultiplicity extends DefineParallelRead {
 
         /**
          * Define a multiplicity for the sequence items element item entities.
@@ -118,9 +123,33 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
          * @param bound1 the upper or lower bound.
          * @param bound2 the upper bound if {@code bound1} is the lower bound or vice versa.               
          * 
+         * @return the builder instance for further configuration or instance creation.
+         */
+        DefineParallelRead withMultiplicity(int bound1, int bound2);
+    }
+
+    /**
+     * Allows to optionally enable the parallel read of the element items.
+     *
+     * @author Frank Timothy Hardy
+     */
+    public interface DefineParallelRead extends ObjectBuilder<SequenceItemDescriptor> {
+
+        /**
+         * Enable the parallel read of the element items with the given fork join pool.
+         * <p>
+         * The element items are only read in parallel when the number of elements is known from the count field and
+         * when it reaches the given minimum element count. Furthermore all element items must have the same fixed
+         * length. Otherwise the elements are read sequentially. Any observers of fields within the element items are
+         * notified on the threads of the pool.
+         * </p>
+         *
+         * @param pool the fork join pool which reads the element items.
+         * @param minElementCount the minimum number of elements for which the parallel read is worthwhile.
+         *
          * @return the builder instance for creating the new instance.
          */
-        ObjectBuilder<SequenceItemDescriptor> withMultiplicity(int bound1, int bound2);
+        ObjectBuilder<SequenceItemDescriptor> withParallelRead(ForkJoinPool pool, int minElementCount);
     }
     
     private interface BuildParams {
@@ -129,6 +158,8 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         FlatDataItemDescriptor<?> getElementItemDescriptor();
         FieldReference<Integer> getCountFieldReference();
         Multiplicity getMultiplicity();
+        ForkJoinPool getParallelReadPool();
+        int getMinParallelElementCount();
     }
     
     private static final class BuilderImpl extends AbstractItemDescriptorBuilder<SequenceItemDescriptor> 
@@ -137,6 +168,8 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         private FlatDataItemDescriptor<?> elementItemDescriptor;
         private FieldReference<Integer> countFieldReference;
         private Multiplicity multiplicity;
+        private ForkJoinPool parallelReadPool;
+        private int minParallelElementCount;
         
         BuilderImpl(String descriptorName) {
             super(descriptorName);
@@ -157,11 +190,21 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         }
 
         @Override
-        public ObjectBuilder<SequenceItemDescriptor> withMultiplicity(int bound1, int bound2) {
+        public DefineParallelRead withMultiplicity(int bound1, int bound2) {
             this.multiplicity = new Multiplicity(bound1, bound2);
             return this;
         }
 
+        @Override
+        public ObjectBuilder<SequenceItemDescriptor> withParallelRead(ForkJoinPool pool, int minElementCount) {
+            if (minElementCount < 2) {
+                throw new IllegalArgumentException(MSG_Invalid_min_parallel_element_count(minElementCount));
+            }
+            this.parallelReadPool = Objects.requireNonNull(pool, "Undefined fork join pool!");
+            this.minParallelElementCount = minElementCount;
+            return this;
+        }
+
         @Override
         public FlatDataItemDescriptor<?> getElementItemDescriptor() {
             return this.elementItemDescriptor;
@@ -177,6 +220,16 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
             return this.multiplicity == null ? new Multiplicity() : this.multiplicity;
         }
 
+        @Override
+        public ForkJoinPool getParallelReadPool() {
+            return this.parallelReadPool;
+        }
+
+        @Override
+        public int getMinParallelElementCount() {
+            return this.minParallelElementCount;
+        }
+
         @Override
         protected SequenceItemDescriptor createItemDescriptorInstance() {
             return new SequenceItemDescriptor(this);
@@ -244,92 +297,6 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         }
     }
     
-    private final class PullReadIteratorWithCountField extends StructureItemPullReadIteratorBase<SequenceItemDescriptor> {
-
-        private final int targetCount;
-        private int currentElementCount = 0;
-        private PullReadIterator elementItemStreamIterator;
-        
-        protected PullReadIteratorWithCountField(Reader source, int targetCount) {
-            super(SequenceItemDescriptor.this, source);
-            this.targetCount = targetCount;
-        }
-
-        @Override
-        protected boolean handleContent(StreamReadHandler handler) {
-            if (elementItemStreamIterator == null) {
-                return true;
-            }
-            if (elementItemStreamIterator.hasNextEvent()) {
-                elementItemStreamIterator.nextEvent(handler);
-            } else if (currentElementCount == targetCount) {
-                return true;
-            } else {
-                elementItemStreamIterator = elementItemDescriptor.pullReadFrom(source);
-                currentElementCount++;
-                elementItemStreamIterator.nextEvent(handler);
-            }
-            return false;
-        }
-
-        @Override
-        protected void fetchContent() {
-            if (targetCount > 0) {
-                elementItemStreamIterator = elementItemDescriptor.pullReadFrom(source);
-                currentElementCount++;
-            }
-        }
-    }
-    
-    private final class PullReadIteratorWithoutCountField extends StructureItemPullReadIteratorBase<SequenceItemDescriptor> {
-
-        private final Deque<FlatDataStructure<?>> lastStructureItemEntityDeque = new ArrayDeque<>();
-        private Iterator<FlatDataItemEntity<?>> elementItemEntityIterator;
-        private Iterator<FlatDataItemEntity<?>> flattenedElementItemEntityIterator;
-
-        protected PullReadIteratorWithoutCountField(Reader source) {
-            super(SequenceItemDescriptor.this, source);
-        }
-
-        @Override
-        protected boolean handleContent(StreamReadHandler handler) {
-            boolean sendEndEvent = false;
-            if (flattenedElementItemEntityIterator != null && flattenedElementItemEntityIterator.hasNext()) {
-                FlatDataItemEntity<?> nextItemEntity = flattenedElementItemEntityIterator.next();
-                if (nextItemEntity == lastStructureItemEntityDeque.peek()) {
-                    handler.onStructureItemEnd(lastStructureItemEntityDeque.pop().getDescriptor());
-                } else if (nextItemEntity instanceof FlatDataStructure) {
-                    FlatDataStructure<?> structure = (FlatDataStructure<?>) nextItemEntity;
-                    lastStructureItemEntityDeque.push(structure);
-                    handler.onStructureItemStart(structure.getDescriptor());
-                } else {
-                    nextItemEntity.applyHandler(new PullReadFieldHandler(handler));
-                }
-            } else if (elementItemEntityIterator.hasNext()) {
-                FlatDataItemEntity<?> itemEntity = elementItemEntityIterator.next();
-                ItemEntityStructureFlattener itemCollector = new ItemEntityStructureFlattener();
-                itemEntity.applyHandler(itemCollector);
-                flattenedElementItemEntityIterator = itemCollector.getFlattenedItemEntities().iterator();
-                FlatDataItemEntity<?> nextItemEntity = flattenedElementItemEntityIterator.next();
-                if (nextItemEntity instanceof FlatDataStructure) {
-                    FlatDataStructure<?> structure = (FlatDataStructure<?>) nextItemEntity;
-                    lastStructureItemEntityDeque.push(structure);
-                    handler.onStructureItemStart(structure.getDescriptor());
-                } else {
-                    nextItemEntity.applyHandler(new PullReadFieldHandler(handler));
-                }
-            } else {
-                sendEndEvent = true;
-            }
-            return sendEndEvent;
-        }
-
-        @Override
-        protected void fetchContent() {
-            elementItemEntityIterator = readElementEntitiesByTrialAndErrorFrom(source).iterator();
-        }
-    }
-
     static String MSG_Multiplicity_constraint_violated(String sequenceName, Multiplicity multiplicity) {
         return String.format(
                 "The number of elements in the sequence [%s] doesn't match the required multiplicity [%s]!",
@@ -349,6 +316,11 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
                 "this item to function.";
     }
 
+    static String MSG_Invalid_min_parallel_element_count(int minElementCount) {
+        return String.format(
+                "The minimum element count for a parallel read must be at least 2 but was %d!", minElementCount);
+    }
+
     static String MSG_Read_failed(String itemName) {
         return String.format("Failed to read sequence item '%s' from source stream!", itemName);
     }
@@ -367,12 +339,20 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
     private final FlatDataItemDescriptor<?> elementItemDescriptor;
     private final FieldReference<Integer> countFieldReference;
     private final Multiplicity multiplicity;
+    private final int minParallelElementCount;
+    private final ParallelElementReader parallelElementReader;
     
     private SequenceItemDescriptor(BuildParams params) {
         super(params.getDescriptorName());
         this.elementItemDescriptor = params.getElementItemDescriptor();
         this.countFieldReference = params.getCountFieldReference();
         this.multiplicity = params.getMultiplicity();
+        this.minParallelElementCount = params.getMinParallelElementCount();
+        int elementLength = params.getParallelReadPool() == null ?
+                -1 : FlatRecords.getFixedLength(this.elementItemDescriptor);
+        this.parallelElementReader = elementLength > 0 ?
+                new ParallelElementReader(elementLength, params.getParallelReadPool()) :
+                null;
     }
 
     @Override
@@ -437,18 +417,7 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
 
     @Override
     public PullReadIterator pullReadFrom(Reader source) {
-        PullReadIterator pullReadIterator;
-        if (this.countFieldReference == null) {
-            pullReadIterator = new PullReadIteratorWithoutCountField(source);
-        } else {
-            Integer elementCount = this.countFieldReference.getFieldValue();
-            if (elementCount == null) {
-                pullReadIterator = new PullReadIteratorWithoutCountField(source);
-            } else {
-                pullReadIterator = new PullReadIteratorWithCountField(source, elementCount);
-            }
-        }
-        return pullReadIterator; 
+        return new CursorPullReadIterator(this, source);
     }
     
     @Override
@@ -468,6 +437,13 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         return this.elementItemDescriptor;
     }
 
+    /**
+     * @return the count field reference or {@code null} if no count field is referenced.
+     */
+    public FieldReference<Integer> getCountFieldReference() {
+        return this.countFieldReference;
+    }
+
     /**
      * @return the multiplicity for the element items.
      */
@@ -481,7 +457,21 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
         }
     }
 
-    private List<FlatDataItemEntity<?>> readElementEntitiesByTrialAndErrorFrom(Reader source) {
+    /**
+     * Read as many element items as possible from the given source stream.
+     * <p>
+     * Each element item is read after marking the source stream. When an element item cannot be read the source stream
+     * is reset to the last mark and the reading ends.
+     * </p>
+     *
+     * @param source the source stream to read from which must support marking.
+     *
+     * @return the read element item entities.
+     *
+     * @throws FlatDataReadException when the number of read elements violates the multiplicity constraint, when the
+     * source stream doesn't support marking or marking or resetting fails.
+     */
+    public List<FlatDataItemEntity<?>> readElementEntitiesByTrialAndErrorFrom(Reader source) {
         List<FlatDataItemEntity<?>> elementItems = new ArrayList<>();
         FlatDataItemEntity<?> itemEntity;
         do {
@@ -498,7 +488,13 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
 
     private List<FlatDataItemEntity<?>> readWithCountField(Reader source, Integer count) {
         List<FlatDataItemEntity<?>> elementItems = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
+        int sequentialCount = count;
+        if (this.isParallelReadApplicable(count)) {
+            this.parallelElementReader.readLeadingElements(source, count, this.getName(),
+                    this.elementItemDescriptor::readItemEntityFrom, elementItems::add);
+            sequentialCount = 1;
+        }
+        for (int i = 0; i < sequentialCount; i++) {
             elementItems.add(this.elementItemDescriptor.readItemEntityFrom(source));
         }
         return elementItems;
@@ -519,11 +515,22 @@ public class SequenceItemDescriptor extends AbstractFlatDataItemDescriptor<Seque
     }
 
     private void pushReadWithElementCount(Reader source, StreamReadHandler handler, Integer count) {
-        for (int i = 0; i < count; i++) {
+        int sequentialCount = count;
+        if (this.isParallelReadApplicable(count)) {
+            this.parallelElementReader.readLeadingElements(source, count, this.getName(),
+                    element -> PushReadEventRecorder.of(handler).record(this.elementItemDescriptor, element),
+                    recorder -> recorder.replayTo(handler));
+            sequentialCount = 1;
+        }
+        for (int i = 0; i < sequentialCount; i++) {
             this.elementItemDescriptor.pushReadFrom(source, handler);
         }
     }
 
+    private boolean isParallelReadApplicable(int count) {
+        return this.parallelElementReader != null && count >= this.minParallelElementCount;
+    }
+
     private FlatDataItemEntity<?> readByTrialAndErrorFrom(Reader source) {
         if (source.markSupported()) {
             try {
@@ -31,7 +31,11 @@ import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
  * or field value (in case of a stream read).
  * 
  * @author Frank Timothy Hardy
+ *
+ * @deprecated The buffered field is shared by all threads and read operations. A {@link FieldReference} records the
+ * referenced field in the current {@link de.fthardy.flatpony.core.FlatDataContext} instead.
  */
+@Deprecated
 public class BufferingFieldDescriptorObserver implements ObservableFieldDescriptor.Observer {
     
     private ObservableField bufferedField;
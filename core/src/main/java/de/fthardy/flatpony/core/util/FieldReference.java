@@ -23,6 +23,7 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.util;
 
+import de.fthardy.flatpony.core.FlatDataContext;
 import de.fthardy.flatpony.core.field.observable.ObservableField;
 import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
@@ -40,6 +41,12 @@ import java.util.Objects;
  * {@link #getReferencedField()}. If the observed field is read by a stream read method (push or pull read) then the
  * read field value is accessible through {@link #getFieldValue()}. 
  * </p>
+ * <p>
+ * A field reference observes the referenced field descriptor and records the created or read field entities and the
+ * read field values in the {@link FlatDataContext} which is bound to the current thread. The field entity and value
+ * are looked up in this context unless a context is given explicitly. A field reference doesn't hold any state of a
+ * read, so it can be used by several threads at the same time.
+ * </p>
  *
  * @param <T> the type of the field value.
  *           
@@ -105,6 +112,33 @@ public class FieldReference<T> {
         }
     }
     
+    /**
+     * The observer which records the field entities and values of the referenced field in the current context.
+     */
+    private static final class ContextRecorder implements ObservableFieldDescriptor.Observer {
+
+        private final ObservableFieldDescriptor fieldDescriptor;
+
+        ContextRecorder(ObservableFieldDescriptor fieldDescriptor) {
+            this.fieldDescriptor = fieldDescriptor;
+        }
+
+        @Override
+        public void onFieldEntityCreated(ObservableField field) {
+            FlatDataContext.current().setField(this.fieldDescriptor, field);
+        }
+
+        @Override
+        public void onFieldEntityRead(ObservableField field) {
+            FlatDataContext.current().setField(this.fieldDescriptor, field);
+        }
+
+        @Override
+        public void onFieldValueRead(ObservableFieldDescriptor descriptor, String value) {
+            FlatDataContext.current().setFieldValue(descriptor, value);
+        }
+    }
+
     private interface BuildParams<T> {
         ObservableFieldDescriptor getFieldDescriptor();
         FieldValueConverter<T> getValueConverter();
@@ -155,27 +189,55 @@ public class FieldReference<T> {
         return new BuilderImpl<>(fieldDescriptor);
     }
 
+    private final ObservableFieldDescriptor fieldDescriptor;
     private final FieldValueConverter<T> valueConverter;
-    private final BufferingFieldDescriptorObserver observer = new BufferingFieldDescriptorObserver();
     
     private FieldReference(BuildParams<T> params) {
+        this.fieldDescriptor = params.getFieldDescriptor();
         this.valueConverter = params.getValueConverter();
-        params.getFieldDescriptor().addObserver(this.observer);
+        this.fieldDescriptor.addObserver(new ContextRecorder(this.fieldDescriptor));
+    }
+
+    /**
+     * @return the descriptor of the referenced field.
+     */
+    public ObservableFieldDescriptor getFieldDescriptor() {
+        return this.fieldDescriptor;
     }
 
     /**
-     * @return a new field adapter instance adapting the referenced field if one exists. Otherwise {@code null}.
+     * @return a new field adapter instance adapting the referenced field of the current context if one exists.
+     * Otherwise {@code null}.
      */
     public ReferencedField<T> getReferencedField() {
-        ObservableField bufferedField = this.observer.getBufferedField();
-        return bufferedField == null ? null : new ReferencedField<>(bufferedField, valueConverter);
+        return this.getReferencedField(FlatDataContext.current());
+    }
+
+    /**
+     * @param context the context to look the referenced field up.
+     *
+     * @return a new field adapter instance adapting the referenced field of the given context if one exists.
+     * Otherwise {@code null}.
+     */
+    public ReferencedField<T> getReferencedField(FlatDataContext context) {
+        ObservableField field = context.getField(this.fieldDescriptor);
+        return field == null ? null : new ReferencedField<>(field, valueConverter);
     }
 
     /**
-     * @return the field value of the referenced field if one exists. Otherwise {@code null}.
+     * @return the field value of the referenced field of the current context if one exists. Otherwise {@code null}.
      */
     public T getFieldValue() {
-        String fieldValue = this.observer.getBufferedFieldValue();
+        return this.getFieldValue(FlatDataContext.current());
+    }
+
+    /**
+     * @param context the context to look the field value up.
+     *
+     * @return the field value of the referenced field of the given context if one exists. Otherwise {@code null}.
+     */
+    public T getFieldValue(FlatDataContext context) {
+        String fieldValue = context.getFieldValue(this.fieldDescriptor);
         return fieldValue == null ? null : this.valueConverter.convertFromFieldValue(fieldValue);
     }
 }
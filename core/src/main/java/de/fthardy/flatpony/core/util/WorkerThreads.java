@@ -0,0 +1,123 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * The threads which a single concurrent read or write starts besides the calling thread.
+ * <p>
+ * The calling thread starts the threads, waits for their termination and then rethrows the first failure of the
+ * read or write. Since the threads work on the data of a single read or write only, an instance must not be used for
+ * several reads or writes. This implementation is not thread safe!
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+public final class WorkerThreads {
+
+    /**
+     * Rethrow the given failure of a read or write on the calling thread.
+     *
+     * @param failure the failure which is either a runtime exception or an error. Nothing is thrown if it is
+     * {@code null}.
+     */
+    public static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure != null) {
+            throw (Error) failure;
+        }
+    }
+
+    private final ThreadFactory threadFactory;
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * Create a new instance of this class.
+     *
+     * @param threadFactory the factory to create the threads.
+     */
+    public WorkerThreads(ThreadFactory threadFactory) {
+        this.threadFactory = Objects.requireNonNull(threadFactory, "Undefined thread factory!");
+    }
+
+    /**
+     * Create and start a new thread which runs the given task.
+     * <p>
+     * This method should be called in the block of a {@code try} statement which joins the threads in its
+     * {@code finally} block. So the threads which have already been started are joined even when the creation of a
+     * further thread fails.
+     * </p>
+     *
+     * @param task the task to run.
+     */
+    public void start(Runnable task) {
+        Thread thread = this.threadFactory.newThread(task);
+        thread.start();
+        this.threads.add(thread);
+    }
+
+    /**
+     * Interrupt all started threads, e.g. to stop them after a failure.
+     */
+    public void interrupt() {
+        for (Thread thread : this.threads) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Wait until all started threads have terminated.
+     * <p>
+     * If the calling thread is interrupted while waiting, the interruption is reported to the given handler, which
+     * typically records it as the failure of the read or write, and all started threads are interrupted. Nevertheless
+     * this method waits for their termination and only restores the interrupt status of the calling thread
+     * afterwards. An interrupt status which has already been set before this method is called is restored, too.
+     * </p>
+     *
+     * @param interruptionHandler the handler which receives an interruption of the calling thread.
+     */
+    public void join(Consumer<? super InterruptedException> interruptionHandler) {
+        boolean interrupted = Thread.interrupted();
+        for (Thread thread : this.threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    interruptionHandler.accept(e);
+                    this.interrupt();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
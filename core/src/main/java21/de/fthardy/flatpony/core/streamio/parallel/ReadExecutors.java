@@ -0,0 +1,73 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides the threads for blocking reads.
+ * <p>
+ * This is the Java 21 implementation of the multi-release JAR which runs each blocking read on its own virtual thread.
+ * A virtual thread which blocks on I/O releases its carrier thread, so thousands of concurrent reads don't tie up
+ * platform threads.
+ * </p>
+ *
+ * @author Frank Timothy Hardy
+ */
+final class ReadExecutors {
+
+    /**
+     * @return {@code true} if the blocking reads run on virtual threads.
+     */
+    static boolean isVirtual() {
+        return true;
+    }
+
+    /**
+     * @return a new thread factory for threads which run blocking reads.
+     */
+    static ThreadFactory newThreadFactory() {
+        return Thread.ofVirtual().name("flatpony-read-", 0).factory();
+    }
+
+    /**
+     * Create a new executor to run the given number of blocking reads.
+     * <p>
+     * Each read gets its own virtual thread.
+     * </p>
+     *
+     * @param readCount the number of reads to run.
+     *
+     * @return the new executor which must be shut down by the caller.
+     */
+    static ExecutorService newExecutor(int readCount) {
+        return Executors.newThreadPerTaskExecutor(newThreadFactory());
+    }
+
+    private ReadExecutors() {
+        // Provides static methods only
+    }
+}
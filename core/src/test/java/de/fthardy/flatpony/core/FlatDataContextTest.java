@@ -0,0 +1,183 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableField;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.BooleanFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
+import de.fthardy.flatpony.core.streamio.PullReadIterator;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import de.fthardy.flatpony.core.util.FieldReference;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlatDataContextTest {
+
+    private final ObservableFieldDescriptor flagDescriptor = ObservableFieldDescriptor.newInstance(
+            FixedSizeFieldDescriptor.newInstance("Flag").withFieldSize(1).build()).build();
+    private final ObservableFieldDescriptor countDescriptor = ObservableFieldDescriptor.newInstance(
+            FixedSizeFieldDescriptor.newInstance("Count").withFieldSize(1).build()).build();
+    private final FieldReference<Boolean> flagReference = FieldReference.<Boolean>newInstance(flagDescriptor)
+            .usingValueConverter(new BooleanFieldValueConverter("Y", "N")).build();
+    private final CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+            .addComponentItemDescriptors(
+                    flagDescriptor,
+                    countDescriptor,
+                    OptionalItemDescriptor.newInstance(
+                            FixedSizeFieldDescriptor.newInstance("Optional").withFieldSize(2).build())
+                            .withFlagFieldReference(flagReference).build(),
+                    SequenceItemDescriptor.newInstance("Sequence")
+                            .withElementItemDescriptor(
+                                    FixedSizeFieldDescriptor.newInstance("Element").withFieldSize(1).build())
+                            .withCountFieldReference(FieldReference.<Integer>newInstance(countDescriptor)
+                                    .usingValueConverter(new IntegerFieldValueConverter()).build()).build())
+            .build();
+
+    @Test
+    void Contexts_hold_the_referenced_fields_separately() {
+        FlatDataContext context1 = new FlatDataContext();
+        FlatDataContext context2 = new FlatDataContext();
+
+        ObservableField field1 = flagDescriptor.createItemEntity(context1);
+        flagDescriptor.readItemEntityFrom(new StringReader("N"), context2);
+        flagDescriptor.readValue(new StringReader("Y"));
+
+        assertThat(context1.getField(flagDescriptor)).isSameAs(field1);
+        assertThat(flagReference.getReferencedField(context2).getValue()).isFalse();
+        assertThat(flagReference.getFieldValue(context1)).isNull();
+        assertThat(flagReference.getFieldValue()).isTrue();
+        assertThat(FlatDataContext.current().getFieldValue(flagDescriptor)).isEqualTo("Y");
+
+        context2.clear();
+        assertThat(flagReference.getReferencedField(context2)).isNull();
+    }
+
+    @Test
+    void Only_referenced_fields_are_recorded() {
+        FlatDataContext context = new FlatDataContext();
+        ObservableFieldDescriptor unreferencedDescriptor = ObservableFieldDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Unreferenced").withFieldSize(1).build()).build();
+
+        ObservableField field = context.call(() -> unreferencedDescriptor.readItemEntityFrom(new StringReader("X")));
+        context.run(() -> unreferencedDescriptor.readValue(new StringReader("Y")));
+
+        assertThat(field.getValue()).isEqualTo("X");
+        assertThat(context.getField(unreferencedDescriptor)).isNull();
+        assertThat(context.getFieldValue(unreferencedDescriptor)).isNull();
+    }
+
+    @Test
+    void Interleaved_pull_reads_with_separate_contexts() {
+        PullReadIterator iterator1 = recordDescriptor.pullReadFrom(new StringReader("Y2XYab"), new FlatDataContext());
+        PullReadIterator iterator2 = recordDescriptor.pullReadFrom(new StringReader("N1c"), new FlatDataContext());
+        StringBuilder events1 = new StringBuilder();
+        StringBuilder events2 = new StringBuilder();
+
+        while (iterator1.hasNextEvent() || iterator2.hasNextEvent()) {
+            if (iterator1.hasNextEvent()) {
+                iterator1.nextEvent(new EventCollector(events1));
+            }
+            if (iterator2.hasNextEvent()) {
+                iterator2.nextEvent(new EventCollector(events2));
+            }
+        }
+
+        assertThat(events1.toString()).isEqualTo(
+                "<Record>Flag=Y;Count=2;<Optional>Optional=XY;</Optional><Sequence>Element=a;Element=b;</Sequence>" +
+                        "</Record>");
+        assertThat(events2.toString()).isEqualTo(
+                "<Record>Flag=N;Count=1;<Optional></Optional><Sequence>Element=c;</Sequence></Record>");
+    }
+
+    @Test
+    void Concurrent_reads_with_a_shared_descriptor_tree() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                int count = task % 4;
+                boolean flag = task % 2 == 0;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String content = (flag ? "Y" : "N") + count + (flag ? "XY" : "") + "abc".substring(0, count);
+                        // the entity read must consume the whole content
+                        StringReader source = new StringReader(content);
+                        recordDescriptor.readItemEntityFrom(source);
+                        StringBuilder events = new StringBuilder();
+                        recordDescriptor.pushReadFrom(new StringReader(content), new EventCollector(events));
+                        if (source.read() != -1 || events.indexOf("Optional=XY") >= 0 != flag ||
+                                events.toString().split("Element=", -1).length - 1 != count) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final class EventCollector implements CharSequenceStreamReadHandler {
+
+        private final StringBuilder events;
+
+        EventCollector(StringBuilder events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+            this.events.append(fieldDescriptor.getName()).append('=').append(value).append(';');
+        }
+
+        @Override
+        public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.append('<').append(itemDescriptor.getName()).append('>');
+        }
+
+        @Override
+        public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.append("</").append(itemDescriptor.getName()).append('>');
+        }
+    }
+}
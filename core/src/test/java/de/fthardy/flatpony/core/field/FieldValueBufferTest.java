@@ -0,0 +1,83 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FieldValueBufferTest {
+
+    @Test
+    void Cannot_create_buffer_with_capacity_0() {
+        assertThrows(IllegalArgumentException.class, () -> new FieldValueBuffer(0));
+    }
+
+    @Test
+    void Append_and_set_content() {
+        FieldValueBuffer buffer = new FieldValueBuffer(2);
+        assertThat(buffer.length()).isEqualTo(0);
+
+        buffer.append('a');
+        buffer.append('b');
+        buffer.append('c');
+        assertThat(buffer.toString()).isEqualTo("abc");
+        assertThat(buffer.charAt(2)).isEqualTo('c');
+        assertThat(buffer.subSequence(1, 3).toString()).isEqualTo("bc");
+
+        buffer.set("Some longer value");
+        assertThat(buffer.toString()).isEqualTo("Some longer value");
+
+        buffer.set(new StringBuilder("xyz"));
+        assertThat(buffer.toString()).isEqualTo("xyz");
+
+        buffer.clear();
+        assertThat(buffer.toString()).isEmpty();
+    }
+
+    @Test
+    void Fill_backing_array_and_narrow_range() {
+        FieldValueBuffer buffer = new FieldValueBuffer();
+        char[] chars = buffer.allocate(100);
+        assertThat(chars.length).isGreaterThanOrEqualTo(100);
+        "  value  ".getChars(0, 9, chars, 0);
+
+        buffer.setRange(2, 5);
+        assertThat(buffer.getChars()).isSameAs(chars);
+        assertThat(buffer.getOffset()).isEqualTo(2);
+        assertThat(buffer.toString()).isEqualTo("value");
+        assertThat(buffer.charAt(0)).isEqualTo('v');
+
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.charAt(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.subSequence(2, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.setRange(-1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.setRange(0, chars.length + 1));
+    }
+
+    @Test
+    void Buffer_of_current_thread_is_reused() {
+        assertThat(FieldValueBuffer.ofCurrentThread()).isSameAs(FieldValueBuffer.ofCurrentThread());
+    }
+}
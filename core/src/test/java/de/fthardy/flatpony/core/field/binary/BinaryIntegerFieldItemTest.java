@@ -0,0 +1,258 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
+import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
+import de.fthardy.flatpony.core.streamio.PullReadIterator;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BinaryIntegerFieldItemTest {
+
+    private static String content(int... bytes) {
+        return content(StandardCharsets.ISO_8859_1, bytes);
+    }
+
+    private static String content(Charset charset, int... bytes) {
+        byte[] content = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            content[i] = (byte) bytes[i];
+        }
+        return new String(content, charset);
+    }
+
+    @Test
+    void Cannot_create_descriptor_with_invalid_configuration() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(0));
+        assertThrows(IllegalArgumentException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(9));
+        assertThrows(IllegalArgumentException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(8).unsigned());
+        assertThrows(NullPointerException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withByteOrder(null));
+        assertThrows(IllegalArgumentException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(1).withDefaultValue(128).build());
+        assertThrows(IllegalArgumentException.class, () -> BinaryIntegerFieldDescriptor.newInstance("Field")
+                .unsigned().withDefaultValue(-1).build());
+    }
+
+    @Test
+    void Create_descriptor_with_default_configuration() {
+        BinaryIntegerFieldDescriptor fieldDescriptor = BinaryIntegerFieldDescriptor.newInstance("Field").build();
+        assertThat(fieldDescriptor.toString()).startsWith(BinaryIntegerFieldDescriptor.class.getSimpleName());
+
+        assertThat(fieldDescriptor.getName()).isEqualTo("Field");
+        assertThat(fieldDescriptor.getMinLength()).isEqualTo(4);
+        assertThat(fieldDescriptor.isSigned()).isTrue();
+        assertThat(fieldDescriptor.getByteOrder()).isEqualTo(ByteOrder.BIG_ENDIAN);
+        assertThat(fieldDescriptor.getCharset()).isEqualTo(StandardCharsets.ISO_8859_1);
+        assertThat(fieldDescriptor.getDefaultValue()).isEqualTo("0");
+
+        BinaryIntegerField field = fieldDescriptor.createItemEntity();
+
+        assertThat(field.getDescriptor()).isSameAs(fieldDescriptor);
+        assertThat(field.asMutableField()).isSameAs(field);
+        assertThat(field.getLength()).isEqualTo(4);
+        assertThat(field.getValue()).isEqualTo("0");
+
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+
+        assertThat(writer.toString()).isEqualTo(content(0, 0, 0, 0));
+    }
+
+    @Test
+    void Set_field_value() {
+        BinaryIntegerField field = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(2).unsigned().withDefaultValue(42).build().createItemEntity();
+        assertThat(field.getLongValue()).isEqualTo(42L);
+
+        field.setValue("65535");
+        assertThat(field.getLongValue()).isEqualTo(65535L);
+        field.setLongValue(0L);
+        assertThat(field.getValue()).isEqualTo("0");
+
+        assertThrows(IllegalArgumentException.class, () -> field.setLongValue(65536L));
+        assertThrows(IllegalArgumentException.class, () -> field.setValue("-1"));
+        assertThrows(IllegalArgumentException.class, () -> field.setValue("foo"));
+        assertThrows(NullPointerException.class, () -> field.setValue(null));
+        assertThat(field.getLongValue()).isEqualTo(0L);
+    }
+
+    @Test
+    void Apply_handler_to_descriptor() {
+        BinaryIntegerFieldDescriptor descriptor = BinaryIntegerFieldDescriptor.newInstance("Field").build();
+
+        FlatDataItemDescriptorHandler handlerMock = mock(FlatDataItemDescriptorHandler.class);
+        FlatDataFieldDescriptorHandler fieldDescriptorHandlerMock = mock(FlatDataFieldDescriptorHandler.class);
+
+        descriptor.applyHandler(handlerMock);
+        descriptor.applyHandler(fieldDescriptorHandlerMock);
+
+        verify(handlerMock).handleFlatDataItemDescriptor(descriptor);
+        verifyNoMoreInteractions(handlerMock);
+        verify(fieldDescriptorHandlerMock).handleBinaryIntegerFieldDescriptor(descriptor);
+        verifyNoMoreInteractions(fieldDescriptorHandlerMock);
+    }
+
+    @Test
+    void Apply_handler_to_field() {
+        BinaryIntegerField field = BinaryIntegerFieldDescriptor.newInstance("Field").build().createItemEntity();
+        assertThat(field.toString()).startsWith(BinaryIntegerField.class.getSimpleName());
+
+        FlatDataItemEntityHandler handlerMock = mock(FlatDataItemEntityHandler.class);
+        FlatDataFieldHandler fieldHandlerMock = mock(FlatDataFieldHandler.class);
+
+        field.applyHandler(handlerMock);
+        field.applyHandler(fieldHandlerMock);
+
+        verify(handlerMock).handleFlatDataItemEntity(field);
+        verifyNoMoreInteractions(handlerMock);
+        verify(fieldHandlerMock).handleBinaryIntegerField(field);
+        verifyNoMoreInteractions(fieldHandlerMock);
+    }
+
+    @Test
+    void Read_field_from_source_stream() {
+        BinaryIntegerFieldDescriptor signedBigEndian = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(2).build();
+        assertThat(signedBigEndian.readLongValue(new StringReader(content(0x01, 0x02)))).isEqualTo(258L);
+        assertThat(signedBigEndian.readLongValue(new StringReader(content(0xFF, 0xFE)))).isEqualTo(-2L);
+        assertThat(signedBigEndian.readItemEntityFrom(new StringReader(content(0x80, 0x00))).getLongValue())
+                .isEqualTo(Short.MIN_VALUE);
+
+        BinaryIntegerFieldDescriptor unsignedLittleEndian = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(3).unsigned().withByteOrder(ByteOrder.LITTLE_ENDIAN).build();
+        assertThat(unsignedLittleEndian.readValue(new StringReader(content(0xFE, 0xFF, 0xFF)))).isEqualTo("16777214");
+
+        BinaryIntegerFieldDescriptor signedLong = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(8).build();
+        assertThat(signedLong.readLongValue(new StringReader(content(0x80, 0, 0, 0, 0, 0, 0, 0))))
+                .isEqualTo(Long.MIN_VALUE);
+
+        FieldValueBuffer buffer = new FieldValueBuffer(1);
+        signedLong.readValue(new StringReader(content(0x80, 0, 0, 0, 0, 0, 0, 0)), buffer);
+        assertThat(buffer.toString()).isEqualTo(Long.toString(Long.MIN_VALUE));
+        signedBigEndian.readValue(new StringReader(content(0xFF, 0xFE)), buffer);
+        assertThat(buffer.toString()).isEqualTo("-2");
+    }
+
+    @Test
+    void Read_ebcdic_field_from_source_stream() {
+        Charset ebcdic = Charset.forName("IBM1047");
+        BinaryIntegerFieldDescriptor fieldDescriptor = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .useCharset(ebcdic).build();
+
+        String content = content(ebcdic, 0x00, 0x01, 0xE2, 0x40);
+        BinaryIntegerField field = fieldDescriptor.readItemEntityFrom(new StringReader(content));
+        assertThat(field.getLongValue()).isEqualTo(123456L);
+
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content);
+    }
+
+    @Test
+    void Source_stream_is_not_long_enough() {
+        BinaryIntegerFieldDescriptor fieldDescriptor = BinaryIntegerFieldDescriptor.newInstance("Field").build();
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class,
+                () -> fieldDescriptor.readItemEntityFrom(new StringReader(content(0, 1))));
+        assertThat(exception.getMessage()).startsWith(ByteCharMapping.MSG_Read_failed("Field"));
+    }
+
+    @Test
+    void Push_read() {
+        BinaryIntegerFieldDescriptor fieldDescriptor = BinaryIntegerFieldDescriptor.newInstance("Field").build();
+
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+
+        fieldDescriptor.pushReadFrom(new StringReader(content(0xFF, 0xFF, 0xFF, 0x85)), streamReadHandlerMock);
+
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, "-123");
+        verifyNoMoreInteractions(streamReadHandlerMock);
+    }
+
+    @Test
+    void Pull_read() {
+        BinaryIntegerFieldDescriptor fieldDescriptor = BinaryIntegerFieldDescriptor.newInstance("Field").build();
+
+        PullReadIterator pullReadIterator =
+                fieldDescriptor.pullReadFrom(new StringReader(content(0xFF, 0xFF, 0xFF, 0x85)));
+        assertTrue(pullReadIterator.hasNextEvent());
+
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+        pullReadIterator.nextEvent(streamReadHandlerMock);
+
+        assertFalse(pullReadIterator.hasNextEvent());
+
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, "-123");
+        verifyNoMoreInteractions(streamReadHandlerMock);
+    }
+
+    @Test
+    void Write_to_target_stream() {
+        BinaryIntegerField field = BinaryIntegerFieldDescriptor.newInstance("Field")
+                .withFieldSize(2).withByteOrder(ByteOrder.LITTLE_ENDIAN).build().createItemEntity();
+
+        field.setLongValue(-2L);
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content(0xFE, 0xFF));
+
+        field.setValue("258");
+        writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content(0x02, 0x01));
+    }
+
+    @Test
+    void Writing_to_target_stream_fails() throws IOException {
+        Writer writerMock = mock(Writer.class);
+        IOException ioException = new IOException();
+        doThrow(ioException).when(writerMock).write(any(char[].class));
+
+        BinaryIntegerField field = BinaryIntegerFieldDescriptor.newInstance("Field").build().createItemEntity();
+
+        FlatDataWriteException exception = assertThrows(FlatDataWriteException.class, () -> field.writeTo(writerMock));
+        assertThat(exception.getMessage()).isEqualTo(BinaryIntegerField.MSG_Write_failed("Field"));
+        assertThat(exception.getCause()).isSameAs(ioException);
+    }
+}
@@ -0,0 +1,353 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.field.binary;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
+import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
+import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.PullReadIterator;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PackedDecimalFieldItemTest {
+
+    private static String content(int... bytes) {
+        return content(StandardCharsets.ISO_8859_1, bytes);
+    }
+
+    private static String content(Charset charset, int... bytes) {
+        byte[] content = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            content[i] = (byte) bytes[i];
+        }
+        return new String(content, charset);
+    }
+
+    @Test
+    void Cannot_create_descriptor_with_invalid_digits_or_scale() {
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(0));
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(PackedDecimalFieldDescriptor.MAX_DIGITS + 1));
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withScale(6));
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withScale(-1));
+    }
+
+    @Test
+    void Cannot_create_descriptor_with_invalid_default_value() {
+        assertThrows(NullPointerException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withDefaultValue(null));
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withScale(2).withDefaultValue("1.234").build());
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withScale(2).withDefaultValue("1234").build());
+        assertThrows(IllegalArgumentException.class, () -> PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withDefaultValue("foo").build());
+    }
+
+    @Test
+    void Cannot_create_descriptor_with_multi_byte_charset() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).useCharset(StandardCharsets.UTF_8));
+        assertThat(exception.getMessage()).isEqualTo(ByteCharMapping.MSG_Unsupported_charset(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void Create_descriptor_with_default_configuration() {
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(7).withScale(2).build();
+        assertThat(fieldDescriptor.toString()).startsWith(PackedDecimalFieldDescriptor.class.getSimpleName());
+
+        assertThat(fieldDescriptor.getName()).isEqualTo("Field");
+        assertThat(fieldDescriptor.getMinLength()).isEqualTo(4);
+        assertThat(fieldDescriptor.getDigits()).isEqualTo(7);
+        assertThat(fieldDescriptor.getScale()).isEqualTo(2);
+        assertThat(fieldDescriptor.getCharset()).isEqualTo(StandardCharsets.ISO_8859_1);
+        assertThat(fieldDescriptor.getDefaultValue()).isEqualTo("0.00");
+
+        PackedDecimalField field = fieldDescriptor.createItemEntity();
+
+        assertThat(field.getDescriptor()).isSameAs(fieldDescriptor);
+        assertThat(field.asMutableField()).isSameAs(field);
+        assertThat(field.getLength()).isEqualTo(4);
+        assertThat(field.getValue()).isEqualTo("0.00");
+        assertThat(field.getUnscaledValue()).isEqualTo(0L);
+
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+
+        assertThat(writer.toString()).isEqualTo(content(0x00, 0x00, 0x00, 0x0C));
+    }
+
+    @Test
+    void Set_field_value() {
+        PackedDecimalField field = PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(5).withScale(2).withDefaultValue("1.5").build().createItemEntity();
+        assertThat(field.getValue()).isEqualTo("1.50");
+
+        field.setValue("-123.45");
+        assertThat(field.getUnscaledValue()).isEqualTo(-12345L);
+        assertThat(field.getDecimalValue()).isEqualTo(new BigDecimal("-123.45"));
+
+        field.setUnscaledValue(99999L);
+        assertThat(field.getValue()).isEqualTo("999.99");
+
+        field.setDecimalValue(new BigDecimal("0.1"));
+        assertThat(field.getUnscaledValue()).isEqualTo(10L);
+
+        assertThrows(IllegalArgumentException.class, () -> field.setUnscaledValue(100000L));
+        assertThrows(IllegalArgumentException.class, () -> field.setUnscaledValue(-100000L));
+        assertThrows(IllegalArgumentException.class, () -> field.setValue("1000"));
+        assertThrows(IllegalArgumentException.class, () -> field.setValue("0.001"));
+        assertThrows(IllegalArgumentException.class, () -> field.setValue("foo"));
+        assertThrows(NullPointerException.class, () -> field.setValue(null));
+        assertThat(field.getValue()).isEqualTo("0.10");
+    }
+
+    @Test
+    void Apply_handler_to_descriptor() {
+        PackedDecimalFieldDescriptor descriptor = PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).build();
+
+        FlatDataItemDescriptorHandler handlerMock = mock(FlatDataItemDescriptorHandler.class);
+        FlatDataFieldDescriptorHandler fieldDescriptorHandlerMock = mock(FlatDataFieldDescriptorHandler.class);
+
+        descriptor.applyHandler(handlerMock);
+        descriptor.applyHandler(fieldDescriptorHandlerMock);
+
+        verify(handlerMock).handleFlatDataItemDescriptor(descriptor);
+        verifyNoMoreInteractions(handlerMock);
+        verify(fieldDescriptorHandlerMock).handlePackedDecimalFieldDescriptor(descriptor);
+        verifyNoMoreInteractions(fieldDescriptorHandlerMock);
+    }
+
+    @Test
+    void Apply_handler_to_field() {
+        PackedDecimalField field =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).build().createItemEntity();
+        assertThat(field.toString()).startsWith(PackedDecimalField.class.getSimpleName());
+
+        FlatDataItemEntityHandler handlerMock = mock(FlatDataItemEntityHandler.class);
+        FlatDataFieldHandler fieldHandlerMock = mock(FlatDataFieldHandler.class);
+
+        field.applyHandler(handlerMock);
+        field.applyHandler(fieldHandlerMock);
+
+        verify(handlerMock).handleFlatDataItemEntity(field);
+        verifyNoMoreInteractions(handlerMock);
+        verify(fieldHandlerMock).handlePackedDecimalField(field);
+        verifyNoMoreInteractions(fieldHandlerMock);
+    }
+
+    @Test
+    void Read_field_from_source_stream() {
+        PackedDecimalFieldDescriptor oddDigits =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).withScale(2).build();
+        assertThat(oddDigits.readItemEntityFrom(new StringReader(content(0x12, 0x34, 0x5C))).getValue())
+                .isEqualTo("123.45");
+        assertThat(oddDigits.readUnscaledValue(new StringReader(content(0x12, 0x34, 0x5D)))).isEqualTo(-12345L);
+        assertThat(oddDigits.readUnscaledValue(new StringReader(content(0x12, 0x34, 0x5F)))).isEqualTo(12345L);
+        assertThat(oddDigits.readDecimalValue(new StringReader(content(0x00, 0x00, 0x5B))))
+                .isEqualTo(new BigDecimal("-0.05"));
+        assertThat(oddDigits.readValue(new StringReader(content(0x00, 0x00, 0x5B)))).isEqualTo("-0.05");
+
+        PackedDecimalFieldDescriptor evenDigits =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(4).build();
+        assertThat(evenDigits.readUnscaledValue(new StringReader(content(0x01, 0x23, 0x4C)))).isEqualTo(1234L);
+    }
+
+    @Test
+    void Read_field_with_more_than_18_digits() {
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(21).withScale(3).build();
+        String content = content(0x12, 0x34, 0x56, 0x78, 0x90, 0x12, 0x34, 0x56, 0x78, 0x90, 0x1D);
+
+        PackedDecimalField field = fieldDescriptor.readItemEntityFrom(new StringReader(content));
+        assertThat(field.getDecimalValue()).isEqualTo(new BigDecimal("-123456789012345678.901"));
+        assertThrows(ArithmeticException.class, field::getUnscaledValue);
+
+        FieldValueBuffer buffer = new FieldValueBuffer(1);
+        fieldDescriptor.readValue(new StringReader(content), buffer);
+        assertThat(buffer.toString()).isEqualTo("-123456789012345678.901");
+
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content);
+
+        field.setUnscaledValue(-5L);
+        writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x5D));
+    }
+
+    @Test
+    void Read_invalid_content_from_source_stream() {
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(4).build();
+
+        for (String content : new String[] {content(0x00, 0x1A, 0x2C), content(0x00, 0x12, 0x37),
+                content(0x10, 0x12, 0x3C)}) {
+            FlatDataReadException exception = assertThrows(FlatDataReadException.class,
+                    () -> fieldDescriptor.readItemEntityFrom(new StringReader(content)));
+            assertThat(exception.getMessage()).isEqualTo(PackedDecimalFieldDescriptor.MSG_Invalid_packed_decimal("Field"));
+        }
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class,
+                () -> fieldDescriptor.readItemEntityFrom(new StringReader("\u0100\u0000\u000C")));
+        assertThat(exception.getMessage()).isEqualTo(
+                ByteCharMapping.MSG_Unmapped_character("Field", '\u0100', StandardCharsets.ISO_8859_1));
+
+        exception = assertThrows(FlatDataReadException.class,
+                () -> fieldDescriptor.readItemEntityFrom(new StringReader(content(0x00, 0x0C))));
+        assertThat(exception.getMessage()).startsWith(ByteCharMapping.MSG_Read_failed("Field"));
+    }
+
+    @Test
+    void Reading_from_source_stream_fails() throws IOException {
+        Reader readerMock = mock(Reader.class);
+
+        IOException ioException = new IOException();
+        when(readerMock.read(any(char[].class), anyInt(), anyInt())).thenThrow(ioException);
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () ->
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).build().readItemEntityFrom(readerMock));
+        assertThat(exception.getMessage()).isEqualTo(ByteCharMapping.MSG_Read_failed("Field"));
+        assertThat(exception.getCause()).isSameAs(ioException);
+    }
+
+    @Test
+    void Read_value_into_buffer() {
+        FieldValueBuffer buffer = new FieldValueBuffer(1);
+
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(3).withScale(3).build();
+        fieldDescriptor.readValue(new StringReader(content(0x00, 0x7D)), buffer);
+        assertThat(buffer.toString()).isEqualTo("-0.007");
+
+        fieldDescriptor = PackedDecimalFieldDescriptor.newInstance("Field").withDigits(18).withScale(1).build();
+        fieldDescriptor.readValue(new StringReader(
+                content(0x09, 0x99, 0x99, 0x99, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9C)), buffer);
+        assertThat(buffer.toString()).isEqualTo("99999999999999999.9");
+    }
+
+    @Test
+    void Read_and_write_ebcdic_record() {
+        Charset ebcdic = Charset.forName("IBM1047");
+        PackedDecimalFieldDescriptor amountDescriptor = PackedDecimalFieldDescriptor.newInstance("Amount")
+                .withDigits(7).withScale(2).useCharset(ebcdic).build();
+        CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(
+                        FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(4).build(),
+                        amountDescriptor)
+                .build();
+
+        String content = "Pony" + content(ebcdic, 0x01, 0x23, 0x45, 0x6D);
+        assertThat(new String(content.getBytes(ebcdic), ebcdic)).isEqualTo(content);
+
+        CompositeItemEntity record = recordDescriptor.readItemEntityFrom(new StringReader(content));
+        PackedDecimalField amount = (PackedDecimalField) record.getComponentItemEntities().get(1);
+        assertThat(amount.getDecimalValue()).isEqualTo(new BigDecimal("-1234.56"));
+
+        StringWriter writer = new StringWriter();
+        record.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content);
+    }
+
+    @Test
+    void Push_read() {
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).withScale(1).build();
+
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+
+        fieldDescriptor.pushReadFrom(new StringReader(content(0x12, 0x34, 0x5C)), streamReadHandlerMock);
+
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, "1234.5");
+        verifyNoMoreInteractions(streamReadHandlerMock);
+    }
+
+    @Test
+    void Pull_read() {
+        PackedDecimalFieldDescriptor fieldDescriptor =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).withScale(1).build();
+
+        PullReadIterator pullReadIterator = fieldDescriptor.pullReadFrom(new StringReader(content(0x12, 0x34, 0x5C)));
+        assertTrue(pullReadIterator.hasNextEvent());
+
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+        pullReadIterator.nextEvent(streamReadHandlerMock);
+
+        assertFalse(pullReadIterator.hasNextEvent());
+
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, "1234.5");
+        verifyNoMoreInteractions(streamReadHandlerMock);
+    }
+
+    @Test
+    void Write_to_target_stream() {
+        PackedDecimalField field = PackedDecimalFieldDescriptor.newInstance("Field")
+                .withDigits(6).withScale(2).build().createItemEntity();
+
+        field.setValue("1234.56");
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content(0x01, 0x23, 0x45, 0x6C));
+
+        field.setValue("-0.01");
+        writer = new StringWriter();
+        field.writeTo(writer);
+        assertThat(writer.toString()).isEqualTo(content(0x00, 0x00, 0x00, 0x1D));
+    }
+
+    @Test
+    void Writing_to_target_stream_fails() throws IOException {
+        Writer writerMock = mock(Writer.class);
+        IOException ioException = new IOException();
+        doThrow(ioException).when(writerMock).write(any(char[].class));
+
+        PackedDecimalField field =
+                PackedDecimalFieldDescriptor.newInstance("Field").withDigits(5).build().createItemEntity();
+
+        FlatDataWriteException exception = assertThrows(FlatDataWriteException.class, () -> field.writeTo(writerMock));
+        assertThat(exception.getMessage()).isEqualTo(PackedDecimalField.MSG_Write_failed("Field"));
+        assertThat(exception.getCause()).isSameAs(ioException);
+    }
+}
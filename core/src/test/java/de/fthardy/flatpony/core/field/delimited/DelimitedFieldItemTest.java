@@ -25,12 +25,16 @@ package de.fthardy.flatpony.core.field.delimited;
 
 import de.fthardy.flatpony.core.*;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -177,6 +181,64 @@ public class DelimitedFieldItemTest {
         assertThat(field.getValue()).isEqualTo("Test");
     }
 
+    @Test
+    void Cannot_create_descriptor_with_quote_equal_to_delimiter() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                DelimitedFieldDescriptor.newInstance("Field").withDelimiter(';').withQuote(';'));
+
+        assertEquals(DelimitedFieldDescriptor.MSG_Quote_equals_delimiter(';'), exception.getMessage());
+        assertThat(DelimitedFieldDescriptor.newInstance("Field").build().hasQuote()).isFalse();
+        assertThrows(IllegalStateException.class, () -> DelimitedFieldDescriptor.newInstance("Field").build()
+                .getQuote());
+    }
+
+    @Test
+    void Read_quoted_content() {
+        DelimitedFieldDescriptor descriptor = DelimitedFieldDescriptor.newInstance("Field")
+                .withDelimiter(',').withQuote('"').build();
+
+        assertThat(descriptor.hasQuote()).isTrue();
+        assertThat(descriptor.getQuote()).isEqualTo('"');
+
+        Reader reader = new StringReader("\"a,\nb\"\"c\",plain\"x,\"\",\"");
+
+        assertThat(descriptor.readValue(reader)).isEqualTo("a,\nb\"c");
+        assertThat(descriptor.readValue(reader)).isEqualTo("plain\"x");
+
+        FieldValueBuffer buffer = new FieldValueBuffer();
+        descriptor.readValue(reader, buffer);
+        assertThat(buffer.toString()).isEqualTo("");
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () ->
+                descriptor.readValue(reader));
+        assertEquals(DelimitedFieldDescriptor.MSG_Unterminated_quote("Field"), exception.getMessage());
+    }
+
+    @Test
+    void Write_quoted_content() {
+        DelimitedField field = DelimitedFieldDescriptor.newInstance("Field")
+                .withDelimiter(',').withQuote('"').build().createItemEntity();
+
+        field.setValue("plain");
+        assertThat(field.getLength()).isEqualTo(5);
+        StringWriter writer = new StringWriter();
+        field.writeTo(writer);
+
+        field.setValue("a,b\"c");
+        assertThat(field.getLength()).isEqualTo(8);
+        field.writeTo(writer);
+
+        field.setValue("x\ny");
+        field.writeTo(writer);
+
+        assertThat(writer.toString()).isEqualTo("plain,\"a,b\"\"c\",\"x\ny\",");
+
+        Reader reader = new StringReader(writer.toString());
+        assertThat(field.getDescriptor().readValue(reader)).isEqualTo("plain");
+        assertThat(field.getDescriptor().readValue(reader)).isEqualTo("a,b\"c");
+        assertThat(field.getDescriptor().readValue(reader)).isEqualTo("x\ny");
+    }
+
     @Test
     void Reading_from_source_stream_fails() throws IOException {
         DelimitedFieldDescriptor descriptor = DelimitedFieldDescriptor.newInstance("Field").build();
@@ -210,6 +272,23 @@ public class DelimitedFieldItemTest {
         verifyNoMoreInteractions(streamReadHandlerMock);
     }
 
+    @Test
+    void Push_read_with_char_sequence_handler() {
+        DelimitedFieldDescriptor fieldDescriptor = DelimitedFieldDescriptor.newInstance("Field").build();
+
+        List<String> values = new ArrayList<>();
+        CharSequenceStreamReadHandler streamReadHandlerMock = mock(CharSequenceStreamReadHandler.class);
+        doAnswer(invocation -> values.add(invocation.getArgument(1).toString()))
+                .when(streamReadHandlerMock).onFieldItem(same(fieldDescriptor), any(CharSequence.class));
+
+        fieldDescriptor.pushReadFrom(new StringReader("TestTest,Test"), streamReadHandlerMock);
+
+        // the value is handed over in the buffer of the current thread and not as string
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, (CharSequence) FieldValueBuffer.ofCurrentThread());
+        verifyNoMoreInteractions(streamReadHandlerMock);
+        assertThat(values).containsExactly("TestTest");
+    }
+
     @Test
     void Pull_read() {
         DelimitedFieldDescriptor descriptor = DelimitedFieldDescriptor.newInstance("Field").build();
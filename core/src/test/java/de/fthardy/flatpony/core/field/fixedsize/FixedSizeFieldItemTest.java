@@ -24,13 +24,17 @@ SOFTWARE.
 package de.fthardy.flatpony.core.field.fixedsize;
 
 import de.fthardy.flatpony.core.*;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -249,6 +253,27 @@ class FixedSizeFieldItemTest {
                 fieldDescriptor.getName(), fieldDescriptor.getMinLength(), 3));
     }
     
+    @Test
+    void Read_value_into_buffer() {
+        FieldValueBuffer buffer = new FieldValueBuffer(1);
+
+        FixedSizeFieldDescriptor leftPadded = FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(5).build();
+        leftPadded.readValue(new StringReader("Foo  "), buffer);
+        assertThat(buffer.toString()).isEqualTo("Foo");
+
+        FixedSizeFieldDescriptor rightPadded = FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(5)
+                .useContentValueTransformer(new DefaultFieldContentValueTransformer('0', false)).build();
+        rightPadded.readValue(new StringReader("00420"), buffer);
+        assertThat(buffer.toString()).isEqualTo("420");
+        rightPadded.readValue(new StringReader("00000"), buffer);
+        assertThat(buffer.length()).isEqualTo(0);
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class,
+                () -> leftPadded.readValue(new StringReader("Foo"), buffer));
+        assertThat(exception.getMessage()).isEqualTo(FixedSizeFieldDescriptor.MSG_Input_stream_too_short(
+                leftPadded.getName(), leftPadded.getMinLength(), 3));
+    }
+
     @Test
     void Push_read() {
         FixedSizeFieldDescriptor fieldDescriptor = 
@@ -264,6 +289,24 @@ class FixedSizeFieldItemTest {
         verifyNoMoreInteractions(streamReadHandlerMock);
     }
     
+    @Test
+    void Push_read_with_char_sequence_handler() {
+        FixedSizeFieldDescriptor fieldDescriptor =
+                FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(10).build();
+
+        List<String> values = new ArrayList<>();
+        CharSequenceStreamReadHandler streamReadHandlerMock = mock(CharSequenceStreamReadHandler.class);
+        doAnswer(invocation -> values.add(invocation.getArgument(1).toString()))
+                .when(streamReadHandlerMock).onFieldItem(same(fieldDescriptor), any(CharSequence.class));
+
+        fieldDescriptor.pushReadFrom(new StringReader("TestTestTest"), streamReadHandlerMock);
+
+        // the value is handed over in the buffer of the current thread and not as string
+        verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, (CharSequence) FieldValueBuffer.ofCurrentThread());
+        verifyNoMoreInteractions(streamReadHandlerMock);
+        assertThat(values).containsExactly("TestTestTe");
+    }
+
     @Test
     void Pull_read() {
         FixedSizeFieldDescriptor fieldDescriptor =
@@ -25,6 +25,7 @@ package de.fthardy.flatpony.core.field.observable;
 
 import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
@@ -233,6 +234,47 @@ public class ObservableFieldItemTest {
         verifyNoMoreInteractions(fieldMock, fieldDescriptorMock, observerMock1, observerMock2);
     }
 
+    @Test
+    void Observer_added_during_notification_is_notified_from_next_read_on() {
+        FlatDataFieldDescriptor<? extends FlatDataMutableField<?>> fieldDescriptorMock =
+                mock(FlatDataFieldDescriptor.class);
+        when(fieldDescriptorMock.getName()).thenReturn("mock");
+        when(fieldDescriptorMock.readValue(any(Reader.class))).thenReturn("value");
+
+        ObservableFieldDescriptor.Observer lateObserverMock = mock(ObservableFieldDescriptor.Observer.class);
+        ObservableFieldDescriptor.Observer observerMock = mock(ObservableFieldDescriptor.Observer.class);
+        ObservableFieldDescriptor descriptor = ObservableFieldDescriptor.newInstance(fieldDescriptorMock)
+                .addObserver(observerMock).build();
+        doAnswer(i -> {
+            descriptor.addObserver(lateObserverMock);
+            return null;
+        }).doNothing().when(observerMock).onFieldValueRead(descriptor, "value");
+
+        descriptor.readValue(new StringReader(""));
+        verifyZeroInteractions(lateObserverMock);
+
+        descriptor.readValue(new StringReader(""));
+        verify(observerMock, times(2)).onFieldValueRead(descriptor, "value");
+        verify(lateObserverMock).onFieldValueRead(descriptor, "value");
+        assertThat(descriptor.getObservers()).containsExactly(observerMock, lateObserverMock);
+    }
+
+    @Test
+    void Field_without_observers_has_empty_observer_list() {
+        FlatDataMutableField<?> fieldMock = mock(FlatDataMutableField.class);
+        FlatDataFieldDescriptor<? extends FlatDataMutableField<?>> fieldDescriptorMock =
+                mock(FlatDataFieldDescriptor.class);
+        when(fieldDescriptorMock.getName()).thenReturn("mock");
+        when(fieldDescriptorMock.createItemEntity()).thenAnswer(i -> fieldMock);
+
+        ObservableField field = ObservableFieldDescriptor.newInstance(fieldDescriptorMock).build().createItemEntity();
+        field.setValue("new value");
+        field.removeObserver(mock(ObservableField.Observer.class));
+
+        assertThat(field.getObservers()).isEmpty();
+        verify(fieldMock).setValue("new value");
+    }
+
     @Test
     void Apply_handler_to_descriptor() {
         FlatDataFieldDescriptor<? extends FlatDataMutableField<?>>fieldDescriptorMock =
@@ -363,4 +405,25 @@ public class ObservableFieldItemTest {
         
         verifyZeroInteractions(readerMock);
     }
+
+    @Test
+    void Read_value_into_buffer_without_observers_is_delegated() {
+        Reader readerMock = mock(Reader.class);
+
+        FlatDataFieldDescriptor<? extends FlatDataMutableField<?>> fieldDescriptorMock =
+                mock(FlatDataFieldDescriptor.class);
+        when(fieldDescriptorMock.getName()).thenReturn("Field");
+
+        ObservableFieldDescriptor descriptor = ObservableFieldDescriptor.newInstance(fieldDescriptorMock).build();
+        FieldValueBuffer buffer = FieldValueBuffer.ofCurrentThread();
+
+        descriptor.readValue(readerMock, buffer);
+
+        verify(fieldDescriptorMock).getName();
+        verify(fieldDescriptorMock).readValue(readerMock, buffer);
+
+        verifyNoMoreInteractions(fieldDescriptorMock);
+
+        verifyZeroInteractions(readerMock);
+    }
 }
@@ -6,13 +6,22 @@ import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptorHandler;
 import de.fthardy.flatpony.core.field.FlatDataFieldHandler;
 import de.fthardy.flatpony.core.field.FlatDataMutableField;
+import de.fthardy.flatpony.core.field.fixedsize.DefaultFieldContentValueTransformer;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.BigDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.BooleanFieldValueConverter;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConvertException;
 import de.fthardy.flatpony.core.field.typed.converter.FieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.ImpliedDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.streamio.TypedStreamReadHandler;
 import org.junit.jupiter.api.Test;
 
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
+import java.math.BigDecimal;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -136,7 +145,8 @@ public class TypedFieldItemTest {
         
         verifyNoMoreInteractions(fieldDescriptorMock);
         
-        verify(converterMock, times(2)).convertFromFieldValue("Value");
+        // The converted value is cached as long as the field value doesn't change
+        verify(converterMock).convertFromFieldValue("Value");
         verify(converterMock).convertFromFieldValue("New value");
         verify(converterMock).convertToFieldValue("New value");
         verify(converterMock).convertToFieldValue("Other value");
@@ -198,7 +208,8 @@ public class TypedFieldItemTest {
         
         verifyNoMoreInteractions(fieldDescriptorMock);
         
-        verify(converterMock, times(2)).convertFromFieldValue("Value");
+        // The converted value is cached as long as the field value doesn't change
+        verify(converterMock).convertFromFieldValue("Value");
         verify(converterMock).convertToFieldValue("Bad value");
         verify(converterMock).convertToFieldValue("Other very bad value!");
         verify(converterMock).getTargetType();
@@ -485,4 +496,112 @@ public class TypedFieldItemTest {
 
         verifyZeroInteractions(streamReadHandlerMock);
     }
+
+    @Test
+    void Get_value_as_primitive_types() {
+        FlatDataMutableField<?> fieldMock = mock(FlatDataMutableField.class);
+        when(fieldMock.getValue()).thenReturn("  -42");
+
+        FlatDataFieldDescriptor<?> fieldDescriptorMock = mock(FlatDataFieldDescriptor.class);
+        when(fieldDescriptorMock.getName()).thenReturn("Field");
+        when(fieldDescriptorMock.createItemEntity()).then(invocation -> fieldMock);
+
+        TypedFieldDescriptor<Integer> descriptor = TypedFieldDescriptor.<Integer>newInstance(fieldDescriptorMock)
+                .withFieldValueConverter(new IntegerFieldValueConverter()).build();
+
+        TypedField<Integer> field = descriptor.createItemEntity();
+
+        assertThat(field.getValueAsInt()).isEqualTo(-42);
+        assertThat(field.getValueAsLong()).isEqualTo(-42L);
+        assertThat(field.getValueAsDouble()).isEqualTo(-42.0);
+        assertThat(field.getValueAsTargetType()).isEqualTo(-42);
+    }
+
+    @Test
+    void Get_value_as_primitive_type_is_not_supported() {
+        FlatDataMutableField<?> fieldMock = mock(FlatDataMutableField.class);
+        when(fieldMock.getValue()).thenReturn("Value");
+
+        FlatDataFieldDescriptor<?> fieldDescriptorMock = mock(FlatDataFieldDescriptor.class);
+        when(fieldDescriptorMock.getName()).thenReturn("Field");
+        when(fieldDescriptorMock.createItemEntity()).then(invocation -> fieldMock);
+
+        FieldValueConverter<Object> converterMock = mock(FieldValueConverter.class);
+        when(converterMock.convertFromFieldValue(anyString())).then(invocation -> invocation.getArgument(0));
+
+        TypedFieldDescriptor<Object> descriptor = TypedFieldDescriptor
+                .newInstance(fieldDescriptorMock).withFieldValueConverter(converterMock).build();
+
+        TypedField<Object> field = descriptor.createItemEntity();
+
+        UnsupportedOperationException exception = 
+                assertThrows(UnsupportedOperationException.class, field::getValueAsInt);
+        assertThat(exception.getMessage()).isEqualTo(TypedField.MSG_Primitive_conversion_not_supported("Field", "int"));
+        exception = assertThrows(UnsupportedOperationException.class, field::getValueAsLong);
+        assertThat(exception.getMessage()).isEqualTo(TypedField.MSG_Primitive_conversion_not_supported("Field", "long"));
+        exception = assertThrows(UnsupportedOperationException.class, field::getValueAsDouble);
+        assertThat(exception.getMessage()).isEqualTo(
+                TypedField.MSG_Primitive_conversion_not_supported("Field", "double"));
+    }
+
+    @Test
+    void Push_read_with_typed_handler() {
+        FixedSizeFieldDescriptor fieldDescriptor = FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(5)
+                .useContentValueTransformer(new DefaultFieldContentValueTransformer(' ', false)).build();
+        TypedFieldDescriptor<Integer> descriptor = TypedFieldDescriptor.<Integer>newInstance(fieldDescriptor)
+                .withFieldValueConverter(new IntegerFieldValueConverter()).build();
+
+        TypedStreamReadHandler handlerMock = mock(TypedStreamReadHandler.class);
+
+        descriptor.pushReadFrom(new StringReader("  -42"), handlerMock);
+
+        verify(handlerMock).onIntFieldItem(descriptor, -42);
+        verifyNoMoreInteractions(handlerMock);
+    }
+
+    @Test
+    void Push_read_decimal_boolean_and_other_values_with_typed_handler() {
+        FixedSizeFieldDescriptor fieldDescriptor = FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(5)
+                .useContentValueTransformer(new DefaultFieldContentValueTransformer(' ', false)).build();
+        TypedFieldDescriptor<BigDecimal> impliedDecimalDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+                fieldDescriptor).withFieldValueConverter(new ImpliedDecimalFieldValueConverter(2)).build();
+        TypedFieldDescriptor<Boolean> booleanDescriptor = TypedFieldDescriptor.<Boolean>newInstance(fieldDescriptor)
+                .withFieldValueConverter(new BooleanFieldValueConverter("Y", "N")).build();
+        TypedFieldDescriptor<BigDecimal> bigDecimalDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+                fieldDescriptor).withFieldValueConverter(new BigDecimalFieldValueConverter()).build();
+
+        TypedStreamReadHandler handlerMock = mock(TypedStreamReadHandler.class);
+
+        impliedDecimalDescriptor.pushReadFrom(new StringReader("-1234"), handlerMock);
+        booleanDescriptor.pushReadFrom(new StringReader("    Y"), handlerMock);
+        bigDecimalDescriptor.pushReadFrom(new StringReader(" 1.50"), handlerMock);
+
+        verify(handlerMock).onDecimalFieldItem(impliedDecimalDescriptor, -1234L, 2);
+        verify(handlerMock).onBooleanFieldItem(booleanDescriptor, true);
+        verify(handlerMock).onTypedFieldItem(bigDecimalDescriptor, new BigDecimal("1.50"));
+        verifyNoMoreInteractions(handlerMock);
+    }
+
+    @Test
+    void Push_read_with_typed_handler_falls_back_to_string_values() {
+        FixedSizeFieldDescriptor fieldDescriptor = FixedSizeFieldDescriptor.newInstance("Field").withFieldSize(5)
+                .useContentValueTransformer(new DefaultFieldContentValueTransformer(' ', false)).build();
+        TypedFieldDescriptor<Integer> intDescriptor = TypedFieldDescriptor.<Integer>newInstance(fieldDescriptor)
+                .withFieldValueConverter(new IntegerFieldValueConverter()).build();
+        TypedFieldDescriptor<BigDecimal> decimalDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+                fieldDescriptor).withFieldValueConverter(new ImpliedDecimalFieldValueConverter(2)).build();
+        TypedFieldDescriptor<BigDecimal> bigDecimalDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+                fieldDescriptor).withFieldValueConverter(new BigDecimalFieldValueConverter()).build();
+
+        // A handler which implements no typed callback at all gets all values as read strings
+        TypedStreamReadHandler handlerMock = mock(TypedStreamReadHandler.class, CALLS_REAL_METHODS);
+
+        intDescriptor.pushReadFrom(new StringReader("  042"), handlerMock);
+        decimalDescriptor.pushReadFrom(new StringReader("-1234"), handlerMock);
+        bigDecimalDescriptor.pushReadFrom(new StringReader(" 1.5 "), handlerMock);
+
+        verify(handlerMock).onFieldItem(fieldDescriptor, "042");
+        verify(handlerMock).onFieldItem(fieldDescriptor, "-1234");
+        verify(handlerMock).onFieldItem(fieldDescriptor, "1.5 ");
+    }
 }
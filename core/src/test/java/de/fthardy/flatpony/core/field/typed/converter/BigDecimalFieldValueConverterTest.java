@@ -0,0 +1,115 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigDecimalFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_negative_scale() {
+        assertThrows(IllegalArgumentException.class, () -> new BigDecimalFieldValueConverter(-1, RoundingMode.UP));
+    }
+
+    @Test
+    void Cannot_create_with_null_for_rounding_mode() {
+        assertThrows(NullPointerException.class, () -> new BigDecimalFieldValueConverter(2, null));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(BigDecimal.class, new BigDecimalFieldValueConverter().getTargetType());
+    }
+
+    @Test
+    void Convert_with_scale_of_field_value() {
+        BigDecimalFieldValueConverter converter = new BigDecimalFieldValueConverter();
+        assertEquals(-1, converter.getScale());
+        assertEquals(new BigDecimal("123.4500"), converter.convertFromFieldValue(" 123.4500 "));
+        assertEquals(new BigDecimal("-12"), converter.convertFromFieldValue("-12"));
+        assertEquals(new BigDecimal("1.5E+3"), converter.convertFromFieldValue("1.5E+3"));
+        assertEquals(new BigDecimal("12345678901234567890.123"),
+                converter.convertFromFieldValue("12345678901234567890.123"));
+        assertEquals("123.4500", converter.convertToFieldValue(new BigDecimal("123.4500")));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("1,5"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue(""));
+    }
+
+    @Test
+    void Fast_and_slow_path_remove_only_blanks() {
+        BigDecimalFieldValueConverter converter = new BigDecimalFieldValueConverter();
+        assertEquals(new BigDecimal("1.5E+3"), converter.convertFromFieldValue("  1.5E+3 "));
+        assertEquals(new BigDecimal("12345678901234567890.123"),
+                converter.convertFromFieldValue(" 12345678901234567890.123  "));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("\t12.5"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("\t1.5E+3"));
+        assertThrows(FieldValueConvertException.class, () ->
+                converter.convertFromFieldValue("12345678901234567890.123\n"));
+    }
+
+    @Test
+    void Convert_with_fixed_scale() {
+        BigDecimalFieldValueConverter converter = new BigDecimalFieldValueConverter(2, RoundingMode.HALF_EVEN);
+        assertEquals(2, converter.getScale());
+        assertEquals(RoundingMode.HALF_EVEN, converter.getRoundingMode());
+        assertEquals(new BigDecimal("12.00"), converter.convertFromFieldValue("12"));
+        assertEquals(new BigDecimal("12.34"), converter.convertFromFieldValue("12.345"));
+        assertEquals(new BigDecimal("12.36"), converter.convertFromFieldValue("12.355"));
+        assertEquals(new BigDecimal("-12.35"), converter.convertFromFieldValue("-12.3451"));
+        assertEquals("0.10", converter.convertToFieldValue(new BigDecimal("0.1")));
+        assertEquals("-1.00", converter.convertToFieldValue(new BigDecimal("-0.999")));
+    }
+
+    @Test
+    void Rounding_necessary() {
+        BigDecimalFieldValueConverter converter = new BigDecimalFieldValueConverter(2, RoundingMode.UNNECESSARY);
+        assertEquals(new BigDecimal("12.30"), converter.convertFromFieldValue("12.3000"));
+        FieldValueConvertException exception =
+                assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("12.301"));
+        assertEquals(NumericValueParser.MSG_Rounding_necessary("12.301", 2), exception.getMessage());
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToFieldValue(new BigDecimal("1.001")));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_the_JDK() {
+        Random random = new Random(42);
+        RoundingMode[] roundingModes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+        for (int i = 0; i < 20000; i++) {
+            int scale = random.nextInt(8);
+            RoundingMode roundingMode = roundingModes[random.nextInt(roundingModes.length)];
+            BigDecimalFieldValueConverter converter = new BigDecimalFieldValueConverter(scale, roundingMode);
+
+            String fieldValue = randomDecimal(random);
+            BigDecimal expected = new BigDecimal(fieldValue).setScale(scale, roundingMode);
+            BigDecimal actual = converter.convertFromFieldValue(fieldValue);
+            assertEquals(expected, actual, fieldValue + " " + scale + " " + roundingMode);
+            assertEquals(expected.toPlainString(), converter.convertToFieldValue(actual));
+        }
+    }
+
+    static String randomDecimal(Random random) {
+        StringBuilder builder = new StringBuilder();
+        if (random.nextBoolean()) {
+            builder.append('-');
+        }
+        int integerDigits = random.nextInt(20) + 1;
+        for (int i = 0; i < integerDigits; i++) {
+            builder.append((char) ('0' + random.nextInt(10)));
+        }
+        int fractionDigits = random.nextInt(10);
+        if (fractionDigits > 0) {
+            builder.append('.');
+            for (int i = 0; i < fractionDigits; i++) {
+                // Prefer 0, 5 and 9 to hit the rounding boundaries
+                int digit = random.nextInt(13);
+                builder.append(digit < 10 ? (char) ('0' + digit) : digit == 10 ? '0' : digit == 11 ? '5' : '9');
+            }
+        }
+        return builder.toString();
+    }
+}
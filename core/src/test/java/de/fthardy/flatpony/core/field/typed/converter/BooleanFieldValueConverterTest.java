@@ -38,4 +38,13 @@ class BooleanFieldValueConverterTest {
         assertEquals("A", new BooleanFieldValueConverter("A", "B").convertToFieldValue(true));
         assertEquals("B", new BooleanFieldValueConverter("A", "B").convertToFieldValue(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertToBoolean() {
+        BooleanFieldValueConverter converter = new BooleanFieldValueConverter("Yes", "No");
+        assertTrue(converter.convertToBoolean(new StringBuilder("Yes")));
+        assertFalse(converter.convertToBoolean(new StringBuilder("No")));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToBoolean(new StringBuilder("Y")));
+        assertEquals("No", converter.convertFromBoolean(false));
+    }
+}
@@ -0,0 +1,50 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateTimePatternTest {
+
+    @Test
+    void Invalid_patterns() {
+        assertInvalidPattern("yyMMdd", "Invalid number of pattern letters 'y'!");
+        assertInvalidPattern("yyyyMMMdd", "Invalid number of pattern letters 'M'!");
+        assertInvalidPattern("yyyyMMddSSSSSSSSSS", "Invalid number of pattern letters 'S'!");
+        assertInvalidPattern("yyyy-MM-dd EEE", "Unsupported pattern letter 'E'!");
+        assertInvalidPattern("yyyy-MM-dd-dd", "Duplicate pattern letter 'd'!");
+        assertInvalidPattern("yyyy-MM-dd'T", "Unterminated quote!");
+    }
+
+    @Test
+    void Parse_with_quoted_literals() {
+        DateTimePattern pattern = DateTimePattern.compile("yyyy-MM-dd'T'HH''mm");
+        String value = "2019-12-24T18'30";
+        pattern.checkLiterals(value);
+        assertThat(pattern.parseField(value, DateTimePattern.YEAR)).isEqualTo(2019);
+        assertThat(pattern.parseField(value, DateTimePattern.MONTH)).isEqualTo(12);
+        assertThat(pattern.parseField(value, DateTimePattern.DAY)).isEqualTo(24);
+        assertThat(pattern.parseField(value, DateTimePattern.HOUR)).isEqualTo(18);
+        assertThat(pattern.parseField(value, DateTimePattern.MINUTE)).isEqualTo(30);
+        assertThat(pattern.parseField(value, DateTimePattern.SECOND)).isEqualTo(0);
+        assertThat(pattern.hasField(DateTimePattern.SECOND)).isFalse();
+    }
+
+    @Test
+    void Value_does_not_match_pattern() {
+        DateTimePattern pattern = DateTimePattern.compile("yyyy-MM-dd");
+        assertThrows(FieldValueConvertException.class, () -> pattern.checkLiterals("2019-12-2"));
+        assertThrows(FieldValueConvertException.class, () -> pattern.checkLiterals("2019/12/24"));
+        FieldValueConvertException exception =
+                assertThrows(FieldValueConvertException.class, () -> pattern.parseField("2019-1x-24", 1));
+        assertThat(exception.getMessage()).isEqualTo(
+                DateTimePattern.MSG_Value_does_not_match_pattern("2019-1x-24", "yyyy-MM-dd"));
+    }
+
+    private static void assertInvalidPattern(String pattern, String reason) {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> DateTimePattern.compile(pattern));
+        assertThat(exception.getMessage()).isEqualTo(DateTimePattern.MSG_Invalid_pattern(pattern, reason));
+    }
+}
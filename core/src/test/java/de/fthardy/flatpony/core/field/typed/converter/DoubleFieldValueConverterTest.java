@@ -0,0 +1,109 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleFieldValueConverterTest {
+
+    private static final RoundingMode[] ROUNDING_MODES = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING,
+            RoundingMode.FLOOR, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+
+    @Test
+    void Cannot_create_with_negative_scale() {
+        assertThrows(IllegalArgumentException.class, () -> new DoubleFieldValueConverter(-1, RoundingMode.UP));
+    }
+
+    @Test
+    void Cannot_create_with_null_for_rounding_mode() {
+        assertThrows(NullPointerException.class, () -> new DoubleFieldValueConverter(2, null));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(Double.class, new DoubleFieldValueConverter().getTargetType());
+    }
+
+    @Test
+    void Convert_without_scale() {
+        DoubleFieldValueConverter converter = new DoubleFieldValueConverter();
+        assertEquals(-1, converter.getScale());
+        assertEquals(12.5, converter.convertFromFieldValue(" 12.5"));
+        assertEquals(-1.5e-7, converter.convertToDouble("-1.5E-7"));
+        assertEquals("12.5", converter.convertToFieldValue(12.5));
+        assertEquals("NaN", converter.convertFromDouble(Double.NaN));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToDouble("12,5"));
+    }
+
+    @Test
+    void Convert_with_fixed_scale() {
+        DoubleFieldValueConverter converter = new DoubleFieldValueConverter(2, RoundingMode.HALF_UP);
+        assertEquals(2, converter.getScale());
+        assertEquals(RoundingMode.HALF_UP, converter.getRoundingMode());
+        assertEquals(12.35, converter.convertToDouble("12.345"));
+        assertEquals(-12.0, converter.convertToDouble("-12"));
+        assertEquals("1.01", converter.convertFromDouble(1.005));
+        assertEquals("0.10", converter.convertFromDouble(0.1));
+        assertEquals("-3.00", converter.convertFromDouble(-2.999));
+        assertEquals("0.00", converter.convertFromDouble(-0.0));
+        FieldValueConvertException exception = 
+                assertThrows(FieldValueConvertException.class, () -> converter.convertFromDouble(Double.NaN));
+        assertEquals(DoubleFieldValueConverter.MSG_Not_a_finite_value(Double.NaN), exception.getMessage());
+        assertEquals(1500.0, converter.convertToDouble(" 1.5E+3 "));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToDouble("\t1.5E+3"));
+    }
+
+    @Test
+    void Rounding_necessary() {
+        DoubleFieldValueConverter converter = new DoubleFieldValueConverter(1, RoundingMode.UNNECESSARY);
+        assertEquals("0.5", converter.convertFromDouble(0.5));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromDouble(0.25));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToDouble("0.25"));
+    }
+
+    @Test
+    void Parsing_is_the_same_as_with_the_JDK() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int scale = random.nextInt(8);
+            RoundingMode roundingMode = ROUNDING_MODES[random.nextInt(ROUNDING_MODES.length)];
+            DoubleFieldValueConverter converter = new DoubleFieldValueConverter(scale, roundingMode);
+
+            String fieldValue = BigDecimalFieldValueConverterTest.randomDecimal(random);
+            double expected = new BigDecimal(fieldValue).setScale(scale, roundingMode).doubleValue();
+            assertEquals(expected, converter.convertToDouble(fieldValue), fieldValue + " " + scale + " " + roundingMode);
+        }
+    }
+
+    @Test
+    void Formatting_is_the_same_as_with_the_JDK() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int scale = random.nextInt(8);
+            RoundingMode roundingMode = ROUNDING_MODES[random.nextInt(ROUNDING_MODES.length)];
+            DoubleFieldValueConverter converter = new DoubleFieldValueConverter(scale, roundingMode);
+
+            double value;
+            switch (random.nextInt(3)) {
+                case 0:
+                    // Values with few decimal digits which are likely to be on a rounding boundary
+                    value = (random.nextInt(2000001) - 1000000) / Math.pow(10, random.nextInt(scale + 3));
+                    break;
+                case 1:
+                    value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 10);
+                    break;
+                default:
+                    value = Double.longBitsToDouble(random.nextLong());
+                    if (Double.isNaN(value) || Double.isInfinite(value)) {
+                        value = 0.0;
+                    }
+            }
+            String expected = BigDecimal.valueOf(value).setScale(scale, roundingMode).toPlainString();
+            assertEquals(expected, converter.convertFromDouble(value), value + " " + scale + " " + roundingMode);
+        }
+    }
+}
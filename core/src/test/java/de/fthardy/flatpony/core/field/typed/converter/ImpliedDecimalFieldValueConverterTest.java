@@ -0,0 +1,77 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpliedDecimalFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_negative_scale() {
+        assertThrows(IllegalArgumentException.class, () -> new ImpliedDecimalFieldValueConverter(-1));
+    }
+
+    @Test
+    void Cannot_create_with_null_for_rounding_mode() {
+        assertThrows(NullPointerException.class, () -> new ImpliedDecimalFieldValueConverter(2, null));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(BigDecimal.class, new ImpliedDecimalFieldValueConverter(2).getTargetType());
+    }
+
+    @Test
+    void Convert_from_field_value() {
+        ImpliedDecimalFieldValueConverter converter = new ImpliedDecimalFieldValueConverter(2);
+        assertEquals(2, converter.getScale());
+        assertEquals(new BigDecimal("123.45"), converter.convertFromFieldValue("000012345"));
+        assertEquals(new BigDecimal("-0.05"), converter.convertFromFieldValue("   -5"));
+        assertEquals(12345L, converter.convertToUnscaled("000012345"));
+        assertEquals(new BigDecimal("123456789012345678901.23"),
+                converter.convertFromFieldValue("12345678901234567890123"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("123.45"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("1234567890123456789x"));
+
+        // Only blanks are trimmed regardless of the length of the value
+        assertEquals(new BigDecimal("123456789012345678901.23"),
+                converter.convertFromFieldValue("  12345678901234567890123  "));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("12345\t"));
+        assertThrows(FieldValueConvertException.class, () ->
+                converter.convertFromFieldValue("12345678901234567890123\t"));
+    }
+
+    @Test
+    void Convert_to_field_value() {
+        ImpliedDecimalFieldValueConverter converter = new ImpliedDecimalFieldValueConverter(2);
+        assertEquals("12345", converter.convertToFieldValue(new BigDecimal("123.45")));
+        assertEquals("1200", converter.convertToFieldValue(new BigDecimal("12")));
+        assertEquals("-005", converter.convertToFieldValue(new BigDecimal("-0.05")));
+        assertEquals("000", converter.convertToFieldValue(BigDecimal.ZERO));
+        assertEquals("12345678901234567890123",
+                converter.convertToFieldValue(new BigDecimal("123456789012345678901.23")));
+        assertEquals("-9223372036854775808", converter.convertFromUnscaled(Long.MIN_VALUE));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToFieldValue(new BigDecimal("1.234")));
+
+        ImpliedDecimalFieldValueConverter roundingConverter =
+                new ImpliedDecimalFieldValueConverter(2, RoundingMode.HALF_UP);
+        assertEquals("124", roundingConverter.convertToFieldValue(new BigDecimal("1.235")));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_BigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int scale = random.nextInt(6);
+            ImpliedDecimalFieldValueConverter converter = new ImpliedDecimalFieldValueConverter(scale);
+            BigDecimal value = new BigDecimal(random.nextLong() >> random.nextInt(64)).movePointLeft(scale);
+            String fieldValue = converter.convertToFieldValue(value);
+            assertEquals(value, converter.convertFromFieldValue(fieldValue));
+            assertEquals(value.unscaledValue().longValue(), converter.convertToUnscaled(fieldValue));
+        }
+    }
+}
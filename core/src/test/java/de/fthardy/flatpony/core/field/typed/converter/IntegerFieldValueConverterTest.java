@@ -20,4 +20,32 @@ class IntegerFieldValueConverterTest {
     void convertToFieldValue() {
         assertEquals("42", new IntegerFieldValueConverter().convertToFieldValue(42));
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertToInt() {
+        IntegerFieldValueConverter converter = new IntegerFieldValueConverter();
+        assertEquals(42, converter.convertToInt("42"));
+        assertEquals(42, converter.convertToInt("  +0042 "));
+        assertEquals(-42, converter.convertToInt(" -42"));
+        assertEquals(Integer.MAX_VALUE, converter.convertToInt("2147483647"));
+        assertEquals(Integer.MIN_VALUE, converter.convertToInt("-2147483648"));
+    }
+
+    @Test
+    void convertToInt_invalid_values() {
+        IntegerFieldValueConverter converter = new IntegerFieldValueConverter();
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt(""));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("   "));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("-"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("4 2"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("42a"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("2147483648"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("-2147483649"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToInt("99999999999999999999"));
+    }
+
+    @Test
+    void convertFromInt() {
+        assertEquals("-42", new IntegerFieldValueConverter().convertFromInt(-42));
+    }
+}
@@ -0,0 +1,70 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDateFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_invalid_pattern() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalDateFieldValueConverter("yyyyMM"));
+        assertThrows(IllegalArgumentException.class, () -> new LocalDateFieldValueConverter("yyyyMMddHH"));
+    }
+
+    @Test
+    void Cannot_create_with_negative_cache_size() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalDateFieldValueConverter("yyyyMMdd", -1));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(LocalDate.class, new LocalDateFieldValueConverter("yyyyMMdd").getTargetType());
+    }
+
+    @Test
+    void Convert_from_and_to_field_value() {
+        LocalDateFieldValueConverter converter = new LocalDateFieldValueConverter("yyyy-MM-dd");
+        assertEquals(LocalDate.of(2019, 12, 24), converter.convertFromFieldValue("2019-12-24"));
+        assertEquals("0042-01-02", converter.convertToFieldValue(LocalDate.of(42, 1, 2)));
+    }
+
+    @Test
+    void Invalid_values() {
+        LocalDateFieldValueConverter converter = new LocalDateFieldValueConverter("yyyyMMdd");
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("20190230"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("2019123"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("2019 224"));
+        FieldValueConvertException exception = assertThrows(FieldValueConvertException.class,
+                () -> converter.convertToFieldValue(LocalDate.of(10000, 1, 1)));
+        assertThat(exception.getMessage()).isEqualTo(
+                DateTimePattern.MSG_Value_cannot_be_formatted(LocalDate.of(10000, 1, 1), "yyyyMMdd"));
+    }
+
+    @Test
+    void Cached_dates_are_reused() {
+        LocalDateFieldValueConverter converter = new LocalDateFieldValueConverter("yyyyMMdd", 16);
+        LocalDate date = converter.convertFromFieldValue("20191224");
+        assertThat(converter.convertFromFieldValue("20191224")).isSameAs(date);
+        assertThat(converter.convertFromFieldValue("20191225")).isEqualTo(LocalDate.of(2019, 12, 25));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("20191232"));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_the_DateTimeFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+        LocalDateFieldValueConverter converter = new LocalDateFieldValueConverter("yyyyMMdd", 4);
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            LocalDate date = LocalDate.ofEpochDay(random.nextInt(2000000) - 700000);
+            String fieldValue = formatter.format(date);
+            assertEquals(fieldValue, converter.convertToFieldValue(date));
+            assertEquals(date, converter.convertFromFieldValue(fieldValue));
+        }
+    }
+}
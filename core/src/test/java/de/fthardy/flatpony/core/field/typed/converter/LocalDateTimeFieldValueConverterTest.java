@@ -0,0 +1,52 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDateTimeFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_invalid_pattern() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalDateTimeFieldValueConverter("yyyyMMdd"));
+        assertThrows(IllegalArgumentException.class, () -> new LocalDateTimeFieldValueConverter("yyyyMMddHHmm", -1));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(LocalDateTime.class, new LocalDateTimeFieldValueConverter("yyyyMMddHHmm").getTargetType());
+    }
+
+    @Test
+    void Convert_from_and_to_field_value() {
+        LocalDateTimeFieldValueConverter converter = 
+                new LocalDateTimeFieldValueConverter("yyyy-MM-dd-HH.mm.ss.SSSSSS", 8);
+        LocalDateTime timestamp = converter.convertFromFieldValue("2019-12-24-18.30.05.123456");
+        assertEquals(LocalDateTime.of(2019, 12, 24, 18, 30, 5, 123456000), timestamp);
+        assertEquals("2019-12-24-18.30.05.123456", converter.convertToFieldValue(timestamp));
+        assertThat(converter.convertFromFieldValue("2019-12-24-07.00.00.000000").toLocalDate())
+                .isSameAs(timestamp.toLocalDate());
+        assertThrows(FieldValueConvertException.class, 
+                () -> converter.convertFromFieldValue("2019-12-24-25.30.05.123456"));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_the_DateTimeFormatter() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+        LocalDateTimeFieldValueConverter converter = new LocalDateTimeFieldValueConverter("yyyyMMddHHmmssSSS");
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            LocalDateTime timestamp = LocalDateTime.of(1900 + random.nextInt(300), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextInt(1000) * 1000000);
+            String fieldValue = formatter.format(timestamp);
+            assertEquals(fieldValue, converter.convertToFieldValue(timestamp));
+            assertEquals(timestamp, converter.convertFromFieldValue(fieldValue));
+        }
+    }
+}
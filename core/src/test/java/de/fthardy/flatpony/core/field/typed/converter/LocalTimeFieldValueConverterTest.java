@@ -0,0 +1,46 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalTimeFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_invalid_pattern() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalTimeFieldValueConverter("HH"));
+        assertThrows(IllegalArgumentException.class, () -> new LocalTimeFieldValueConverter("ddHHmm"));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(LocalTime.class, new LocalTimeFieldValueConverter("HHmmss").getTargetType());
+    }
+
+    @Test
+    void Convert_from_and_to_field_value() {
+        LocalTimeFieldValueConverter converter = new LocalTimeFieldValueConverter("HHmmss");
+        assertEquals(LocalTime.of(18, 30, 5), converter.convertFromFieldValue("183005"));
+        assertEquals("073000", converter.convertToFieldValue(LocalTime.of(7, 30)));
+
+        converter = new LocalTimeFieldValueConverter("HH:mm");
+        assertEquals(LocalTime.of(18, 30), converter.convertFromFieldValue("18:30"));
+        assertEquals("18:30", converter.convertToFieldValue(LocalTime.of(18, 30, 59)));
+    }
+
+    @Test
+    void Convert_fraction_of_second() {
+        LocalTimeFieldValueConverter converter = new LocalTimeFieldValueConverter("HH.mm.ss.SSS");
+        assertEquals(LocalTime.of(18, 30, 5, 120000000), converter.convertFromFieldValue("18.30.05.120"));
+        assertEquals("18.30.05.123", converter.convertToFieldValue(LocalTime.of(18, 30, 5, 123999999)));
+    }
+
+    @Test
+    void Invalid_values() {
+        LocalTimeFieldValueConverter converter = new LocalTimeFieldValueConverter("HHmmss");
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("246000"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("12:00"));
+    }
+}
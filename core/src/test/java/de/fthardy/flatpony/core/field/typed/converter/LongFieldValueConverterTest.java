@@ -0,0 +1,40 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongFieldValueConverterTest {
+
+    @Test
+    void getTargetType() {
+        assertEquals(Long.class, new LongFieldValueConverter().getTargetType());
+    }
+
+    @Test
+    void convertFromFieldValue() {
+        LongFieldValueConverter converter = new LongFieldValueConverter();
+        assertEquals(42L, converter.convertFromFieldValue("42"));
+        assertEquals(-42L, converter.convertFromFieldValue("  -0042"));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue("42L"));
+    }
+
+    @Test
+    void convertToFieldValue() {
+        assertEquals("42", new LongFieldValueConverter().convertToFieldValue(42L));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_the_JDK() {
+        LongFieldValueConverter converter = new LongFieldValueConverter();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            String fieldValue = converter.convertFromLong(value);
+            assertEquals(Long.toString(value), fieldValue);
+            assertEquals(Long.parseLong(fieldValue), converter.convertToLong(fieldValue));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumericValueParserTest {
+
+    @Test
+    void Parse_long() {
+        assertEquals(0L, NumericValueParser.parseLong("0"));
+        assertEquals(123L, NumericValueParser.parseLong("  123  "));
+        assertEquals(-123L, NumericValueParser.parseLong("-000123"));
+        assertEquals(Long.MAX_VALUE, NumericValueParser.parseLong("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, NumericValueParser.parseLong("-9223372036854775808"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseLong("9223372036854775808"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseLong("-9223372036854775809"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseLong("+"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseLong("1.0"));
+    }
+
+    @Test
+    void Parse_double_like_the_jdk() {
+        String[] values = {"0", "-0", "0.0", "1", "-1", "1.", ".5", "3.14159", "-2.5e-3", "1E10", "1e+22", "1e23",
+                "123456789012345678901234567890", "0.000000000000000000000000001", "4.9e-324", "1.7976931348623157E308",
+                "9007199254740993", "0.1", "NaN", "-Infinity", "1d"};
+        for (String value : values) {
+            assertThat(NumericValueParser.parseDouble(value)).as(value).isEqualTo(Double.parseDouble(value));
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            String value = random.nextInt(2000000) - 1000000 + "." + random.nextInt(1000000);
+            assertThat(NumericValueParser.parseDouble(value)).as(value).isEqualTo(Double.parseDouble(value));
+            value = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            assertThat(NumericValueParser.parseDouble(value)).as(value).isEqualTo(Double.parseDouble(value));
+        }
+    }
+
+    @Test
+    void Parse_double_invalid_values() {
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseDouble(""));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseDouble("."));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseDouble("1e"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseDouble("1.2.3"));
+        assertThrows(FieldValueConvertException.class, () -> NumericValueParser.parseDouble("abc"));
+    }
+}
@@ -0,0 +1,92 @@
+package de.fthardy.flatpony.core.field.typed.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverpunchFieldValueConverterTest {
+
+    @Test
+    void Cannot_create_with_negative_scale() {
+        assertThrows(IllegalArgumentException.class, () -> new OverpunchFieldValueConverter(-1));
+    }
+
+    @Test
+    void Cannot_create_with_null_for_rounding_mode() {
+        assertThrows(NullPointerException.class, () -> new OverpunchFieldValueConverter(2, null));
+    }
+
+    @Test
+    void getTargetType() {
+        assertEquals(BigDecimal.class, new OverpunchFieldValueConverter(2).getTargetType());
+    }
+
+    @Test
+    void Convert_from_field_value() {
+        OverpunchFieldValueConverter converter = new OverpunchFieldValueConverter(2);
+        assertEquals(2, converter.getScale());
+        assertEquals(new BigDecimal("123.40"), converter.convertFromFieldValue("0001234{"));
+        assertEquals(new BigDecimal("123.41"), converter.convertFromFieldValue("0001234A"));
+        assertEquals(new BigDecimal("123.49"), converter.convertFromFieldValue("0001234I"));
+        assertEquals(new BigDecimal("-123.40"), converter.convertFromFieldValue("0001234}"));
+        assertEquals(new BigDecimal("-123.41"), converter.convertFromFieldValue("0001234J"));
+        assertEquals(new BigDecimal("-123.49"), converter.convertFromFieldValue("0001234R"));
+        assertEquals(new BigDecimal("123.45"), converter.convertFromFieldValue("  12345"));
+        assertEquals(-12345L, converter.convertToUnscaled("0001234N"));
+        assertEquals(new BigDecimal("-123456789012345678901.23"),
+                converter.convertFromFieldValue("1234567890123456789012L"));
+    }
+
+    @Test
+    void Invalid_field_values() {
+        OverpunchFieldValueConverter converter = new OverpunchFieldValueConverter(2);
+        assertInvalid(converter, "");
+        assertInvalid(converter, "   ");
+        assertInvalid(converter, "1234S");
+        assertInvalid(converter, "12-4A");
+        assertInvalid(converter, "-1234A");
+        assertInvalid(converter, "12345678901234567890S");
+        assertInvalid(converter, "-1234567890123456789012A");
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToUnscaled("9999999999999999999{"));
+    }
+
+    @Test
+    void Convert_to_field_value() {
+        OverpunchFieldValueConverter converter = new OverpunchFieldValueConverter(2);
+        assertEquals("1234{", converter.convertToFieldValue(new BigDecimal("123.40")));
+        assertEquals("1234J", converter.convertToFieldValue(new BigDecimal("-123.41")));
+        assertEquals("00{", converter.convertToFieldValue(BigDecimal.ZERO));
+        assertEquals("1234567890123456789012L",
+                converter.convertToFieldValue(new BigDecimal("-123456789012345678901.23")));
+        assertEquals("922337203685477580Q", converter.convertFromUnscaled(Long.MIN_VALUE));
+        assertThrows(FieldValueConvertException.class, () -> converter.convertToFieldValue(new BigDecimal("1.234")));
+
+        OverpunchFieldValueConverter roundingConverter = new OverpunchFieldValueConverter(2, RoundingMode.HALF_UP);
+        assertEquals("12D", roundingConverter.convertToFieldValue(new BigDecimal("1.235")));
+    }
+
+    @Test
+    void Conversions_are_the_same_as_those_of_BigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int scale = random.nextInt(6);
+            OverpunchFieldValueConverter converter = new OverpunchFieldValueConverter(scale);
+            BigDecimal value = new BigDecimal(random.nextLong() >> random.nextInt(64)).movePointLeft(scale);
+            String fieldValue = converter.convertToFieldValue(value);
+            assertThat(fieldValue.length()).isGreaterThan(scale);
+            assertEquals(value, converter.convertFromFieldValue(fieldValue));
+            assertEquals(value.unscaledValue().longValue(), converter.convertToUnscaled(fieldValue));
+        }
+    }
+
+    private static void assertInvalid(OverpunchFieldValueConverter converter, String fieldValue) {
+        FieldValueConvertException exception =
+                assertThrows(FieldValueConvertException.class, () -> converter.convertFromFieldValue(fieldValue));
+        assertEquals(OverpunchFieldValueConverter.MSG_Invalid_overpunch_value(fieldValue), exception.getMessage());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchedRecordReaderTest {
+
+    private final FixedSizeFieldDescriptor nameDescriptor =
+            FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+    private final FixedSizeFieldDescriptor ageDescriptor =
+            FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build();
+    private final DelimitedItemDescriptor recordDescriptor = DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Person")
+                    .addComponentItemDescriptors(nameDescriptor, ageDescriptor).build()).withDelimiter('\n').build();
+
+    @Test
+    void Cannot_create_with_null_descriptor() {
+        assertThrows(NullPointerException.class, () -> BatchedRecordReader.newInstance(null));
+    }
+
+    @Test
+    void Cannot_create_with_invalid_limits() {
+        assertThrows(IllegalArgumentException.class, () ->
+                BatchedRecordReader.newInstance(recordDescriptor).withMaxRecordCount(0));
+        assertThrows(IllegalArgumentException.class, () ->
+                BatchedRecordReader.newInstance(recordDescriptor).withMaxCharCount(0));
+    }
+
+    @Test
+    void Create_reader_with_default_configuration() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).build();
+        assertThat(reader.getMaxRecordCount()).isEqualTo(BatchedRecordReader.DEFAULT_MAX_RECORD_COUNT);
+        assertThat(reader.getMaxCharCount()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void Read_batches_limited_by_record_count() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).withMaxRecordCount(2).build();
+
+        List<String> batches = new ArrayList<>();
+        List<RecordBatch> batchInstances = new ArrayList<>();
+        long recordCount = reader.readFrom(new StringReader("Bob42\nTom07\nAnn33\n"), batch -> {
+            batchInstances.add(batch);
+            batches.add(describe(batch));
+        });
+
+        assertThat(recordCount).isEqualTo(3);
+        assertThat(batches).containsExactly("[Name=Bob, Age=42][Name=Tom, Age=07]", "[Name=Ann, Age=33]");
+        assertThat(batchInstances.get(1)).isSameAs(batchInstances.get(0));
+        assertThat(batchInstances.get(0).getRecordCount()).isEqualTo(0);
+    }
+
+    @Test
+    void Read_batches_limited_by_char_count() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).withMaxCharCount(8).build();
+
+        List<String> batches = new ArrayList<>();
+        reader.readFrom(new StringReader("Bob42\nTom07\nAnn33"), batch -> batches.add(describe(batch)));
+
+        assertThat(batches).containsExactly("[Name=Bob, Age=42][Name=Tom, Age=07]", "[Name=Ann, Age=33]");
+    }
+
+    @Test
+    void Read_from_source_without_mark_support() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).build();
+
+        List<String> batches = new ArrayList<>();
+        long recordCount = reader.readFrom(new FilterReader(new StringReader("Bob42\nTom07\n")) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        }, batch -> batches.add(describe(batch)));
+
+        assertThat(recordCount).isEqualTo(2);
+        assertThat(batches).containsExactly("[Name=Bob, Age=42][Name=Tom, Age=07]");
+    }
+
+    @Test
+    void Read_from_empty_source() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).build();
+
+        assertThat(reader.readFrom(new StringReader(""), batch -> fail("No batch expected!"))).isEqualTo(0);
+    }
+
+    @Test
+    void Access_values_of_a_batch() {
+        BatchedRecordReader reader = BatchedRecordReader.newInstance(recordDescriptor).build();
+
+        reader.readFrom(new StringReader("Bob42\n"), batch -> {
+            assertThat(batch.getRecordCount()).isEqualTo(1);
+            assertThat(batch.getCharCount()).isEqualTo(5);
+            assertThat(batch.getFieldCount(0)).isEqualTo(2);
+            assertThat(batch.getFieldDescriptor(0, 1)).isSameAs(ageDescriptor);
+            assertThat(new String(batch.getChars(), batch.getValueOffset(0, 1), batch.getValueLength(0, 1)))
+                    .isEqualTo("42");
+            FieldValueBuffer buffer = new FieldValueBuffer();
+            batch.copyValue(0, 0, buffer);
+            assertThat(buffer.toString()).isEqualTo("Bob");
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.getValue(1, 0));
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.getValue(0, 2));
+        });
+    }
+
+    private static String describe(RecordBatch batch) {
+        StringBuilder builder = new StringBuilder();
+        for (int record = 0; record < batch.getRecordCount(); record++) {
+            builder.append('[');
+            for (int field = 0; field < batch.getFieldCount(record); field++) {
+                if (field > 0) {
+                    builder.append(", ");
+                }
+                builder.append(batch.getFieldDescriptor(record, field).getName()).append('=')
+                        .append(batch.getValue(record, field));
+            }
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+}
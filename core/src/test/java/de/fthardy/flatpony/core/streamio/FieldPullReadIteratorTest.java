@@ -23,11 +23,15 @@ SOFTWARE.
  */
 package de.fthardy.flatpony.core.streamio;
 
+import de.fthardy.flatpony.core.field.FieldValueBuffer;
 import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
 import org.junit.jupiter.api.Test;
 
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -71,4 +75,25 @@ class FieldPullReadIteratorTest {
         verify(streamReadHandlerMock).onFieldItem(descriptor, "TEST");
         verifyNoMoreInteractions(streamReadHandlerMock);
     }
-}
\ No newline at end of file
+
+    @Test
+    void Iteration_process_with_char_sequence_handler() {
+        FixedSizeFieldDescriptor descriptor = FixedSizeFieldDescriptor.newInstance("Fixed").withFieldSize(5).build();
+
+        FieldPullReadIterator<FixedSizeFieldDescriptor> iterator =
+                new FieldPullReadIterator<>(descriptor, new StringReader("Foo  Bar"));
+
+        List<String> values = new ArrayList<>();
+        CharSequenceStreamReadHandler streamReadHandlerMock = mock(CharSequenceStreamReadHandler.class);
+        doAnswer(invocation -> values.add(invocation.getArgument(1).toString()))
+                .when(streamReadHandlerMock).onFieldItem(same(descriptor), any(CharSequence.class));
+
+        iterator.nextEvent(streamReadHandlerMock);
+
+        assertFalse(iterator.hasNextEvent());
+
+        verify(streamReadHandlerMock).onFieldItem(descriptor, (CharSequence) FieldValueBuffer.ofCurrentThread());
+        verifyNoMoreInteractions(streamReadHandlerMock);
+        assertThat(values).containsExactly("Foo");
+    }
+}
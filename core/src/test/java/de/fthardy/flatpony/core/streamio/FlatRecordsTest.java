@@ -0,0 +1,154 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemEntities;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.delimited.DelimitedFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.fthardy.flatpony.core.FlatDataItemEntities.contentOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlatRecordsTest {
+
+    private final CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+            .addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void Determine_fixed_length() {
+        assertThat(FlatRecords.getFixedLength(recordDescriptor)).isEqualTo(7);
+        assertThat(FlatRecords.getFixedLength(DelimitedItemDescriptor.newInstance(recordDescriptor)
+                .withDelimiter('\n').build())).isEqualTo(8);
+        assertThat(FlatRecords.getFixedLength(SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(recordDescriptor).withMultiplicity(3, 3).build())).isEqualTo(21);
+        assertThat(FlatRecords.getFixedLength(SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(recordDescriptor).withMultiplicity(1, 3).build())).isNegative();
+        assertThat(FlatRecords.getFixedLength(CompositeItemDescriptor.newInstance("Mixed").addComponentItemDescriptors(
+                FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                DelimitedFieldDescriptor.newInstance("Name").build()).build())).isNegative();
+    }
+
+    @Test
+    void Stream_records_from_reader_lazily_and_close_the_reader() {
+        AtomicBoolean closed = new AtomicBoolean();
+        StringReader source = new StringReader("0001abc0002def0003ghi") {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        try (Stream<FlatDataItemEntity<?>> stream = FlatRecords.stream(recordDescriptor, source)) {
+            assertThat(stream.limit(2).map(FlatDataItemEntities::contentOf).collect(Collectors.toList()))
+                    .containsExactly("0001abc", "0002def");
+            assertThat(closed).isFalse();
+        }
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void Stream_fixed_length_records_from_char_sequence_in_parallel() {
+        String content = createContent(10_000);
+
+        Spliterator<FlatDataItemEntity<?>> spliterator = FlatRecords.stream(recordDescriptor, content).spliterator();
+        assertThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+        assertThat(spliterator.estimateSize()).isEqualTo(10_000);
+        Spliterator<FlatDataItemEntity<?>> prefix = spliterator.trySplit();
+        assertThat(prefix.estimateSize()).isEqualTo(5_000);
+        assertThat(spliterator.estimateSize()).isEqualTo(5_000);
+
+        List<String> ids = FlatRecords.stream(recordDescriptor, content).parallel()
+                .map(entity -> contentOf(entity).substring(0, 4)).collect(Collectors.toList());
+        assertThat(ids).hasSize(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(ids.get(i)).isEqualTo(String.format("%04d", i));
+        }
+    }
+
+    @Test
+    void Stream_fixed_length_records_from_file_in_parallel() throws IOException {
+        String content = createContent(20_000);
+        Path file = Files.write(tempDir.resolve("records.txt"), content.getBytes(StandardCharsets.ISO_8859_1));
+
+        try (Stream<FlatDataItemEntity<?>> stream =
+                     FlatRecords.stream(recordDescriptor, file, StandardCharsets.ISO_8859_1)) {
+            assertThat(stream.parallel().map(FlatDataItemEntities::contentOf).collect(Collectors.joining()))
+                    .isEqualTo(content);
+        }
+        try (Stream<FlatDataItemEntity<?>> stream =
+                     FlatRecords.stream(recordDescriptor, file, StandardCharsets.ISO_8859_1)) {
+            assertThat(stream.spliterator().trySplit()).isNotNull();
+        }
+
+        // a multi byte charset cannot be split at byte positions
+        try (Stream<FlatDataItemEntity<?>> stream =
+                     FlatRecords.stream(recordDescriptor, file, StandardCharsets.UTF_8)) {
+            Spliterator<FlatDataItemEntity<?>> spliterator = stream.spliterator();
+            assertThat(spliterator.trySplit()).isNull();
+            assertThat(spliterator.tryAdvance(entity -> assertThat(contentOf(entity)).isEqualTo("0000abc")))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    void Incomplete_last_record_fails_like_a_sequential_read() {
+        try (Stream<FlatDataItemEntity<?>> stream = FlatRecords.stream(recordDescriptor, "0001abc0002d")) {
+            assertThrows(FlatDataReadException.class, () -> stream.parallel().collect(Collectors.toList()));
+        }
+        assertThrows(FlatDataReadException.class, () -> FlatRecords.stream(
+                recordDescriptor, tempDir.resolve("missing.txt"), StandardCharsets.ISO_8859_1));
+    }
+
+    private static String createContent(int recordCount) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < recordCount; i++) {
+            content.append(String.format("%04dabc", i % 10_000));
+        }
+        return content.toString();
+    }
+}
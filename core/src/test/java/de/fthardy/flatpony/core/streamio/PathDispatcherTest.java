@@ -0,0 +1,144 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathDispatcherTest {
+
+    private final FixedSizeFieldDescriptor nameDescriptor =
+            FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+    private final TypedFieldDescriptor<Integer> ageDescriptor = TypedFieldDescriptor.<Integer>newInstance(
+            FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build())
+            .withFieldValueConverter(new IntegerFieldValueConverter()).build();
+    private final CompositeItemDescriptor personDescriptor = CompositeItemDescriptor.newInstance("Person")
+            .addComponentItemDescriptors(nameDescriptor, ageDescriptor).build();
+    private final SequenceItemDescriptor tagsDescriptor = SequenceItemDescriptor.newInstance("Tags")
+            .withElementItemDescriptor(FixedSizeFieldDescriptor.newInstance("Tag").withFieldSize(1).build())
+            .withMultiplicity(3, 3).build();
+    private final CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+            .addComponentItemDescriptors(personDescriptor, tagsDescriptor).build();
+
+    @Test
+    void Cannot_create_with_invalid_subscriptions() {
+        assertThrows(NullPointerException.class, () -> PathDispatcher.newInstance(null));
+        assertThrows(IllegalArgumentException.class, () -> PathDispatcher.newInstance(recordDescriptor)
+                .onField("Record//Name", (d, v) -> {}));
+        assertThrows(IllegalArgumentException.class, () -> PathDispatcher.newInstance(recordDescriptor)
+                .onField("Record/Person/Unknown", (d, v) -> {}).build());
+        assertThrows(IllegalArgumentException.class, () -> PathDispatcher.newInstance(recordDescriptor)
+                .onField("Record/Person", (d, v) -> {}).build());
+    }
+
+    @Test
+    void Dispatch_fields_by_path() {
+        List<String> values = new ArrayList<>();
+        PathDispatcher dispatcher = PathDispatcher.newInstance(recordDescriptor)
+                .onField("Record/Person/Name", (d, v) -> values.add("name:" + v))
+                .onField("**/Age", (d, v) -> values.add(d.getName() + ":" + v))
+                .onField("*/*/Tag", (d, v) -> values.add("tag:" + v))
+                .build();
+
+        assertThat(new PullReadCursor(recordDescriptor, new StringReader("Tom42xyz")).pushTo(dispatcher)).isTrue();
+        assertThat(values).containsExactly("name:Tom", "Age:42", "tag:x", "tag:y", "tag:z");
+    }
+
+    @Test
+    void Unsubscribed_structures_are_skipped() {
+        List<String> events = new ArrayList<>();
+        PathDispatcher dispatcher = PathDispatcher.newInstance(recordDescriptor)
+                .onStructureStart("Record", d -> events.add("<" + d.getName() + ">"))
+                .onStructureEnd("Record", d -> events.add("</" + d.getName() + ">"))
+                .onField("Record/Person/Name", (d, v) -> events.add(v.toString()))
+                .build();
+        List<String> pushedEvents = new ArrayList<>();
+        DirectedStreamReadHandler handler = new DirectedStreamReadHandler() {
+            @Override
+            public ReadDirective onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+                pushedEvents.add(fieldDescriptor.getName());
+                return dispatcher.onFieldItem(fieldDescriptor, value);
+            }
+
+            @Override
+            public ReadDirective onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+                pushedEvents.add("<" + itemDescriptor.getName() + ">");
+                return dispatcher.onStructureItemStart(itemDescriptor);
+            }
+
+            @Override
+            public ReadDirective onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+                pushedEvents.add("</" + itemDescriptor.getName() + ">");
+                return dispatcher.onStructureItemEnd(itemDescriptor);
+            }
+        };
+
+        PullReadCursor cursor = new PullReadCursor(recordDescriptor, new StringReader("Tom42xyzAnn33abc"));
+        assertThat(cursor.pushTo(handler)).isTrue();
+        cursor.reset();
+        assertThat(cursor.pushTo(handler)).isTrue();
+
+        assertThat(events).containsExactly("<Record>", "Tom", "</Record>", "<Record>", "Ann", "</Record>");
+        assertThat(pushedEvents).containsSequence("<Person>", "Name", "Age", "</Person>", "<Tags>", "</Record>");
+        assertThat(pushedEvents).doesNotContain("Tag", "</Tags>");
+    }
+
+    @Test
+    void Stop_read_from_a_handler() {
+        List<String> names = new ArrayList<>();
+        PathDispatcher[] dispatcher = new PathDispatcher[1];
+        dispatcher[0] = PathDispatcher.newInstance(recordDescriptor)
+                .onField("Record/Person/Name", (d, v) -> {
+                    names.add(v.toString());
+                    if (v.toString().equals("Ann")) {
+                        dispatcher[0].stop();
+                    }
+                })
+                .build();
+
+        PullReadCursor cursor = new PullReadCursor(recordDescriptor, new StringReader("Tom42xyzAnn33abcBob77def"));
+        assertThat(cursor.pushTo(dispatcher[0])).isTrue();
+        cursor.reset();
+        assertThat(cursor.pushTo(dispatcher[0])).isFalse();
+        assertThat(names).containsExactly("Tom", "Ann");
+
+        dispatcher[0].reset();
+        cursor.reset(new StringReader("Bob77def"));
+        assertThat(cursor.pushTo(dispatcher[0])).isTrue();
+        assertThat(names).containsExactly("Tom", "Ann", "Bob");
+    }
+}
@@ -0,0 +1,312 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.BooleanFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import de.fthardy.flatpony.core.util.FieldReference;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.NoSuchElementException;
+
+import static de.fthardy.flatpony.core.streamio.PullReadCursor.EventType.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PullReadCursorTest {
+
+    @Test
+    void Cannot_create_with_null_descriptor() {
+        assertThrows(NullPointerException.class, () -> new PullReadCursor(null, new StringReader("")));
+    }
+
+    @Test
+    void Cannot_create_with_null_source() {
+        assertThrows(NullPointerException.class, () -> new PullReadCursor(
+                ConstantFieldDescriptor.reservedSpace(42), null));
+    }
+
+    @Test
+    void Read_a_single_field() {
+        ConstantFieldDescriptor descriptor =
+                ConstantFieldDescriptor.newInstance("Constant").withConstant("TEST").build();
+
+        PullReadCursor cursor = new PullReadCursor(descriptor, new StringReader("TEST"));
+
+        assertTrue(cursor.hasNext());
+        assertThat(cursor.getEventType()).isNull();
+        assertThat(cursor.next()).isEqualTo(FIELD);
+        assertThat(cursor.getDescriptor()).isSameAs(descriptor);
+        assertThat(cursor.getText().toString()).isEqualTo("TEST");
+        assertThat(cursor.getValue()).isEqualTo("TEST");
+        assertFalse(cursor.hasNext());
+
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class, cursor::next);
+        assertThat(exception.getMessage()).isEqualTo(PullReadCursor.MSG_No_further_event(descriptor));
+    }
+
+    @Test
+    void Item_without_any_event_cannot_be_read() {
+        FlatDataItemDescriptor<?> descriptorMock = mock(FlatDataItemDescriptor.class);
+        when(descriptorMock.getName()).thenReturn("Empty");
+        when(descriptorMock.pullReadFrom(any(Reader.class))).thenReturn(mock(PullReadIterator.class));
+
+        PullReadCursor cursor = new PullReadCursor(descriptorMock, new StringReader(""));
+
+        assertTrue(cursor.hasNext());
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class, cursor::next);
+        assertThat(exception.getMessage()).isEqualTo(PullReadCursor.MSG_No_further_event(descriptorMock));
+        assertThat(cursor.getEventType()).isNull();
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    void Read_records_with_a_single_cursor() {
+        FixedSizeFieldDescriptor nameDescriptor = FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+        TypedFieldDescriptor<Integer> ageDescriptor = TypedFieldDescriptor.<Integer>newInstance(
+                FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build()).withFieldValueConverter(
+                        new IntegerFieldValueConverter()).build();
+        CompositeItemDescriptor compositeDescriptor = CompositeItemDescriptor.newInstance("Person")
+                .addComponentItemDescriptors(nameDescriptor, ageDescriptor).build();
+        DelimitedItemDescriptor recordDescriptor =
+                DelimitedItemDescriptor.newInstance(compositeDescriptor).withDelimiter('\n').build();
+
+        StringReader source = new StringReader("Bob42\nTom07\n");
+        PullReadCursor cursor = new PullReadCursor(recordDescriptor, source);
+
+        assertThat(cursor.next()).isEqualTo(STRUCTURE_START);
+        assertThat(cursor.getDescriptor()).isSameAs(recordDescriptor);
+        assertThat(cursor.next()).isEqualTo(STRUCTURE_START);
+        assertThat(cursor.getDescriptor()).isSameAs(compositeDescriptor);
+        IllegalStateException exception = assertThrows(IllegalStateException.class, cursor::getText);
+        assertThat(exception.getMessage()).isEqualTo(PullReadCursor.MSG_No_field_event(STRUCTURE_START));
+        assertThat(cursor.next()).isEqualTo(FIELD);
+        assertThat(cursor.getDescriptor()).isSameAs(nameDescriptor);
+        assertThat(cursor.getValue()).isEqualTo("Bob");
+        assertThat(cursor.next()).isEqualTo(FIELD);
+        assertThat(cursor.getDescriptor()).isSameAs(ageDescriptor);
+        assertThat(cursor.getInt()).isEqualTo(42);
+        assertThat(cursor.getLong()).isEqualTo(42L);
+        assertThat((Integer) cursor.getTypedValue()).isEqualTo(42);
+        assertThat(cursor.next()).isEqualTo(STRUCTURE_END);
+        assertThat(cursor.getDescriptor()).isSameAs(compositeDescriptor);
+        assertThat(cursor.next()).isEqualTo(STRUCTURE_END);
+        assertThat(cursor.getDescriptor()).isSameAs(recordDescriptor);
+        assertFalse(cursor.hasNext());
+
+        cursor.reset();
+
+        assertTrue(cursor.hasNext());
+        StringBuilder events = new StringBuilder();
+        while (cursor.hasNext()) {
+            if (cursor.next() == FIELD) {
+                events.append(cursor.getText()).append(';');
+            }
+        }
+        assertThat(events.toString()).isEqualTo("Tom;07;");
+    }
+
+    @Test
+    void Read_optional_item_and_sequence_with_referenced_fields() {
+        ObservableFieldDescriptor flagDescriptor = ObservableFieldDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Flag").withFieldSize(5).build()).build();
+        ObservableFieldDescriptor countDescriptor = ObservableFieldDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Count").withFieldSize(1).build()).build();
+        FixedSizeFieldDescriptor optionalFieldDescriptor =
+                FixedSizeFieldDescriptor.newInstance("Optional").withFieldSize(2).build();
+        FixedSizeFieldDescriptor elementDescriptor =
+                FixedSizeFieldDescriptor.newInstance("Element").withFieldSize(1).build();
+        OptionalItemDescriptor optionalDescriptor = OptionalItemDescriptor.newInstance(optionalFieldDescriptor)
+                .withFlagFieldReference(FieldReference.<Boolean>newInstance(flagDescriptor)
+                        .usingValueConverter(new BooleanFieldValueConverter("true", "false")).build()).build();
+        SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(elementDescriptor)
+                .withCountFieldReference(FieldReference.<Integer>newInstance(countDescriptor)
+                        .usingValueConverter(new IntegerFieldValueConverter()).build()).build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(flagDescriptor, countDescriptor, optionalDescriptor, sequenceDescriptor)
+                .build();
+
+        PullReadCursor cursor = new PullReadCursor(descriptor, new StringReader("true 3XYabcfalse1d"));
+        assertThat(collectEvents(cursor)).isEqualTo("<Record>Flag=true;Count=3;<Optional>Optional=XY;</Optional>" +
+                "<Sequence>Element=a;Element=b;Element=c;</Sequence></Record>");
+
+        cursor.reset();
+        assertThat(collectEvents(cursor)).isEqualTo(
+                "<Record>Flag=false;Count=1;<Optional></Optional><Sequence>Element=d;</Sequence></Record>");
+    }
+
+    @Test
+    void Read_optional_item_and_sequence_by_trial_and_error() {
+        ConstantFieldDescriptor optionalFieldDescriptor =
+                ConstantFieldDescriptor.newInstance("Optional").withConstant("OPT").build();
+        ConstantFieldDescriptor elementDescriptor =
+                ConstantFieldDescriptor.newInstance("Element").withConstant("E").build();
+        OptionalItemDescriptor optionalDescriptor =
+                OptionalItemDescriptor.newInstance(optionalFieldDescriptor).build();
+        SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(elementDescriptor).build();
+        FixedSizeFieldDescriptor endDescriptor = FixedSizeFieldDescriptor.newInstance("End").withFieldSize(1).build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(optionalDescriptor, sequenceDescriptor, endDescriptor).build();
+
+        PullReadCursor cursor = new PullReadCursor(descriptor, new StringReader("OPTEEX"));
+        assertThat(collectEvents(cursor)).isEqualTo(
+                "<Record><Optional>Optional=OPT;</Optional><Sequence>Element=E;Element=E;</Sequence>End=X;</Record>");
+
+        cursor.reset(new StringReader("Y"));
+        assertThat(collectEvents(cursor)).isEqualTo(
+                "<Record><Optional></Optional><Sequence></Sequence>End=Y;</Record>");
+    }
+
+    @Test
+    void Skip_structure() {
+        FixedSizeFieldDescriptor elementDescriptor =
+                FixedSizeFieldDescriptor.newInstance("Element").withFieldSize(1).build();
+        SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(elementDescriptor).withMultiplicity(3, 3).build();
+        FixedSizeFieldDescriptor endDescriptor = FixedSizeFieldDescriptor.newInstance("End").withFieldSize(1).build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(sequenceDescriptor, endDescriptor).build();
+
+        PullReadCursor cursor = new PullReadCursor(descriptor, new StringReader("abcX"));
+        cursor.next();
+        cursor.next();
+        assertThat(cursor.getDescriptor()).isSameAs(sequenceDescriptor);
+        cursor.skipStructure();
+        assertThat(cursor.getEventType()).isEqualTo(STRUCTURE_END);
+        assertThat(cursor.getDescriptor()).isSameAs(sequenceDescriptor);
+        assertThat(collectEvents(cursor)).isEqualTo("End=X;</Record>");
+        assertThrows(IllegalStateException.class, cursor::skipStructure);
+    }
+
+    @Test
+    void Push_to_directed_handler_skipping_a_structure() {
+        FixedSizeFieldDescriptor nameDescriptor = FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+        SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(FixedSizeFieldDescriptor.newInstance("Element").withFieldSize(1).build())
+                .withMultiplicity(2, 2).build();
+        FixedSizeFieldDescriptor endDescriptor = FixedSizeFieldDescriptor.newInstance("End").withFieldSize(1).build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(nameDescriptor, sequenceDescriptor, endDescriptor).build();
+
+        StringBuilder events = new StringBuilder();
+        PullReadCursor cursor = new PullReadCursor(descriptor, new StringReader("Tomab!Annxy?"));
+        assertThat(cursor.pushTo(new EventCollector(events) {
+            @Override
+            public ReadDirective onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+                super.onStructureItemStart(itemDescriptor);
+                return itemDescriptor == sequenceDescriptor ? ReadDirective.SKIP_SUBTREE : ReadDirective.CONTINUE;
+            }
+        })).isTrue();
+        assertThat(events.toString()).isEqualTo("<Record>Name=Tom;<Sequence>End=!;</Record>");
+        assertThat(cursor.hasNext()).isFalse();
+
+        cursor.reset();
+        assertThat(collectEvents(cursor)).startsWith("<Record>Name=Ann;");
+    }
+
+    @Test
+    void Push_to_directed_handler_which_stops() {
+        FixedSizeFieldDescriptor nameDescriptor = FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+        FixedSizeFieldDescriptor ageDescriptor = FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(nameDescriptor, ageDescriptor).build();
+
+        StringBuilder events = new StringBuilder();
+        StringReader source = new StringReader("Tom42");
+        PullReadCursor cursor = new PullReadCursor(descriptor, source);
+        assertThat(cursor.pushTo(new EventCollector(events) {
+            @Override
+            public ReadDirective onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+                super.onFieldItem(fieldDescriptor, value);
+                return ReadDirective.STOP;
+            }
+        })).isFalse();
+        assertThat(events.toString()).isEqualTo("<Record>Name=Tom;");
+        assertThat(cursor.hasNext()).isTrue();
+        assertThrows(NullPointerException.class, () -> cursor.pushTo(null));
+    }
+
+    private static class EventCollector implements DirectedStreamReadHandler {
+
+        private final StringBuilder events;
+
+        EventCollector(StringBuilder events) {
+            this.events = events;
+        }
+
+        @Override
+        public ReadDirective onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+            this.events.append(fieldDescriptor.getName()).append('=').append(value).append(';');
+            return ReadDirective.CONTINUE;
+        }
+
+        @Override
+        public ReadDirective onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.append('<').append(itemDescriptor.getName()).append('>');
+            return ReadDirective.CONTINUE;
+        }
+
+        @Override
+        public ReadDirective onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.append("</").append(itemDescriptor.getName()).append('>');
+            return ReadDirective.CONTINUE;
+        }
+    }
+
+    private static String collectEvents(PullReadCursor cursor) {
+        StringBuilder events = new StringBuilder();
+        while (cursor.hasNext()) {
+            switch (cursor.next()) {
+                case STRUCTURE_START:
+                    events.append('<').append(cursor.getDescriptor().getName()).append('>');
+                    break;
+                case FIELD:
+                    events.append(cursor.getDescriptor().getName()).append('=').append(cursor.getText()).append(';');
+                    break;
+                case STRUCTURE_END:
+                    events.append("</").append(cursor.getDescriptor().getName()).append('>');
+                    break;
+            }
+        }
+        return events.toString();
+    }
+}
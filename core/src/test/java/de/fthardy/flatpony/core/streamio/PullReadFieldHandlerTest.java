@@ -25,6 +25,10 @@ package de.fthardy.flatpony.core.streamio;
 
 import de.fthardy.flatpony.core.FlatDataItemDescriptor;
 import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerField;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldDescriptor;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalField;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldDescriptor;
 import de.fthardy.flatpony.core.field.constant.ConstantField;
 import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedField;
@@ -81,6 +85,26 @@ class PullReadFieldHandlerTest {
         verify(streamReadHandlerMock).onFieldItem(descriptor, field.getValue());
     }
 
+    @Test
+    void handlePackedDecimalField() {
+        PackedDecimalFieldDescriptor descriptor = PackedDecimalFieldDescriptor.newInstance("Packed").withDigits(5).build();
+        PackedDecimalField field = descriptor.createItemEntity();
+
+        handler.handlePackedDecimalField(field);
+
+        verify(streamReadHandlerMock).onFieldItem(descriptor, field.getValue());
+    }
+
+    @Test
+    void handleBinaryIntegerField() {
+        BinaryIntegerFieldDescriptor descriptor = BinaryIntegerFieldDescriptor.newInstance("Binary").build();
+        BinaryIntegerField field = descriptor.createItemEntity();
+
+        handler.handleBinaryIntegerField(field);
+
+        verify(streamReadHandlerMock).onFieldItem(descriptor, field.getValue());
+    }
+
     @Test
     void handleConstrainedField() {
         FixedSizeFieldDescriptor fieldDescriptor = FixedSizeFieldDescriptor.newInstance("Fixed").build();
@@ -26,6 +26,10 @@ package de.fthardy.flatpony.core.streamio;
 import de.fthardy.flatpony.core.FlatDataItemDescriptor;
 import de.fthardy.flatpony.core.FlatDataItemEntity;
 import de.fthardy.flatpony.core.field.*;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerField;
+import de.fthardy.flatpony.core.field.binary.BinaryIntegerFieldDescriptor;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalField;
+import de.fthardy.flatpony.core.field.binary.PackedDecimalFieldDescriptor;
 import de.fthardy.flatpony.core.field.constant.ConstantField;
 import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
 import de.fthardy.flatpony.core.field.constrained.ConstrainedField;
@@ -97,6 +101,26 @@ class PushReadItemEntityTreeWalkerTest {
         verify(handlerMock).onFieldItem(descriptor, field.getValue());
     }
 
+    @Test
+    void handlePackedDecimalField() {
+        PackedDecimalFieldDescriptor descriptor = PackedDecimalFieldDescriptor.newInstance("Packed").withDigits(5).build();
+        PackedDecimalField field = descriptor.createItemEntity();
+
+        treeWalker.handlePackedDecimalField(field);
+
+        verify(handlerMock).onFieldItem(descriptor, field.getValue());
+    }
+
+    @Test
+    void handleBinaryIntegerField() {
+        BinaryIntegerFieldDescriptor descriptor = BinaryIntegerFieldDescriptor.newInstance("Binary").build();
+        BinaryIntegerField field = descriptor.createItemEntity();
+
+        treeWalker.handleBinaryIntegerField(field);
+
+        verify(handlerMock).onFieldItem(descriptor, field.getValue());
+    }
+
     @Test
     void handleConstrainedField() {
         FixedSizeFieldDescriptor fieldDescriptor = FixedSizeFieldDescriptor.newInstance("Fixed").build();
@@ -0,0 +1,166 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio;
+
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordBatchFanOutTest {
+
+    private final BatchedRecordReader reader = BatchedRecordReader.newInstance(DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Record").addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build())
+            .withDelimiter('\n').build()).withMaxRecordCount(3).build();
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(NullPointerException.class, () -> RecordBatchFanOut.newInstance(null));
+        assertThrows(IllegalArgumentException.class, () -> RecordBatchFanOut.newInstance(reader).withRingSize(0));
+        assertThrows(IllegalArgumentException.class, () -> RecordBatchFanOut.newInstance(reader).withRingSize(6));
+        assertThrows(NullPointerException.class, () -> RecordBatchFanOut.newInstance(reader).addConsumer(null));
+    }
+
+    @Test
+    void All_consumers_receive_all_batches_in_order() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        List<String> fastIds = Collections.synchronizedList(new ArrayList<>());
+        List<String> slowIds = Collections.synchronizedList(new ArrayList<>());
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        RecordBatchFanOut fanOut = RecordBatchFanOut.newInstance(reader).withRingSize(2)
+                .addConsumer(batch -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    collectIds(batch, fastIds);
+                })
+                .addConsumer(batch -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    collectIds(batch, slowIds);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .withThreadFactory(runnable -> new Thread(runnable, "consumer"))
+                .build();
+
+        assertThat(fanOut.getRingSize()).isEqualTo(2);
+        assertThat(fanOut.getConsumerCount()).isEqualTo(2);
+        assertThat(fanOut.readFrom(new StringReader(content.toString()))).isEqualTo(100);
+        assertThat(fastIds).hasSize(100);
+        assertThat(slowIds).isEqualTo(fastIds);
+        for (int i = 0; i < 100; i++) {
+            assertThat(fastIds.get(i)).isEqualTo(String.format("%04d", i));
+        }
+        assertThat(threadNames).doesNotContain(Thread.currentThread().getName());
+
+        // the instance can be reused for another read
+        fastIds.clear();
+        assertThat(fanOut.readFrom(new StringReader("0001abc\n"))).isEqualTo(1);
+        assertThat(fastIds).containsExactly("0001");
+    }
+
+    @Test
+    void Failure_of_a_consumer_stops_the_read() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        IllegalStateException failure = new IllegalStateException("Failed!");
+        RecordBatchFanOut fanOut = RecordBatchFanOut.newInstance(reader).withRingSize(2)
+                .addConsumer(batch -> {
+                    throw failure;
+                })
+                .build();
+        AtomicLong readLength = new AtomicLong();
+        StringReader source = new StringReader(content.toString()) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                readLength.addAndGet(Math.max(count, 0));
+                return count;
+            }
+
+            @Override
+            public int read() throws IOException {
+                readLength.incrementAndGet();
+                return super.read();
+            }
+        };
+
+        assertThat(assertThrows(IllegalStateException.class, () -> fanOut.readFrom(source))).isSameAs(failure);
+        // at most the batches of the ring and the batch in progress have been read
+        assertThat(readLength.get()).isLessThan(content.length() / 10);
+    }
+
+    @Test
+    void Failure_of_the_thread_factory_stops_the_started_consumers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("No more threads!");
+        RecordBatchFanOut fanOut = RecordBatchFanOut.newInstance(reader)
+                .addConsumer(batch -> {})
+                .addConsumer(batch -> {})
+                .withThreadFactory(runnable -> {
+                    if (threadCount.incrementAndGet() > 1) {
+                        throw failure;
+                    }
+                    return new Thread(runnable);
+                })
+                .build();
+
+        assertThat(assertThrows(IllegalStateException.class, () -> fanOut.readFrom(new StringReader("0001abc\n"))))
+                .isSameAs(failure);
+    }
+
+    @Test
+    void Read_failure_is_rethrown() {
+        RecordBatchFanOut fanOut = RecordBatchFanOut.newInstance(reader).addConsumer(batch -> {}).build();
+
+        assertThrows(RuntimeException.class, () -> fanOut.readFrom(new StringReader("0001abc\n00")));
+    }
+
+    private static void collectIds(RecordBatch batch, List<String> ids) {
+        for (int i = 0; i < batch.getRecordCount(); i++) {
+            ids.add(batch.getValue(i, 0));
+        }
+    }
+}
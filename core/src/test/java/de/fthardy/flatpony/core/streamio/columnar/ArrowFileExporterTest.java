@@ -0,0 +1,360 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.ImpliedDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrowFileExporterTest {
+
+    /**
+     * Navigates through an Arrow IPC file and decodes its schema and record batches.
+     */
+    private static final class ArrowFile {
+
+        private final ByteBuffer file;
+
+        ArrowFile(byte[] content) {
+            this.file = ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int footer() {
+            int length = this.file.capacity();
+            assertThat(this.string(0, 6)).isEqualTo("ARROW1");
+            assertThat(this.string(length - 6, 6)).isEqualTo("ARROW1");
+            int footerLength = this.file.getInt(length - 10);
+            return this.root(length - 10 - footerLength);
+        }
+
+        int root(int position) {
+            return position + this.file.getInt(position);
+        }
+
+        int field(int table, int id) {
+            int field = this.optionalField(table, id);
+            assertThat(field).isGreaterThan(0);
+            return field;
+        }
+
+        // a field which is absent in the vtable has its default value
+        int optionalField(int table, int id) {
+            int vtable = table - this.file.getInt(table);
+            if (this.file.getShort(vtable) <= 4 + 2 * id) {
+                return -1;
+            }
+            int offset = this.file.getShort(vtable + 4 + 2 * id);
+            return offset == 0 ? -1 : table + offset;
+        }
+
+        int intField(int table, int id, int defaultValue) {
+            int field = this.optionalField(table, id);
+            return field < 0 ? defaultValue : this.file.getInt(field);
+        }
+
+        int reference(int position) {
+            return position + this.file.getInt(position);
+        }
+
+        String string(int position) {
+            return this.string(position + 4, this.file.getInt(position));
+        }
+
+        String string(int position, int length) {
+            return new String(this.bytes(position, length), StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes(int position, int length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = this.file.get(position + i);
+            }
+            return bytes;
+        }
+
+        byte[] bufferContent(int buffers, int body, int index) {
+            int offset = (int) this.file.getLong(buffers + 4 + 16 * index);
+            int length = (int) this.file.getLong(buffers + 4 + 16 * index + 8);
+            assertThat(offset % 8).isEqualTo(0);
+            return this.bytes(body + offset, length);
+        }
+
+        /**
+         * @return a description of each field of the schema with its name, nullability and type.
+         */
+        List<String> schema() {
+            int fields = this.reference(this.field(this.reference(this.field(this.footer(), 1)), 1));
+            List<String> schema = new ArrayList<>();
+            for (int i = 0; i < this.file.getInt(fields); i++) {
+                int field = this.reference(fields + 4 + 4 * i);
+                int nullable = this.optionalField(field, 1);
+                int type = this.reference(this.field(field, 3));
+                String description = this.string(this.reference(this.field(field, 0))) +
+                        (nullable > 0 && this.file.get(nullable) != 0 ? " nullable " : " ");
+                switch (this.file.get(this.field(field, 2))) {
+                    case 2:
+                        int signed = this.optionalField(type, 1);
+                        description += (signed > 0 && this.file.get(signed) != 0 ? "int" : "uint") +
+                                this.intField(type, 0, 0);
+                        break;
+                    case 5:
+                        description += "utf8";
+                        break;
+                    case 7:
+                        description += String.format("decimal%d(%d, %d)", this.intField(type, 2, 128),
+                                this.intField(type, 0, 0), this.intField(type, 1, 0));
+                        break;
+                    default:
+                        fail("Unexpected type of field " + description);
+                }
+                schema.add(description);
+            }
+            return schema;
+        }
+
+        /**
+         * @return the rows of each record batch where the values of a row are separated by a blank.
+         */
+        List<List<String>> recordBatches() {
+            List<String> schema = this.schema();
+            int blocks = this.reference(this.field(this.footer(), 3));
+            List<List<String>> recordBatches = new ArrayList<>();
+            for (int i = 0; i < this.file.getInt(blocks); i++) {
+                int messageOffset = (int) this.file.getLong(blocks + 4 + 24 * i);
+                int body = messageOffset + this.file.getInt(blocks + 12 + 24 * i);
+                int message = this.root(messageOffset + 8);
+                assertThat(this.file.get(this.field(message, 1))).isEqualTo((byte) 3);
+                int recordBatch = this.reference(this.field(message, 2));
+                int rowCount = (int) this.file.getLong(this.field(recordBatch, 0));
+                int buffers = this.reference(this.field(recordBatch, 2));
+                List<StringBuilder> rows = new ArrayList<>();
+                for (int row = 0; row < rowCount; row++) {
+                    rows.add(new StringBuilder());
+                }
+                int buffer = 0;
+                for (int column = 0; column < schema.size(); column++) {
+                    String field = schema.get(column);
+                    byte[] validity = this.bufferContent(buffers, body, buffer++);
+                    ByteBuffer values = ByteBuffer.wrap(this.bufferContent(buffers, body, buffer++))
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    byte[] data = field.endsWith("utf8") ? this.bufferContent(buffers, body, buffer++) : null;
+                    for (int row = 0; row < rowCount; row++) {
+                        // an empty validity bitmap denotes that all values are valid
+                        boolean valid = validity.length == 0 || (validity[row / 8] & (1 << (row % 8))) != 0;
+                        rows.get(row).append(column == 0 ? "" : " ").append(valid ?
+                                valueOf(field, values, data, row) : "null");
+                    }
+                }
+                List<String> batchRows = new ArrayList<>();
+                rows.forEach(row -> batchRows.add(row.toString()));
+                recordBatches.add(batchRows);
+            }
+            return recordBatches;
+        }
+
+        private static String valueOf(String field, ByteBuffer values, byte[] data, int row) {
+            if (field.endsWith("utf8")) {
+                int start = values.getInt(4 * row);
+                return new String(data, start, values.getInt(4 * row + 4) - start, StandardCharsets.UTF_8);
+            } else if (field.endsWith("int32")) {
+                return String.valueOf(values.getInt(4 * row));
+            } else {
+                byte[] bigEndian = new byte[16];
+                for (int i = 0; i < 16; i++) {
+                    bigEndian[15 - i] = values.get(16 * row + i);
+                }
+                int scale = Integer.parseInt(field.substring(field.lastIndexOf(' ') + 1, field.length() - 1));
+                return new BigDecimal(new BigInteger(bigEndian), scale).toPlainString();
+            }
+        }
+    }
+
+    private final DelimitedItemDescriptor recordDescriptor = DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Person").addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build(),
+                    OptionalItemDescriptor.newInstance(CompositeItemDescriptor.newInstance("Extension")
+                            .addComponentItemDescriptors(
+                                    ConstantFieldDescriptor.newInstance("Marker").withConstant("+").build(),
+                                    TypedFieldDescriptor.<Integer>newInstance(
+                                            FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build())
+                                            .withFieldValueConverter(new IntegerFieldValueConverter()).build())
+                            .build()).build(),
+                    TypedFieldDescriptor.<BigDecimal>newInstance(
+                            FixedSizeFieldDescriptor.newInstance("Amount").withFieldSize(4).build())
+                            .withFieldValueConverter(new ImpliedDecimalFieldValueConverter(2)).build())
+                    .build()).withDelimiter('\n').build();
+
+    @Test
+    void Cannot_create_without_reader() {
+        assertThrows(NullPointerException.class, () -> new ArrowFileExporter(null));
+    }
+
+    @Test
+    void Export_records_as_arrow_file() {
+        ArrowFileExporter exporter = new ArrowFileExporter(
+                ColumnarRecordReader.newInstance(recordDescriptor).withBatchSize(2).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(exporter.exportTo(new StringReader("Bob+421234\nTom-050\nAnn+330000\n"),
+                Channels.newChannel(output))).isEqualTo(3);
+
+        ArrowFile file = new ArrowFile(output.toByteArray());
+        int footer = file.footer();
+        int schema = file.reference(file.field(footer, 1));
+        int fields = file.reference(file.field(schema, 1));
+        assertThat(file.file.getInt(fields)).isEqualTo(4);
+        String[] names = {"Name", "Marker", "Age", "Amount"};
+        byte[] types = {5, 5, 2, 7};
+        for (int i = 0; i < 4; i++) {
+            int field = file.reference(fields + 4 + 4 * i);
+            assertThat(file.string(file.reference(file.field(field, 0)))).isEqualTo(names[i]);
+            assertThat(file.file.get(file.field(field, 2))).isEqualTo(types[i]);
+        }
+        int decimalType = file.reference(file.field(file.reference(fields + 16), 3));
+        assertThat(file.file.getInt(file.field(decimalType, 0))).isEqualTo(4);
+        assertThat(file.file.getInt(file.field(decimalType, 1))).isEqualTo(2);
+
+        int blocks = file.reference(file.field(footer, 3));
+        assertThat(file.file.getInt(blocks)).isEqualTo(2);
+
+        // first record batch
+        int messageOffset = (int) file.file.getLong(blocks + 4);
+        int metadataLength = file.file.getInt(blocks + 12);
+        long bodyLength = file.file.getLong(blocks + 20);
+        assertThat(file.file.getInt(messageOffset)).isEqualTo(0xFFFFFFFF);
+        assertThat(messageOffset % 8).isEqualTo(0);
+        assertThat(metadataLength % 8).isEqualTo(0);
+
+        int message = file.root(messageOffset + 8);
+        assertThat(file.file.get(file.field(message, 1))).isEqualTo((byte) 3);
+        assertThat(file.file.getLong(file.field(message, 3))).isEqualTo(bodyLength);
+        int recordBatch = file.reference(file.field(message, 2));
+        assertThat(file.file.getLong(file.field(recordBatch, 0))).isEqualTo(2);
+
+        int nodes = file.reference(file.field(recordBatch, 1));
+        assertThat(file.file.getInt(nodes)).isEqualTo(4);
+        assertThat(file.file.getLong(nodes + 4 + 2 * 16)).isEqualTo(2);
+        assertThat(file.file.getLong(nodes + 4 + 2 * 16 + 8)).isEqualTo(1);
+
+        int buffers = file.reference(file.field(recordBatch, 2));
+        assertThat(file.file.getInt(buffers)).isEqualTo(10);
+        int body = messageOffset + metadataLength;
+        assertThat(file.bufferContent(buffers, body, 2)).isEqualTo("BobTom".getBytes(StandardCharsets.UTF_8));
+        assertThat(file.bufferContent(buffers, body, 6)).containsExactly((byte) 0b01);
+        ByteBuffer ages = ByteBuffer.wrap(file.bufferContent(buffers, body, 7)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(ages.getInt(0)).isEqualTo(42);
+        ByteBuffer amounts = ByteBuffer.wrap(file.bufferContent(buffers, body, 9)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(amounts.capacity()).isEqualTo(32);
+        assertThat(amounts.getLong(0)).isEqualTo(1234L);
+        assertThat(amounts.getLong(8)).isEqualTo(0L);
+        assertThat(amounts.getLong(16)).isEqualTo(-50L);
+        assertThat(amounts.getLong(24)).isEqualTo(-1L);
+    }
+
+    /**
+     * Compares the export with the reference file {@code persons.arrow}.
+     * <p>
+     * The reference file has been written from the Arrow columnar format specification independently of the exporter.
+     * It has the flat buffer layout of a generic flat buffer builder and leaves the validity bitmap of a column without
+     * nulls empty, as the Arrow implementations do. Hence the files are compared by their decoded schema and rows
+     * instead of byte by byte. An equivalent file can be written by pyarrow:
+     * </p>
+     * <pre>
+     * schema = pa.schema([('Name', pa.utf8()), ('Marker', pa.utf8()), ('Age', pa.int32()),
+     *                     ('Amount', pa.decimal128(4, 2))])
+     * table = pa.table({'Name': ['Bob', 'Tom', 'Ann'], 'Marker': ['+', None, '+'], 'Age': [42, None, 33],
+     *                   'Amount': [Decimal('12.34'), Decimal('-0.50'), Decimal('0.00')]}, schema=schema)
+     * with pa.ipc.new_file('persons.arrow', schema) as writer:
+     *     writer.write_table(table, max_chunksize=2)
+     * </pre>
+     */
+    @Test
+    void Export_the_same_content_as_the_reference_file() throws IOException {
+        ArrowFileExporter exporter = new ArrowFileExporter(
+                ColumnarRecordReader.newInstance(recordDescriptor).withBatchSize(2).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exporter.exportTo(new StringReader("Bob+421234\nTom-050\nAnn+330000\n"), Channels.newChannel(output));
+        ArrowFile exportedFile = new ArrowFile(output.toByteArray());
+
+        ArrowFile referenceFile;
+        try (InputStream input = this.getClass().getResourceAsStream("persons.arrow")) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            for (int length; (length = input.read(chunk)) != -1; ) {
+                content.write(chunk, 0, length);
+            }
+            referenceFile = new ArrowFile(content.toByteArray());
+        }
+
+        assertThat(referenceFile.schema()).containsExactly("Name nullable utf8", "Marker nullable utf8",
+                "Age nullable int32", "Amount nullable decimal128(4, 2)");
+        assertThat(referenceFile.recordBatches()).containsExactly(
+                listOf("Bob + 42 12.34", "Tom null null -0.50"), listOf("Ann + 33 0.00"));
+        assertThat(exportedFile.schema()).isEqualTo(referenceFile.schema());
+        assertThat(exportedFile.recordBatches()).isEqualTo(referenceFile.recordBatches());
+    }
+
+    @Test
+    void Export_empty_source() {
+        ArrowFileExporter exporter = new ArrowFileExporter(ColumnarRecordReader.newInstance(recordDescriptor).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThat(exporter.exportTo(new StringReader(""), Channels.newChannel(output))).isEqualTo(0);
+
+        ArrowFile file = new ArrowFile(output.toByteArray());
+        int footer = file.footer();
+        assertThat(file.file.getInt(file.reference(file.field(footer, 3)))).isEqualTo(0);
+        assertThat(file.schema()).hasSize(4);
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.columnar;
+
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.DoubleFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.FieldValueConvertException;
+import de.fthardy.flatpony.core.field.typed.converter.ImpliedDecimalFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.field.typed.converter.LongFieldValueConverter;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.optional.OptionalItemDescriptor;
+import de.fthardy.flatpony.core.structure.sequence.SequenceItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarRecordReaderTest {
+
+    private final FixedSizeFieldDescriptor nameDescriptor =
+            FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build();
+    private final TypedFieldDescriptor<Integer> ageDescriptor = TypedFieldDescriptor.<Integer>newInstance(
+            FixedSizeFieldDescriptor.newInstance("Age").withFieldSize(2).build())
+            .withFieldValueConverter(new IntegerFieldValueConverter()).build();
+    private final TypedFieldDescriptor<Long> idDescriptor = TypedFieldDescriptor.<Long>newInstance(
+            FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build())
+            .withFieldValueConverter(new LongFieldValueConverter()).build();
+    private final TypedFieldDescriptor<Double> ratioDescriptor = TypedFieldDescriptor.<Double>newInstance(
+            FixedSizeFieldDescriptor.newInstance("Ratio").withFieldSize(3).build())
+            .withFieldValueConverter(new DoubleFieldValueConverter()).build();
+    private final TypedFieldDescriptor<BigDecimal> amountDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+            FixedSizeFieldDescriptor.newInstance("Amount").withFieldSize(4).build())
+            .withFieldValueConverter(new ImpliedDecimalFieldValueConverter(2)).build();
+    private final DelimitedItemDescriptor recordDescriptor = DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Person").addComponentItemDescriptors(
+                    nameDescriptor, ageDescriptor, idDescriptor, ratioDescriptor, amountDescriptor).build())
+            .withDelimiter('\n').build();
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(NullPointerException.class, () -> ColumnarRecordReader.newInstance(null));
+        assertThrows(IllegalArgumentException.class, () ->
+                ColumnarRecordReader.newInstance(recordDescriptor).withBatchSize(0));
+    }
+
+    @Test
+    void Cannot_create_for_unsupported_layout() {
+        SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Names")
+                .withElementItemDescriptor(nameDescriptor).build();
+        assertThrows(IllegalArgumentException.class, () ->
+                ColumnarRecordReader.newInstance(sequenceDescriptor).build());
+
+        CompositeItemDescriptor duplicateDescriptor = CompositeItemDescriptor.newInstance("Duplicate")
+                .addComponentItemDescriptors(nameDescriptor, CompositeItemDescriptor.newInstance("Inner")
+                        .addComponentItemDescriptors(nameDescriptor).build()).build();
+        assertThrows(IllegalArgumentException.class, () ->
+                ColumnarRecordReader.newInstance(duplicateDescriptor).build());
+    }
+
+    @Test
+    void Read_typed_columns() {
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(recordDescriptor).build();
+        assertThat(reader.getBatchSize()).isEqualTo(ColumnarRecordReader.DEFAULT_BATCH_SIZE);
+
+        List<ColumnarBatch> batches = new ArrayList<>();
+        String content = "Bob4200010.51234\nTom0700022.5-050\nBob3300333.00000\n";
+        long recordCount = reader.readFrom(new StringReader(content), batch -> {
+            batches.add(batch);
+            assertThat(batch.getRowCount()).isEqualTo(3);
+            assertThat(batch.getColumns()).extracting(ColumnVector::getName)
+                    .containsExactly("Name", "Age", "Id", "Ratio", "Amount");
+
+            StringColumnVector names = (StringColumnVector) batch.getColumn("Name");
+            assertThat(names.getString(0)).isEqualTo("Bob");
+            assertThat(names.getString(1)).isEqualTo("Tom");
+            assertThat(names.getCode(2)).isEqualTo(names.getCode(0));
+            assertThat(names.getDictionary()).containsExactly("Bob", "Tom");
+
+            IntColumnVector ages = (IntColumnVector) batch.getColumn(1);
+            assertThat(ages.getFieldDescriptor()).isSameAs(ageDescriptor);
+            assertThat(ages.getInt(0)).isEqualTo(42);
+            assertThat(ages.getInt(1)).isEqualTo(7);
+            assertThat(((LongColumnVector) batch.getColumn("Id")).getLong(2)).isEqualTo(33L);
+            assertThat(((DoubleColumnVector) batch.getColumn("Ratio")).getDouble(1)).isEqualTo(2.5);
+
+            DecimalColumnVector amounts = (DecimalColumnVector) batch.getColumn("Amount");
+            assertThat(amounts.getPrecision()).isEqualTo(4);
+            assertThat(amounts.getScale()).isEqualTo(2);
+            assertThat(amounts.getUnscaledValue(0)).isEqualTo(1234L);
+            assertThat(amounts.getDecimal(1)).isEqualTo(new BigDecimal("-0.50"));
+            assertThat(amounts.getNullCount()).isEqualTo(0);
+        });
+
+        assertThat(recordCount).isEqualTo(3);
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void Read_batches_with_reused_column_vectors() {
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(recordDescriptor).withBatchSize(2).build();
+
+        List<String> ages = new ArrayList<>();
+        List<ColumnarBatch> batches = new ArrayList<>();
+        long recordCount = reader.readFrom(
+                new StringReader("Bob4200010.51234\nTom0700022.5-050\nAnn3300333.00000\n"), batch -> {
+                    batches.add(batch);
+                    IntColumnVector column = (IntColumnVector) batch.getColumn("Age");
+                    for (int i = 0; i < batch.getRowCount(); i++) {
+                        ages.add(String.valueOf(column.getInt(i)));
+                    }
+                    assertThat(((StringColumnVector) batch.getColumn(0)).getDictionary())
+                            .hasSize(batch.getRowCount());
+                });
+
+        assertThat(recordCount).isEqualTo(3);
+        assertThat(ages).containsExactly("42", "7", "33");
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).isSameAs(batches.get(0));
+    }
+
+    @Test
+    void Fields_of_an_absent_optional_item_are_null() {
+        ConstantFieldDescriptor markerDescriptor =
+                ConstantFieldDescriptor.newInstance("Marker").withConstant("+").build();
+        CompositeItemDescriptor extensionDescriptor = CompositeItemDescriptor.newInstance("Extension")
+                .addComponentItemDescriptors(markerDescriptor, ageDescriptor).build();
+        DelimitedItemDescriptor descriptor = DelimitedItemDescriptor.newInstance(
+                CompositeItemDescriptor.newInstance("Person").addComponentItemDescriptors(
+                        nameDescriptor, OptionalItemDescriptor.newInstance(extensionDescriptor).build()).build())
+                .withDelimiter('\n').build();
+
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(descriptor).build();
+
+        reader.readFrom(new StringReader("Bob+42\nTom\nAnn+33\n"), batch -> {
+            assertThat(batch.getRowCount()).isEqualTo(3);
+            IntColumnVector ages = (IntColumnVector) batch.getColumn("Age");
+            assertThat(ages.isNull(0)).isFalse();
+            assertThat(ages.isNull(1)).isTrue();
+            assertThat(ages.getInt(2)).isEqualTo(33);
+            assertThat(ages.getNullCount()).isEqualTo(1);
+            assertThat(ages.getValidityBitmap()[0]).isEqualTo(0b101L);
+            assertThat(batch.getColumn("Marker").isNull(1)).isTrue();
+            assertThat(ages.getInt(1)).isEqualTo(0);
+        });
+    }
+
+    @Test
+    void Invalid_value_fails_conversion_of_the_batch() {
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(recordDescriptor).build();
+
+        assertThrows(FieldValueConvertException.class, () -> reader.readFrom(
+                new StringReader("BobXY00010.51234\n"), batch -> fail("No batch expected!")));
+    }
+
+    @Test
+    void Decimal_value_exceeding_the_range_of_long_fails_conversion_of_the_batch() {
+        TypedFieldDescriptor<BigDecimal> totalDescriptor = TypedFieldDescriptor.<BigDecimal>newInstance(
+                FixedSizeFieldDescriptor.newInstance("Total").withFieldSize(21).build())
+                .withFieldValueConverter(new ImpliedDecimalFieldValueConverter(2)).build();
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(DelimitedItemDescriptor.newInstance(
+                totalDescriptor).withDelimiter('\n').build()).build();
+
+        FieldValueConvertException exception = assertThrows(FieldValueConvertException.class, () -> reader.readFrom(
+                new StringReader("123456789012345678901\n"), batch -> fail("No batch expected!")));
+        assertThat(exception.getMessage()).isEqualTo(
+                DecimalColumnVector.MSG_Invalid_decimal("Total", "123456789012345678901"));
+        assertThat(exception.getCause()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void Read_from_empty_source() {
+        ColumnarRecordReader reader = ColumnarRecordReader.newInstance(recordDescriptor).build();
+
+        assertThat(reader.readFrom(new StringReader(""), batch -> fail("No batch expected!"))).isEqualTo(0);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrentReadsTest {
+
+    // set by the test task which runs the tests against the multi-release JAR on Java 21
+    private static final String EXPECT_VIRTUAL_THREADS = "flatpony.expectVirtualThreads";
+
+    @Test
+    void Run_the_reads_on_virtual_threads_only_with_the_Java_21_layer() throws Exception {
+        boolean expectVirtualThreads = Boolean.getBoolean(EXPECT_VIRTUAL_THREADS);
+        List<Callable<Boolean>> reads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            reads.add(() -> isVirtual(Thread.currentThread()));
+        }
+
+        assertThat(ConcurrentReads.isVirtual()).isEqualTo(expectVirtualThreads);
+        assertThat(ConcurrentReads.invokeAll(reads)).containsOnly(expectVirtualThreads);
+        assertThat(isVirtual(ReadExecutors.newThreadFactory().newThread(() -> {}))).isEqualTo(expectVirtualThreads);
+    }
+
+    @Test
+    void Return_the_results_in_the_order_of_the_reads() {
+        List<Callable<Integer>> reads = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            reads.add(() -> {
+                Thread.sleep(value % 3);
+                return value;
+            });
+        }
+
+        List<Integer> results = ConcurrentReads.invokeAll(reads);
+
+        assertThat(results).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(results.get(i)).isEqualTo(i);
+        }
+        assertThat(ConcurrentReads.invokeAll(Collections.<Callable<Integer>>emptyList())).isEmpty();
+    }
+
+    @Test
+    void Cancel_the_other_reads_on_the_first_failure() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Read failed");
+
+        Callable<String> blockingRead = () -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return "never";
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw e;
+            }
+        };
+        Callable<String> failingRead = () -> {
+            started.await();
+            throw failure;
+        };
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () ->
+                ConcurrentReads.invokeAll(Arrays.asList(blockingRead, failingRead))));
+        // the call doesn't return before the cancelled read has finished
+        assertThat(cancelled.await(0, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void Wrap_a_checked_exception_of_a_read() {
+        IOException failure = new IOException("Read failed");
+        Callable<String> failingRead = () -> {
+            throw failure;
+        };
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () ->
+                ConcurrentReads.invokeAll(Collections.singletonList(failingRead)));
+
+        assertThat(exception).hasMessage(ConcurrentReads.MSG_Read_failed()).hasCause(failure);
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        Method isVirtual;
+        try {
+            isVirtual = Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            // there are no virtual threads before Java 21
+            return false;
+        }
+        return (Boolean) isVirtual.invoke(thread);
+    }
+}
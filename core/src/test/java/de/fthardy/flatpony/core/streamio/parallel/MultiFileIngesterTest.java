@@ -0,0 +1,168 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static de.fthardy.flatpony.core.FlatDataItemEntities.contentOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultiFileIngesterTest {
+
+    private static final FlatDataItemDescriptor<?> RECORD_DESCRIPTOR = DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Record").addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build())
+            .withDelimiter('\n').build();
+
+    private static final FlatDataItemDescriptor<?> LINE_DESCRIPTOR = DelimitedItemDescriptor.newInstance(
+            FixedSizeFieldDescriptor.newInstance("Line").withFieldSize(10).build()).withDelimiter('\n').build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void Cannot_create_ingester_with_invalid_properties() {
+        assertThrows(IllegalArgumentException.class, () -> MultiFileIngester.newInstance().withWorkerCount(0));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileIngester.newInstance().withMemoryLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileIngester.newInstance().withBufferSize(0));
+        assertThrows(IllegalArgumentException.class, () -> MultiFileIngester.newInstance().withRecordMemory(-1));
+        // two bytes per character, one byte per byte and the record
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                MultiFileIngester.newInstance().withMemoryLimit(200).withBufferSize(50).withRecordMemory(51).build());
+        assertThat(exception.getMessage()).isEqualTo(MultiFileIngester.MSG_Memory_limit_too_small(200, 201));
+        MultiFileIngester ingester = MultiFileIngester.newInstance().withMemoryLimit(200).withBufferSize(50)
+                .withRecordMemory(50).build();
+        assertThat(ingester.getRecordMemory()).isEqualTo(50);
+
+        ingester = MultiFileIngester.newInstance().build();
+        assertThat(ingester.getMemoryLimit()).isEqualTo(Runtime.getRuntime().maxMemory() / 4);
+        assertThat(ingester.getBufferSize()).isEqualTo(MultiFileIngester.DEFAULT_BUFFER_SIZE);
+        assertThat(ingester.getRecordMemory()).isEqualTo(MultiFileIngester.DEFAULT_RECORD_MEMORY);
+    }
+
+    @Test
+    void Ingest_files_with_different_layouts_and_report_each_file() throws IOException {
+        Map<Path, FlatDataItemDescriptor<?>> files = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            files.put(this.writeRecordFile("records-" + i + ".txt", 10 * (i + 1)), RECORD_DESCRIPTOR);
+        }
+        Path lineFile = Files.write(this.tempDir.resolve("lines.txt"),
+                "0123456789\nabcdefghij\n".getBytes(StandardCharsets.UTF_8));
+        files.put(lineFile, LINE_DESCRIPTOR);
+        Path brokenFile = Files.write(this.tempDir.resolve("broken.txt"),
+                "0001abc\n0002d".getBytes(StandardCharsets.UTF_8));
+        files.put(brokenFile, RECORD_DESCRIPTOR);
+        Path missingFile = this.tempDir.resolve("missing.txt");
+        files.put(missingFile, RECORD_DESCRIPTOR);
+
+        Map<Path, List<String>> records = new ConcurrentHashMap<>();
+        List<FileIngestionResult> results = MultiFileIngester.newInstance().withWorkerCount(4).build().ingest(
+                files, (file, record) -> records.computeIfAbsent(file, f -> new ArrayList<>()).add(contentOf(record)));
+
+        assertThat(results).extracting(FileIngestionResult::getFile).containsExactlyElementsOf(files.keySet());
+        for (int i = 0; i < 20; i++) {
+            FileIngestionResult result = results.get(i);
+            assertThat(result.hasFailure()).isFalse();
+            assertThat(result.getRecordCount()).isEqualTo(10 * (i + 1));
+            assertThat(result.getFileSize()).isEqualTo(80 * (i + 1));
+            assertThat(result.getBytesPerSecond()).isPositive();
+            assertThat(records.get(result.getFile())).hasSize(10 * (i + 1)).startsWith("0000abc\n", "0001abc\n");
+            assertThrows(IllegalStateException.class, result::getFailure);
+        }
+        assertThat(records.get(lineFile)).containsExactly("0123456789\n", "abcdefghij\n");
+
+        FileIngestionResult brokenResult = results.get(21);
+        assertThat(brokenResult.getRecordCount()).isEqualTo(1);
+        assertThat(brokenResult.getFailure()).isInstanceOf(FlatDataReadException.class);
+
+        FileIngestionResult missingResult = results.get(22);
+        assertThat(missingResult.getRecordCount()).isZero();
+        assertThat(missingResult.getFailure()).isInstanceOf(FlatDataReadException.class);
+    }
+
+    @Test
+    void Ingest_largest_files_first() throws IOException {
+        Map<Path, FlatDataItemDescriptor<?>> files = new LinkedHashMap<>();
+        for (int recordCount : new int[] {3, 7, 1, 5}) {
+            files.put(this.writeRecordFile("records-" + recordCount + ".txt", recordCount), RECORD_DESCRIPTOR);
+        }
+        List<Path> order = new ArrayList<>();
+
+        MultiFileIngester.newInstance().withWorkerCount(1).build().ingest(files, (file, record) -> {
+            if (!order.contains(file)) {
+                order.add(file);
+            }
+        });
+
+        assertThat(order).extracting(file -> file.getFileName().toString()).containsExactly(
+                "records-7.txt", "records-5.txt", "records-3.txt", "records-1.txt");
+    }
+
+    @Test
+    void Cap_the_memory_of_the_running_files() throws IOException {
+        Map<Path, FlatDataItemDescriptor<?>> files = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            files.put(this.writeRecordFile("records-" + i + ".txt", 200), RECORD_DESCRIPTOR);
+        }
+        List<Path> sequence = Collections.synchronizedList(new ArrayList<>());
+
+        // the memory suffices for a single file only, so the files are read one after another
+        List<FileIngestionResult> results = MultiFileIngester.newInstance()
+                .withWorkerCount(4).withMemoryLimit(300).withBufferSize(32).withRecordMemory(200).build()
+                .ingest(files, (file, record) -> sequence.add(file));
+
+        assertThat(results).noneMatch(FileIngestionResult::hasFailure);
+        assertThat(sequence).hasSize(1600);
+        for (int i = 0; i < sequence.size(); i += 200) {
+            assertThat(sequence.subList(i, i + 200)).containsOnly(sequence.get(i));
+        }
+    }
+
+    private Path writeRecordFile(String name, int recordCount) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < recordCount; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        return Files.write(this.tempDir.resolve(name), content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
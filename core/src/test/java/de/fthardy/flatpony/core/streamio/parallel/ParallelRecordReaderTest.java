@@ -0,0 +1,227 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.FlatDataField;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemEntity;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelRecordReaderTest {
+
+    private final CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+            .addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build();
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(NullPointerException.class, () -> ParallelRecordReader.newInstance(null));
+        assertThrows(NullPointerException.class, () -> ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(null));
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(0));
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withRecordsPerTask(0));
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withReorderCapacity(0));
+        assertThrows(NullPointerException.class, () -> ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withThreadFactory(null));
+    }
+
+    @Test
+    void Create_with_defaults() {
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(3).build();
+
+        assertThat(reader.getRecordDescriptor()).isSameAs(recordDescriptor);
+        assertThat(reader.getSplitter()).isInstanceOf(FixedLengthRecordSplitter.class);
+        assertThat(reader.getWorkerCount()).isEqualTo(3);
+        assertThat(reader.getRecordsPerTask()).isEqualTo(ParallelRecordReader.DEFAULT_RECORDS_PER_TASK);
+        assertThat(reader.getReorderCapacity()).isEqualTo(3 * ParallelRecordReader.DEFAULT_TASKS_PER_WORKER);
+    }
+
+    @Test
+    void Read_fixed_length_records_in_order() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc", i));
+        }
+        Set<String> parserThreads = ConcurrentHashMap.newKeySet();
+        Set<String> consumerThreads = ConcurrentHashMap.newKeySet();
+        List<String> ids = new ArrayList<>();
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7))
+                .withWorkerCount(4)
+                .withRecordsPerTask(7)
+                .withReorderCapacity(3)
+                .withThreadFactory(runnable -> new Thread(runnable, "worker"))
+                .build();
+
+        long recordCount = reader.<FlatDataItemEntity<?>>readFrom(new StringReader(content.toString()),
+                (descriptor, record, context) -> {
+                    parserThreads.add(Thread.currentThread().getName());
+                    return descriptor.readItemEntityFrom(record, context);
+                },
+                entity -> {
+                    consumerThreads.add(Thread.currentThread().getName());
+                    ids.add(((FlatDataField<?>) ((CompositeItemEntity) entity)
+                            .getComponentItemEntityByName("Id")).getValue());
+                });
+
+        assertThat(recordCount).isEqualTo(1000);
+        assertThat(ids).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(ids.get(i)).isEqualTo(String.format("%04d", i));
+        }
+        assertThat(parserThreads).containsExactly("worker");
+        assertThat(consumerThreads).containsExactly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void Push_read_line_terminated_records() {
+        DelimitedItemDescriptor lineDescriptor = DelimitedItemDescriptor.newInstance(recordDescriptor)
+                .withDelimiter('\n').build();
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(lineDescriptor)
+                .withSplitter(new LineTerminatedRecordSplitter()).withWorkerCount(2).withRecordsPerTask(2).build();
+
+        List<List<String>> records = new ArrayList<>();
+        long recordCount = reader.readFrom(new StringReader("0001abc\n0002def\n0003ghi"),
+                (descriptor, record, context) -> {
+                    List<String> values = new ArrayList<>();
+                    descriptor.pushReadFrom(record, new StreamReadHandler() {
+                        @Override
+                        public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, String value) {
+                            values.add(value);
+                        }
+
+                        @Override
+                        public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+                        }
+
+                        @Override
+                        public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+                        }
+                    }, context);
+                    return values;
+                }, records::add);
+
+        assertThat(recordCount).isEqualTo(3);
+        assertThat(records).containsExactly(
+                listOf("0001", "abc"), listOf("0002", "def"), listOf("0003", "ghi"));
+
+        List<FlatDataItemEntity<?>> entities = new ArrayList<>();
+        assertThat(reader.readFrom(new StringReader("0004jkl\n"), entities::add)).isEqualTo(1);
+        assertThat(entities).hasSize(1);
+        assertThat(entities.get(0)).isInstanceOf(DelimitedItemEntity.class);
+    }
+
+    @Test
+    void Read_empty_source() {
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(2).build();
+
+        assertThat(reader.readFrom(new StringReader(""), entity -> fail("Unexpected record!"))).isZero();
+    }
+
+    @Test
+    void Parse_failure_is_rethrown() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc", i));
+        }
+        content.append("0001a");
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(2).withRecordsPerTask(3)
+                .withReorderCapacity(2).build();
+
+        assertThrows(FlatDataReadException.class, () -> reader.readFrom(
+                new StringReader(content.toString()), entity -> {}));
+    }
+
+    @Test
+    void Consumer_failure_is_rethrown() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc", i));
+        }
+        IllegalStateException failure = new IllegalStateException("Failed!");
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(2).withRecordsPerTask(3)
+                .withReorderCapacity(2).build();
+
+        assertThat(assertThrows(IllegalStateException.class, () -> reader.readFrom(
+                new StringReader(content.toString()), entity -> {
+                    throw failure;
+                }))).isSameAs(failure);
+    }
+
+    @Test
+    void Source_failure_is_rethrown() {
+        ParallelRecordReader reader = ParallelRecordReader.newInstance(recordDescriptor)
+                .withSplitter(new FixedLengthRecordSplitter(7)).withWorkerCount(2).build();
+        Reader source = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Failed!");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () -> reader.readFrom(
+                source, entity -> {}));
+        assertThat(exception.getMessage()).isEqualTo(ParallelRecordReader.MSG_Read_failed("Record"));
+        assertThat(exception.getCause()).isInstanceOf(IOException.class);
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataItemDescriptor;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataWriteException;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelRecordWriterTest {
+
+    private final CompositeItemDescriptor recordDescriptor = CompositeItemDescriptor.newInstance("Record")
+            .addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build();
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordWriter.newInstance().withWorkerCount(0));
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordWriter.newInstance().withRecordsPerTask(0));
+        assertThrows(IllegalArgumentException.class, () -> ParallelRecordWriter.newInstance().withBufferCount(0));
+        assertThrows(NullPointerException.class, () -> ParallelRecordWriter.newInstance().withThreadFactory(null));
+    }
+
+    @Test
+    void Create_with_defaults() {
+        ParallelRecordWriter writer = ParallelRecordWriter.newInstance().withWorkerCount(3).build();
+
+        assertThat(writer.getWorkerCount()).isEqualTo(3);
+        assertThat(writer.getRecordsPerTask()).isEqualTo(ParallelRecordWriter.DEFAULT_RECORDS_PER_TASK);
+        assertThat(writer.getBufferCount()).isEqualTo(3 * ParallelRecordWriter.DEFAULT_BUFFERS_PER_WORKER);
+    }
+
+    @Test
+    void Write_fixed_length_records_in_order() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc", i));
+        }
+        List<FlatDataItemEntity<?>> records = readRecords(recordDescriptor, content.toString(), 1000);
+        ParallelRecordWriter writer = ParallelRecordWriter.newInstance().withWorkerCount(4).withRecordsPerTask(7)
+                .withBufferCount(3).withThreadFactory(runnable -> new Thread(runnable, "worker")).build();
+        StringWriter target = new StringWriter();
+
+        assertThat(writer.writeTo(records, target)).isEqualTo(1000);
+        assertThat(target.toString()).isEqualTo(content.toString());
+
+        // the instance can be reused for another write
+        StringWriter otherTarget = new StringWriter();
+        assertThat(writer.writeTo(records.subList(0, 2), otherTarget)).isEqualTo(2);
+        assertThat(otherTarget.toString()).isEqualTo("0000abc0001abc");
+    }
+
+    @Test
+    void Write_delimited_records() {
+        DelimitedItemDescriptor lineDescriptor = DelimitedItemDescriptor.newInstance(recordDescriptor)
+                .withDelimiter('\n').build();
+        String content = "0001abc\n0002def\n0003ghi\n";
+        ParallelRecordWriter writer = ParallelRecordWriter.newInstance().withWorkerCount(2).withRecordsPerTask(2)
+                .build();
+        StringWriter target = new StringWriter();
+
+        assertThat(writer.writeTo(readRecords(lineDescriptor, content, 3), target)).isEqualTo(3);
+        assertThat(target.toString()).isEqualTo(content);
+    }
+
+    @Test
+    void Write_no_records() {
+        StringWriter target = new StringWriter();
+
+        assertThat(ParallelRecordWriter.newInstance().withWorkerCount(2).build().writeTo(
+                Collections.emptyList(), target)).isZero();
+        assertThat(target.toString()).isEmpty();
+    }
+
+    @Test
+    void Target_failure_is_rethrown() {
+        List<FlatDataItemEntity<?>> records = readRecords(recordDescriptor, "0001abc0002def", 2);
+        Writer target = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("Failed!");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ParallelRecordWriter writer = ParallelRecordWriter.newInstance().withWorkerCount(2).build();
+
+        FlatDataWriteException exception = assertThrows(FlatDataWriteException.class, () ->
+                writer.writeTo(records, target));
+        assertThat(exception.getMessage()).isEqualTo(ParallelRecordWriter.MSG_Write_failed());
+        assertThat(exception.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void Record_failure_is_rethrown() {
+        List<FlatDataItemEntity<?>> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(recordDescriptor.createItemEntity());
+        }
+        records.add(null);
+        ParallelRecordWriter writer = ParallelRecordWriter.newInstance().withWorkerCount(2).withRecordsPerTask(3)
+                .withBufferCount(2).build();
+
+        assertThrows(NullPointerException.class, () -> writer.writeTo(records, new StringWriter()));
+    }
+
+    private static List<FlatDataItemEntity<?>> readRecords(
+            FlatDataItemDescriptor<?> descriptor, String content, int recordCount) {
+        Reader source = new StringReader(content);
+        List<FlatDataItemEntity<?>> records = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            records.add(descriptor.readItemEntityFrom(source));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,349 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataContext;
+import de.fthardy.flatpony.core.FlatDataItemEntity;
+import de.fthardy.flatpony.core.FlatDataReadException;
+import de.fthardy.flatpony.core.field.delimited.DelimitedFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.delimited.DelimitedItemDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static de.fthardy.flatpony.core.FlatDataItemEntities.contentOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PartitionedFileReaderTest {
+
+    private final DelimitedItemDescriptor recordDescriptor = DelimitedItemDescriptor.newInstance(
+            CompositeItemDescriptor.newInstance("Record").addComponentItemDescriptors(
+                    FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build(),
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(3).build()).build())
+            .withDelimiter('\n').build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(NullPointerException.class, () -> PartitionedFileReader.newInstance(null));
+        assertThrows(NullPointerException.class, () -> PartitionedFileReader.newInstance(recordDescriptor)
+                .withCharset(null));
+        assertThrows(IllegalArgumentException.class, () -> PartitionedFileReader.newInstance(recordDescriptor)
+                .withPartitionCount(0));
+        assertThrows(IllegalArgumentException.class, () -> PartitionedFileReader.newInstance(recordDescriptor)
+                .withPartitionSize(0));
+        assertThrows(IllegalArgumentException.class, () -> PartitionedFileReader.newInstance(recordDescriptor)
+                .withMaxPendingPartitions(0));
+        assertThrows(NullPointerException.class, () -> PartitionedFileReader.newInstance(recordDescriptor)
+                .withPool(null));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                PartitionedFileReader.newInstance(recordDescriptor).withCharset(StandardCharsets.UTF_16).build());
+        assertThat(exception.getMessage()).isEqualTo(
+                PartitionedFileReader.MSG_Unsupported_charset(StandardCharsets.UTF_16, '\n'));
+    }
+
+    @Test
+    void Create_with_defaults() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor).withPool(pool).build();
+
+            assertThat(reader.getRecordDescriptor()).isSameAs(recordDescriptor);
+            assertThat(reader.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+            assertThat(reader.getTerminator()).isEqualTo('\n');
+            assertThat(reader.hasPartitionCount()).isFalse();
+            assertThrows(IllegalStateException.class, reader::getPartitionCount);
+            assertThat(reader.getPartitionSize()).isEqualTo(PartitionedFileReader.DEFAULT_PARTITION_SIZE);
+            assertThat(reader.getMaxPendingPartitions()).isEqualTo(6);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void Read_partitions_in_file_order() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04d\u00e4\u20acc\n", i));
+        }
+        Path file = write(content.toString());
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor)
+                .withPartitionCount(7).build();
+
+        List<List<String>> partitions = reader.readPartitions(file, (descriptor, record, context) ->
+                contentOf(descriptor.readItemEntityFrom(record, context)));
+
+        assertThat(partitions).hasSize(7);
+        List<String> records = new ArrayList<>();
+        partitions.forEach(partition -> {
+            assertThat(partition).isNotEmpty();
+            records.addAll(partition);
+        });
+        assertThat(records).hasSize(1000);
+
+        List<FlatDataItemEntity<?>> entities = new ArrayList<>();
+        assertThat(reader.readFrom(file, entities::add)).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(contentOf(entities.get(i))).isEqualTo(records.get(i));
+            assertThat(readId(entities.get(i))).isEqualTo(String.format("%04d", i));
+        }
+    }
+
+    @Test
+    void Split_file_by_partition_size() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        Path file = write(content.toString());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor)
+                    .withPartitionSize(800).withPool(pool).build();
+
+            List<List<String>> partitions = reader.readPartitions(file, (descriptor, record, context) ->
+                    readId(descriptor.readItemEntityFrom(record, context)));
+
+            // 8000 bytes in partitions of at most 800 bytes plus the rest of the record at the end
+            assertThat(partitions).hasSize(10);
+            partitions.forEach(partition -> assertThat(partition.size()).isBetween(99, 101));
+
+            partitions = PartitionedFileReader.newInstance(recordDescriptor).withPartitionSize(1_000_000)
+                    .withPool(pool).build().readPartitions(file, (descriptor, record, context) ->
+                            readId(descriptor.readItemEntityFrom(record, context)));
+            assertThat(partitions).hasSize(2);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void Parse_only_the_maximum_number_of_partitions_ahead_of_the_delivery() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        Path file = write(content.toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor)
+                    .withPartitionCount(50).withMaxPendingPartitions(3).withPool(pool).build();
+            Set<FlatDataContext> startedPartitions = ConcurrentHashMap.newKeySet();
+            Set<FlatDataContext> deliveredPartitions = new HashSet<>();
+
+            long recordCount = reader.readFrom(file, (descriptor, record, context) -> {
+                startedPartitions.add(context);
+                descriptor.readItemEntityFrom(record, context);
+                return context;
+            }, context -> {
+                deliveredPartitions.add(context);
+                // the delivered partition and at most two further partitions have been started
+                assertThat(startedPartitions.size()).isLessThanOrEqualTo(deliveredPartitions.size() + 2);
+            });
+
+            assertThat(recordCount).isEqualTo(1000);
+            assertThat(deliveredPartitions).hasSize(50);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void Read_file_with_fewer_records_than_partitions() throws IOException {
+        Path file = write("0001abc\n0002def");
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor)
+                .withPartitionCount(12).build();
+
+        List<List<String>> partitions = reader.readPartitions(file, (descriptor, record, context) ->
+                readId(descriptor.readItemEntityFrom(record, context)));
+
+        assertThat(partitions).containsExactly(listOf("0001"), listOf("0002"));
+        assertThat(reader.readPartitions(write(""), (descriptor, record, context) -> "")).isEmpty();
+    }
+
+    @Test
+    void Read_records_with_other_terminator() throws IOException {
+        DelimitedItemDescriptor descriptor = DelimitedItemDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build()).withDelimiter(';').build();
+        Path file = write("0001;0002;0003;0004;0005");
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(descriptor)
+                .withCharset(StandardCharsets.ISO_8859_1).withTerminator(';').withPartitionCount(3).build();
+
+        List<String> ids = new ArrayList<>();
+        assertThat(reader.readFrom(file, (d, record, context) -> contentOf(d.readItemEntityFrom(record, context)),
+                ids::add)).isEqualTo(5);
+        assertThat(ids).containsExactly("0001;", "0002;", "0003;", "0004;", "0005;");
+    }
+
+    @Test
+    void Cannot_create_with_quote_equal_to_terminator() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                PartitionedFileReader.newInstance(recordDescriptor).withTerminator(';').withQuote(';', ','));
+        assertThat(exception.getMessage()).isEqualTo(PartitionedFileReader.MSG_Quote_equals_terminator(';'));
+        exception = assertThrows(IllegalArgumentException.class, () ->
+                PartitionedFileReader.newInstance(recordDescriptor).withQuote(',', ','));
+        assertThat(exception.getMessage()).isEqualTo(PartitionedFileReader.MSG_Quote_equals_delimiter(','));
+
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor).build();
+        assertThat(reader.hasQuote()).isFalse();
+        assertThrows(IllegalStateException.class, reader::getQuote);
+        assertThrows(IllegalStateException.class, reader::getDelimiter);
+    }
+
+    @Test
+    void Read_quoted_records_with_embedded_terminators_like_a_sequential_read() throws IOException {
+        CompositeItemDescriptor csvDescriptor = CompositeItemDescriptor.newInstance("Csv").addComponentItemDescriptors(
+                DelimitedFieldDescriptor.newInstance("Id").withDelimiter(',').withQuote('"').build(),
+                DelimitedFieldDescriptor.newInstance("Text").withDelimiter('\n').withQuote('"').build()).build();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append(i).append(',');
+            if (i % 3 == 0) {
+                content.append("\"line\n\"\"quoted\"\",\n");
+                for (int j = 0; j < i % 7; j++) {
+                    content.append("more\n");
+                }
+                content.append("\"\n");
+            } else {
+                content.append("plain").append(i).append('\n');
+            }
+        }
+        Path file = write(content.toString());
+
+        List<String> expected = new ArrayList<>();
+        Reader source = new StringReader(content.toString());
+        for (int i = 0; i < 500; i++) {
+            expected.add(contentOf(csvDescriptor.readItemEntityFrom(source)));
+        }
+
+        for (int partitionCount : new int[] {1, 2, 7, 64}) {
+            PartitionedFileReader reader = PartitionedFileReader.newInstance(csvDescriptor).withQuote('"', ',')
+                    .withPartitionCount(partitionCount).build();
+            List<List<String>> partitions = reader.readPartitions(file, (descriptor, record, context) ->
+                    contentOf(descriptor.readItemEntityFrom(record, context)));
+            List<String> records = new ArrayList<>();
+            partitions.forEach(records::addAll);
+
+            assertThat(partitions.size()).isBetween(Math.min(partitionCount, 2), partitionCount);
+            assertThat(records).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void Quote_within_a_field_is_a_plain_character_like_in_a_sequential_read() throws IOException {
+        CompositeItemDescriptor csvDescriptor = CompositeItemDescriptor.newInstance("Csv").addComponentItemDescriptors(
+                DelimitedFieldDescriptor.newInstance("Id").withDelimiter(',').withQuote('"').build(),
+                DelimitedFieldDescriptor.newInstance("Text").withDelimiter('\n').withQuote('"').build()).build();
+        for (boolean multiLine : new boolean[] {false, true}) {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                content.append(i).append(',');
+                if (i == 5) {
+                    content.append("5\" pipe\n");
+                } else if (multiLine && i > 100 && i % 10 == 0) {
+                    content.append("\"multi\nline\"\n");
+                } else {
+                    content.append("plain").append(i).append('\n');
+                }
+            }
+            Path file = write(content.toString());
+
+            List<String> expected = new ArrayList<>();
+            Reader source = new StringReader(content.toString());
+            for (int i = 0; i < 200; i++) {
+                expected.add(contentOf(csvDescriptor.readItemEntityFrom(source)));
+            }
+
+            PartitionedFileReader reader = PartitionedFileReader.newInstance(csvDescriptor).withQuote('"', ',')
+                    .withPartitionCount(4).build();
+            List<List<String>> partitions = reader.readPartitions(file, (descriptor, record, context) ->
+                    contentOf(descriptor.readItemEntityFrom(record, context)));
+            List<String> records = new ArrayList<>();
+            partitions.forEach(records::addAll);
+
+            assertThat(partitions).hasSize(4);
+            assertThat(records).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void Parse_failure_is_rethrown() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append(String.format("%04dabc\n", i));
+        }
+        Path file = write(content.toString());
+        IllegalStateException failure = new IllegalStateException("Failed!");
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor)
+                .withPartitionCount(4).build();
+
+        assertThat(assertThrows(IllegalStateException.class, () -> reader.readPartitions(file,
+                (descriptor, record, context) -> {
+                    throw failure;
+                }))).isSameAs(failure);
+    }
+
+    @Test
+    void Missing_file_cannot_be_read() {
+        PartitionedFileReader reader = PartitionedFileReader.newInstance(recordDescriptor).build();
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () ->
+                reader.readFrom(tempDir.resolve("missing.txt"), entity -> {}));
+        assertThat(exception.getMessage()).isEqualTo(PartitionedFileReader.MSG_Read_failed("Record"));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "records", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readId(FlatDataItemEntity<?> entity) {
+        return contentOf(entity).substring(0, 4);
+    }
+
+    private static List<String> listOf(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+MIT License
+
+Copyright (c) 2019 Frank Hardy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package de.fthardy.flatpony.core.streamio.parallel;
+
+import de.fthardy.flatpony.core.FlatDataReadException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordSplitterTest {
+
+    @Test
+    void Cannot_create_with_invalid_arguments() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedLengthRecordSplitter(0));
+        assertThrows(IllegalArgumentException.class, () -> new DiscriminatedRecordSplitter(0, lengths()));
+        assertThrows(NullPointerException.class, () -> new DiscriminatedRecordSplitter(1, null));
+        assertThrows(IllegalArgumentException.class, () -> new DiscriminatedRecordSplitter(1, new HashMap<>()));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                new DiscriminatedRecordSplitter(2, lengths()));
+        assertThat(exception.getMessage()).isEqualTo(
+                DiscriminatedRecordSplitter.MSG_Record_shorter_than_discriminator("B", 1));
+    }
+
+    @Test
+    void Split_fixed_length_records() throws IOException {
+        FixedLengthRecordSplitter splitter = new FixedLengthRecordSplitter(3);
+
+        assertThat(splitter.getRecordLength()).isEqualTo(3);
+        assertThat(split(splitter, "abcdefgh")).containsExactly("abc", "def", "gh");
+        assertThat(split(splitter, "")).isEmpty();
+    }
+
+    @Test
+    void Split_line_terminated_records() throws IOException {
+        assertThat(new LineTerminatedRecordSplitter().getTerminator()).isEqualTo('\n');
+        assertThat(split(new LineTerminatedRecordSplitter(), "abc\n\ndef\ngh"))
+                .containsExactly("abc\n", "\n", "def\n", "gh");
+        assertThat(split(new LineTerminatedRecordSplitter(';'), "abc;def;")).containsExactly("abc;", "def;");
+    }
+
+    @Test
+    void Split_discriminated_records() throws IOException {
+        DiscriminatedRecordSplitter splitter = new DiscriminatedRecordSplitter(1, lengths());
+
+        assertThat(split(splitter, "AabcBAxyzA")).containsExactly("Aabc", "B", "Axyz", "A");
+
+        FlatDataReadException exception = assertThrows(FlatDataReadException.class, () -> split(splitter, "Aabc?"));
+        assertThat(exception.getMessage()).isEqualTo(DiscriminatedRecordSplitter.MSG_Unknown_discriminator("?"));
+    }
+
+    private static Map<String, Integer> lengths() {
+        Map<String, Integer> lengths = new HashMap<>();
+        lengths.put("A", 4);
+        lengths.put("B", 1);
+        return lengths;
+    }
+
+    private static List<String> split(RecordSplitter splitter, String content) throws IOException {
+        Reader source = new StringReader(content);
+        List<String> records = new ArrayList<>();
+        StringBuilder record = new StringBuilder();
+        while (splitter.nextRecord(source, record)) {
+            records.add(record.toString());
+            record.setLength(0);
+        }
+        return records;
+    }
+}
@@ -28,6 +28,8 @@ import de.fthardy.flatpony.core.FlatDataItemDescriptorHandler;
 import de.fthardy.flatpony.core.FlatDataItemEntityHandler;
 import de.fthardy.flatpony.core.field.FlatDataField;
 import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
 import de.fthardy.flatpony.core.streamio.StructureItemPullReadIteratorBase;
@@ -38,6 +40,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.util.NoSuchElementException;
 
@@ -351,6 +354,60 @@ class CompositeItemTest {
         verifyZeroInteractions(streamReadHandlerMock);
     }
 
+    @Test
+    void Pull_read_built_in_items_with_a_single_cursor_and_unknown_items_with_their_own_iterator() {
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+
+        FlatDataStructureDescriptor<?> structureDescriptorMock = mock(FlatDataStructureDescriptor.class);
+        when(structureDescriptorMock.getName()).thenReturn("Structure");
+        PullReadIterator structureIteratorMock = mock(PullReadIterator.class);
+        when(structureIteratorMock.hasNextEvent()).thenReturn(true, false);
+        doAnswer(i -> {
+            i.<StreamReadHandler>getArgument(0).onStructureItemStart(structureDescriptorMock);
+            return null;
+        }).doAnswer(i -> {
+            i.<StreamReadHandler>getArgument(0).onStructureItemEnd(structureDescriptorMock);
+            return null;
+        }).when(structureIteratorMock).nextEvent(streamReadHandlerMock);
+        when(structureDescriptorMock.pullReadFrom(any(Reader.class))).thenReturn(structureIteratorMock);
+
+        FixedSizeFieldDescriptor idDescriptor = FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build();
+        ConstantFieldDescriptor codeDescriptor =
+                ConstantFieldDescriptor.newInstance("Code").withConstant("abc").build();
+        CompositeItemDescriptor innerDescriptor = CompositeItemDescriptor.newInstance("Inner")
+                .addComponentItemDescriptors(codeDescriptor)
+                .build();
+        CompositeItemDescriptor descriptor = CompositeItemDescriptor.newInstance("Record")
+                .addComponentItemDescriptors(idDescriptor, innerDescriptor, structureDescriptorMock)
+                .build();
+
+        PullReadIterator pullReadIterator = descriptor.pullReadFrom(new StringReader("0042abc"));
+        while (pullReadIterator.hasNextEvent()) {
+            pullReadIterator.nextEvent(streamReadHandlerMock);
+        }
+
+        InOrder inOrder = inOrder(streamReadHandlerMock, structureDescriptorMock, structureIteratorMock);
+
+        inOrder.verify(streamReadHandlerMock).onStructureItemStart(descriptor);
+        inOrder.verify(streamReadHandlerMock).onFieldItem(idDescriptor, "0042");
+        inOrder.verify(streamReadHandlerMock).onStructureItemStart(innerDescriptor);
+        inOrder.verify(streamReadHandlerMock).onFieldItem(codeDescriptor, "abc");
+        inOrder.verify(streamReadHandlerMock).onStructureItemEnd(innerDescriptor);
+
+        // the iterator of the unknown item reports its events to the handler itself
+        inOrder.verify(structureDescriptorMock).pullReadFrom(any(Reader.class));
+        inOrder.verify(structureIteratorMock).nextEvent(streamReadHandlerMock);
+        inOrder.verify(streamReadHandlerMock).onStructureItemStart(structureDescriptorMock);
+        inOrder.verify(structureIteratorMock).hasNextEvent();
+        inOrder.verify(structureIteratorMock).nextEvent(streamReadHandlerMock);
+        inOrder.verify(streamReadHandlerMock).onStructureItemEnd(structureDescriptorMock);
+        inOrder.verify(structureIteratorMock).hasNextEvent();
+
+        inOrder.verify(streamReadHandlerMock).onStructureItemEnd(descriptor);
+
+        verifyNoMoreInteractions(streamReadHandlerMock, structureIteratorMock);
+    }
+
     @Test
     void Write_entity_to_target_stream() {
         Reader readerMock = mock(Reader.class);
@@ -288,6 +288,8 @@ class DelimitedItemTest {
         inOrder.verify(targetItemIteratorMock).hasNextEvent();
         inOrder.verify(targetItemIteratorMock).nextEvent(streamReadHandlerMock);
         inOrder.verify(targetItemIteratorMock).hasNextEvent();
+        // the delimiter is consumed just like by a push read
+        inOrder.verify(readerMock).read();
         inOrder.verify(streamReadHandlerMock).onStructureItemEnd(descriptor);
         inOrder.verify(itemDescriptorMock).getName();
 
@@ -34,6 +34,7 @@ import org.mockito.InOrder;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.util.NoSuchElementException;
 
@@ -977,6 +978,39 @@ public class OptionalItemTest {
                 streamReadHandlerMock);
     }
 
+    @Test
+    void Pull_read_with_flag_field_reference__Flag_is_true__Built_in_field() {
+        ConstantFieldDescriptor fieldDescriptor =
+                ConstantFieldDescriptor.newInstance("Code").withConstant("abc").build();
+
+        FieldReference<Boolean> fieldReferenceMock = mock(FieldReference.class);
+        when(fieldReferenceMock.getFieldValue()).thenReturn(true);
+
+        StreamReadHandler streamReadHandlerMock = mock(StreamReadHandler.class);
+
+        OptionalItemDescriptor optionalItemDescriptor = OptionalItemDescriptor.newInstance(fieldDescriptor)
+                .withFlagFieldReference(fieldReferenceMock).build();
+
+        PullReadIterator pullReadIterator = optionalItemDescriptor.pullReadFrom(new StringReader("abc"));
+
+        assertTrue(pullReadIterator.hasNextEvent());
+        pullReadIterator.nextEvent(streamReadHandlerMock);
+        assertTrue(pullReadIterator.hasNextEvent());
+        pullReadIterator.nextEvent(streamReadHandlerMock);
+        assertTrue(pullReadIterator.hasNextEvent());
+        pullReadIterator.nextEvent(streamReadHandlerMock);
+        assertFalse(pullReadIterator.hasNextEvent());
+
+        InOrder inOrder = inOrder(fieldReferenceMock, streamReadHandlerMock);
+
+        inOrder.verify(fieldReferenceMock).getFieldValue();
+        inOrder.verify(streamReadHandlerMock).onStructureItemStart(optionalItemDescriptor);
+        inOrder.verify(streamReadHandlerMock).onFieldItem(fieldDescriptor, "abc");
+        inOrder.verify(streamReadHandlerMock).onStructureItemEnd(optionalItemDescriptor);
+
+        verifyNoMoreInteractions(fieldReferenceMock, streamReadHandlerMock);
+    }
+
     @Test
     void Write_entity_without_target_item() {
         Writer writerMock = mock(Writer.class);
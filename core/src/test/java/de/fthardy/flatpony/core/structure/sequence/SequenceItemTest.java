@@ -24,18 +24,34 @@ SOFTWARE.
 package de.fthardy.flatpony.core.structure.sequence;
 
 import de.fthardy.flatpony.core.*;
+import de.fthardy.flatpony.core.field.FlatDataFieldDescriptor;
+import de.fthardy.flatpony.core.field.constant.ConstantFieldDescriptor;
+import de.fthardy.flatpony.core.field.fixedsize.FixedSizeFieldDescriptor;
+import de.fthardy.flatpony.core.field.observable.ObservableFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.TypedFieldDescriptor;
+import de.fthardy.flatpony.core.field.typed.converter.IntegerFieldValueConverter;
+import de.fthardy.flatpony.core.streamio.CharSequenceStreamReadHandler;
 import de.fthardy.flatpony.core.streamio.PullReadIterator;
 import de.fthardy.flatpony.core.streamio.PushReadItemEntityTreeWalker;
 import de.fthardy.flatpony.core.streamio.StreamReadHandler;
+import de.fthardy.flatpony.core.streamio.TypedStreamReadHandler;
 import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptorHandler;
+import de.fthardy.flatpony.core.structure.FlatDataStructureDescriptor;
 import de.fthardy.flatpony.core.structure.FlatDataStructureHandler;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemDescriptor;
+import de.fthardy.flatpony.core.structure.composite.CompositeItemEntity;
 import de.fthardy.flatpony.core.util.FieldReference;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import static de.fthardy.flatpony.core.FlatDataItemEntities.contentOf;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -874,4 +890,166 @@ public class SequenceItemTest {
         
         verifyZeroInteractions(itemEntityMock);
     }
+
+    @Test
+    void Cannot_enable_parallel_read_with_a_min_element_count_below_2() {
+        FlatDataItemDescriptor<?> itemDescriptorMock = mock(FlatDataItemDescriptor.class);
+        assertThrows(IllegalArgumentException.class, () -> SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(itemDescriptorMock).withParallelRead(ForkJoinPool.commonPool(), 1));
+        assertThrows(NullPointerException.class, () -> SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(itemDescriptorMock).withParallelRead(null, 2));
+    }
+
+    @Test
+    void Parallel_read_of_fixed_length_elements_equals_sequential_read() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            String content = createSequenceContent(9_999);
+
+            CompositeItemEntity sequentialEntity = createFileDescriptor(null).readItemEntityFrom(
+                    new StringReader(content), new FlatDataContext());
+            CompositeItemEntity parallelEntity = createFileDescriptor(pool).readItemEntityFrom(
+                    new StringReader(content), new FlatDataContext());
+
+            assertThat(contentOf(parallelEntity)).isEqualTo(content).isEqualTo(contentOf(sequentialEntity));
+            SequenceItemEntity sequenceEntity = (SequenceItemEntity) parallelEntity.getComponentItemEntities().get(1);
+            assertThat(sequenceEntity.getElementItemEntities()).hasSize(9_999);
+
+            List<String> sequentialEvents = new ArrayList<>();
+            createFileDescriptor(null).pushReadFrom(
+                    new StringReader(content), new RecordingHandler(sequentialEvents), new FlatDataContext());
+            List<String> parallelEvents = new ArrayList<>();
+            createFileDescriptor(pool).pushReadFrom(
+                    new StringReader(content), new RecordingHandler(parallelEvents), new FlatDataContext());
+            assertThat(parallelEvents).hasSize(59_999).isEqualTo(sequentialEvents).containsSubsequence(
+                    "<CompositeItemDescriptor(Element)",
+                    "TypedFieldDescriptor(Id):int=42",
+                    "TypedFieldDescriptor(Id):typed=42",
+                    "FixedSizeFieldDescriptor(Id)=0042",
+                    "ConstantFieldDescriptor(Code)=abc",
+                    "CompositeItemDescriptor(Element)>");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void Parallel_read_fails_with_the_first_invalid_element() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StringBuilder content = new StringBuilder(createSequenceContent(1000));
+            content.replace(8 + 7 * 900, 8 + 7 * 900 + 3, "XXX");
+            content.replace(8 + 7 * 100, 8 + 7 * 100 + 3, "YYY");
+            CompositeItemDescriptor fileDescriptor = createFileDescriptor(pool);
+
+            FlatDataReadException exception = assertThrows(FlatDataReadException.class, () ->
+                    fileDescriptor.readItemEntityFrom(new StringReader(content.toString()), new FlatDataContext()));
+            assertThat(exception.getMessage()).contains("YYY");
+
+            // an incomplete last block fails just like a sequential read
+            assertThrows(FlatDataReadException.class, () -> fileDescriptor.readItemEntityFrom(
+                    new StringReader(createSequenceContent(1000).substring(0, 2000)), new FlatDataContext()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void Parallel_read_leaves_the_field_values_of_the_last_element_like_a_sequential_read() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ObservableFieldDescriptor countDescriptor = ObservableFieldDescriptor.newInstance(
+                    FixedSizeFieldDescriptor.newInstance("Count").withFieldSize(4).build()).build();
+            ObservableFieldDescriptor nameDescriptor = ObservableFieldDescriptor.newInstance(
+                    FixedSizeFieldDescriptor.newInstance("Name").withFieldSize(2).build()).build();
+            SequenceItemDescriptor sequenceDescriptor = SequenceItemDescriptor.newInstance("Sequence")
+                    .withElementItemDescriptor(nameDescriptor)
+                    .withCountFieldReference(FieldReference.<Integer>newInstance(countDescriptor)
+                            .usingValueConverter(new IntegerFieldValueConverter()).build())
+                    .withMultiplicity(0, 9_999).withParallelRead(pool, 2).build();
+            CompositeItemDescriptor fileDescriptor = CompositeItemDescriptor.newInstance("File")
+                    .addComponentItemDescriptors(countDescriptor, sequenceDescriptor).build();
+            FieldReference<Integer> nameReference = FieldReference.<Integer>newInstance(nameDescriptor)
+                    .usingValueConverter(new IntegerFieldValueConverter()).build();
+
+            FlatDataContext pushReadContext = new FlatDataContext();
+            fileDescriptor.pushReadFrom(new StringReader("0003112233"), mock(StreamReadHandler.class), pushReadContext);
+            assertThat(nameReference.getFieldValue(pushReadContext)).isEqualTo(33);
+
+            FlatDataContext readContext = new FlatDataContext();
+            CompositeItemEntity readItem = (CompositeItemEntity) fileDescriptor.readItemEntityFrom(
+                    new StringReader("0003112233"), readContext);
+            assertThat(((SequenceItemEntity) readItem.getComponentItemEntities().get(1)).getElementItemEntities())
+                    .hasSize(3);
+            assertThat(nameReference.getReferencedField(readContext).getValue()).isEqualTo(33);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static CompositeItemDescriptor createFileDescriptor(ForkJoinPool pool) {
+        ObservableFieldDescriptor countDescriptor = ObservableFieldDescriptor.newInstance(
+                FixedSizeFieldDescriptor.newInstance("Count").withFieldSize(4).build()).build();
+        FieldReference<Integer> countReference = FieldReference.<Integer>newInstance(countDescriptor)
+                .usingValueConverter(new IntegerFieldValueConverter()).build();
+        CompositeItemDescriptor elementDescriptor = CompositeItemDescriptor.newInstance("Element")
+                .addComponentItemDescriptors(
+                        TypedFieldDescriptor.<Integer>newInstance(
+                                FixedSizeFieldDescriptor.newInstance("Id").withFieldSize(4).build())
+                                .withFieldValueConverter(new IntegerFieldValueConverter()).build(),
+                        ConstantFieldDescriptor.newInstance("Code").withConstant("abc").build()).build();
+        SequenceItemDescriptor.DefineParallelRead sequenceBuilder = SequenceItemDescriptor.newInstance("Sequence")
+                .withElementItemDescriptor(elementDescriptor).withCountFieldReference(countReference)
+                .withMultiplicity(0, 9_999);
+        return CompositeItemDescriptor.newInstance("File").addComponentItemDescriptors(countDescriptor,
+                pool == null ? sequenceBuilder.build() : sequenceBuilder.withParallelRead(pool, 2).build()).build();
+    }
+
+    private static String createSequenceContent(int count) {
+        StringBuilder content = new StringBuilder(String.format("%04d", count));
+        for (int i = 0; i < count; i++) {
+            content.append(String.format("%04d", i)).append("abc");
+        }
+        return content.toString();
+    }
+
+    private static final class RecordingHandler implements TypedStreamReadHandler, CharSequenceStreamReadHandler {
+
+        private final List<String> events;
+
+        RecordingHandler(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onFieldItem(FlatDataFieldDescriptor<?> fieldDescriptor, CharSequence value) {
+            this.events.add(nameOf(fieldDescriptor) + "=" + value);
+        }
+
+        @Override
+        public void onIntFieldItem(TypedFieldDescriptor<?> fieldDescriptor, int value) {
+            this.events.add(nameOf(fieldDescriptor) + ":int=" + value);
+            TypedStreamReadHandler.super.onIntFieldItem(fieldDescriptor, value);
+        }
+
+        @Override
+        public <T> void onTypedFieldItem(TypedFieldDescriptor<T> fieldDescriptor, T value) {
+            this.events.add(nameOf(fieldDescriptor) + ":typed=" + value);
+            TypedStreamReadHandler.super.onTypedFieldItem(fieldDescriptor, value);
+        }
+
+        @Override
+        public void onStructureItemStart(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.add("<" + nameOf(itemDescriptor));
+        }
+
+        @Override
+        public void onStructureItemEnd(FlatDataStructureDescriptor<?> itemDescriptor) {
+            this.events.add(nameOf(itemDescriptor) + ">");
+        }
+
+        private static String nameOf(FlatDataItemDescriptor<?> itemDescriptor) {
+            return itemDescriptor.getClass().getSimpleName() + "(" + itemDescriptor.getName() + ")";
+        }
+    }
 }